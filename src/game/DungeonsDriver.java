@@ -4,6 +4,7 @@ import game.controller.DungeonControllerConsole;
 import game.controller.DungeonControllerGui;
 import game.controller.IConsoleDungeonController;
 import game.controller.IDungeonControllerGui;
+import game.model.ConcurrentDungeonsGame;
 import game.model.DungeonsGame;
 import game.model.DungeonsGameImpl;
 import game.model.RandomNumberGenerator;
@@ -33,9 +34,9 @@ public class DungeonsDriver {
       if (args.length == 0) {
         // no command line arguments given, so start the GUI game
         RandomNumberGenerator randomizer = new RandomNumberGeneratorImpl();
-        //create game model
-        DungeonsGame dungeonsGameReadOnly = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING,
-                4, 4, 1, 30, 3, randomizer);
+        //create game model, shared by the event thread changing it and the board painting it
+        DungeonsGame dungeonsGameReadOnly = new ConcurrentDungeonsGame(new DungeonsGameImpl(
+                DungeonsGame.WrapType.NON_WRAPPING, 4, 4, 1, 30, 3, randomizer));
         //create view
         GameView gameView = new GameViewImpl(dungeonsGameReadOnly);
         //create controller
@@ -1,6 +1,8 @@
 package game.controller;
 
 import game.model.DungeonsGame;
+import game.model.LocationInfo;
+import game.model.LocationInfoFormatter;
 import game.model.PlayerData;
 
 import java.io.IOException;
@@ -47,7 +49,9 @@ public class DungeonControllerConsole implements IConsoleDungeonController {
       model.startGameForPlayer(playerName);
       DungeonsGame.GameState gameState = model.getGameStatus();
       while (gameState == DungeonsGame.GameState.PROGRESS) {
-        DungeonsGame.SmellType smellType = model.getCurrentLocationSmell();
+        // everything the turn needs to know about the location comes from one query
+        LocationInfo locationInfo = model.getPlayerLocationInfo();
+        DungeonsGame.SmellType smellType = locationInfo.getSmell();
         //check for smell
         if (smellType == DungeonsGame.SmellType.STRONG) {
           output.append("Red Alert!!! Monsters incoming\n");
@@ -55,10 +59,7 @@ public class DungeonControllerConsole implements IConsoleDungeonController {
           output.append("Warning! Something looks fishy. Potential monsters nearby\n");
         }
         //Show current location information
-        String currentLocationInformation = model.getPlayerCurrentLocationInformation();
-        output.append(currentLocationInformation);
-        List<String> informationSegregated = new ArrayList<>();
-        Collections.addAll(informationSegregated, currentLocationInformation.split("\n"));
+        output.append(LocationInfoFormatter.format(locationInfo));
         //Get user input
         while (true) {
           boolean validCommand = true;
@@ -76,7 +77,7 @@ public class DungeonControllerConsole implements IConsoleDungeonController {
               output.append("Which direction do you want to explore?\n");
               //show input options based on neighbours
               output.append(String.format("Options - [%s]?", String.join(",",
-                      model.getAvailableMovements())));
+                      getAvailableMovements(locationInfo))));
               //get user input direction
               String movementDirectionInput = scan.next();
               List<String> validDirections = new ArrayList<>();
@@ -105,13 +106,10 @@ public class DungeonControllerConsole implements IConsoleDungeonController {
               //if pickup, ask what
               output.append("Which do you want to pick up?\n");
               List<String> options = new ArrayList<>();
-              int treasureDataStartIndex = informationSegregated.indexOf(
-                      "Available Treasure:");
-              if (!informationSegregated.get(treasureDataStartIndex + 1).equals("None")) {
+              if (!locationInfo.getTreasures().isEmpty()) {
                 options.add("Treasure");
               }
-              int arrowDataIndex = informationSegregated.indexOf("Available Arrows:0");
-              if (arrowDataIndex == -1) {
+              if (locationInfo.getArrowCount() > 0) {
                 options.add("Arrow");
               }
               if (options.size() == 0) {
@@ -235,6 +233,17 @@ public class DungeonControllerConsole implements IConsoleDungeonController {
     }
   }
 
+  private List<String> getAvailableMovements(LocationInfo locationInfo) {
+    List<String> availableMovements = new ArrayList<>();
+    for (DungeonsGame.Direction direction : DungeonsGame.Direction.values()) {
+      if (locationInfo.hasExit(direction)) {
+        availableMovements.add(direction.toString());
+      }
+    }
+    Collections.sort(availableMovements);
+    return availableMovements;
+  }
+
   private String generatePlayerInformationFromData(PlayerData playerData) {
     StringBuilder playerInformation = new StringBuilder();
     playerInformation.append(String.format("Player Name: %s\n", playerData.getPlayerName()));
@@ -53,6 +53,11 @@ public class DungeonControllerGui implements IDungeonControllerGui {
   @Override
   public void handleTreasurePickUpCurrentLocation() {
     try {
+      if (model.getPlayerLocationInfo().getTreasures().isEmpty()) {
+        view.actionResult("No treasure available for pick up. "
+                + "Please move the location of the player.");
+        return;
+      }
       // perform the treasure pick up operation
       model.pickUpTreasureCurrentLocation();
       // refresh current location
@@ -68,6 +73,11 @@ public class DungeonControllerGui implements IDungeonControllerGui {
   @Override
   public void handleArrowPickUpCurrentLocation() {
     try {
+      if (model.getPlayerLocationInfo().getArrowCount() == 0) {
+        view.actionResult("No arrows available for pick up. "
+                + "Please move the location of the player.");
+        return;
+      }
       // perform the arrow pick up operation
       model.pickUpArrowCurrentLocation();
       // refresh current location
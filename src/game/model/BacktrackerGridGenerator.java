@@ -0,0 +1,53 @@
+package game.model;
+
+/**
+ * This class is used to generate the paths of a dungeon using an iterative recursive
+ * backtracker (randomized depth first search). The walk always moves on to a random
+ * unvisited neighbour and backs up along an explicit stack of cell ids when it gets stuck,
+ * so even very large grids never overflow the call stack. It produces long winding
+ * corridors with few branches.
+ */
+final class BacktrackerGridGenerator extends SpanningTreeGenerator {
+
+  /**
+   * Constructor for the generator.
+   *
+   * @param topology   shape of the grid
+   * @param randomizer randomizer instance
+   * @throws IllegalArgumentException if any argument is null
+   */
+  BacktrackerGridGenerator(GridTopology topology, RandomNumberGenerator randomizer)
+          throws IllegalArgumentException {
+    super(topology, randomizer);
+  }
+
+  @Override
+  protected void carveSpanningTree(byte[] exits) {
+    int cellCount = topology.cellCount();
+    boolean[] visited = new boolean[cellCount];
+    int[] stack = new int[cellCount];
+    int[] openDirections = new int[DIRECTIONS.length];
+    int stackSize = 0;
+    int startId = randomizer.generateRandomValueForRange(0, cellCount);
+    visited[startId] = true;
+    stack[stackSize++] = startId;
+    while (stackSize > 0) {
+      int cellId = stack[stackSize - 1];
+      int openCount = 0;
+      for (DungeonsGame.Direction direction : DIRECTIONS) {
+        int neighbourId = topology.neighbourId(cellId, direction);
+        if (neighbourId >= 0 && !visited[neighbourId]) {
+          openDirections[openCount++] = direction.ordinal();
+        }
+      }
+      if (openCount == 0) {
+        stackSize--;
+        continue;
+      }
+      int chosen = openDirections[randomizer.generateRandomValueForRange(0, openCount)];
+      int neighbourId = openPath(exits, cellId, DIRECTIONS[chosen]);
+      visited[neighbourId] = true;
+      stack[stackSize++] = neighbourId;
+    }
+  }
+}
@@ -0,0 +1,410 @@
+package game.model;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is used to read and change the state of every cell (treasure, arrows and monster
+ * health) of a dungeon store, and to take snapshots and forks of it in O(1).
+ * The state of a cell is packed into an int (bits 0-7 packed treasure, bits 8-15 arrow count,
+ * bits 16-23 monster health code). The store is the only place the cells are kept: a snapshot
+ * reads a frozen copy of the store and a fork continues on a fork of the store, which both
+ * share the cells with the store until they change.
+ */
+final class CellStateTable {
+
+  private final DungeonStore store;
+  private final Map<Integer, Integer> monsterNumbers;
+  private DungeonSnapshot lastSnapshot;
+
+  /**
+   * Constructor for the table.
+   *
+   * @param store store holding the cells
+   * @throws IllegalArgumentException if the store is null
+   */
+  CellStateTable(DungeonStore store) throws IllegalArgumentException {
+    if (store == null) {
+      throw new IllegalArgumentException("Invalid cell state parameters");
+    }
+    this.store = store;
+    Map<Integer, Integer> numbers = new HashMap<>();
+    int[] monsterCellIds = store.getMonsterCellIds();
+    for (int count = 0; count < monsterCellIds.length; count++) {
+      numbers.put(monsterCellIds[count], count);
+    }
+    this.monsterNumbers = Collections.unmodifiableMap(numbers);
+    this.lastSnapshot = null;
+  }
+
+  private CellStateTable(DungeonStore store, Map<Integer, Integer> monsterNumbers) {
+    this.store = store;
+    this.monsterNumbers = monsterNumbers;
+    this.lastSnapshot = null;
+  }
+
+  /**
+   * This function is used to pack the state of a cell.
+   *
+   * @param packedTreasure packed treasure of the cell
+   * @param arrowCount     number of arrows in the cell
+   * @param healthCode     monster health code of the cell
+   * @return packed cell state
+   */
+  static int pack(byte packedTreasure, byte arrowCount, byte healthCode) {
+    return (packedTreasure & 0xFF) | (arrowCount & 0xFF) << 8 | (healthCode & 0xFF) << 16;
+  }
+
+  static byte treasureOf(int cellState) {
+    return (byte) cellState;
+  }
+
+  static byte arrowsOf(int cellState) {
+    return (byte) (cellState >>> 8);
+  }
+
+  static byte healthOf(int cellState) {
+    return (byte) (cellState >>> 16);
+  }
+
+  /**
+   * gets the store holding the cells.
+   *
+   * @return dungeon store
+   */
+  DungeonStore getStore() {
+    return store;
+  }
+
+  /**
+   * gets the shape of the grid.
+   *
+   * @return grid topology
+   */
+  GridTopology getTopology() {
+    return store.getTopology();
+  }
+
+  /**
+   * This function is used to get the current packed state of a cell.
+   *
+   * @param cellId id of the cell
+   * @return packed cell state
+   */
+  int getCellState(int cellId) {
+    return store.getCellState(cellId);
+  }
+
+  /**
+   * This function is used to get the exit bitmask of a cell.
+   *
+   * @param cellId id of the cell
+   * @return exit bitmask (bit position = direction ordinal)
+   */
+  byte getExits(int cellId) {
+    return store.getExits(cellId);
+  }
+
+  /**
+   * This function is used to get the name of the monster placed in a cell.
+   *
+   * @param cellId id of the cell, which must have a monster
+   * @return name of the monster
+   */
+  String getMonsterName(int cellId) {
+    return "Monster-" + monsterNumbers.get(cellId);
+  }
+
+  /**
+   * gets the number of monsters placed in the dungeon.
+   *
+   * @return number of monsters
+   */
+  int getMonsterCount() {
+    return monsterNumbers.size();
+  }
+
+  void setTreasure(int cellId, byte packedTreasure) {
+    store.setTreasure(cellId, packedTreasure);
+  }
+
+  void setArrows(int cellId, byte arrowCount) {
+    store.setArrows(cellId, arrowCount);
+  }
+
+  void setMonsterHealth(int cellId, byte healthCode) {
+    store.setMonsterHealth(cellId, healthCode);
+  }
+
+  /**
+   * This function is used to take a snapshot of all cells. Taking another snapshot at the
+   * same version gives back the same snapshot without changing the table, so a table whose
+   * snapshot was taken before it was published to other threads can be read by all of them.
+   *
+   * @param version model version of the snapshot
+   * @return snapshot of all cells
+   */
+  DungeonSnapshot snapshot(long version) {
+    if (lastSnapshot == null || lastSnapshot.getVersion() != version) {
+      lastSnapshot = new CellStateSnapshot(version, store.freeze(), monsterNumbers);
+    }
+    return lastSnapshot;
+  }
+
+  /**
+   * This function is used to create an independent table with the current state of all
+   * cells. The fork keeps its cells in a fork of the store which shares them with this table
+   * until either changes them, so the cost does not grow with the number of cells.
+   *
+   * @return table with the same cell states
+   */
+  CellStateTable fork() {
+    return new CellStateTable(store.fork(), monsterNumbers);
+  }
+
+  /**
+   * This class is used to represent the frozen cells of one snapshot.
+   */
+  private static final class CellStateSnapshot implements DungeonSnapshot {
+
+    private final long version;
+    private final GridTopology topology;
+    private final DungeonStore store;
+    private final Map<Integer, Integer> monsterNumbers;
+
+    private CellStateSnapshot(long version, DungeonStore store,
+                              Map<Integer, Integer> monsterNumbers) {
+      this.version = version;
+      this.topology = store.getTopology();
+      this.store = store;
+      this.monsterNumbers = monsterNumbers;
+    }
+
+    @Override
+    public long getVersion() {
+      return version;
+    }
+
+    @Override
+    public int getRowCount() {
+      return topology.getRowCount();
+    }
+
+    @Override
+    public int getColumnCount() {
+      return topology.getColumnCount();
+    }
+
+    @Override
+    public DungeonCell getCell(int row, int column) throws IllegalArgumentException {
+      if (row < 0 || row >= topology.getRowCount()
+              || column < 0 || column >= topology.getColumnCount()) {
+        throw new IllegalArgumentException("Row or column is outside the grid");
+      }
+      return new SnapshotCell(topology.cellId(row, column));
+    }
+
+    @Override
+    public DungeonCell getCell(int cellId) throws IllegalArgumentException {
+      if (cellId < 0 || cellId >= topology.cellCount()) {
+        throw new IllegalArgumentException("Cell id is outside the grid");
+      }
+      return new SnapshotCell(cellId);
+    }
+
+    @Override
+    public List<List<DungeonCell>> getDungeonCells() {
+      return new AbstractList<>() {
+        @Override
+        public List<DungeonCell> get(int row) {
+          if (row < 0 || row >= topology.getRowCount()) {
+            throw new IndexOutOfBoundsException("Row is outside the grid");
+          }
+          return new AbstractList<>() {
+            @Override
+            public DungeonCell get(int column) {
+              if (column < 0 || column >= topology.getColumnCount()) {
+                throw new IndexOutOfBoundsException("Column is outside the grid");
+              }
+              return new SnapshotCell(topology.cellId(row, column));
+            }
+
+            @Override
+            public int size() {
+              return topology.getColumnCount();
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return topology.getRowCount();
+        }
+      };
+    }
+
+    private int getCellState(int cellId) {
+      return store.getCellState(cellId);
+    }
+
+    /**
+     * This class is used to represent a read only cell of the snapshot.
+     */
+    private final class SnapshotCell implements DungeonCell {
+
+      private final int cellId;
+
+      private SnapshotCell(int cellId) {
+        this.cellId = cellId;
+      }
+
+      private boolean hasExit(DungeonsGame.Direction direction) {
+        return (store.getExits(cellId) & 1 << direction.ordinal()) != 0;
+      }
+
+      @Override
+      public String getCellName() {
+        return GridTopology.cellName(cellId);
+      }
+
+      @Override
+      public CellType getCellType() {
+        return DungeonLayout.isCave(store.getExits(cellId)) ? CellType.CAVE : CellType.TUNNEL;
+      }
+
+      @Override
+      public void updateCellType(CellType cellType) throws IllegalArgumentException {
+        throw new UnsupportedOperationException("Cells of a snapshot are read only");
+      }
+
+      @Override
+      public void addPotentialNeighbour(String neighbourCellName,
+                                        DungeonsGame.Direction direction)
+              throws IllegalArgumentException {
+        throw new UnsupportedOperationException("Cells of a snapshot are read only");
+      }
+
+      @Override
+      public void activateNeighbour(DungeonCell neighbourCell) throws IllegalArgumentException {
+        throw new UnsupportedOperationException("Cells of a snapshot are read only");
+      }
+
+      @Override
+      public Map<DungeonsGame.Direction, DungeonCell> getActualNeighbours() {
+        Map<DungeonsGame.Direction, DungeonCell> neighbours =
+                new EnumMap<>(DungeonsGame.Direction.class);
+        for (DungeonsGame.Direction direction : DungeonsGame.Direction.values()) {
+          if (hasExit(direction)) {
+            neighbours.put(direction, new SnapshotCell(topology.neighbourId(cellId, direction)));
+          }
+        }
+        return neighbours;
+      }
+
+      @Override
+      public DungeonCell getNeighbour(DungeonsGame.Direction direction) {
+        return hasExit(direction)
+                ? new SnapshotCell(topology.neighbourId(cellId, direction)) : null;
+      }
+
+      @Override
+      public Map<String, DungeonsGame.Direction> getPotentialNeighbours() {
+        Map<String, DungeonsGame.Direction> neighbours = new HashMap<>();
+        for (DungeonsGame.Direction direction : DungeonsGame.Direction.values()) {
+          int neighbourId = topology.neighbourId(cellId, direction);
+          if (neighbourId >= 0) {
+            neighbours.put(GridTopology.cellName(neighbourId), direction);
+          }
+        }
+        return neighbours;
+      }
+
+      @Override
+      public List<DungeonsGame.TreasureType> getAvailableTreasures() {
+        return DungeonLayout.treasureList(treasureOf(getCellState(cellId)));
+      }
+
+      @Override
+      public int getTreasureCount(DungeonsGame.TreasureType treasure) {
+        return DungeonLayout.treasureCount(treasureOf(getCellState(cellId)), treasure);
+      }
+
+      @Override
+      public void clearCellTreasure() {
+        throw new UnsupportedOperationException("Cells of a snapshot are read only");
+      }
+
+      @Override
+      public void addTreasureToCell(List<DungeonsGame.TreasureType> treasures)
+              throws IllegalArgumentException {
+        throw new UnsupportedOperationException("Cells of a snapshot are read only");
+      }
+
+      @Override
+      public void assignMonster(Monster monster) throws IllegalArgumentException {
+        throw new UnsupportedOperationException("Cells of a snapshot are read only");
+      }
+
+      @Override
+      public Monster getMonster() {
+        byte healthCode = healthOf(getCellState(cellId));
+        if (healthCode == DungeonLayout.NO_MONSTER) {
+          return null;
+        }
+        Monster monster = new Otyughs("Monster-" + monsterNumbers.get(cellId));
+        monster.updateHealth(DungeonLayout.healthOf(healthCode));
+        return monster;
+      }
+
+      @Override
+      public boolean hasLiveMonster() {
+        byte healthCode = healthOf(getCellState(cellId));
+        return healthCode != DungeonLayout.NO_MONSTER
+                && DungeonLayout.healthOf(healthCode) != Monster.Health.ZERO;
+      }
+
+      @Override
+      public Monster.Health getMonsterHealth() {
+        byte healthCode = healthOf(getCellState(cellId));
+        return healthCode == DungeonLayout.NO_MONSTER ? null : DungeonLayout.healthOf(healthCode);
+      }
+
+      @Override
+      public String getMonsterName() {
+        return healthOf(getCellState(cellId)) == DungeonLayout.NO_MONSTER
+                ? null : "Monster-" + monsterNumbers.get(cellId);
+      }
+
+      @Override
+      public List<DungeonsGame.ArrowType> getAvailableArrows() {
+        return Collections.nCopies(arrowsOf(getCellState(cellId)),
+                DungeonsGame.ArrowType.CROOKED_ARROW);
+      }
+
+      @Override
+      public int getArrowCount() {
+        return arrowsOf(getCellState(cellId));
+      }
+
+      @Override
+      public void clearCellArrows() {
+        throw new UnsupportedOperationException("Cells of a snapshot are read only");
+      }
+
+      @Override
+      public void createNumberOfArrows(int numberOfArrows) throws IllegalArgumentException {
+        throw new UnsupportedOperationException("Cells of a snapshot are read only");
+      }
+
+      @Override
+      public IArrowShootResult traverseArrow(DungeonsGame.Direction direction, int distance)
+              throws IllegalArgumentException {
+        throw new UnsupportedOperationException("Cells of a snapshot are read only");
+      }
+    }
+  }
+}
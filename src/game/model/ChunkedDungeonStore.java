@@ -0,0 +1,263 @@
+package game.model;
+
+/**
+ * This class is used to store a dungeon on the heap in chunks of 64 cells. The exits and the
+ * packed state of a cell share a single int (bits 0-23 the packed cell state, bits 24-31 the
+ * exit bitmask), so a cell takes four bytes.
+ * Freezing the store shares the current chunks with the frozen store. The first change after
+ * that copies the chunk table and every chunk is copied once before it is changed again, so
+ * frozen chunks are never written and are shared by all stores which did not change them.
+ * A store started from a store of another kind, like a memory mapped one, reads every chunk
+ * from a frozen copy of that store until it changes the chunk, which copies it to the heap.
+ * A store is not safe for concurrent use. Freezing it again without a change in between only
+ * reads it, so other threads may read a store that was frozen before it was published to them.
+ */
+final class ChunkedDungeonStore implements DungeonStore {
+
+  private static final int CHUNK_BITS = 6;
+  private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+  private static final int EXITS_SHIFT = 24;
+  private static final int CELL_STATE_MASK = (1 << EXITS_SHIFT) - 1;
+
+  private final GridTopology topology;
+  private final int interConnectivity;
+  private final int distributionPercent;
+  private final int startCellId;
+  private final int endCellId;
+  private final int[] monsterCellIds;
+  private final DungeonStore base;
+  private final boolean readOnly;
+  private final int[] chunkEpochs;
+  private int[][] chunks;
+  private boolean tableShared;
+  private int epoch;
+  private ChunkedDungeonStore frozenStore;
+
+  /**
+   * Constructor for the store which takes over the state of a freshly generated layout.
+   *
+   * @param layout generated layout
+   * @throws IllegalArgumentException if the layout is null
+   */
+  ChunkedDungeonStore(DungeonLayout layout) throws IllegalArgumentException {
+    if (layout == null) {
+      throw new IllegalArgumentException("Layout cannot be null");
+    }
+    this.topology = layout.getTopology();
+    this.interConnectivity = layout.getInterConnectivity();
+    this.distributionPercent = layout.getDistributionPercent();
+    this.startCellId = layout.getStartCellId();
+    this.endCellId = layout.getEndCellId();
+    this.monsterCellIds = layout.getMonsterCellIds().clone();
+    this.base = null;
+    this.readOnly = false;
+    byte[] exits = layout.getExits();
+    byte[] treasure = layout.getTreasure();
+    byte[] arrows = layout.getArrows();
+    this.chunks = new int[chunkCount(exits.length)][];
+    for (int chunk = 0; chunk < chunks.length; chunk++) {
+      int start = chunk << CHUNK_BITS;
+      chunks[chunk] = new int[Math.min(CHUNK_SIZE, exits.length - start)];
+      for (int offset = 0; offset < chunks[chunk].length; offset++) {
+        int cellId = start + offset;
+        chunks[chunk][offset] = (exits[cellId] & 0xFF) << EXITS_SHIFT
+                | CellStateTable.pack(treasure[cellId], arrows[cellId], DungeonLayout.NO_MONSTER);
+      }
+    }
+    for (int cellId : monsterCellIds) {
+      chunks[cellId >>> CHUNK_BITS][cellId & (CHUNK_SIZE - 1)] |=
+              CellStateTable.pack((byte) 0, (byte) 0,
+                      DungeonLayout.healthCode(Monster.Health.FULL));
+    }
+    // every chunk was just built, so all of them belong to this store
+    this.chunkEpochs = new int[chunks.length];
+    this.tableShared = false;
+    this.epoch = 0;
+    this.frozenStore = null;
+  }
+
+  /**
+   * Constructor for a store which starts with the current state of the given store and
+   * changes independently of it. Only the chunk table is copied, the chunks themselves are
+   * copied once either store changes them.
+   *
+   * @param store store to start from
+   * @throws IllegalArgumentException if the store is null
+   */
+  ChunkedDungeonStore(DungeonStore store) throws IllegalArgumentException {
+    if (store == null) {
+      throw new IllegalArgumentException("Store cannot be null");
+    }
+    DungeonStore frozen = store.freeze();
+    this.topology = frozen.getTopology();
+    this.interConnectivity = frozen.getInterConnectivity();
+    this.distributionPercent = frozen.getDistributionPercent();
+    this.startCellId = frozen.getStartCellId();
+    this.endCellId = frozen.getEndCellId();
+    this.monsterCellIds = frozen.getMonsterCellIds();
+    this.readOnly = false;
+    if (frozen instanceof ChunkedDungeonStore) {
+      // share the chunks and read the ones not copied yet from the same store, so stores
+      // started from each other never read through more than one other store
+      ChunkedDungeonStore chunked = (ChunkedDungeonStore) frozen;
+      this.base = chunked.base;
+      this.chunks = chunked.chunks;
+      this.tableShared = true;
+      this.frozenStore = chunked;
+    } else {
+      this.base = frozen;
+      this.chunks = new int[chunkCount(topology.cellCount())][];
+      this.tableShared = false;
+      this.frozenStore = null;
+    }
+    // no chunk was copied in the current epoch, so every chunk is copied before its change
+    this.chunkEpochs = new int[chunks.length];
+    this.epoch = 1;
+  }
+
+  private ChunkedDungeonStore(ChunkedDungeonStore store, int[][] chunks) {
+    this.topology = store.topology;
+    this.interConnectivity = store.interConnectivity;
+    this.distributionPercent = store.distributionPercent;
+    this.startCellId = store.startCellId;
+    this.endCellId = store.endCellId;
+    this.monsterCellIds = store.monsterCellIds;
+    this.base = store.base;
+    this.readOnly = true;
+    this.chunkEpochs = null;
+    this.chunks = chunks;
+    this.tableShared = true;
+    this.epoch = 0;
+    this.frozenStore = this;
+  }
+
+  private static int chunkCount(int cellCount) {
+    return (cellCount + CHUNK_SIZE - 1) >>> CHUNK_BITS;
+  }
+
+  @Override
+  public GridTopology getTopology() {
+    return topology;
+  }
+
+  @Override
+  public int getInterConnectivity() {
+    return interConnectivity;
+  }
+
+  @Override
+  public int getDistributionPercent() {
+    return distributionPercent;
+  }
+
+  @Override
+  public int getStartCellId() {
+    return startCellId;
+  }
+
+  @Override
+  public int getEndCellId() {
+    return endCellId;
+  }
+
+  @Override
+  public int[] getMonsterCellIds() {
+    return monsterCellIds.clone();
+  }
+
+  @Override
+  public byte getExits(int cellId) {
+    return (byte) (get(cellId) >>> EXITS_SHIFT);
+  }
+
+  @Override
+  public byte getTreasure(int cellId) {
+    return CellStateTable.treasureOf(get(cellId));
+  }
+
+  @Override
+  public void setTreasure(int cellId, byte packedTreasure) {
+    set(cellId, get(cellId) & ~0xFF | packedTreasure & 0xFF);
+  }
+
+  @Override
+  public byte getArrows(int cellId) {
+    return CellStateTable.arrowsOf(get(cellId));
+  }
+
+  @Override
+  public void setArrows(int cellId, byte arrowCount) {
+    set(cellId, get(cellId) & ~0xFF00 | (arrowCount & 0xFF) << 8);
+  }
+
+  @Override
+  public byte getMonsterHealth(int cellId) {
+    return CellStateTable.healthOf(get(cellId));
+  }
+
+  @Override
+  public void setMonsterHealth(int cellId, byte healthCode) {
+    set(cellId, get(cellId) & ~0xFF0000 | (healthCode & 0xFF) << 16);
+  }
+
+  @Override
+  public int getCellState(int cellId) {
+    return get(cellId) & CELL_STATE_MASK;
+  }
+
+  @Override
+  public DungeonStore freeze() {
+    if (frozenStore == null) {
+      // the frozen store holds the current chunk table, continue on a copy of it and copy
+      // every chunk before it is changed again
+      frozenStore = new ChunkedDungeonStore(this, chunks);
+      tableShared = true;
+      epoch++;
+    }
+    return frozenStore;
+  }
+
+  @Override
+  public DungeonStore fork() {
+    return new ChunkedDungeonStore(this);
+  }
+
+  @Override
+  public void flush() {
+    // nothing to write, the chunks are the storage
+  }
+
+  private int get(int cellId) {
+    int[] chunk = chunks[cellId >>> CHUNK_BITS];
+    if (chunk == null) {
+      return (base.getExits(cellId) & 0xFF) << EXITS_SHIFT | base.getCellState(cellId);
+    }
+    return chunk[cellId & (CHUNK_SIZE - 1)];
+  }
+
+  private void set(int cellId, int value) {
+    if (readOnly) {
+      throw new UnsupportedOperationException("A frozen store is read only");
+    }
+    frozenStore = null;
+    if (tableShared) {
+      chunks = chunks.clone();
+      tableShared = false;
+    }
+    int chunk = cellId >>> CHUNK_BITS;
+    if (chunkEpochs[chunk] != epoch) {
+      chunks[chunk] = chunks[chunk] == null ? readChunk(chunk) : chunks[chunk].clone();
+      chunkEpochs[chunk] = epoch;
+    }
+    chunks[chunk][cellId & (CHUNK_SIZE - 1)] = value;
+  }
+
+  private int[] readChunk(int chunk) {
+    int start = chunk << CHUNK_BITS;
+    int[] values = new int[Math.min(CHUNK_SIZE, topology.cellCount() - start)];
+    for (int offset = 0; offset < values.length; offset++) {
+      values[offset] = get(start + offset);
+    }
+    return values;
+  }
+}
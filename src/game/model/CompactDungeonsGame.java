@@ -0,0 +1,423 @@
+package game.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * This class is used to implement the dungeons game with a compact primitive grid model.
+ * Instead of one object per cell it keeps the grid in a {@link DungeonStore} addressed
+ * by cell id: an exit bitmask, packed treasure, an arrow count and a monster health code,
+ * four bytes per cell in total. The cell type is derived from the number of exits.
+ * The rules of the game are played by the same core as {@link DungeonsGameImpl} uses on its
+ * cell objects, so both generate the same dungeon for the same randomizer sequence and
+ * behave the same through the {@link DungeonsGame} interface.
+ * Cells handed out to clients are read only views over a snapshot of the store.
+ * The store is either kept on the heap or in a memory mapped file, which allows dungeons
+ * larger than the heap and reopening a dungeon without generating it again. Every change is
+ * written to the store only, snapshots and forks share its cells until they change.
+ */
+public class CompactDungeonsGame implements DungeonsGame {
+
+  private static final Function<DungeonLayout, DungeonStore> HEAP_STORE =
+          ChunkedDungeonStore::new;
+
+  private final StoreBackedGame game;
+
+  /**
+   * This function is used to create a compact dungeons game based on provided user inputs.
+   * The cell state is kept on the heap.
+   *
+   * @param wrapType            type of wrap
+   * @param rowCount            number of rows in dungeons game
+   * @param columnCount         number of columns in dungeons game
+   * @param interConnectivity   interconnectivity number
+   * @param distributionPercent distribution percentage for treasure and arrow to be present in game
+   * @param monsterCount        number of monsters to be created
+   * @param randomizer          randomizer instance
+   * @throws IllegalArgumentException if any row or column count are invalid or other args are null
+   */
+  public CompactDungeonsGame(WrapType wrapType, int rowCount, int columnCount,
+                             int interConnectivity, int distributionPercent, int monsterCount,
+                             RandomNumberGenerator randomizer)
+          throws IllegalArgumentException {
+    this(wrapType, rowCount, columnCount, interConnectivity, distributionPercent, monsterCount,
+            MazeAlgorithm.KRUSKAL, randomizer);
+  }
+
+  /**
+   * This function is used to create a dungeons game whose paths are generated by the given
+   * maze algorithm.
+   *
+   * @param wrapType            type of wrap
+   * @param rowCount            number of rows in dungeons game
+   * @param columnCount         number of columns in dungeons game
+   * @param interConnectivity   interconnectivity number
+   * @param distributionPercent distribution percentage for treasure and arrow to be present in game
+   * @param monsterCount        number of monsters to be created
+   * @param mazeAlgorithm       algorithm used to generate the paths
+   * @param randomizer          randomizer instance
+   * @throws IllegalArgumentException if any row or column count are invalid or other args are null
+   */
+  public CompactDungeonsGame(WrapType wrapType, int rowCount, int columnCount,
+                             int interConnectivity, int distributionPercent, int monsterCount,
+                             MazeAlgorithm mazeAlgorithm, RandomNumberGenerator randomizer)
+          throws IllegalArgumentException {
+    this.game = new StoreBackedGame(HEAP_STORE, wrapType, rowCount, columnCount,
+            interConnectivity, distributionPercent, monsterCount, mazeAlgorithm, randomizer);
+  }
+
+  private CompactDungeonsGame(StoreBackedGame game) {
+    this.game = game;
+  }
+
+  /**
+   * This function is used to create a compact dungeons game whose cell state lives in a
+   * memory mapped file instead of the Java heap. The file keeps every change made while
+   * playing and can be opened again with {@link #openFileBacked(Path)}. The file also keeps
+   * the maze algorithm and the seed of the randomizer, so a reset of the opened game generates
+   * the same dungeon a reset of this game would. An existing file at the same location is
+   * replaced, and so is the file when a new game is set up.
+   * The dungeon is generated on the heap before it is written to the file, which takes
+   * about fifty bytes per cell for a moment, so a dungeon larger than the heap cannot be
+   * created here. Once created, it can be opened again with a much smaller heap.
+   *
+   * @param storageFile         location of the storage file
+   * @param wrapType            type of wrap
+   * @param rowCount            number of rows in dungeons game
+   * @param columnCount         number of columns in dungeons game
+   * @param interConnectivity   interconnectivity number
+   * @param distributionPercent distribution percentage for treasure and arrow to be present in game
+   * @param monsterCount        number of monsters to be created
+   * @param randomizer          randomizer instance
+   * @return file backed game
+   * @throws IllegalArgumentException if any row or column count are invalid or other args are null
+   * @throws IOException              if the storage file cannot be written
+   */
+  public static CompactDungeonsGame createFileBacked(Path storageFile, WrapType wrapType,
+                                                     int rowCount, int columnCount,
+                                                     int interConnectivity,
+                                                     int distributionPercent, int monsterCount,
+                                                     RandomNumberGenerator randomizer)
+          throws IllegalArgumentException, IOException {
+    if (storageFile == null) {
+      throw new IllegalArgumentException("Storage file cannot be null");
+    }
+    DungeonLayout layout = DungeonLayout.generate(wrapType, rowCount, columnCount,
+            interConnectivity, distributionPercent, monsterCount, randomizer);
+    return new CompactDungeonsGame(new StoreBackedGame(fileStore(storageFile),
+            MappedDungeonStore.create(storageFile, layout), layout.getMazeAlgorithm(),
+            randomizer));
+  }
+
+  /**
+   * This function is used to open a dungeon stored earlier by a file backed game without
+   * generating it again. The game starts in the not started state with the treasure, arrows
+   * and monsters left as they were stored. The game uses the maze algorithm and a randomizer
+   * with the seed kept in the file.
+   *
+   * @param storageFile location of the storage file
+   * @return file backed game
+   * @throws IllegalArgumentException if the file is null or not a dungeon
+   * @throws IOException              if the storage file cannot be read
+   */
+  public static CompactDungeonsGame openFileBacked(Path storageFile)
+          throws IllegalArgumentException, IOException {
+    MappedDungeonStore store = MappedDungeonStore.open(storageFile);
+    RandomNumberGenerator randomizer =
+            new RandomNumberGeneratorImpl(store.getRandomSeed(), 0L);
+    randomizer.setRandomSeed(store.getRandomSeed());
+    return new CompactDungeonsGame(new StoreBackedGame(fileStore(storageFile), store,
+            store.getMazeAlgorithm(), randomizer));
+  }
+
+  private static Function<DungeonLayout, DungeonStore> fileStore(Path storageFile) {
+    return layout -> {
+      try {
+        return MappedDungeonStore.create(storageFile, layout);
+      } catch (IOException exception) {
+        throw new IllegalStateException("Dungeon could not be written to the storage file",
+                exception);
+      }
+    };
+  }
+
+  /**
+   * gets the core the game delegates to.
+   *
+   * @return game core
+   */
+  StoreBackedGame getCore() {
+    return game;
+  }
+
+  /**
+   * This function is used to write all changes of a file backed game to its storage file.
+   * It does nothing for a game kept on the heap.
+   */
+  public void flush() {
+    game.flush();
+  }
+
+  /**
+   * This function is used to save the complete session (dungeon, maze algorithm, randomizer,
+   * player, game state and history) in a versioned binary format.
+   *
+   * @param output output to write the session to
+   * @throws IllegalArgumentException if the output is null or the game uses a randomizer
+   *                                  whose state cannot be saved
+   * @throws IOException              if writing to the output fails
+   */
+  public void save(OutputStream output) throws IllegalArgumentException, IOException {
+    game.save(output);
+  }
+
+  /**
+   * This function is used to load a session saved by {@link #save(OutputStream)}. The loaded
+   * game keeps its cell state on the heap. Its randomizer continues with the values the saved
+   * one would have produced next, so the loaded game plays on exactly like the saved one.
+   *
+   * @param input input to read the session from
+   * @return loaded game
+   * @throws IllegalArgumentException if the input is null or not a valid save
+   * @throws IOException              if reading from the input fails
+   */
+  public static CompactDungeonsGame load(InputStream input)
+          throws IllegalArgumentException, IOException {
+    return new CompactDungeonsGame(StoreBackedGame.load(input, HEAP_STORE));
+  }
+
+  /**
+   * This function is used to write the session like {@link #save(OutputStream)} but without
+   * the game history, for callers which keep the history themselves.
+   *
+   * @param output output to write the session to
+   * @throws IOException if writing to the output fails
+   */
+  void saveWithoutHistory(OutputStream output) throws IOException {
+    game.saveWithoutHistory(output);
+  }
+
+  /**
+   * This function is used to load a session written by {@link #saveWithoutHistory} and
+   * continue it with the given history.
+   *
+   * @param input       input to read the session from
+   * @param gameHistory history of the session
+   * @return loaded game
+   * @throws IllegalArgumentException if the input is not a valid save
+   * @throws IOException              if reading from the input fails
+   */
+  static CompactDungeonsGame load(InputStream input, PackedGameHistory gameHistory)
+          throws IllegalArgumentException, IOException {
+    CompactDungeonsGame dungeonsGame = load(input);
+    dungeonsGame.game.useHistory(gameHistory);
+    return dungeonsGame;
+  }
+
+  /**
+   * This function is used to get a new writable history holding the first entries of the
+   * history of this game.
+   *
+   * @param size number of entries to keep
+   * @return history with the first entries
+   * @throws IllegalArgumentException if the size is negative or beyond the history
+   */
+  PackedGameHistory branchHistory(int size) throws IllegalArgumentException {
+    return game.branchHistory(size);
+  }
+
+  /**
+   * This function is used to find the exit of the player location which leads to the given
+   * cell.
+   *
+   * @param cellId id of the neighbouring cell
+   * @return direction of the exit or null if no exit leads to the cell
+   */
+  Direction directionTo(int cellId) {
+    return game.directionTo(cellId);
+  }
+
+  /**
+   * This function is used to find a shot from the player location whose arrow lands in the
+   * given cave, or misses every monster when no cave is given.
+   *
+   * @param cellId id of the cave or -1 for a shot which misses
+   * @return direction ordinal plus 4 times the distance, or -1 if there is no such shot
+   */
+  int findShotInto(int cellId) {
+    return game.findShotInto(cellId);
+  }
+
+  @Override
+  public List<List<DungeonCell>> getDungeonCells() {
+    return game.getSnapshot().getDungeonCells();
+  }
+
+  @Override
+  public long getModelVersion() {
+    return game.getModelVersion();
+  }
+
+  @Override
+  public DungeonSnapshot getSnapshot() {
+    return game.getSnapshot();
+  }
+
+  @Override
+  public DungeonsGameReadOnly getCurrentView() {
+    return this;
+  }
+
+  @Override
+  public IGameHistory getGameHistory() {
+    return game.getGameHistory();
+  }
+
+  @Override
+  public void startGameForPlayer(String playerName) throws IllegalArgumentException {
+    game.startGameForPlayer(playerName);
+  }
+
+  @Override
+  public MovementStates movePlayerToLocation(Direction direction)
+          throws IllegalArgumentException, IllegalStateException {
+    return game.movePlayerToLocation(direction);
+  }
+
+  @Override
+  public String getGameGrid() {
+    return game.getGameGrid();
+  }
+
+  @Override
+  public void renderGameGrid(Appendable output) throws IOException, IllegalArgumentException {
+    game.renderGameGrid(output);
+  }
+
+  @Override
+  public void renderGameGridAroundPlayer(Appendable output, int rowRadius, int columnRadius)
+          throws IOException, IllegalArgumentException, IllegalStateException {
+    game.renderGameGridAroundPlayer(output, rowRadius, columnRadius);
+  }
+
+  @Override
+  public GameState getGameStatus() {
+    return game.getGameStatus();
+  }
+
+  @Override
+  public ShootResultStates shootArrowForPlayer(Direction direction, int distance)
+          throws IllegalArgumentException, IllegalStateException {
+    return game.shootArrowForPlayer(direction, distance);
+  }
+
+  @Override
+  public String getPlayerCurrentLocationInformation() throws IllegalStateException {
+    return game.getPlayerCurrentLocationInformation();
+  }
+
+  @Override
+  public LocationInfo getPlayerLocationInfo() throws IllegalStateException {
+    return game.getPlayerLocationInfo();
+  }
+
+  @Override
+  public PlayerData getPlayerInformation() throws IllegalStateException {
+    return game.getPlayerInformation();
+  }
+
+  @Override
+  public void pickUpTreasureCurrentLocation() throws IllegalStateException {
+    game.pickUpTreasureCurrentLocation();
+  }
+
+  @Override
+  public void pickUpArrowCurrentLocation() throws IllegalStateException {
+    game.pickUpArrowCurrentLocation();
+  }
+
+  @Override
+  public void reset() {
+    game.reset();
+  }
+
+  /**
+   * This function is used to create an independent game in exactly the state of this one.
+   * The fork shares the grid, the cell states, the smells, the player and the history with
+   * this game and each of them is only copied once either game changes it, the cell states
+   * chunk by chunk, so forking does not copy any cells. The fork is kept on the heap, also
+   * when this game is file backed.
+   *
+   * @return fork of the game
+   */
+  @Override
+  public DungeonsGame fork() {
+    return new CompactDungeonsGame(game.fork(HEAP_STORE));
+  }
+
+  @Override
+  public void setupNewGame(WrapType wrapType, int rowCount, int columnCount, int interConnectivity,
+                           int distributionPercent, int monsterCount)
+          throws IllegalArgumentException {
+    game.setupNewGame(wrapType, rowCount, columnCount, interConnectivity, distributionPercent,
+            monsterCount);
+  }
+
+  @Override
+  public void setupNewGame(WrapType wrapType, int rowCount, int columnCount, int interConnectivity,
+                           int distributionPercent, int monsterCount,
+                           MazeAlgorithm mazeAlgorithm)
+          throws IllegalArgumentException {
+    game.setupNewGame(wrapType, rowCount, columnCount, interConnectivity, distributionPercent,
+            monsterCount, mazeAlgorithm);
+  }
+
+  @Override
+  public SmellType getCurrentLocationSmell() throws IllegalStateException {
+    return game.getCurrentLocationSmell();
+  }
+
+  @Override
+  public int getRowCount() {
+    return game.getRowCount();
+  }
+
+  @Override
+  public int getColumnCount() {
+    return game.getColumnCount();
+  }
+
+  @Override
+  public DungeonCell getCell(int row, int column) throws IllegalArgumentException {
+    return game.getCell(row, column);
+  }
+
+  @Override
+  public DungeonCell getCell(int cellId) throws IllegalArgumentException {
+    return game.getCell(cellId);
+  }
+
+  @Override
+  public int getCellId(String cellName) throws IllegalArgumentException {
+    return game.getCellId(cellName);
+  }
+
+  @Override
+  public int getPlayerCurrentCellId() throws IllegalStateException {
+    return game.getPlayerCurrentCellId();
+  }
+
+  @Override
+  public DungeonCell getPlayerCurrentLocation() throws IllegalStateException {
+    return game.getPlayerCurrentLocation();
+  }
+
+  @Override
+  public List<String> getAvailableMovements() throws IllegalStateException {
+    return game.getAvailableMovements();
+  }
+}
@@ -0,0 +1,329 @@
+package game.model;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * This class is used to share one game between threads, like the Swing event thread and the
+ * painting of the board, or the threads of a server. Every change to the game is a command
+ * which is queued and run by a single writer thread, one after the other, so the game itself
+ * is never touched by two threads. After every command the writer publishes a fork of the
+ * game, which is never changed again. Reads go to the latest published fork without any
+ * locking, so they never wait for a command, and always see the game as it was after some
+ * command, never halfway through one.
+ * A thread which runs a command and reads afterwards sees the result of its command. Two
+ * reads can see different versions of the game, so a reader which needs several values of
+ * the same version reads them from {@link #getPublishedGame()}.
+ * Publishing is cheap, as both game models fork without copying any cells. The snapshot of a
+ * fork is taken by the writer before the fork is published, so readers never change it.
+ */
+public final class ConcurrentDungeonsGame implements DungeonsGame {
+
+  private static final String WRITER_NAME = "dungeons-game-writer";
+
+  private final DungeonsGame game;
+  private final ExecutorService writer;
+  private volatile Thread writerThread;
+  private volatile DungeonsGame publishedGame;
+
+  /**
+   * Constructor for a shared game. The game is owned by the shared game from now on and
+   * must not be used directly anymore.
+   *
+   * @param game game to be shared
+   * @throws IllegalArgumentException if the game is null
+   */
+  public ConcurrentDungeonsGame(DungeonsGame game) throws IllegalArgumentException {
+    if (game == null) {
+      throw new IllegalArgumentException("Game cannot be null");
+    }
+    this.game = game;
+    this.publishedGame = prepareForReaders(game.fork());
+    this.writer = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, WRITER_NAME);
+      // a forgotten shutdown does not keep the application running
+      thread.setDaemon(true);
+      writerThread = thread;
+      return thread;
+    });
+  }
+
+  /**
+   * This function is used to queue a command on the game. The command runs on the writer
+   * thread with the game to itself, after all commands queued before it, and the game is
+   * published once it is done. Several actions in one command are seen by readers all at
+   * once. The command must not keep the game or hand it to another thread.
+   *
+   * @param command command to be run on the game
+   * @param <T>     type of the result of the command
+   * @return future completed with the result of the command once the game is published
+   * @throws IllegalArgumentException if the command is null
+   * @throws IllegalStateException    if the shared game has been shut down
+   */
+  public <T> CompletableFuture<T> submit(Function<DungeonsGame, T> command)
+          throws IllegalArgumentException, IllegalStateException {
+    if (command == null) {
+      throw new IllegalArgumentException("Command cannot be null");
+    }
+    try {
+      return CompletableFuture.supplyAsync(() -> runAndPublish(command), writer);
+    } catch (RejectedExecutionException exception) {
+      throw new IllegalStateException("Shared game has been shut down", exception);
+    }
+  }
+
+  /**
+   * This function is used to get the game as it was after the latest command. The game is
+   * never changed again, so all its values belong to the same version.
+   *
+   * @return latest published game
+   */
+  public DungeonsGameReadOnly getPublishedGame() {
+    return publishedGame;
+  }
+
+  /**
+   * This function is used to stop the writer thread once the queued commands have run.
+   * Commands queued afterwards are rejected, while reads keep working on the last published
+   * game.
+   */
+  public void shutdown() {
+    writer.shutdown();
+  }
+
+  private <T> T runAndPublish(Function<DungeonsGame, T> command) {
+    try {
+      return command.apply(game);
+    } finally {
+      publishedGame = prepareForReaders(game.fork());
+    }
+  }
+
+  /**
+   * This function is used to build everything a game only builds once it is first read, like
+   * its snapshot and the frozen store behind it. Readers then find them built and only read
+   * them, and writing the published game afterwards makes them visible to every reader.
+   */
+  private static DungeonsGame prepareForReaders(DungeonsGame fork) {
+    fork.getSnapshot();
+    return fork;
+  }
+
+  private <T> T call(Function<DungeonsGame, T> command) {
+    return await(() -> runAndPublish(command));
+  }
+
+  /**
+   * This function is used to run work on the writer thread and wait for it. Work which fails
+   * throws its exception on the calling thread, like the game would.
+   */
+  private <T> T await(Supplier<T> work) {
+    if (Thread.currentThread() == writerThread) {
+      // a command calling back into the shared game would otherwise wait for itself
+      return work.get();
+    }
+    try {
+      return CompletableFuture.supplyAsync(work, writer).join();
+    } catch (RejectedExecutionException exception) {
+      throw new IllegalStateException("Shared game has been shut down", exception);
+    } catch (CompletionException exception) {
+      if (exception.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) exception.getCause();
+      } else if (exception.getCause() instanceof Error) {
+        throw (Error) exception.getCause();
+      }
+      throw exception;
+    }
+  }
+
+  @Override
+  public void startGameForPlayer(String playerName) throws IllegalArgumentException {
+    call(dungeonsGame -> {
+      dungeonsGame.startGameForPlayer(playerName);
+      return null;
+    });
+  }
+
+  @Override
+  public MovementStates movePlayerToLocation(Direction direction)
+          throws IllegalArgumentException {
+    return call(dungeonsGame -> dungeonsGame.movePlayerToLocation(direction));
+  }
+
+  @Override
+  public ShootResultStates shootArrowForPlayer(Direction direction, int distance)
+          throws IllegalArgumentException, IllegalStateException {
+    return call(dungeonsGame -> dungeonsGame.shootArrowForPlayer(direction, distance));
+  }
+
+  @Override
+  public void pickUpTreasureCurrentLocation() throws IllegalStateException {
+    call(dungeonsGame -> {
+      dungeonsGame.pickUpTreasureCurrentLocation();
+      return null;
+    });
+  }
+
+  @Override
+  public void pickUpArrowCurrentLocation() throws IllegalStateException {
+    call(dungeonsGame -> {
+      dungeonsGame.pickUpArrowCurrentLocation();
+      return null;
+    });
+  }
+
+  @Override
+  public void reset() {
+    call(dungeonsGame -> {
+      dungeonsGame.reset();
+      return null;
+    });
+  }
+
+  /**
+   * This function is used to create an independent game in exactly the state of this one.
+   * The fork is a plain game which is not shared between threads.
+   *
+   * @return fork of the game
+   */
+  @Override
+  public DungeonsGame fork() {
+    // the published game is read by other threads, so only the writer forks
+    return await(game::fork);
+  }
+
+  @Override
+  public void setupNewGame(WrapType wrapType, int rowCount, int columnCount,
+                           int interConnectivity, int distributionPercent, int monsterCount)
+          throws IllegalArgumentException {
+    call(dungeonsGame -> {
+      dungeonsGame.setupNewGame(wrapType, rowCount, columnCount, interConnectivity,
+              distributionPercent, monsterCount);
+      return null;
+    });
+  }
+
+  @Override
+  public void setupNewGame(WrapType wrapType, int rowCount, int columnCount,
+                           int interConnectivity, int distributionPercent, int monsterCount,
+                           MazeAlgorithm mazeAlgorithm) throws IllegalArgumentException {
+    call(dungeonsGame -> {
+      dungeonsGame.setupNewGame(wrapType, rowCount, columnCount, interConnectivity,
+              distributionPercent, monsterCount, mazeAlgorithm);
+      return null;
+    });
+  }
+
+  @Override
+  public SmellType getCurrentLocationSmell() {
+    return publishedGame.getCurrentLocationSmell();
+  }
+
+  @Override
+  public DungeonCell getPlayerCurrentLocation() throws IllegalStateException {
+    return publishedGame.getPlayerCurrentLocation();
+  }
+
+  @Override
+  public int getRowCount() {
+    return publishedGame.getRowCount();
+  }
+
+  @Override
+  public int getColumnCount() {
+    return publishedGame.getColumnCount();
+  }
+
+  @Override
+  public DungeonCell getCell(int row, int column) throws IllegalArgumentException {
+    return publishedGame.getCell(row, column);
+  }
+
+  @Override
+  public DungeonCell getCell(int cellId) throws IllegalArgumentException {
+    return publishedGame.getCell(cellId);
+  }
+
+  @Override
+  public int getCellId(String cellName) throws IllegalArgumentException {
+    return publishedGame.getCellId(cellName);
+  }
+
+  @Override
+  public int getPlayerCurrentCellId() throws IllegalStateException {
+    return publishedGame.getPlayerCurrentCellId();
+  }
+
+  @Override
+  public List<String> getAvailableMovements() {
+    return publishedGame.getAvailableMovements();
+  }
+
+  @Override
+  public String getPlayerCurrentLocationInformation() throws IllegalStateException {
+    return publishedGame.getPlayerCurrentLocationInformation();
+  }
+
+  @Override
+  public LocationInfo getPlayerLocationInfo() throws IllegalStateException {
+    return publishedGame.getPlayerLocationInfo();
+  }
+
+  @Override
+  public PlayerData getPlayerInformation() throws IllegalStateException {
+    return publishedGame.getPlayerInformation();
+  }
+
+  @Override
+  public GameState getGameStatus() {
+    return publishedGame.getGameStatus();
+  }
+
+  @Override
+  public List<List<DungeonCell>> getDungeonCells() {
+    return publishedGame.getDungeonCells();
+  }
+
+  @Override
+  public long getModelVersion() {
+    return publishedGame.getModelVersion();
+  }
+
+  @Override
+  public DungeonSnapshot getSnapshot() {
+    return publishedGame.getSnapshot();
+  }
+
+  @Override
+  public DungeonsGameReadOnly getCurrentView() {
+    return publishedGame;
+  }
+
+  @Override
+  public IGameHistory getGameHistory() {
+    return publishedGame.getGameHistory();
+  }
+
+  @Override
+  public String getGameGrid() {
+    return publishedGame.getGameGrid();
+  }
+
+  @Override
+  public void renderGameGrid(Appendable output) throws IOException, IllegalArgumentException {
+    publishedGame.renderGameGrid(output);
+  }
+
+  @Override
+  public void renderGameGridAroundPlayer(Appendable output, int rowRadius, int columnRadius)
+          throws IOException, IllegalArgumentException, IllegalStateException {
+    publishedGame.renderGameGridAroundPlayer(output, rowRadius, columnRadius);
+  }
+}
@@ -0,0 +1,73 @@
+package game.model;
+
+/**
+ * This class is used to keep track of groups of connected cells while the dungeon is
+ * generated. It is a disjoint-set (union-find) over integer cell ids with path compression
+ * and union by rank, so both find and union run in near constant time.
+ */
+final class DisjointSet {
+
+  private final int[] parent;
+  private final byte[] rank;
+
+  /**
+   * Constructor for the disjoint set. Every element starts in its own group.
+   *
+   * @param size number of elements
+   * @throws IllegalArgumentException if the size is negative
+   */
+  DisjointSet(int size) throws IllegalArgumentException {
+    if (size < 0) {
+      throw new IllegalArgumentException("Size cannot be negative");
+    }
+    parent = new int[size];
+    rank = new byte[size];
+    for (int index = 0; index < size; index++) {
+      parent[index] = index;
+    }
+  }
+
+  /**
+   * This function is used to find the representative of the group of the given element.
+   *
+   * @param element element to be searched
+   * @return representative of the group
+   */
+  int find(int element) {
+    int root = element;
+    while (parent[root] != root) {
+      root = parent[root];
+    }
+    // compress the path so that the next lookup is direct
+    while (parent[element] != root) {
+      int next = parent[element];
+      parent[element] = root;
+      element = next;
+    }
+    return root;
+  }
+
+  /**
+   * This function is used to merge the groups of the two given elements.
+   *
+   * @param first  first element
+   * @param second second element
+   * @return true if the groups were merged, false if both elements were already in one group
+   */
+  boolean union(int first, int second) {
+    int firstRoot = find(first);
+    int secondRoot = find(second);
+    if (firstRoot == secondRoot) {
+      return false;
+    }
+    if (rank[firstRoot] < rank[secondRoot]) {
+      parent[firstRoot] = secondRoot;
+    } else if (rank[firstRoot] > rank[secondRoot]) {
+      parent[secondRoot] = firstRoot;
+    } else {
+      parent[secondRoot] = firstRoot;
+      rank[firstRoot]++;
+    }
+    return true;
+  }
+}
@@ -66,6 +66,15 @@ public interface DungeonCell {
    */
   Map<DungeonsGame.Direction, DungeonCell> getActualNeighbours();
 
+  /**
+   * This function is used to get the neighbour in the given direction without going
+   * through the map of neighbours.
+   *
+   * @param direction direction of the neighbour with respect to current cell
+   * @return neighbour cell if there is an exit in the direction, else null
+   */
+  DungeonCell getNeighbour(DungeonsGame.Direction direction);
+
   /**
    * This function is used to get the potential neighbours along with directions
    * for the current cell.
@@ -81,6 +90,15 @@ public interface DungeonCell {
    */
   List<DungeonsGame.TreasureType> getAvailableTreasures();
 
+  /**
+   * This function is used to get the number of treasures of the given type in the current
+   * cell without going through the list of treasures.
+   *
+   * @param treasure type of treasure
+   * @return number of treasures of the type
+   */
+  int getTreasureCount(DungeonsGame.TreasureType treasure);
+
   /**
    * This function is used to clear cell treasure once acquired.
    */
@@ -109,6 +127,30 @@ public interface DungeonCell {
    */
   Monster getMonster();
 
+  /**
+   * This function is used to check if the cell has a monster which is not dead yet.
+   * Unlike {@link #getMonster()}, this does not create a copy of the monster.
+   *
+   * @return true if the cell has a monster with health left
+   */
+  boolean hasLiveMonster();
+
+  /**
+   * This function is used to get the health of the assigned monster without creating a copy
+   * of the monster.
+   *
+   * @return health of the monster if present, else null
+   */
+  Monster.Health getMonsterHealth();
+
+  /**
+   * This function is used to get the name of the assigned monster without creating a copy
+   * of the monster.
+   *
+   * @return name of the monster if present, else null
+   */
+  String getMonsterName();
+
   /**
    * This function is used to get a list of available arrows in the current cell.
    *
@@ -116,6 +158,13 @@ public interface DungeonCell {
    */
   List<DungeonsGame.ArrowType> getAvailableArrows();
 
+  /**
+   * This function is used to get the number of available arrows in the current cell.
+   *
+   * @return number of available arrows
+   */
+  int getArrowCount();
+
   /**
    * This function is used to clear cell arrows once acquired.
    */
@@ -1,33 +1,40 @@
 package game.model;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 
 /**
  * This class is used to represent the dungeon cell in the dungeons game.
  * This includes properties like cell name, cell type, neighbour information
  * and much more.
+ * Treasure and arrows are kept as counters per type. The treasure is also kept in the order
+ * it was placed, so that the list of treasures reads the same as before; the lists of
+ * treasures and arrows are views built from this state when asked for.
+ * Neighbours are kept in an array indexed by direction ordinal along with an exit bitmask.
+ * Cells of a grid work out their name and potential neighbours from the grid instead of
+ * storing them, other cells keep the names of their potential neighbours per direction.
  */
 public class DungeonCellImpl implements DungeonCell {
   private final String cellName;
   private CellType cellType;
-  private final Map<String, DungeonsGame.Direction> potentialNeighbours;
-  private final Map<DungeonsGame.Direction, DungeonCell> actualNeighbours;
-  private List<DungeonsGame.TreasureType> availableTreasures;
+  private final GridTopology topology;
+  private final int cellId;
+  private final String[] potentialNeighbourNames;
+  private final DungeonCell[] neighbours;
+  private byte exits;
+  private Map<DungeonsGame.Direction, DungeonCell> neighbourView;
+  private final int[] treasureCounts;
+  private DungeonsGame.TreasureType[] placedTreasures;
   private Monster currentMonster;
-  private final List<DungeonsGame.ArrowType> availableArrows;
-  private static final Map<DungeonsGame.Direction, DungeonsGame.Direction> entryExitMapping
-          = new HashMap<>();
-
-  static {
-    entryExitMapping.put(DungeonsGame.Direction.EAST, DungeonsGame.Direction.WEST);
-    entryExitMapping.put(DungeonsGame.Direction.WEST, DungeonsGame.Direction.EAST);
-    entryExitMapping.put(DungeonsGame.Direction.NORTH, DungeonsGame.Direction.SOUTH);
-    entryExitMapping.put(DungeonsGame.Direction.SOUTH, DungeonsGame.Direction.NORTH);
-  }
+  private int arrowCount;
+  private static final DungeonsGame.Direction[] DIRECTIONS = DungeonsGame.Direction.values();
+  private static final DungeonsGame.TreasureType[] NO_TREASURE =
+          new DungeonsGame.TreasureType[0];
 
   /**
    * This function is used to create a dungeon cell for the game with
@@ -42,11 +49,38 @@ public class DungeonCellImpl implements DungeonCell {
     }
     this.cellName = cellName;
     this.cellType = CellType.CAVE;
-    this.potentialNeighbours = new HashMap<>();
-    this.actualNeighbours = new TreeMap<>();
-    this.availableTreasures = new ArrayList<>();
+    this.topology = null;
+    this.cellId = -1;
+    this.potentialNeighbourNames = new String[DIRECTIONS.length];
+    this.neighbours = new DungeonCell[DIRECTIONS.length];
+    this.treasureCounts = new int[DungeonsGame.TreasureType.values().length];
+    this.placedTreasures = NO_TREASURE;
+    currentMonster = null;
+    arrowCount = 0;
+  }
+
+  /**
+   * This function is used to create the dungeon cell with the given id of a grid. The
+   * potential neighbours of the cell are the cells next to it in the grid.
+   *
+   * @param cellId   id of the cell
+   * @param topology shape of the grid
+   * @throws IllegalArgumentException if the topology is null or the id is outside the grid
+   */
+  DungeonCellImpl(int cellId, GridTopology topology) throws IllegalArgumentException {
+    if (topology == null || cellId < 0 || cellId >= topology.cellCount()) {
+      throw new IllegalArgumentException("Invalid input parameters provided");
+    }
+    this.cellName = null;
+    this.cellType = CellType.CAVE;
+    this.topology = topology;
+    this.cellId = cellId;
+    this.potentialNeighbourNames = null;
+    this.neighbours = new DungeonCell[DIRECTIONS.length];
+    this.treasureCounts = new int[DungeonsGame.TreasureType.values().length];
+    this.placedTreasures = NO_TREASURE;
     currentMonster = null;
-    availableArrows = new ArrayList<>();
+    arrowCount = 0;
   }
 
   /**
@@ -55,18 +89,50 @@ public class DungeonCellImpl implements DungeonCell {
    * @param cell cell to be copied.
    */
   public DungeonCellImpl(DungeonCell cell) {
+    if (cell instanceof DungeonCellImpl) {
+      // the copy of a grid cell stays a cell of the same grid
+      DungeonCellImpl other = (DungeonCellImpl) cell;
+      this.cellName = other.cellName;
+      this.cellType = other.cellType;
+      this.topology = other.topology;
+      this.cellId = other.cellId;
+      this.potentialNeighbourNames = other.potentialNeighbourNames == null
+              ? null : other.potentialNeighbourNames.clone();
+      this.neighbours = other.neighbours.clone();
+      this.exits = other.exits;
+      this.treasureCounts = other.treasureCounts.clone();
+      this.placedTreasures = other.placedTreasures;
+      this.currentMonster = other.currentMonster == null
+              ? null : new Otyughs(other.currentMonster);
+      this.arrowCount = other.arrowCount;
+      return;
+    }
     this.cellName = cell.getCellName();
     this.cellType = cell.getCellType();
-    this.actualNeighbours = cell.getActualNeighbours();
-    this.potentialNeighbours = cell.getPotentialNeighbours();
-    this.availableTreasures = cell.getAvailableTreasures();
+    this.topology = null;
+    this.cellId = -1;
+    this.potentialNeighbourNames = new String[DIRECTIONS.length];
+    for (Map.Entry<String, DungeonsGame.Direction> potentialNeighbour
+            : cell.getPotentialNeighbours().entrySet()) {
+      potentialNeighbourNames[potentialNeighbour.getValue().ordinal()] =
+              potentialNeighbour.getKey();
+    }
+    this.neighbours = new DungeonCell[DIRECTIONS.length];
+    for (Map.Entry<DungeonsGame.Direction, DungeonCell> neighbour
+            : cell.getActualNeighbours().entrySet()) {
+      neighbours[neighbour.getKey().ordinal()] = neighbour.getValue();
+      exits |= 1 << neighbour.getKey().ordinal();
+    }
+    this.treasureCounts = new int[DungeonsGame.TreasureType.values().length];
+    this.placedTreasures = NO_TREASURE;
+    addTreasureToCell(cell.getAvailableTreasures());
     this.currentMonster = cell.getMonster();
-    this.availableArrows = cell.getAvailableArrows();
+    this.arrowCount = cell.getArrowCount();
   }
 
   @Override
   public String getCellName() {
-    return cellName;
+    return cellName == null ? GridTopology.cellName(cellId) : cellName;
   }
 
   @Override
@@ -76,26 +142,54 @@ public class DungeonCellImpl implements DungeonCell {
 
   @Override
   public void clearCellTreasure() {
-    availableTreasures.clear();
+    Arrays.fill(treasureCounts, 0);
+    placedTreasures = NO_TREASURE;
   }
 
   @Override
   public List<DungeonsGame.ArrowType> getAvailableArrows() {
-    return availableArrows;
+    return Collections.nCopies(arrowCount, DungeonsGame.ArrowType.CROOKED_ARROW);
+  }
+
+  @Override
+  public int getArrowCount() {
+    return arrowCount;
   }
 
   @Override
   public void clearCellArrows() {
-    availableArrows.clear();
+    arrowCount = 0;
   }
 
   @Override
   public Map<DungeonsGame.Direction, DungeonCell> getActualNeighbours() {
-    return actualNeighbours;
+    if (neighbourView == null) {
+      Map<DungeonsGame.Direction, DungeonCell> actualNeighbours =
+              new EnumMap<>(DungeonsGame.Direction.class);
+      for (DungeonsGame.Direction direction : DIRECTIONS) {
+        if ((exits & (1 << direction.ordinal())) != 0) {
+          actualNeighbours.put(direction, neighbours[direction.ordinal()]);
+        }
+      }
+      neighbourView = Collections.unmodifiableMap(actualNeighbours);
+    }
+    return neighbourView;
+  }
+
+  @Override
+  public DungeonCell getNeighbour(DungeonsGame.Direction direction) {
+    return neighbours[direction.ordinal()];
   }
 
   @Override
   public Map<String, DungeonsGame.Direction> getPotentialNeighbours() {
+    Map<String, DungeonsGame.Direction> potentialNeighbours = new HashMap<>();
+    for (DungeonsGame.Direction direction : DIRECTIONS) {
+      String neighbourName = potentialNeighbourName(direction);
+      if (neighbourName != null) {
+        potentialNeighbours.put(neighbourName, direction);
+      }
+    }
     return potentialNeighbours;
   }
 
@@ -106,7 +200,20 @@ public class DungeonCellImpl implements DungeonCell {
     if (neighbourCellName == null || direction == null) {
       throw new IllegalArgumentException("Invalid neighbouring cell name or direction");
     }
-    potentialNeighbours.put(neighbourCellName, direction);
+    if (topology != null) {
+      // the potential neighbours of a grid cell are given by the grid
+      if (!neighbourCellName.equals(potentialNeighbourName(direction))) {
+        throw new IllegalArgumentException("Neighbouring cell is not next to the cell");
+      }
+      return;
+    }
+    // a cell is a potential neighbour in one direction only
+    for (int ordinal = 0; ordinal < potentialNeighbourNames.length; ordinal++) {
+      if (neighbourCellName.equals(potentialNeighbourNames[ordinal])) {
+        potentialNeighbourNames[ordinal] = null;
+      }
+    }
+    potentialNeighbourNames[direction.ordinal()] = neighbourCellName;
   }
 
   @Override
@@ -114,13 +221,58 @@ public class DungeonCellImpl implements DungeonCell {
     if (neighbour == null) {
       throw new IllegalArgumentException("neighbouring cell cannot be null");
     }
-    for (String neighbourName : potentialNeighbours.keySet()) {
-      if (neighbour.getCellName().equals(neighbourName)) {
-        actualNeighbours.put(potentialNeighbours.get(neighbourName), neighbour);
+    int neighbourId = topology == null ? -1 : topology.cellIdOf(neighbour.getCellName());
+    for (DungeonsGame.Direction direction : DIRECTIONS) {
+      boolean potentialNeighbour = topology == null
+              ? neighbour.getCellName().equals(potentialNeighbourNames[direction.ordinal()])
+              : neighbourId >= 0 && topology.neighbourId(cellId, direction) == neighbourId;
+      if (potentialNeighbour) {
+        neighbours[direction.ordinal()] = neighbour;
+        exits |= 1 << direction.ordinal();
+        neighbourView = null;
+        return;
       }
     }
   }
 
+  /**
+   * This function is used to link a neighbour of a grid cell in the given direction. Unlike
+   * {@link #activateNeighbour(DungeonCell)} it also links a cell which is the neighbour in
+   * more than one direction, like on a wrapping grid with two columns.
+   *
+   * @param neighbour neighbouring cell of the same grid
+   * @param direction direction of the neighbour
+   * @throws IllegalArgumentException if the cell is not the neighbour in that direction
+   */
+  void linkNeighbour(DungeonCellImpl neighbour, DungeonsGame.Direction direction)
+          throws IllegalArgumentException {
+    if (neighbour == null || direction == null || topology == null
+            || neighbour.topology != topology
+            || topology.neighbourId(cellId, direction) != neighbour.cellId) {
+      throw new IllegalArgumentException("Neighbouring cell is not next to the cell");
+    }
+    neighbours[direction.ordinal()] = neighbour;
+    exits |= 1 << direction.ordinal();
+    neighbourView = null;
+  }
+
+  /**
+   * gets the exit bitmask of the cell.
+   *
+   * @return exit bitmask (bit position = direction ordinal)
+   */
+  byte getExits() {
+    return exits;
+  }
+
+  private String potentialNeighbourName(DungeonsGame.Direction direction) {
+    if (topology == null) {
+      return potentialNeighbourNames[direction.ordinal()];
+    }
+    int neighbourId = topology.neighbourId(cellId, direction);
+    return neighbourId < 0 ? null : GridTopology.cellName(neighbourId);
+  }
+
   @Override
   public void updateCellType(CellType cellType) throws IllegalArgumentException {
     if (cellType == null) {
@@ -131,7 +283,23 @@ public class DungeonCellImpl implements DungeonCell {
 
   @Override
   public List<DungeonsGame.TreasureType> getAvailableTreasures() {
-    return availableTreasures;
+    DungeonsGame.TreasureType[] treasures = placedTreasures;
+    return new AbstractList<>() {
+      @Override
+      public DungeonsGame.TreasureType get(int index) {
+        return treasures[index];
+      }
+
+      @Override
+      public int size() {
+        return treasures.length;
+      }
+    };
+  }
+
+  @Override
+  public int getTreasureCount(DungeonsGame.TreasureType treasure) {
+    return treasureCounts[treasure.ordinal()];
   }
 
   @Override
@@ -140,7 +308,16 @@ public class DungeonCellImpl implements DungeonCell {
     if (treasure == null) {
       throw new IllegalArgumentException("Invalid treasure provided");
     }
-    availableTreasures = treasure;
+    DungeonsGame.TreasureType[] treasures = treasure.toArray(NO_TREASURE);
+    int[] counts = new int[treasureCounts.length];
+    for (DungeonsGame.TreasureType treasureType : treasures) {
+      if (treasureType == null) {
+        throw new IllegalArgumentException("Invalid treasure provided");
+      }
+      counts[treasureType.ordinal()]++;
+    }
+    System.arraycopy(counts, 0, treasureCounts, 0, counts.length);
+    placedTreasures = treasures;
   }
 
   @Override
@@ -159,14 +336,45 @@ public class DungeonCellImpl implements DungeonCell {
     return new Otyughs(currentMonster);
   }
 
+  @Override
+  public boolean hasLiveMonster() {
+    return currentMonster != null && currentMonster.getHealth() != Monster.Health.ZERO;
+  }
+
+  @Override
+  public Monster.Health getMonsterHealth() {
+    return currentMonster == null ? null : currentMonster.getHealth();
+  }
+
+  @Override
+  public String getMonsterName() {
+    return currentMonster == null ? null : currentMonster.getName();
+  }
+
+  /**
+   * This function is used to change the health of the monster of the cell.
+   *
+   * @param health new health of the monster
+   * @throws IllegalArgumentException if the health is null
+   * @throws IllegalStateException    if the cell has no monster
+   */
+  void updateMonsterHealth(Monster.Health health)
+          throws IllegalArgumentException, IllegalStateException {
+    if (health == null) {
+      throw new IllegalArgumentException("Invalid monster health provided");
+    }
+    if (currentMonster == null) {
+      throw new IllegalStateException("Cell has no monster");
+    }
+    currentMonster.updateHealth(health);
+  }
+
   @Override
   public void createNumberOfArrows(int numberOfArrows) throws IllegalArgumentException {
     if (numberOfArrows < 0) {
       throw new IllegalArgumentException("Arrow count cannot be negative");
     }
-    for (int count = 0; count < numberOfArrows; count++) {
-      availableArrows.add(DungeonsGame.ArrowType.CROOKED_ARROW);
-    }
+    arrowCount += numberOfArrows;
   }
 
   @Override
@@ -176,50 +384,61 @@ public class DungeonCellImpl implements DungeonCell {
     if (entryDirection == null || distance < 0) {
       throw new IllegalArgumentException("Invalid entry direction or distance");
     }
-    // check if the distance has reached
-    if (distance == 0) {
-      // check if there is monster present in the cave
-      if (currentMonster == null) {
-        //missed
-        return new ArrowShootResult(DungeonsGame.ShootResultStates.MONSTER_MISSED, cellName);
-      }
-      // get monster health and check if already damaged.
-      Monster.Health health = currentMonster.getHealth();
-      if (health == Monster.Health.FULL) {
-        currentMonster.updateHealth(Monster.Health.HALF);
-        return new ArrowShootResult(DungeonsGame.ShootResultStates.MONSTER_HIT_PARTIAL_DAMAGE,
-                cellName);
-      } else if (health == Monster.Health.HALF) {
-        currentMonster.updateHealth(Monster.Health.ZERO);
-        return new ArrowShootResult(DungeonsGame.ShootResultStates.MONSTER_HIT_KILLED,
-                cellName);
+    // follow the arrow cell by cell, tunnels bend the arrow and do not use up distance
+    DungeonCell cell = this;
+    DungeonsGame.Direction cellEntryDirection = entryDirection;
+    int remainingDistance = distance;
+    while (remainingDistance > 0) {
+      DungeonsGame.Direction exitDirection = null;
+      if (cell.getCellType() == CellType.TUNNEL) {
+        // get the other exit apart from the entry
+        for (DungeonsGame.Direction direction : DIRECTIONS) {
+          if (direction != cellEntryDirection && cell.getNeighbour(direction) != null) {
+            exitDirection = direction;
+            break;
+          }
+        }
       } else {
-        return new ArrowShootResult(DungeonsGame.ShootResultStates.MONSTER_MISSED, cellName);
+        // if the location type is cave
+        exitDirection = GridTopology.opposite(cellEntryDirection);
       }
-    }
-    DungeonCell exitCell;
-    DungeonsGame.Direction exitDirection;
-    if (cellType == CellType.TUNNEL) {
-      // if the location type is tunnel
-      // get the other exit apart from the entry
-      List<DungeonsGame.Direction> allNeighboursDirection =
-              new ArrayList<>(actualNeighbours.keySet());
-      allNeighboursDirection.remove(entryDirection);
-      exitDirection = allNeighboursDirection.get(0);
-    } else {
-      // if the location type is cave
-      exitDirection = entryExitMapping.get(entryDirection);
-      if (!actualNeighbours.containsKey(exitDirection)) {
+      if (exitDirection == null || cell.getNeighbour(exitDirection) == null) {
         // no exit present
-        return new ArrowShootResult(DungeonsGame.ShootResultStates.MONSTER_MISSED, cellName);
+        return new ArrowShootResult(DungeonsGame.ShootResultStates.MONSTER_MISSED,
+                cell.getCellName());
       }
+      cell = cell.getNeighbour(exitDirection);
+      cellEntryDirection = GridTopology.opposite(exitDirection);
+      if (cell.getCellType() == CellType.CAVE) {
+        remainingDistance--;
+      }
+    }
+    if (cell instanceof DungeonCellImpl) {
+      // the distance has been used up, the cell where the arrow stopped checks for a monster
+      return ((DungeonCellImpl) cell).hitMonster();
+    }
+    // a cell of another kind checks for its monster itself, the arrow does not travel on
+    return cell.traverseArrow(cellEntryDirection, 0);
+  }
+
+  private IArrowShootResult hitMonster() {
+    // check if there is monster present in the cave
+    if (currentMonster == null) {
+      //missed
+      return new ArrowShootResult(DungeonsGame.ShootResultStates.MONSTER_MISSED, getCellName());
     }
-    DungeonsGame.Direction newDirection = entryExitMapping.get(exitDirection);
-    exitCell = actualNeighbours.get(exitDirection);
-    if (exitCell.getCellType() == CellType.TUNNEL) {
-      return exitCell.traverseArrow(newDirection, distance);
+    // get monster health and check if already damaged.
+    Monster.Health health = currentMonster.getHealth();
+    if (health == Monster.Health.FULL) {
+      currentMonster.updateHealth(Monster.Health.HALF);
+      return new ArrowShootResult(DungeonsGame.ShootResultStates.MONSTER_HIT_PARTIAL_DAMAGE,
+              getCellName());
+    } else if (health == Monster.Health.HALF) {
+      currentMonster.updateHealth(Monster.Health.ZERO);
+      return new ArrowShootResult(DungeonsGame.ShootResultStates.MONSTER_HIT_KILLED,
+              getCellName());
     } else {
-      return exitCell.traverseArrow(newDirection, distance - 1);
+      return new ArrowShootResult(DungeonsGame.ShootResultStates.MONSTER_MISSED, getCellName());
     }
   }
 }
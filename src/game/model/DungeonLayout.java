@@ -0,0 +1,387 @@
+package game.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class is used to generate everything that makes up a fresh dungeon in primitive
+ * form: the exits of every cell, the start and end location, treasure, arrows and the
+ * location of every monster. Both game implementations build their state from a layout,
+ * which guarantees that the same randomizer sequence always produces the same dungeon
+ * regardless of how the game stores it.
+ * Treasure of a cell is packed into a byte holding up to three treasure slots of two bits
+ * each (0 = empty slot, otherwise treasure ordinal + 1), which keeps the order in which the
+ * treasure was generated.
+ */
+final class DungeonLayout {
+
+  static final int MAXIMUM_TREASURE_SLOTS = 3;
+  static final byte NO_MONSTER = 0;
+  private static final Monster.Health[] ALL_HEALTH = Monster.Health.values();
+  private static final List<DungeonsGame.TreasureType> ALL_TREASURE_TYPES =
+          List.of(DungeonsGame.TreasureType.values());
+
+  private final GridTopology topology;
+  private final int interConnectivity;
+  private final int distributionPercent;
+  private final DungeonsGame.MazeAlgorithm mazeAlgorithm;
+  private final int randomSeed;
+  private final byte[] exits;
+  private final int startCellId;
+  private final int endCellId;
+  private final byte[] treasure;
+  private final byte[] arrows;
+  private final int[] monsterCellIds;
+
+  DungeonLayout(GridTopology topology, int interConnectivity, int distributionPercent,
+                DungeonsGame.MazeAlgorithm mazeAlgorithm, int randomSeed, byte[] exits,
+                int startCellId, int endCellId, byte[] treasure, byte[] arrows,
+                int[] monsterCellIds) {
+    this.topology = topology;
+    this.interConnectivity = interConnectivity;
+    this.distributionPercent = distributionPercent;
+    this.mazeAlgorithm = mazeAlgorithm;
+    this.randomSeed = randomSeed;
+    this.exits = exits;
+    this.startCellId = startCellId;
+    this.endCellId = endCellId;
+    this.treasure = treasure;
+    this.arrows = arrows;
+    this.monsterCellIds = monsterCellIds;
+  }
+
+  /**
+   * This function is used to generate a dungeon layout based on provided inputs.
+   *
+   * @param wrapType            type of wrap
+   * @param rowCount            number of rows in dungeons game
+   * @param columnCount         number of columns in dungeons game
+   * @param interConnectivity   interconnectivity number
+   * @param distributionPercent distribution percentage for treasure and arrow
+   * @param monsterCount        number of monsters to be created
+   * @param randomizer          randomizer instance
+   * @return generated layout
+   * @throws IllegalArgumentException if any of the inputs are invalid or no dungeon can be
+   *                                  generated from them
+   */
+  static DungeonLayout generate(DungeonsGame.WrapType wrapType, int rowCount, int columnCount,
+                                int interConnectivity, int distributionPercent,
+                                int monsterCount, RandomNumberGenerator randomizer)
+          throws IllegalArgumentException {
+    return generate(wrapType, rowCount, columnCount, interConnectivity, distributionPercent,
+            monsterCount, DungeonsGame.MazeAlgorithm.KRUSKAL, randomizer);
+  }
+
+  /**
+   * This function is used to generate a dungeon layout whose paths are carved by the given
+   * maze algorithm.
+   *
+   * @param wrapType            type of wrap
+   * @param rowCount            number of rows in dungeons game
+   * @param columnCount         number of columns in dungeons game
+   * @param interConnectivity   interconnectivity number
+   * @param distributionPercent distribution percentage for treasure and arrow
+   * @param monsterCount        number of monsters to be created
+   * @param mazeAlgorithm       algorithm used to generate the paths
+   * @param randomizer          randomizer instance
+   * @return generated layout
+   * @throws IllegalArgumentException if any of the inputs are invalid or no dungeon can be
+   *                                  generated from them
+   */
+  static DungeonLayout generate(DungeonsGame.WrapType wrapType, int rowCount, int columnCount,
+                                int interConnectivity, int distributionPercent,
+                                int monsterCount, DungeonsGame.MazeAlgorithm mazeAlgorithm,
+                                RandomNumberGenerator randomizer)
+          throws IllegalArgumentException {
+    if (wrapType == null || mazeAlgorithm == null || randomizer == null) {
+      throw new IllegalArgumentException("Input parameters cannot be null");
+    }
+    if (rowCount < 0 || columnCount < 0) {
+      throw new IllegalArgumentException("Row or column cannot be negative");
+    }
+    if (rowCount < 4 || columnCount < 4) {
+      throw new IllegalArgumentException("Row or column less than 4 is not a valid input."
+              + " Please provide a dimension input of at least 4*4.");
+    }
+    if (interConnectivity < 0 || distributionPercent < 0) {
+      throw new IllegalArgumentException("Neither Treasure Percent or "
+              + "Interconnectivity cannot be less than zero");
+    }
+    if (distributionPercent > 100) {
+      throw new IllegalArgumentException("Treasure Percent cannot be more than 100");
+    }
+    if (monsterCount < 1) {
+      throw new IllegalArgumentException("Number of monsters should be at least one");
+    }
+    GridTopology topology = new GridTopology(wrapType, rowCount, columnCount);
+    // a reset seeds the randomizer with this seed again before it generates the dungeon
+    int randomSeed = randomizer.getRandomSeed();
+    byte[] exits = MazeGenerator.create(mazeAlgorithm, topology, randomizer)
+            .generateExits(interConnectivity);
+    boolean[] caves = new boolean[exits.length];
+    int caveCount = 0;
+    for (int cellId = 0; cellId < exits.length; cellId++) {
+      caves[cellId] = isCave(exits[cellId]);
+      if (caves[cellId]) {
+        caveCount++;
+      }
+    }
+    int[] caveIds = new int[caveCount];
+    for (int cellId = 0, caveIndex = 0; cellId < exits.length; cellId++) {
+      if (caves[cellId]) {
+        caveIds[caveIndex++] = cellId;
+      }
+    }
+    int[] startEnd = new StartEndPlacer(topology, exits, caves).place(randomizer);
+    byte[] treasure = createTreasures(caveIds, exits.length, distributionPercent, randomizer);
+    int[] monsterCellIds = createMonsters(caveIds, startEnd[0], startEnd[1], monsterCount,
+            randomizer);
+    byte[] arrows = createArrows(exits.length, distributionPercent, randomizer);
+    return new DungeonLayout(topology, interConnectivity, distributionPercent, mazeAlgorithm,
+            randomSeed, exits, startEnd[0], startEnd[1], treasure, arrows, monsterCellIds);
+  }
+
+  /**
+   * This function is used to check if a cell with the given exits is a cave.
+   * A location with exactly two exits is a tunnel, everything else is a cave.
+   *
+   * @param exitMask exit bitmask of the cell
+   * @return true if the cell is a cave
+   */
+  static boolean isCave(int exitMask) {
+    return Integer.bitCount(exitMask & 0xF) != 2;
+  }
+
+  /**
+   * This function is used to get the number of treasure items in a packed treasure byte.
+   *
+   * @param packedTreasure packed treasure
+   * @return number of treasure items
+   */
+  static int treasureCount(byte packedTreasure) {
+    int count = 0;
+    while (count < MAXIMUM_TREASURE_SLOTS && treasureCode(packedTreasure, count) != 0) {
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * This function is used to get the number of treasure items of one type in a packed
+   * treasure byte.
+   *
+   * @param packedTreasure packed treasure
+   * @param treasure       type of treasure
+   * @return number of treasure items of the type
+   */
+  static int treasureCount(byte packedTreasure, DungeonsGame.TreasureType treasure) {
+    int count = 0;
+    for (int slot = 0; slot < MAXIMUM_TREASURE_SLOTS; slot++) {
+      if (treasureCode(packedTreasure, slot) == treasure.ordinal() + 1) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * This function is used to get the treasure in the given slot of a packed treasure byte.
+   *
+   * @param packedTreasure packed treasure
+   * @param slot           slot index
+   * @return treasure type in the slot
+   */
+  static DungeonsGame.TreasureType treasureAt(byte packedTreasure, int slot) {
+    return ALL_TREASURE_TYPES.get(treasureCode(packedTreasure, slot) - 1);
+  }
+
+  /**
+   * This function is used to get the treasure of a packed treasure byte as a read only list
+   * in slot order. The list reads the byte it was created for and copies nothing.
+   *
+   * @param packedTreasure packed treasure
+   * @return list of the treasure items
+   */
+  static List<DungeonsGame.TreasureType> treasureList(byte packedTreasure) {
+    int treasureCount = treasureCount(packedTreasure);
+    return new AbstractList<>() {
+      @Override
+      public DungeonsGame.TreasureType get(int slot) {
+        if (slot < 0 || slot >= treasureCount) {
+          throw new IndexOutOfBoundsException("Invalid treasure slot provided");
+        }
+        return treasureAt(packedTreasure, slot);
+      }
+
+      @Override
+      public int size() {
+        return treasureCount;
+      }
+    };
+  }
+
+  /**
+   * This function is used to pack a list of treasure items into a treasure byte, keeping
+   * their order.
+   *
+   * @param treasures treasure items, at most {@link #MAXIMUM_TREASURE_SLOTS} of them
+   * @return packed treasure
+   * @throws IllegalArgumentException if there are too many treasure items
+   */
+  static byte packTreasure(List<DungeonsGame.TreasureType> treasures)
+          throws IllegalArgumentException {
+    if (treasures.size() > MAXIMUM_TREASURE_SLOTS) {
+      throw new IllegalArgumentException("A location cannot hold more than "
+              + MAXIMUM_TREASURE_SLOTS + " treasures");
+    }
+    int packedTreasure = 0;
+    for (int slot = 0; slot < treasures.size(); slot++) {
+      packedTreasure |= (treasures.get(slot).ordinal() + 1) << (slot * 2);
+    }
+    return (byte) packedTreasure;
+  }
+
+  /**
+   * This function is used to get the health code stored for a monster with the given health.
+   * A code of {@link #NO_MONSTER} means that the cell has no monster.
+   *
+   * @param health health of the monster
+   * @return health code
+   */
+  static byte healthCode(Monster.Health health) {
+    return (byte) (health.ordinal() + 1);
+  }
+
+  /**
+   * This function is used to get the monster health for a stored health code.
+   *
+   * @param healthCode health code, must not be {@link #NO_MONSTER}
+   * @return health of the monster
+   */
+  static Monster.Health healthOf(byte healthCode) {
+    return ALL_HEALTH[healthCode - 1];
+  }
+
+  private static int treasureCode(byte packedTreasure, int slot) {
+    return (packedTreasure >> (slot * 2)) & 0x3;
+  }
+
+  private static byte[] createTreasures(int[] caveIds, int cellCount, int treasurePercent,
+                                        RandomNumberGenerator randomizer) {
+    //get number of caves needed for dumping some treasure
+    // number of caves = ceil(total caves * (treasurePercent/100))
+    byte[] treasure = new byte[cellCount];
+    int numberOfTreasureCaves = (int) Math.ceil(caveIds.length * treasurePercent * 0.01);
+    IndexSampler caveSampler = randomizer.createIndexSampler(caveIds.length);
+    for (int count = 0; count < numberOfTreasureCaves; count++) {
+      treasure[caveIds[caveSampler.next()]] = generateRandomTreasure(randomizer);
+    }
+    return treasure;
+  }
+
+  private static byte generateRandomTreasure(RandomNumberGenerator randomizer) {
+    int randomTreasureListSize = randomizer.generateRandomValueForRange(1,
+            ALL_TREASURE_TYPES.size() + 1);
+    if (randomTreasureListSize > MAXIMUM_TREASURE_SLOTS) {
+      throw new IllegalStateException("A location cannot hold more than "
+              + MAXIMUM_TREASURE_SLOTS + " treasures");
+    }
+    int packedTreasure = 0;
+    for (int count = 0; count < randomTreasureListSize; count++) {
+      int randomTreasureIndex = randomizer.generateRandomValueForRange(0,
+              ALL_TREASURE_TYPES.size());
+      DungeonsGame.TreasureType treasureType = ALL_TREASURE_TYPES.get(randomTreasureIndex);
+      packedTreasure |= (treasureType.ordinal() + 1) << (count * 2);
+    }
+    return (byte) packedTreasure;
+  }
+
+  private static int[] createMonsters(int[] caveIds, int startCellId, int endCellId,
+                                      int monsterCount, RandomNumberGenerator randomizer) {
+    if (monsterCount > caveIds.length) {
+      throw new IllegalArgumentException(
+              "Number of monsters cannot be greater than number of caves.");
+    }
+    // first monster is always assigned to end node as it is mandatory,
+    // all other monsters go to random caves apart from the start and end cave
+    IndexSampler caveSampler = randomizer.createIndexSampler(caveIds.length);
+    int startCaveIndex = Arrays.binarySearch(caveIds, startCellId);
+    if (startCaveIndex >= 0) {
+      caveSampler.exclude(startCaveIndex);
+    }
+    caveSampler.exclude(Arrays.binarySearch(caveIds, endCellId));
+    if (monsterCount - 1 > caveSampler.remaining()) {
+      throw new IllegalArgumentException("Number of monsters cannot be greater than "
+              + "number of caves apart from the start cave.");
+    }
+    int[] monsterCellIds = new int[monsterCount];
+    monsterCellIds[0] = endCellId;
+    for (int count = 1; count < monsterCount; count++) {
+      monsterCellIds[count] = caveIds[caveSampler.next()];
+    }
+    return monsterCellIds;
+  }
+
+  private static byte[] createArrows(int cellCount, int arrowPercent,
+                                     RandomNumberGenerator randomizer) {
+    //get number of locations needed for dumping some arrows
+    // number of locations = ceil(total locations * (arrowPercent/100))
+    byte[] arrows = new byte[cellCount];
+    int numberOfArrowLocations = (int) Math.ceil(cellCount * arrowPercent * 0.01);
+    IndexSampler locationSampler = randomizer.createIndexSampler(cellCount);
+    for (int count = 0; count < numberOfArrowLocations; count++) {
+      int randomLocationIndex = locationSampler.next();
+      int randomNumberOfArrows = randomizer.generateRandomValueForRange(1, 4);
+      if (randomNumberOfArrows < 0 || randomNumberOfArrows > Byte.MAX_VALUE) {
+        throw new IllegalArgumentException("Invalid number of arrows generated");
+      }
+      arrows[randomLocationIndex] = (byte) randomNumberOfArrows;
+    }
+    return arrows;
+  }
+
+  GridTopology getTopology() {
+    return topology;
+  }
+
+  int getInterConnectivity() {
+    return interConnectivity;
+  }
+
+  int getDistributionPercent() {
+    return distributionPercent;
+  }
+
+  DungeonsGame.MazeAlgorithm getMazeAlgorithm() {
+    return mazeAlgorithm;
+  }
+
+  int getRandomSeed() {
+    return randomSeed;
+  }
+
+  byte[] getExits() {
+    return exits;
+  }
+
+  int getStartCellId() {
+    return startCellId;
+  }
+
+  int getEndCellId() {
+    return endCellId;
+  }
+
+  byte[] getTreasure() {
+    return treasure;
+  }
+
+  byte[] getArrows() {
+    return arrows;
+  }
+
+  int[] getMonsterCellIds() {
+    return monsterCellIds;
+  }
+}
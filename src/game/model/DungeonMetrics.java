@@ -0,0 +1,152 @@
+package game.model;
+
+import java.util.Arrays;
+
+/**
+ * This class is used to describe how hard a dungeon is to play. It holds the length of the
+ * shortest path from the start to the end cave, the share of tunnels, the number of monsters
+ * on that path and the number of arrows the player can reach without passing a monster.
+ * Only monsters which are still alive count.
+ */
+public final class DungeonMetrics {
+
+  private static final DungeonsGame.Direction[] DIRECTIONS = DungeonsGame.Direction.values();
+  private static final byte DEAD_MONSTER = DungeonLayout.healthCode(Monster.Health.ZERO);
+
+  private final int pathLength;
+  private final double tunnelRatio;
+  private final int monstersOnPath;
+  private final int arrowsBeforeMonster;
+
+  private DungeonMetrics(int pathLength, double tunnelRatio, int monstersOnPath,
+                         int arrowsBeforeMonster) {
+    this.pathLength = pathLength;
+    this.tunnelRatio = tunnelRatio;
+    this.monstersOnPath = monstersOnPath;
+    this.arrowsBeforeMonster = arrowsBeforeMonster;
+  }
+
+  /**
+   * This function is used to measure the dungeon of the given game as it currently is.
+   *
+   * @param game game to be measured
+   * @return metrics of the dungeon
+   * @throws IllegalArgumentException if the game is null
+   */
+  public static DungeonMetrics measure(DungeonsGameImpl game) throws IllegalArgumentException {
+    if (game == null) {
+      throw new IllegalArgumentException("Game cannot be null");
+    }
+    return game.getCore().measureDungeon();
+  }
+
+  /**
+   * This function is used to measure a dungeon from its exits and cell states.
+   *
+   * @param cellStates  cells of the dungeon
+   * @param startCellId id of the start cave
+   * @param endCellId   id of the end cave
+   * @return metrics of the dungeon
+   */
+  static DungeonMetrics of(CellStateTable cellStates, int startCellId, int endCellId) {
+    GridTopology topology = cellStates.getTopology();
+    int cellCount = topology.cellCount();
+    int tunnelCount = 0;
+    for (int cellId = 0; cellId < cellCount; cellId++) {
+      if (!DungeonLayout.isCave(cellStates.getExits(cellId))) {
+        tunnelCount++;
+      }
+    }
+    int[] queue = new int[cellCount];
+    // previous cell on the shortest path from the start, -1 for cells not reached yet
+    int[] previousCellIds = new int[cellCount];
+    Arrays.fill(previousCellIds, -1);
+    previousCellIds[startCellId] = startCellId;
+    queue[0] = startCellId;
+    int queueEnd = 1;
+    for (int queueStart = 0; queueStart < queueEnd; queueStart++) {
+      int cellId = queue[queueStart];
+      for (DungeonsGame.Direction direction : DIRECTIONS) {
+        if ((cellStates.getExits(cellId) & (1 << direction.ordinal())) != 0) {
+          int neighbourId = topology.neighbourId(cellId, direction);
+          if (previousCellIds[neighbourId] < 0) {
+            previousCellIds[neighbourId] = cellId;
+            queue[queueEnd++] = neighbourId;
+          }
+        }
+      }
+    }
+    int pathLength = 0;
+    int monstersOnPath = 0;
+    for (int cellId = endCellId; cellId != startCellId; cellId = previousCellIds[cellId]) {
+      pathLength++;
+      if (hasLiveMonster(cellStates, cellId)) {
+        monstersOnPath++;
+      }
+    }
+    // arrows of all cells reached from the start without entering a cell with a monster
+    Arrays.fill(previousCellIds, -1);
+    previousCellIds[startCellId] = startCellId;
+    queue[0] = startCellId;
+    queueEnd = 1;
+    int arrowsBeforeMonster = 0;
+    for (int queueStart = 0; queueStart < queueEnd; queueStart++) {
+      int cellId = queue[queueStart];
+      arrowsBeforeMonster += CellStateTable.arrowsOf(cellStates.getCellState(cellId));
+      for (DungeonsGame.Direction direction : DIRECTIONS) {
+        if ((cellStates.getExits(cellId) & (1 << direction.ordinal())) != 0) {
+          int neighbourId = topology.neighbourId(cellId, direction);
+          if (previousCellIds[neighbourId] < 0 && !hasLiveMonster(cellStates, neighbourId)) {
+            previousCellIds[neighbourId] = cellId;
+            queue[queueEnd++] = neighbourId;
+          }
+        }
+      }
+    }
+    return new DungeonMetrics(pathLength, (double) tunnelCount / cellCount, monstersOnPath,
+            arrowsBeforeMonster);
+  }
+
+  private static boolean hasLiveMonster(CellStateTable cellStates, int cellId) {
+    byte healthCode = CellStateTable.healthOf(cellStates.getCellState(cellId));
+    return healthCode != DungeonLayout.NO_MONSTER && healthCode != DEAD_MONSTER;
+  }
+
+  /**
+   * gets the number of moves on the shortest path from the start to the end cave.
+   *
+   * @return length of the shortest path
+   */
+  public int getPathLength() {
+    return pathLength;
+  }
+
+  /**
+   * gets the share of cells which are tunnels.
+   *
+   * @return tunnel ratio between zero and one
+   */
+  public double getTunnelRatio() {
+    return tunnelRatio;
+  }
+
+  /**
+   * gets the number of monsters on the shortest path from the start to the end cave. Once
+   * there is a monster, the end cave always has one.
+   *
+   * @return number of monsters on the path
+   */
+  public int getMonstersOnPath() {
+    return monstersOnPath;
+  }
+
+  /**
+   * gets the number of arrows the player can pick up from the start without entering a cave
+   * with a monster.
+   *
+   * @return number of arrows reachable before the first monster
+   */
+  public int getArrowsBeforeMonster() {
+    return arrowsBeforeMonster;
+  }
+}
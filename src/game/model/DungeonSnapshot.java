@@ -0,0 +1,63 @@
+package game.model;
+
+import java.util.List;
+
+/**
+ * This interface represents an immutable view of all dungeon cells at one version of the
+ * game. A snapshot never changes once it has been taken, even while the game goes on, so it
+ * can be handed to another thread (like the Swing event thread) without copying. The cells of
+ * a snapshot are read only: every function which would change a cell throws an
+ * {@link UnsupportedOperationException}.
+ */
+public interface DungeonSnapshot {
+
+  /**
+   * This function is used to get the version of the game the snapshot was taken at.
+   * Versions only ever increase, so a snapshot with the same version as the game shows the
+   * current state.
+   *
+   * @return model version of the snapshot
+   */
+  long getVersion();
+
+  /**
+   * This function is used to get the number of rows in the grid.
+   *
+   * @return row count
+   */
+  int getRowCount();
+
+  /**
+   * This function is used to get the number of columns in the grid.
+   *
+   * @return column count
+   */
+  int getColumnCount();
+
+  /**
+   * This function is used to get the cell at the given row and column.
+   *
+   * @param row    row of the cell
+   * @param column column of the cell
+   * @return read only cell
+   * @throws IllegalArgumentException if the row or column is outside the grid
+   */
+  DungeonCell getCell(int row, int column) throws IllegalArgumentException;
+
+  /**
+   * This function is used to get the cell with the given id (row * columns + column).
+   *
+   * @param cellId id of the cell
+   * @return read only cell
+   * @throws IllegalArgumentException if the id is outside the grid
+   */
+  DungeonCell getCell(int cellId) throws IllegalArgumentException;
+
+  /**
+   * This function is used to get all cells of the grid row by row. The lists are
+   * unmodifiable and create the cells only when they are read.
+   *
+   * @return list of all dungeon cells
+   */
+  List<List<DungeonCell>> getDungeonCells();
+}
@@ -0,0 +1,180 @@
+package game.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class is used to describe how a dungeon can be won without taking any risk, as found
+ * by the {@link DungeonSolver}. Playing safe means never entering a cave with a live monster,
+ * so every monster in the way has to be killed with arrows first. It holds the shortest such
+ * win together with the actions which play it, the fewest arrows any such win needs and the
+ * most treasure which can be collected safely.
+ */
+public final class DungeonSolution {
+
+  /**
+   * This enum represents the type of an action of the shortest win.
+   */
+  public enum ActionType {
+    MOVE,
+    SHOOT,
+    PICK_UP_ARROWS
+  }
+
+  /**
+   * This class is used to represent one action of the shortest win.
+   */
+  public static final class Action {
+
+    private final ActionType actionType;
+    private final DungeonsGame.Direction direction;
+    private final int distance;
+
+    Action(ActionType actionType, DungeonsGame.Direction direction, int distance) {
+      this.actionType = actionType;
+      this.direction = direction;
+      this.distance = distance;
+    }
+
+    /**
+     * gets the type of the action.
+     *
+     * @return action type
+     */
+    public ActionType getActionType() {
+      return actionType;
+    }
+
+    /**
+     * gets the direction of a move or shot.
+     *
+     * @return direction, null for a pick up
+     */
+    public DungeonsGame.Direction getDirection() {
+      return direction;
+    }
+
+    /**
+     * gets the distance of a shot.
+     *
+     * @return distance, zero for other actions
+     */
+    public int getDistance() {
+      return distance;
+    }
+
+    @Override
+    public String toString() {
+      switch (actionType) {
+        case MOVE:
+          return "MOVE " + direction;
+        case SHOOT:
+          return "SHOOT " + direction + " " + distance;
+        default:
+          return actionType.toString();
+      }
+    }
+  }
+
+  private final boolean complete;
+  private final long statesExplored;
+  private final List<String> shortestPath;
+  private final List<Action> actions;
+  private final int minimumArrows;
+  private final int maximumTreasure;
+
+  DungeonSolution(boolean complete, long statesExplored, List<String> shortestPath,
+                  List<Action> actions, int minimumArrows, int maximumTreasure) {
+    this.complete = complete;
+    this.statesExplored = statesExplored;
+    this.shortestPath = Collections.unmodifiableList(shortestPath);
+    this.actions = Collections.unmodifiableList(actions);
+    this.minimumArrows = minimumArrows;
+    this.maximumTreasure = maximumTreasure;
+  }
+
+  /**
+   * This function is used to check if the dungeon can be won without taking any risk.
+   * A search which stopped at its state limit may not have found a win which exists.
+   *
+   * @return true if a safe win was found
+   */
+  public boolean isWinnable() {
+    return minimumArrows >= 0;
+  }
+
+  /**
+   * This function is used to check if the searches looked at every state they needed. If
+   * not, the results are the best found before the state limit was reached.
+   *
+   * @return true if the results are exact
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  /**
+   * gets the number of states the searches stored.
+   *
+   * @return number of states
+   */
+  public long getStatesExplored() {
+    return statesExplored;
+  }
+
+  /**
+   * gets the cells of the shortest safe win, from the location of the player to the end
+   * cave.
+   *
+   * @return cell names, empty if no safe win was found
+   */
+  public List<String> getShortestPath() {
+    return shortestPath;
+  }
+
+  /**
+   * gets the number of moves of the shortest safe win.
+   *
+   * @return number of moves, -1 if no safe win was found
+   */
+  public int getShortestPathLength() {
+    return shortestPath.isEmpty() ? -1 : shortestPath.size() - 1;
+  }
+
+  /**
+   * gets the moves, shots and arrow pick ups which play the shortest safe win.
+   *
+   * @return actions in the order they are played, empty if no safe win was found
+   */
+  public List<Action> getActions() {
+    return actions;
+  }
+
+  /**
+   * gets the fewest arrows any safe win needs. The win using them may take more moves than
+   * the shortest one.
+   *
+   * @return number of arrows, -1 if no safe win was found
+   */
+  public int getMinimumArrows() {
+    return minimumArrows;
+  }
+
+  /**
+   * gets the most treasure which can be collected without taking any risk. When the dungeon
+   * can be won safely it is the most treasure of a safe win, which includes the treasure of
+   * the end cave as that can still be picked up after winning.
+   *
+   * @return number of treasures
+   */
+  public int getMaximumTreasure() {
+    return maximumTreasure;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("winnable %s, shortest path %d, minimum arrows %d, "
+                    + "maximum treasure %d, states %d%s", isWinnable(), getShortestPathLength(),
+            minimumArrows, maximumTreasure, statesExplored, complete ? "" : " (incomplete)");
+  }
+}
@@ -0,0 +1,631 @@
+package game.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * This class is used to find out how a dungeon can be won without taking any risk, which is
+ * how generated dungeons are graded by difficulty. Playing safe means never entering a cave
+ * with a live monster, so a monster in the way has to be killed with two arrows first. A
+ * monster only needs to be dead once its cave is entered, and an arrow shot through an exit
+ * with distance zero always lands in the next cave. So every kill is made from the cave next
+ * to the monster right before moving in, which never needs more arrows than killing it
+ * earlier from further away. The solver searches from the location of the player (the start
+ * cave before the game is started) in two searches:
+ * <ul>
+ *   <li>The fewest arrows and the most treasure do not depend on the number of moves, and
+ *   the player can walk anywhere between the live monsters and collect everything there. So
+ *   the first search only tracks which monsters are dead and kills one monster next to the
+ *   reachable caves per step.</li>
+ *   <li>The shortest win is found by an A* search over the location of the player, the dead
+ *   monsters and the cells whose arrows were picked up, guided by the number of moves to the
+ *   end cave when no monster is in the way. Once the player holds enough arrows to kill every
+ *   live monster the picked up cells no longer matter and are dropped from the state.</li>
+ * </ul>
+ * States are packed into long words and kept in a {@link TranspositionTable} under Zobrist
+ * keys, and each search stops once its table holds the state limit.
+ */
+public final class DungeonSolver {
+
+  /**
+   * The default largest number of states per search.
+   */
+  public static final int DEFAULT_STATE_LIMIT = 1 << 21;
+
+  private static final DungeonsGame.Direction[] DIRECTIONS = DungeonsGame.Direction.values();
+  // a monster at full health takes two arrows to kill, a wounded one a single arrow
+  private static final int KILL_ARROWS = 2;
+  private static final int SATURATED_BIT = 32;
+  private static final long ZOBRIST_SEED = 0x2545F4914F6CDD1DL;
+
+  private final int stateLimit;
+
+  /**
+   * Constructor for a solver with the default state limit.
+   */
+  public DungeonSolver() {
+    this(DEFAULT_STATE_LIMIT);
+  }
+
+  /**
+   * Constructor for a solver which stores at most the given number of states per search.
+   *
+   * @param stateLimit largest number of states per search
+   * @throws IllegalArgumentException if the state limit is not positive
+   */
+  public DungeonSolver(int stateLimit) throws IllegalArgumentException {
+    if (stateLimit <= 0) {
+      throw new IllegalArgumentException("State limit should be positive");
+    }
+    this.stateLimit = stateLimit;
+  }
+
+  /**
+   * This function is used to solve the dungeon of the given game as it currently is. Both
+   * {@link DungeonsGameImpl} and {@link CompactDungeonsGame} can be solved.
+   *
+   * @param game game to be solved
+   * @return solution of the dungeon
+   * @throws IllegalArgumentException if the game is null or of another kind
+   * @throws IllegalStateException    if the game is already over
+   */
+  public DungeonSolution solve(DungeonsGame game)
+          throws IllegalArgumentException, IllegalStateException {
+    if (game == null) {
+      throw new IllegalArgumentException("Game cannot be null");
+    }
+    return StoreBackedGame.of(game).solve(this);
+  }
+
+  /**
+   * This function is used to solve a dungeon from its cells.
+   *
+   * @param cellStates cells of the dungeon
+   * @param fromCellId id of the cell of the player
+   * @param endCellId  id of the end cave
+   * @param arrowCount number of arrows the player holds
+   * @return solution of the dungeon
+   */
+  DungeonSolution solve(CellStateTable cellStates, int fromCellId, int endCellId,
+                        int arrowCount) {
+    Search search = new Search(cellStates, fromCellId, endCellId, arrowCount);
+    search.searchKills(stateLimit);
+    search.searchShortestWin(stateLimit);
+    return search.toSolution();
+  }
+
+  /**
+   * This class is used to hold the data of solving one dungeon.
+   */
+  private static final class Search {
+
+    private final GridTopology topology;
+    private final byte[] exits;
+    private final int fromCellId;
+    private final int endCellId;
+    private final int arrowCount;
+    private final int[] cellArrows;
+    private final int[] cellTreasure;
+    private final int[] monsterIndexes;
+    // arrows needed to kill each monster
+    private final int[] killArrows;
+    private final int[] monsterCellIds;
+    private final int[] arrowIndexes;
+    private final int arrowCellCount;
+    // moves from each cell to the end cave when no monster is in the way, -1 if none
+    private final int[] endDistances;
+    private final int monsterWords;
+    private final int arrowWords;
+    private final long[] positionKeys;
+    private final long[] monsterKeys;
+    private final long[] arrowKeys;
+    private final long saturatedKey;
+    private final int[] opened;
+    private final int[] floodMarks;
+    private int floodMark;
+
+    private boolean complete;
+    private long statesExplored;
+    private int minimumArrows;
+    private int maximumTreasure;
+    private int maximumWinTreasure;
+    private final List<String> shortestPath;
+    private final List<DungeonSolution.Action> actions;
+
+    private Search(CellStateTable cellStates, int fromCellId, int endCellId, int arrowCount) {
+      this.topology = cellStates.getTopology();
+      this.fromCellId = fromCellId;
+      this.endCellId = endCellId;
+      this.arrowCount = arrowCount;
+      int cellCount = topology.cellCount();
+      // the search reads the exits over and over, so they are copied along with the states
+      this.exits = new byte[cellCount];
+      this.cellArrows = new int[cellCount];
+      this.cellTreasure = new int[cellCount];
+      this.monsterIndexes = new int[cellCount];
+      this.arrowIndexes = new int[cellCount];
+      int[] arrowsPerMonster = new int[cellCount];
+      int[] cellsPerMonster = new int[cellCount];
+      int monsterCount = 0;
+      int arrowCells = 0;
+      for (int cellId = 0; cellId < cellCount; cellId++) {
+        int cellState = cellStates.getCellState(cellId);
+        exits[cellId] = cellStates.getExits(cellId);
+        cellArrows[cellId] = CellStateTable.arrowsOf(cellState);
+        cellTreasure[cellId] = DungeonLayout.treasureCount(CellStateTable.treasureOf(cellState));
+        arrowIndexes[cellId] = cellArrows[cellId] > 0 ? arrowCells++ : -1;
+        byte healthCode = CellStateTable.healthOf(cellState);
+        if (healthCode == DungeonLayout.NO_MONSTER
+                || DungeonLayout.healthOf(healthCode) == Monster.Health.ZERO) {
+          monsterIndexes[cellId] = -1;
+        } else {
+          monsterIndexes[cellId] = monsterCount;
+          cellsPerMonster[monsterCount] = cellId;
+          arrowsPerMonster[monsterCount++] =
+                  KILL_ARROWS - DungeonLayout.healthOf(healthCode).ordinal();
+        }
+      }
+      this.arrowCellCount = arrowCells;
+      this.killArrows = Arrays.copyOf(arrowsPerMonster, monsterCount);
+      this.monsterCellIds = Arrays.copyOf(cellsPerMonster, monsterCount);
+      this.endDistances = distancesTo(endCellId);
+      this.monsterWords = (monsterCount + Long.SIZE - 1) / Long.SIZE;
+      this.arrowWords = (arrowCellCount + Long.SIZE - 1) / Long.SIZE;
+      SplittableRandom random = new SplittableRandom(ZOBRIST_SEED);
+      this.positionKeys = randomKeys(random, cellCount);
+      this.monsterKeys = randomKeys(random, monsterCount);
+      this.arrowKeys = randomKeys(random, arrowCellCount);
+      this.saturatedKey = random.nextLong();
+      this.opened = new int[cellCount];
+      this.floodMarks = new int[cellCount];
+      this.complete = true;
+      this.minimumArrows = -1;
+      this.maximumTreasure = 0;
+      this.maximumWinTreasure = -1;
+      this.shortestPath = new ArrayList<>();
+      this.actions = new ArrayList<>();
+    }
+
+    private static long[] randomKeys(SplittableRandom random, int count) {
+      long[] keys = new long[count];
+      for (int index = 0; index < count; index++) {
+        keys[index] = random.nextLong();
+      }
+      return keys;
+    }
+
+    private int[] distancesTo(int cellId) {
+      // exits always come in pairs, so walking out of the end cave gives the distances to it
+      int[] distances = new int[topology.cellCount()];
+      Arrays.fill(distances, -1);
+      int[] queue = new int[distances.length];
+      int queueSize = 1;
+      queue[0] = cellId;
+      distances[cellId] = 0;
+      for (int next = 0; next < queueSize; next++) {
+        int currentId = queue[next];
+        for (DungeonsGame.Direction direction : DIRECTIONS) {
+          if (hasExit(currentId, direction)) {
+            int neighbourId = topology.neighbourId(currentId, direction);
+            if (distances[neighbourId] < 0) {
+              distances[neighbourId] = distances[currentId] + 1;
+              queue[queueSize++] = neighbourId;
+            }
+          }
+        }
+      }
+      return distances;
+    }
+
+    private static boolean isSet(long[] words, int offset, int index) {
+      return (words[offset + index / Long.SIZE] & 1L << (index % Long.SIZE)) != 0;
+    }
+
+    private static void flip(long[] words, int offset, int index) {
+      words[offset + index / Long.SIZE] ^= 1L << (index % Long.SIZE);
+    }
+
+    private boolean isSafe(long[] words, int offset, int cellId) {
+      int monster = monsterIndexes[cellId];
+      return monster < 0 || isSet(words, offset, monster);
+    }
+
+    private boolean hasExit(int cellId, DungeonsGame.Direction direction) {
+      return (exits[cellId] & 1 << direction.ordinal()) != 0;
+    }
+
+    /**
+     * This function is used to search the sets of dead monsters, which gives the fewest
+     * arrows of a safe win and the most treasure which can be collected safely.
+     *
+     * @param stateLimit largest number of states
+     */
+    private void searchKills(int stateLimit) {
+      TranspositionTable table = new TranspositionTable(monsterWords, stateLimit);
+      long[] words = new long[monsterWords];
+      table.add(0, words);
+      int[] region = new int[topology.cellCount()];
+      int[] marks = new int[topology.cellCount()];
+      int[] frontier = new int[killArrows.length];
+      int[] frontierMarks = new int[killArrows.length];
+      // the player can only come back to its own cell if that is safe
+      boolean fromSafe = monsterIndexes[fromCellId] < 0;
+      // the states are expanded in the order they were added, breadth first
+      for (int state = 0; state < table.size() && complete; state++) {
+        table.copyState(state, words);
+        int mark = state + 1;
+        int regionSize = 1;
+        int frontierSize = 0;
+        region[0] = fromCellId;
+        marks[fromCellId] = mark;
+        boolean endReachable = false;
+        int regionArrows = 0;
+        int regionTreasure = 0;
+        for (int next = 0; next < regionSize; next++) {
+          int cellId = region[next];
+          regionArrows += cellArrows[cellId];
+          regionTreasure += cellTreasure[cellId];
+          for (DungeonsGame.Direction direction : DIRECTIONS) {
+            if (!hasExit(cellId, direction)) {
+              continue;
+            }
+            int neighbourId = topology.neighbourId(cellId, direction);
+            if (marks[neighbourId] == mark) {
+              continue;
+            }
+            if (!isSafe(words, 0, neighbourId)) {
+              int monster = monsterIndexes[neighbourId];
+              if ((fromSafe || cellId != fromCellId) && frontierMarks[monster] != mark) {
+                frontierMarks[monster] = mark;
+                frontier[frontierSize++] = monster;
+              }
+              continue;
+            }
+            marks[neighbourId] = mark;
+            if (neighbourId == endCellId) {
+              // entering the end cave wins, so nothing is reached through it
+              endReachable = true;
+            } else {
+              region[regionSize++] = neighbourId;
+            }
+          }
+        }
+        long key = 0;
+        int arrowsShot = 0;
+        for (int monster = 0; monster < killArrows.length; monster++) {
+          if (isSet(words, 0, monster)) {
+            key ^= monsterKeys[monster];
+            arrowsShot += killArrows[monster];
+          }
+        }
+        maximumTreasure = Math.max(maximumTreasure, regionTreasure);
+        if (endReachable) {
+          minimumArrows = minimumArrows < 0 ? arrowsShot : Math.min(minimumArrows, arrowsShot);
+          maximumWinTreasure = Math.max(maximumWinTreasure,
+                  regionTreasure + cellTreasure[endCellId]);
+        }
+        int heldArrows = arrowCount + regionArrows - arrowsShot;
+        for (int next = 0; next < frontierSize && complete; next++) {
+          int monster = frontier[next];
+          if (killArrows[monster] > heldArrows
+                  || !opensAnything(words, monster, marks, mark, frontierMarks)) {
+            continue;
+          }
+          flip(words, 0, monster);
+          long childKey = key ^ monsterKeys[monster];
+          if (table.find(childKey, words) < 0 && table.add(childKey, words) < 0) {
+            complete = false;
+          }
+          flip(words, 0, monster);
+        }
+      }
+      statesExplored += table.size();
+    }
+
+    /**
+     * This function is used to check if killing a monster next to the reachable caves opens
+     * anything: treasure, arrows, the end cave or another monster to kill. A kill which opens
+     * nothing only uses up arrows, so it is left out of the search.
+     *
+     * @return true if the kill opens anything
+     */
+    private boolean opensAnything(long[] words, int monster, int[] marks, int mark,
+                                  int[] frontierMarks) {
+      floodMark++;
+      int openedSize = 1;
+      opened[0] = monsterCellIds[monster];
+      floodMarks[opened[0]] = floodMark;
+      for (int next = 0; next < openedSize; next++) {
+        int cellId = opened[next];
+        if (cellId == endCellId || cellArrows[cellId] > 0 || cellTreasure[cellId] > 0) {
+          return true;
+        }
+        for (DungeonsGame.Direction direction : DIRECTIONS) {
+          if (!hasExit(cellId, direction)) {
+            continue;
+          }
+          int neighbourId = topology.neighbourId(cellId, direction);
+          if (marks[neighbourId] == mark || floodMarks[neighbourId] == floodMark) {
+            continue;
+          }
+          if (!isSafe(words, 0, neighbourId)) {
+            if (frontierMarks[monsterIndexes[neighbourId]] != mark) {
+              return true;
+            }
+            continue;
+          }
+          floodMarks[neighbourId] = floodMark;
+          opened[openedSize++] = neighbourId;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * This function is used to search the shortest safe win. A move into the cave of a live
+     * monster first kills it from where the player stands. The states are expanded by
+     * their moves so far plus their moves to the end cave when no monster is in the way,
+     * which is never more than the moves they still need, so the first state expanded in the
+     * end cave is reached by a shortest win.
+     *
+     * @param stateLimit largest number of states
+     */
+    private void searchShortestWin(int stateLimit) {
+      if (minimumArrows < 0 && complete || endDistances[fromCellId] < 0) {
+        // the first search proved that there is no safe win
+        return;
+      }
+      int stride = 1 + monsterWords + arrowWords;
+      int arrowOffset = 1 + monsterWords;
+      PathStates states = new PathStates(new TranspositionTable(stride, stateLimit));
+      long[] words = new long[stride];
+      words[0] = fromCellId;
+      long key = positionKeys[fromCellId];
+      int heldArrows = arrowCount;
+      if (arrowIndexes[fromCellId] >= 0) {
+        heldArrows += cellArrows[fromCellId];
+        key ^= pickUp(words, arrowOffset, fromCellId);
+      }
+      if (heldArrows >= remainingArrows(words)) {
+        key ^= saturate(words, arrowOffset);
+      }
+      int goal = -1;
+      if (states.reach(key, words, 0, endDistances[fromCellId], heldArrows, -1, 0)) {
+        while (!states.isEmpty()) {
+          int state = states.next();
+          if (state < 0) {
+            continue;
+          }
+          states.table.copyState(state, words);
+          if ((int) words[0] == endCellId) {
+            goal = state;
+            break;
+          }
+          if (!expand(states, state, words, arrowOffset)) {
+            complete = false;
+            break;
+          }
+        }
+      }
+      statesExplored += states.table.size();
+      if (goal >= 0) {
+        buildActions(states, goal);
+      }
+    }
+
+    private boolean expand(PathStates states, int state, long[] words, int arrowOffset) {
+      int cellId = (int) words[0];
+      boolean saturated = (words[0] >>> SATURATED_BIT) != 0;
+      long key = states.keys[state];
+      int moves = states.moves[state];
+      int heldArrows = states.heldArrows[state];
+      long[] childWords = words.clone();
+      for (DungeonsGame.Direction direction : DIRECTIONS) {
+        if (!hasExit(cellId, direction)) {
+          continue;
+        }
+        int neighbourId = topology.neighbourId(cellId, direction);
+        System.arraycopy(words, 0, childWords, 0, words.length);
+        childWords[0] = words[0] & ~0xFFFFFFFFL | neighbourId;
+        long childKey = key ^ positionKeys[cellId] ^ positionKeys[neighbourId];
+        int childArrows = heldArrows;
+        int arrowsShot = 0;
+        if (!isSafe(words, 1, neighbourId)) {
+          int monster = monsterIndexes[neighbourId];
+          arrowsShot = killArrows[monster];
+          if (arrowsShot > heldArrows) {
+            continue;
+          }
+          childArrows -= arrowsShot;
+          flip(childWords, 1, monster);
+          childKey ^= monsterKeys[monster];
+        }
+        int arrowIndex = arrowIndexes[neighbourId];
+        if (!saturated && arrowIndex >= 0 && !isSet(childWords, arrowOffset, arrowIndex)) {
+          childArrows += cellArrows[neighbourId];
+          childKey ^= pickUp(childWords, arrowOffset, neighbourId);
+          if (childArrows >= remainingArrows(childWords)) {
+            childKey ^= saturate(childWords, arrowOffset);
+          }
+        }
+        if (!states.reach(childKey, childWords, moves + 1,
+                moves + 1 + endDistances[neighbourId], childArrows, state,
+                arrowsShot << 8 | direction.ordinal())) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private long pickUp(long[] words, int arrowOffset, int cellId) {
+      int arrowIndex = arrowIndexes[cellId];
+      flip(words, arrowOffset, arrowIndex);
+      return arrowKeys[arrowIndex];
+    }
+
+    private long saturate(long[] words, int arrowOffset) {
+      // with enough arrows for every live monster, more arrows change nothing
+      long keyChange = saturatedKey;
+      for (int word = 0; word < arrowWords; word++) {
+        for (long bits = words[arrowOffset + word]; bits != 0; bits &= bits - 1) {
+          keyChange ^= arrowKeys[word * Long.SIZE + Long.numberOfTrailingZeros(bits)];
+        }
+        words[arrowOffset + word] = 0;
+      }
+      words[0] |= 1L << SATURATED_BIT;
+      return keyChange;
+    }
+
+    private int remainingArrows(long[] words) {
+      int remainingArrows = 0;
+      for (int monster = 0; monster < killArrows.length; monster++) {
+        if (!isSet(words, 1, monster)) {
+          remainingArrows += killArrows[monster];
+        }
+      }
+      return remainingArrows;
+    }
+
+    private void buildActions(PathStates states, int goal) {
+      List<Integer> steps = new ArrayList<>();
+      for (int state = goal; states.parents[state] >= 0; state = states.parents[state]) {
+        steps.add(states.actions[state]);
+      }
+      BitSet pickedUp = new BitSet(topology.cellCount());
+      int cellId = fromCellId;
+      shortestPath.add(GridTopology.cellName(cellId));
+      if (cellArrows[cellId] > 0) {
+        actions.add(new DungeonSolution.Action(DungeonSolution.ActionType.PICK_UP_ARROWS,
+                null, 0));
+        pickedUp.set(cellId);
+      }
+      for (int step = steps.size() - 1; step >= 0; step--) {
+        int action = steps.get(step);
+        DungeonsGame.Direction direction = DIRECTIONS[action & 0xFF];
+        for (int arrow = 0; arrow < action >>> 8; arrow++) {
+          actions.add(new DungeonSolution.Action(DungeonSolution.ActionType.SHOOT,
+                  direction, 0));
+        }
+        cellId = topology.neighbourId(cellId, direction);
+        shortestPath.add(GridTopology.cellName(cellId));
+        actions.add(new DungeonSolution.Action(DungeonSolution.ActionType.MOVE, direction, 0));
+        if (cellId != endCellId && cellArrows[cellId] > 0 && !pickedUp.get(cellId)) {
+          actions.add(new DungeonSolution.Action(DungeonSolution.ActionType.PICK_UP_ARROWS,
+                  null, 0));
+          pickedUp.set(cellId);
+        }
+      }
+    }
+
+    private DungeonSolution toSolution() {
+      return new DungeonSolution(complete, statesExplored, shortestPath, actions,
+              minimumArrows, minimumArrows >= 0 ? maximumWinTreasure : maximumTreasure);
+    }
+  }
+
+  /**
+   * This class is used to keep the states of the shortest win search with their number of
+   * moves, the arrows held, the state they were reached from and the action reaching them,
+   * together with a stack of states to expand per estimated number of moves of a win.
+   */
+  private static final class PathStates {
+
+    private final TranspositionTable table;
+    private long[] keys;
+    private int[] moves;
+    private int[] heldArrows;
+    private int[] parents;
+    private int[] actions;
+    private final BitSet expanded;
+    private int[][] buckets;
+    private int[] bucketSizes;
+    private int bucket;
+
+    private PathStates(TranspositionTable table) {
+      this.table = table;
+      this.keys = new long[64];
+      this.moves = new int[64];
+      this.heldArrows = new int[64];
+      this.parents = new int[64];
+      this.actions = new int[64];
+      this.expanded = new BitSet();
+      this.buckets = new int[64][];
+      this.bucketSizes = new int[64];
+    }
+
+    /**
+     * This function is used to record that a state is reached with the given number of
+     * moves, and queue it under its estimate when that is fewer moves than before.
+     *
+     * @return false if the state is new and the table is full
+     */
+    private boolean reach(long key, long[] words, int moveCount, int estimate, int arrows,
+                          int parent, int action) {
+      int state = table.find(key, words);
+      if (state < 0) {
+        state = table.add(key, words);
+        if (state < 0) {
+          return false;
+        }
+        if (state == keys.length) {
+          int capacity = state * 2;
+          keys = Arrays.copyOf(keys, capacity);
+          moves = Arrays.copyOf(moves, capacity);
+          heldArrows = Arrays.copyOf(heldArrows, capacity);
+          parents = Arrays.copyOf(parents, capacity);
+          actions = Arrays.copyOf(actions, capacity);
+        }
+        keys[state] = key;
+        heldArrows[state] = arrows;
+      } else if (moveCount >= moves[state]) {
+        return true;
+      }
+      moves[state] = moveCount;
+      parents[state] = parent;
+      actions[state] = action;
+      push(state, estimate);
+      return true;
+    }
+
+    private void push(int state, int estimate) {
+      if (estimate >= buckets.length) {
+        int capacity = Math.max(buckets.length * 2, estimate + 1);
+        buckets = Arrays.copyOf(buckets, capacity);
+        bucketSizes = Arrays.copyOf(bucketSizes, capacity);
+      }
+      if (buckets[estimate] == null) {
+        buckets[estimate] = new int[64];
+      } else if (bucketSizes[estimate] == buckets[estimate].length) {
+        buckets[estimate] = Arrays.copyOf(buckets[estimate], bucketSizes[estimate] * 2);
+      }
+      buckets[estimate][bucketSizes[estimate]++] = state;
+      // the estimate of a state is never below that of the state it was reached from
+      bucket = Math.min(bucket, estimate);
+    }
+
+    private boolean isEmpty() {
+      while (bucket < buckets.length && bucketSizes[bucket] == 0) {
+        bucket++;
+      }
+      return bucket == buckets.length;
+    }
+
+    /**
+     * This function is used to take the next state to expand, the last one queued with the
+     * lowest estimate, which makes the search go deep among equally good states.
+     *
+     * @return number of the state, -1 if it was expanded before
+     */
+    private int next() {
+      int state = buckets[bucket][--bucketSizes[bucket]];
+      if (expanded.get(state)) {
+        return -1;
+      }
+      expanded.set(state);
+      return state;
+    }
+  }
+}
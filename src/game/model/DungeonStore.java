@@ -0,0 +1,146 @@
+package game.model;
+
+/**
+ * This interface is used to represent the storage of a generated dungeon for the compact
+ * game model. It holds the shape of the grid, the start and end location, the location of
+ * every monster and the per cell state (exits, packed treasure, arrow count and monster
+ * health code) addressed by cell id. Only treasure, arrows and monster health change while
+ * a game is played, everything else is fixed when the dungeon is generated.
+ * A store can be frozen into a read only store which keeps the state of every cell as it was
+ * at that moment, while the store itself goes on changing.
+ */
+interface DungeonStore {
+
+  /**
+   * This function is used to get the shape of the stored grid.
+   *
+   * @return grid topology
+   */
+  GridTopology getTopology();
+
+  /**
+   * This function is used to get the interconnectivity the dungeon was generated with.
+   *
+   * @return interconnectivity number
+   */
+  int getInterConnectivity();
+
+  /**
+   * This function is used to get the treasure and arrow distribution percentage the dungeon
+   * was generated with.
+   *
+   * @return distribution percentage
+   */
+  int getDistributionPercent();
+
+  /**
+   * This function is used to get the id of the start cell.
+   *
+   * @return start cell id
+   */
+  int getStartCellId();
+
+  /**
+   * This function is used to get the id of the end cell.
+   *
+   * @return end cell id
+   */
+  int getEndCellId();
+
+  /**
+   * This function is used to get the cell of every monster, indexed by monster number.
+   *
+   * @return cell ids of the monsters
+   */
+  int[] getMonsterCellIds();
+
+  /**
+   * This function is used to get the exit bitmask of a cell.
+   *
+   * @param cellId id of the cell
+   * @return exit bitmask (bit position = direction ordinal)
+   */
+  byte getExits(int cellId);
+
+  /**
+   * This function is used to get the packed treasure of a cell.
+   *
+   * @param cellId id of the cell
+   * @return packed treasure
+   */
+  byte getTreasure(int cellId);
+
+  /**
+   * This function is used to update the packed treasure of a cell.
+   *
+   * @param cellId         id of the cell
+   * @param packedTreasure packed treasure
+   */
+  void setTreasure(int cellId, byte packedTreasure);
+
+  /**
+   * This function is used to get the number of arrows in a cell.
+   *
+   * @param cellId id of the cell
+   * @return number of arrows
+   */
+  byte getArrows(int cellId);
+
+  /**
+   * This function is used to update the number of arrows in a cell.
+   *
+   * @param cellId     id of the cell
+   * @param arrowCount number of arrows
+   */
+  void setArrows(int cellId, byte arrowCount);
+
+  /**
+   * This function is used to get the monster health code of a cell.
+   *
+   * @param cellId id of the cell
+   * @return health code or {@link DungeonLayout#NO_MONSTER}
+   */
+  byte getMonsterHealth(int cellId);
+
+  /**
+   * This function is used to update the monster health code of a cell.
+   *
+   * @param cellId     id of the cell
+   * @param healthCode health code
+   */
+  void setMonsterHealth(int cellId, byte healthCode);
+
+  /**
+   * This function is used to get the treasure, arrows and monster health of a cell at once,
+   * packed like {@link CellStateTable#pack(byte, byte, byte)} does.
+   *
+   * @param cellId id of the cell
+   * @return packed cell state
+   */
+  int getCellState(int cellId);
+
+  /**
+   * This function is used to get a read only store which keeps the current state of every
+   * cell, no matter how this store changes afterwards. Freezing again before anything has
+   * changed gives back the same store. The setters of the frozen store throw an
+   * {@link UnsupportedOperationException} and it may be read by several threads at the
+   * same time.
+   *
+   * @return frozen store
+   */
+  DungeonStore freeze();
+
+  /**
+   * This function is used to get a writable store which starts with the current state of
+   * every cell and changes independently of this store. The cells are shared until either
+   * store changes them, so the cost does not grow with the number of cells.
+   *
+   * @return forked store
+   */
+  DungeonStore fork();
+
+  /**
+   * This function is used to write all pending changes to the underlying storage.
+   */
+  void flush();
+}
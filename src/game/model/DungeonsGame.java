@@ -25,6 +25,17 @@ public interface DungeonsGame extends DungeonsGameReadOnly {
     NON_WRAPPING
   }
 
+  /**
+   * This enum represents the algorithm used to generate the paths of a dungeon.
+   */
+  enum MazeAlgorithm {
+    KRUSKAL,
+    WILSON,
+    PRIM,
+    BACKTRACKER,
+    ELLER
+  }
+
   /**
    * This enum represents the type of the smell in a cave.
    */
@@ -143,6 +154,17 @@ public interface DungeonsGame extends DungeonsGameReadOnly {
    */
   void reset();
 
+  /**
+   * This function is used to create an independent game in exactly the state of this one:
+   * the same dungeon, player, history, game state and upcoming random values. Moves made in
+   * either game afterwards do not change the other, so a search can try moves on forks.
+   * Parts which never change are shared and the changing state is only copied once either
+   * game changes it.
+   *
+   * @return fork of the game
+   */
+  DungeonsGame fork();
+
   /**
    * sets up a new game based on provided inputs.
    *
@@ -158,4 +180,22 @@ public interface DungeonsGame extends DungeonsGameReadOnly {
                     int interConnectivity, int distributionPercent,
                     int monsterCount) throws IllegalArgumentException;
 
+  /**
+   * sets up a new game based on provided inputs, generating the paths with the given maze
+   * algorithm.
+   *
+   * @param wrapType            wrapping type
+   * @param rowCount            row count
+   * @param columnCount         column count
+   * @param interConnectivity   interconnectivity value
+   * @param distributionPercent treasure and arrow percentage
+   * @param monsterCount        monster count
+   * @param mazeAlgorithm       algorithm used to generate the paths
+   * @throws IllegalArgumentException if the parameters are invalid
+   */
+  void setupNewGame(DungeonsGame.WrapType wrapType, int rowCount, int columnCount,
+                    int interConnectivity, int distributionPercent,
+                    int monsterCount, MazeAlgorithm mazeAlgorithm)
+          throws IllegalArgumentException;
+
 }
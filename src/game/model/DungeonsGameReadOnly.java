@@ -1,5 +1,6 @@
 package game.model;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -24,6 +25,57 @@ public interface DungeonsGameReadOnly {
    */
   DungeonCell getPlayerCurrentLocation() throws IllegalStateException;
 
+  /**
+   * This function is used to get the number of rows in the grid.
+   *
+   * @return row count
+   */
+  int getRowCount();
+
+  /**
+   * This function is used to get the number of columns in the grid.
+   *
+   * @return column count
+   */
+  int getColumnCount();
+
+  /**
+   * This function is used to get the cell at the given row and column.
+   *
+   * @param row    row of the cell
+   * @param column column of the cell
+   * @return cell at the given position
+   * @throws IllegalArgumentException if the position is outside the grid
+   */
+  DungeonCell getCell(int row, int column) throws IllegalArgumentException;
+
+  /**
+   * This function is used to get the cell with the given id.
+   * Cell ids are row major (row * column count + column).
+   *
+   * @param cellId id of the cell
+   * @return cell with the given id
+   * @throws IllegalArgumentException if the id is outside the grid
+   */
+  DungeonCell getCell(int cellId) throws IllegalArgumentException;
+
+  /**
+   * This function is used to get the id of the cell with the given name.
+   *
+   * @param cellName name of the cell
+   * @return id of the cell
+   * @throws IllegalArgumentException if no cell has the given name
+   */
+  int getCellId(String cellName) throws IllegalArgumentException;
+
+  /**
+   * This function is used to get the id of the cell where the player currently is.
+   *
+   * @return id of the current cell of the player
+   * @throws IllegalStateException if the game has not started
+   */
+  int getPlayerCurrentCellId() throws IllegalStateException;
+
   /**
    * This function is used to get the available direction for movement.
    *
@@ -40,6 +92,15 @@ public interface DungeonsGameReadOnly {
    */
   String getPlayerCurrentLocationInformation() throws IllegalStateException;
 
+  /**
+   * This function is used to get the location where the player is currently resided in a
+   * structured format, which holds everything a turn needs to know about the location.
+   *
+   * @return cell type, treasure, arrows, monster, exits and smell of the location
+   * @throws IllegalStateException if the player has not entered the game
+   */
+  LocationInfo getPlayerLocationInfo() throws IllegalStateException;
+
   /**
    * This function is used to get the player's information
    * (including total treasure list acquired).
@@ -57,12 +118,40 @@ public interface DungeonsGameReadOnly {
   DungeonsGame.GameState getGameStatus();
 
   /**
-   * This function is used to get the complete game grid cells.
+   * This function is used to get the complete game grid cells. The cells are the read only
+   * cells of {@link #getSnapshot()}.
    *
    * @return list of all dungeon cells
    */
   List<List<DungeonCell>> getDungeonCells();
 
+  /**
+   * This function is used to get the version of the model. The version increases with every
+   * change to the game, so an unchanged version means nothing needs to be read again.
+   *
+   * @return model version
+   */
+  long getModelVersion();
+
+  /**
+   * This function is used to get an immutable snapshot of all cells at the current version.
+   * Taking a snapshot does not copy the cells, and the snapshot stays unchanged while the
+   * game goes on.
+   *
+   * @return snapshot of the cells
+   */
+  DungeonSnapshot getSnapshot();
+
+  /**
+   * This function is used to get a view of the game whose values all belong to the same
+   * version, for a reader which needs several of them at once, like a paint of the board.
+   * A game shared between threads returns the game as it was after its latest command, a
+   * game used by a single thread returns itself.
+   *
+   * @return view of the game at one version
+   */
+  DungeonsGameReadOnly getCurrentView();
+
   /**
    * gets the game history (includes all actions performed by the user).
    *
@@ -76,4 +165,29 @@ public interface DungeonsGameReadOnly {
    * @return string representation of the whole grid
    */
   String getGameGrid();
+
+  /**
+   * This function is used to write the whole grid of the game to the given output, one row
+   * after the other, in the same format as {@link #getGameGrid()}.
+   *
+   * @param output output to write to
+   * @throws IOException              if the output cannot be written
+   * @throws IllegalArgumentException if the output is null
+   */
+  void renderGameGrid(Appendable output) throws IOException, IllegalArgumentException;
+
+  /**
+   * This function is used to write the part of the grid around the player to the given
+   * output. The part reaches the given number of rows and columns away from the player on
+   * every side, as far as the grid goes.
+   *
+   * @param output       output to write to
+   * @param rowRadius    number of rows to show above and below the player
+   * @param columnRadius number of columns to show left and right of the player
+   * @throws IOException              if the output cannot be written
+   * @throws IllegalArgumentException if the output is null or a radius is negative
+   * @throws IllegalStateException    if the player has not entered the game
+   */
+  void renderGameGridAroundPlayer(Appendable output, int rowRadius, int columnRadius)
+          throws IOException, IllegalArgumentException, IllegalStateException;
 }
@@ -0,0 +1,86 @@
+package game.model;
+
+/**
+ * This class is used to generate the paths of a dungeon using Eller's algorithm, which
+ * carves the grid one row at a time and only keeps the set membership of the current row.
+ * In every row, neighbouring cells of different sets are joined at random, then every set
+ * opens at least one path down into the next row. The last row joins all remaining sets.
+ * Apart from the exits themselves the spanning tree needs memory proportional to the number
+ * of columns only, independent of the number of rows, and the extra paths of the
+ * interconnectivity add memory proportional to their number.
+ * In a wrapping dungeon the path from the last to the first column of a row is considered
+ * like any other path in the row, while the paths from the last row back to the first row
+ * are left over paths which can only be opened by the interconnectivity.
+ */
+final class EllerGridGenerator extends SpanningTreeGenerator {
+
+  /**
+   * Constructor for the generator.
+   *
+   * @param topology   shape of the grid
+   * @param randomizer randomizer instance
+   * @throws IllegalArgumentException if any argument is null
+   */
+  EllerGridGenerator(GridTopology topology, RandomNumberGenerator randomizer)
+          throws IllegalArgumentException {
+    super(topology, randomizer);
+  }
+
+  @Override
+  protected void carveSpanningTree(byte[] exits) {
+    int rowCount = topology.getRowCount();
+    int columnCount = topology.getColumnCount();
+    int pathsPerRow = topology.getWrapType() == DungeonsGame.WrapType.WRAPPING
+            ? columnCount : columnCount - 1;
+    // set labels of the current and next row, always within [0, column count)
+    int[] rowSets = new int[columnCount];
+    int[] nextRowSets = new int[columnCount];
+    int[] lastColumnOfSet = new int[columnCount];
+    boolean[] setGoesDown = new boolean[columnCount];
+    int[] nextLabelOfSet = new int[columnCount];
+    for (int column = 0; column < columnCount; column++) {
+      rowSets[column] = column;
+    }
+    for (int row = 0; row < rowCount; row++) {
+      boolean lastRow = row == rowCount - 1;
+      DisjointSet sets = new DisjointSet(columnCount);
+      for (int column = 0; column < pathsPerRow; column++) {
+        int first = rowSets[column];
+        int second = rowSets[(column + 1) % columnCount];
+        if (sets.find(first) != sets.find(second)
+                && (lastRow || randomizer.generateRandomValueForRange(0, 2) == 0)) {
+          sets.union(first, second);
+          openPath(exits, topology.cellId(row, column), DungeonsGame.Direction.EAST);
+        }
+      }
+      if (lastRow) {
+        break;
+      }
+      for (int column = 0; column < columnCount; column++) {
+        int set = sets.find(rowSets[column]);
+        lastColumnOfSet[set] = column;
+        setGoesDown[set] = false;
+        nextLabelOfSet[set] = -1;
+      }
+      int nextLabel = 0;
+      for (int column = 0; column < columnCount; column++) {
+        int set = sets.find(rowSets[column]);
+        // the last cell of a set without a path down has to open one
+        if (randomizer.generateRandomValueForRange(0, 2) == 0
+                || lastColumnOfSet[set] == column && !setGoesDown[set]) {
+          setGoesDown[set] = true;
+          openPath(exits, topology.cellId(row, column), DungeonsGame.Direction.SOUTH);
+          if (nextLabelOfSet[set] < 0) {
+            nextLabelOfSet[set] = nextLabel++;
+          }
+          nextRowSets[column] = nextLabelOfSet[set];
+        } else {
+          nextRowSets[column] = nextLabel++;
+        }
+      }
+      int[] swap = rowSets;
+      rowSets = nextRowSets;
+      nextRowSets = swap;
+    }
+  }
+}
@@ -0,0 +1,216 @@
+package game.model;
+
+import java.util.Arrays;
+
+/**
+ * This class is used to resolve where an arrow lands without following long runs of tunnels
+ * cell by cell. Tunnels bend the arrow and never use up its distance, so only the caves at
+ * the ends of a run matter. Runs of at most {@link #CHECKPOINT_SPACING} tunnels are simply
+ * walked. Longer runs get a checkpoint every {@link #CHECKPOINT_SPACING} tunnels in each
+ * direction of travel, which stores the cave the arrow reaches from there, so an arrow never
+ * walks more than that many tunnels before it reaches a cave or a checkpoint.
+ * Only the checkpoints are stored, in an open addressing table keyed by tunnel id * 4 + exit
+ * direction ordinal, which keeps the table a small fraction of the size of the grid.
+ * A landing packs the cave id and the entry direction ordinal into a single int
+ * (cave id * 4 + direction ordinal). The table never changes once built, so forks share it.
+ */
+final class FlightTable {
+
+  static final int MISSED = -1;
+  static final int CHECKPOINT_SPACING = 16;
+  private static final int EMPTY = -1;
+  private static final DungeonsGame.Direction[] DIRECTIONS = DungeonsGame.Direction.values();
+
+  private final GridTopology topology;
+  private final DungeonStore store;
+  private final boolean hasCave;
+  private final int[] slotKeys;
+  private final int[] slotLandings;
+
+  /**
+   * Constructor for the flight table which places all checkpoints up front.
+   * Every run of tunnels is walked four times, so building the table is linear in the
+   * number of cells.
+   *
+   * @param store store of the dungeon, only its exits are read
+   * @throws IllegalArgumentException if the store is null
+   */
+  FlightTable(DungeonStore store) throws IllegalArgumentException {
+    if (store == null) {
+      throw new IllegalArgumentException("Invalid flight table parameters");
+    }
+    this.topology = store.getTopology();
+    this.store = store;
+    boolean anyCave = false;
+    int[] keys = new int[DIRECTIONS.length];
+    int[] landings = new int[DIRECTIONS.length];
+    int checkpointCount = 0;
+    for (int caveId = 0; caveId < topology.cellCount(); caveId++) {
+      if (!isCave(caveId)) {
+        continue;
+      }
+      anyCave = true;
+      for (DungeonsGame.Direction direction : DIRECTIONS) {
+        if (!hasExit(caveId, direction)
+                || isCave(topology.neighbourId(caveId, direction))) {
+          continue;
+        }
+        // first find the length of the run and the cave it ends in, then walk it again
+        // to place the checkpoints for travelling away from this cave
+        int runLength = 0;
+        int current = caveId;
+        DungeonsGame.Direction exitDirection = direction;
+        while (!isCave(topology.neighbourId(current, exitDirection))) {
+          DungeonsGame.Direction entryDirection = GridTopology.opposite(exitDirection);
+          current = topology.neighbourId(current, exitDirection);
+          exitDirection = otherExit(current, entryDirection);
+          runLength++;
+        }
+        if (runLength <= CHECKPOINT_SPACING) {
+          continue;
+        }
+        int landing = topology.neighbourId(current, exitDirection) * DIRECTIONS.length
+                + GridTopology.opposite(exitDirection).ordinal();
+        current = caveId;
+        exitDirection = direction;
+        for (int position = 0; position < runLength; position++) {
+          DungeonsGame.Direction entryDirection = GridTopology.opposite(exitDirection);
+          current = topology.neighbourId(current, exitDirection);
+          exitDirection = otherExit(current, entryDirection);
+          if (position % CHECKPOINT_SPACING == 0) {
+            if (checkpointCount == keys.length) {
+              keys = Arrays.copyOf(keys, keys.length * 2);
+              landings = Arrays.copyOf(landings, landings.length * 2);
+            }
+            keys[checkpointCount] = index(current, exitDirection);
+            landings[checkpointCount] = landing;
+            checkpointCount++;
+          }
+        }
+      }
+    }
+    this.hasCave = anyCave;
+    int capacity = 2;
+    while (capacity < checkpointCount * 2) {
+      capacity <<= 1;
+    }
+    this.slotKeys = new int[capacity];
+    this.slotLandings = new int[capacity];
+    Arrays.fill(slotKeys, EMPTY);
+    for (int count = 0; count < checkpointCount; count++) {
+      int slot = slotOf(keys[count]);
+      while (slotKeys[slot] != EMPTY) {
+        slot = (slot + 1) & (capacity - 1);
+      }
+      slotKeys[slot] = keys[count];
+      slotLandings[slot] = landings[count];
+    }
+  }
+
+  /**
+   * This function is used to find the cell where an arrow shot from the given cell stops.
+   * Every cave the arrow enters uses up one unit of distance, including the first one. An
+   * arrow entering a cave travels straight on and misses if the cave has no exit opposite
+   * to the entry. An arrow shot over a distance of zero stops at the neighbouring cell.
+   *
+   * @param cellId    id of the cell the arrow is shot from
+   * @param direction direction the arrow is shot in
+   * @param distance  number of caves the arrow travels
+   * @return packed landing (cell id * 4 + entry direction ordinal) or {@link #MISSED}
+   */
+  int land(int cellId, DungeonsGame.Direction direction, int distance) {
+    if (!hasExit(cellId, direction)) {
+      return MISSED;
+    }
+    if (distance == 0) {
+      return topology.neighbourId(cellId, direction) * DIRECTIONS.length
+              + GridTopology.opposite(direction).ordinal();
+    }
+    if (!hasCave) {
+      // a dungeon made of a single ring of tunnels never lets the arrow reach a cave
+      return MISSED;
+    }
+    int landing = flight(cellId, direction);
+    for (int travelled = 1; travelled < distance; travelled++) {
+      // a cave lets the arrow pass straight through only
+      DungeonsGame.Direction exitDirection = GridTopology.opposite(entryOf(landing));
+      if (!hasExit(cellOf(landing), exitDirection)) {
+        return MISSED;
+      }
+      landing = flight(cellOf(landing), exitDirection);
+    }
+    return landing;
+  }
+
+  /**
+   * This function is used to get the cell id of a packed landing.
+   *
+   * @param landing packed landing
+   * @return id of the cell
+   */
+  static int cellOf(int landing) {
+    return landing / DIRECTIONS.length;
+  }
+
+  /**
+   * This function is used to get the direction an arrow enters the cell of a packed landing.
+   *
+   * @param landing packed landing
+   * @return entry direction
+   */
+  static DungeonsGame.Direction entryOf(int landing) {
+    return DIRECTIONS[landing % DIRECTIONS.length];
+  }
+
+  private int flight(int cellId, DungeonsGame.Direction direction) {
+    // follow the tunnels until a cave or a checkpoint is reached, which takes at most
+    // CHECKPOINT_SPACING steps
+    int current = cellId;
+    DungeonsGame.Direction exitDirection = direction;
+    while (true) {
+      int next = topology.neighbourId(current, exitDirection);
+      DungeonsGame.Direction entryDirection = GridTopology.opposite(exitDirection);
+      if (isCave(next)) {
+        return next * DIRECTIONS.length + entryDirection.ordinal();
+      }
+      current = next;
+      exitDirection = otherExit(current, entryDirection);
+      int landing = checkpoint(index(current, exitDirection));
+      if (landing != MISSED) {
+        return landing;
+      }
+    }
+  }
+
+  private int checkpoint(int key) {
+    int slot = slotOf(key);
+    while (slotKeys[slot] != EMPTY) {
+      if (slotKeys[slot] == key) {
+        return slotLandings[slot];
+      }
+      slot = (slot + 1) & (slotKeys.length - 1);
+    }
+    return MISSED;
+  }
+
+  private int slotOf(int key) {
+    return (key * 0x9E3779B9 >>> 7) & (slotKeys.length - 1);
+  }
+
+  private DungeonsGame.Direction otherExit(int tunnelId, DungeonsGame.Direction entryDirection) {
+    int otherExits = store.getExits(tunnelId) & ~(1 << entryDirection.ordinal());
+    return DIRECTIONS[Integer.numberOfTrailingZeros(otherExits)];
+  }
+
+  private boolean isCave(int cellId) {
+    return DungeonLayout.isCave(store.getExits(cellId));
+  }
+
+  private boolean hasExit(int cellId, DungeonsGame.Direction direction) {
+    return (store.getExits(cellId) & 1 << direction.ordinal()) != 0;
+  }
+
+  private static int index(int cellId, DungeonsGame.Direction direction) {
+    return cellId * DIRECTIONS.length + direction.ordinal();
+  }
+}
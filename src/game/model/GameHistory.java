@@ -1,70 +1,178 @@
 package game.model;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * This class implements the game history interface. This includes implementation for
  * adding events to the history and fetching the same from the history.
+ * The history is an append only log kept in two parallel arrays. A stored entry is never
+ * changed afterwards: growing the log copies it into larger arrays and clearing it starts
+ * new ones, so read only views and cursors can keep reading the arrays they were given.
  */
 public class GameHistory implements IGameHistory {
-  private final List<DungeonsGame.GameEvents> events;
-  private final List<String> locations;
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private DungeonsGame.GameEvents[] events;
+  private String[] locations;
+  private int size;
+  private final boolean readOnly;
 
   /**
    * Constructor for Game History.
    */
   public GameHistory() {
-    this.events = new ArrayList<>();
-    this.locations = new ArrayList<>();
+    this.events = new DungeonsGame.GameEvents[INITIAL_CAPACITY];
+    this.locations = new String[INITIAL_CAPACITY];
+    this.size = 0;
+    this.readOnly = false;
   }
 
   /**
    * Copy Constructor for Game History.
    */
   public GameHistory(IGameHistory instance) {
-    this.events = new ArrayList<>();
-    this.locations = new ArrayList<>();
+    this();
     for (int index = 0; index < instance.size(); index++) {
-      this.events.add(instance.getEventFromHistory(index));
-      this.locations.add(instance.getLocationFromHistory(index));
+      addToHistory(instance.getEventFromHistory(index), instance.getLocationFromHistory(index));
     }
   }
 
+  private GameHistory(DungeonsGame.GameEvents[] events, String[] locations, int size) {
+    this.events = events;
+    this.locations = locations;
+    this.size = size;
+    this.readOnly = true;
+  }
+
   @Override
   public void addToHistory(DungeonsGame.GameEvents event, String locationName)
           throws IllegalArgumentException {
+    checkWritable();
     if (event == null || locationName == null) {
       throw new IllegalArgumentException("Invalid arguments provided");
     }
-    events.add(event);
-    locations.add(locationName);
+    if (size == events.length) {
+      events = Arrays.copyOf(events, size * 2);
+      locations = Arrays.copyOf(locations, size * 2);
+    }
+    events[size] = event;
+    locations[size] = locationName;
+    size++;
   }
 
   @Override
   public DungeonsGame.GameEvents getEventFromHistory(int index) throws IllegalArgumentException {
-    if (index < 0 || index >= events.size()) {
+    if (index < 0 || index >= size) {
       throw new IllegalArgumentException("Invalid index provided");
     }
-    return events.get(index);
+    return events[index];
   }
 
   @Override
   public String getLocationFromHistory(int index) throws IllegalArgumentException {
-    if (index < 0 || index >= locations.size()) {
+    if (index < 0 || index >= size) {
       throw new IllegalArgumentException("Invalid index provided");
     }
-    return locations.get(index);
+    return locations[index];
   }
 
   @Override
   public int size() {
-    return events.size();
+    return size;
+  }
+
+  @Override
+  public DungeonsGame.GameEvents getLastEvent() throws IllegalStateException {
+    if (size == 0) {
+      throw new IllegalStateException("Game history is empty");
+    }
+    return events[size - 1];
+  }
+
+  @Override
+  public String getLastLocation() throws IllegalStateException {
+    if (size == 0) {
+      throw new IllegalStateException("Game history is empty");
+    }
+    return locations[size - 1];
+  }
+
+  @Override
+  public IHistoryCursor cursor(int offset) throws IllegalArgumentException {
+    if (offset < 0 || offset > size) {
+      throw new IllegalArgumentException("Invalid offset provided");
+    }
+    return new Cursor(events, locations, size, offset);
+  }
+
+  @Override
+  public IGameHistory getReadOnlyView() {
+    if (readOnly) {
+      return this;
+    }
+    return new GameHistory(events, locations, size);
   }
 
   @Override
   public void clear() {
-    events.clear();
-    locations.clear();
+    checkWritable();
+    // outstanding views keep the old arrays
+    events = new DungeonsGame.GameEvents[INITIAL_CAPACITY];
+    locations = new String[INITIAL_CAPACITY];
+    size = 0;
+  }
+
+  private void checkWritable() throws UnsupportedOperationException {
+    if (readOnly) {
+      throw new UnsupportedOperationException("Game history view is read only");
+    }
+  }
+
+  /**
+   * This class is used to read the events of the history from an offset up to the size the
+   * history had when the cursor was created.
+   */
+  private static final class Cursor implements IHistoryCursor {
+
+    private final DungeonsGame.GameEvents[] events;
+    private final String[] locations;
+    private final int start;
+    private final int end;
+    private int offset;
+
+    private Cursor(DungeonsGame.GameEvents[] events, String[] locations, int end, int offset) {
+      this.events = events;
+      this.locations = locations;
+      this.start = offset;
+      this.end = end;
+      this.offset = offset;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return offset < end;
+    }
+
+    @Override
+    public DungeonsGame.GameEvents next() throws IllegalStateException {
+      if (offset >= end) {
+        throw new IllegalStateException("No more events in the history");
+      }
+      return events[offset++];
+    }
+
+    @Override
+    public String getLocation() throws IllegalStateException {
+      if (offset == start) {
+        throw new IllegalStateException("No event has been read yet");
+      }
+      return locations[offset - 1];
+    }
+
+    @Override
+    public int getOffset() {
+      return offset;
+    }
   }
 }
@@ -0,0 +1,275 @@
+package game.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is used to rebuild a recorded game from its game history. The dungeon is
+ * generated again from the parameters and the seed of the recorded game, and the commands
+ * behind the recorded events are applied to it one turn after the other. A turn is one
+ * command of the player: the start of the game, a move, a shot or a pickup. Every replayed
+ * turn is checked against the recorded events, so a history which does not belong to the
+ * given dungeon is rejected.
+ * While replaying, the state of the game is saved every checkpoint interval turns. Seeking
+ * to a turn loads the closest earlier checkpoint and applies at most checkpoint interval
+ * minus one commands. A checkpoint holds the cell state, the player and the randomizer; the
+ * history is shared with the replay.
+ * The games are replayed on {@link CompactDungeonsGame}, which generates and plays exactly
+ * like {@link DungeonsGameImpl} and can save its state.
+ */
+public final class GameReplay {
+
+  private static final DungeonsGame.Direction[] DIRECTIONS = DungeonsGame.Direction.values();
+  private static final int START = 0;
+  private static final int MOVE = 1;
+  private static final int SHOOT = 2;
+  private static final int TREASURE_PICKUP = 3;
+  private static final int ARROW_PICKUP = 4;
+  private static final int COMMAND_BITS = 3;
+  private static final int DIRECTION_BITS = 2;
+
+  private final String playerName;
+  private final int checkpointInterval;
+  private final CompactDungeonsGame replayedGame;
+  private final int[] commands;
+  private final int[] historySizes;
+  private final List<byte[]> checkpointStates;
+
+  /**
+   * Constructor for the replay which replays the whole history once and saves the
+   * checkpoints.
+   *
+   * @param wrapType            type of wrap of the recorded game
+   * @param rowCount            number of rows of the recorded game
+   * @param columnCount         number of columns of the recorded game
+   * @param interConnectivity   interconnectivity of the recorded game
+   * @param distributionPercent treasure and arrow distribution percent of the recorded game
+   * @param monsterCount        number of monsters of the recorded game
+   * @param mazeAlgorithm       maze algorithm of the recorded game
+   * @param seed                seed the randomizer of the recorded game was seeded with
+   * @param playerName          name of the player
+   * @param gameHistory         recorded game history
+   * @param checkpointInterval  number of turns between two checkpoints
+   * @throws IllegalArgumentException if an argument is invalid or the history does not
+   *                                  belong to the dungeon
+   */
+  public GameReplay(DungeonsGame.WrapType wrapType, int rowCount, int columnCount,
+                    int interConnectivity, int distributionPercent, int monsterCount,
+                    DungeonsGame.MazeAlgorithm mazeAlgorithm, int seed, String playerName,
+                    IGameHistory gameHistory, int checkpointInterval)
+          throws IllegalArgumentException {
+    if (playerName == null || gameHistory == null || checkpointInterval <= 0) {
+      throw new IllegalArgumentException("Invalid replay parameters provided");
+    }
+    this.playerName = playerName;
+    this.checkpointInterval = checkpointInterval;
+    this.checkpointStates = new ArrayList<>();
+    this.replayedGame = new CompactDungeonsGame(wrapType, rowCount, columnCount,
+            interConnectivity, distributionPercent, monsterCount, mazeAlgorithm,
+            seededRandomizer(seed));
+    List<Integer> turnCommands = new ArrayList<>();
+    List<Integer> turnHistorySizes = new ArrayList<>();
+    int index = 0;
+    while (index < gameHistory.size()) {
+      if (turnCommands.size() % checkpointInterval == 0) {
+        saveCheckpoint();
+      }
+      int command = commandAt(replayedGame, gameHistory, index);
+      apply(replayedGame, command, playerName);
+      index = verify(replayedGame, gameHistory, index);
+      turnCommands.add(command);
+      turnHistorySizes.add(index);
+    }
+    if (turnCommands.size() % checkpointInterval == 0) {
+      saveCheckpoint();
+    }
+    this.commands = turnCommands.stream().mapToInt(Integer::intValue).toArray();
+    this.historySizes = turnHistorySizes.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  /**
+   * This function is used to replay a recorded game straight to its end without saving any
+   * checkpoint.
+   *
+   * @param wrapType            type of wrap of the recorded game
+   * @param rowCount            number of rows of the recorded game
+   * @param columnCount         number of columns of the recorded game
+   * @param interConnectivity   interconnectivity of the recorded game
+   * @param distributionPercent treasure and arrow distribution percent of the recorded game
+   * @param monsterCount        number of monsters of the recorded game
+   * @param mazeAlgorithm       maze algorithm of the recorded game
+   * @param seed                seed the randomizer of the recorded game was seeded with
+   * @param playerName          name of the player
+   * @param gameHistory         recorded game history
+   * @return game in the state the recorded game ended in
+   * @throws IllegalArgumentException if an argument is invalid or the history does not
+   *                                  belong to the dungeon
+   */
+  public static DungeonsGame fastForward(DungeonsGame.WrapType wrapType, int rowCount,
+                                         int columnCount, int interConnectivity,
+                                         int distributionPercent, int monsterCount,
+                                         DungeonsGame.MazeAlgorithm mazeAlgorithm, int seed,
+                                         String playerName, IGameHistory gameHistory)
+          throws IllegalArgumentException {
+    if (playerName == null || gameHistory == null) {
+      throw new IllegalArgumentException("Invalid replay parameters provided");
+    }
+    CompactDungeonsGame dungeonsGame = new CompactDungeonsGame(wrapType, rowCount, columnCount,
+            interConnectivity, distributionPercent, monsterCount, mazeAlgorithm,
+            seededRandomizer(seed));
+    int index = 0;
+    while (index < gameHistory.size()) {
+      apply(dungeonsGame, commandAt(dungeonsGame, gameHistory, index), playerName);
+      index = verify(dungeonsGame, gameHistory, index);
+    }
+    return dungeonsGame;
+  }
+
+  /**
+   * This function is used to get the number of turns of the recorded game.
+   *
+   * @return number of turns
+   */
+  public int getTurnCount() {
+    return commands.length;
+  }
+
+  /**
+   * This function is used to get the game as it was after the given number of turns. The
+   * returned game is independent of the replay and of other returned games, and can be
+   * played on.
+   *
+   * @param turn number of turns to be applied, from zero up to the turn count
+   * @return game after the turns
+   * @throws IllegalArgumentException if the turn is negative or beyond the turn count
+   */
+  public DungeonsGame seek(int turn) throws IllegalArgumentException {
+    if (turn < 0 || turn > commands.length) {
+      throw new IllegalArgumentException("Invalid turn provided");
+    }
+    int checkpoint = turn / checkpointInterval;
+    int checkpointTurn = checkpoint * checkpointInterval;
+    CompactDungeonsGame dungeonsGame;
+    try {
+      dungeonsGame = CompactDungeonsGame.load(
+              new ByteArrayInputStream(checkpointStates.get(checkpoint)),
+              replayedGame.branchHistory(checkpointTurn == 0 ? 0
+                      : historySizes[checkpointTurn - 1]));
+    } catch (IOException exception) {
+      throw new IllegalStateException("Checkpoint could not be read", exception);
+    }
+    for (int command = checkpointTurn; command < turn; command++) {
+      apply(dungeonsGame, commands[command], playerName);
+    }
+    return dungeonsGame;
+  }
+
+  private void saveCheckpoint() {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try {
+      replayedGame.saveWithoutHistory(output);
+    } catch (IOException exception) {
+      throw new IllegalStateException("Checkpoint could not be written", exception);
+    }
+    checkpointStates.add(output.toByteArray());
+  }
+
+  private static RandomNumberGeneratorImpl seededRandomizer(int seed) {
+    RandomNumberGeneratorImpl randomizer = new RandomNumberGeneratorImpl();
+    randomizer.setRandomSeed(seed);
+    return randomizer;
+  }
+
+  private static int commandAt(CompactDungeonsGame dungeonsGame, IGameHistory gameHistory,
+                               int index) throws IllegalArgumentException {
+    DungeonsGame.GameEvents event = gameHistory.getEventFromHistory(index);
+    if (index == 0) {
+      if (event != DungeonsGame.GameEvents.MOVE) {
+        throw new IllegalArgumentException("Recorded history does not start with the player");
+      }
+      return START;
+    }
+    int cellId = dungeonsGame.getCellId(gameHistory.getLocationFromHistory(index));
+    switch (event) {
+      case MOVE:
+        DungeonsGame.Direction direction = dungeonsGame.directionTo(cellId);
+        if (direction == null) {
+          throw new IllegalArgumentException("Recorded move at " + index
+                  + " does not follow an exit");
+        }
+        return MOVE | direction.ordinal() << COMMAND_BITS;
+      case ARROW_SHOOT:
+        int targetCellId = -1;
+        if (index + 1 < gameHistory.size() && gameHistory.getEventFromHistory(index + 1)
+                == DungeonsGame.GameEvents.MONSTER_HIT) {
+          targetCellId = dungeonsGame.getCellId(gameHistory.getLocationFromHistory(index + 1));
+        }
+        // any shot landing in the same cave, or missing like the recorded one, does the same
+        int shot = dungeonsGame.findShotInto(targetCellId);
+        if (shot < 0) {
+          throw new IllegalArgumentException("Recorded shot at " + index
+                  + " cannot be repeated");
+        }
+        return SHOOT | shot << COMMAND_BITS;
+      case TREASURE_PICKUP:
+        return TREASURE_PICKUP;
+      case ARROW_PICKUP:
+        return ARROW_PICKUP;
+      default:
+        throw new IllegalArgumentException("Recorded hit at " + index + " without a shot");
+    }
+  }
+
+  private static void apply(DungeonsGame dungeonsGame, int command, String playerName)
+          throws IllegalArgumentException {
+    try {
+      applyCommand(dungeonsGame, command, playerName);
+    } catch (IllegalStateException exception) {
+      throw new IllegalArgumentException("Recorded history does not match the replay at turn "
+              + dungeonsGame.getGameHistory().size(), exception);
+    }
+  }
+
+  private static void applyCommand(DungeonsGame dungeonsGame, int command, String playerName) {
+    int argument = command >>> COMMAND_BITS;
+    switch (command & ((1 << COMMAND_BITS) - 1)) {
+      case START:
+        dungeonsGame.startGameForPlayer(playerName);
+        break;
+      case MOVE:
+        dungeonsGame.movePlayerToLocation(DIRECTIONS[argument]);
+        break;
+      case SHOOT:
+        dungeonsGame.shootArrowForPlayer(DIRECTIONS[argument & ((1 << DIRECTION_BITS) - 1)],
+                argument >>> DIRECTION_BITS);
+        break;
+      case TREASURE_PICKUP:
+        dungeonsGame.pickUpTreasureCurrentLocation();
+        break;
+      default:
+        dungeonsGame.pickUpArrowCurrentLocation();
+        break;
+    }
+  }
+
+  private static int verify(DungeonsGame dungeonsGame, IGameHistory gameHistory, int index)
+          throws IllegalArgumentException {
+    IGameHistory replayedHistory = dungeonsGame.getGameHistory();
+    if (replayedHistory.size() <= index || replayedHistory.size() > gameHistory.size()) {
+      throw new IllegalArgumentException("Recorded history does not match the replay at "
+              + index);
+    }
+    for (; index < replayedHistory.size(); index++) {
+      if (replayedHistory.getEventFromHistory(index) != gameHistory.getEventFromHistory(index)
+              || !replayedHistory.getLocationFromHistory(index)
+              .equals(gameHistory.getLocationFromHistory(index))) {
+        throw new IllegalArgumentException("Recorded history does not match the replay at "
+                + index);
+      }
+    }
+    return index;
+  }
+}
@@ -0,0 +1,382 @@
+package game.model;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * This class is used to save and load a complete game session in a versioned binary format.
+ * The format starts with a header (magic number, format version, body length and a CRC32
+ * checksum of the body) followed by the body:
+ * grid shape and generation parameters, maze algorithm, seed and 48 bit state of the
+ * randomizer followed by its predefined values and the position in them (a count of -1 for a
+ * true random randomizer), start and end cell, monster table, one region of
+ * cell count bytes each for exits, packed treasure, arrow count and monster health code,
+ * the game state, the player (name, arrows, treasure counts and travelled path as cell ids)
+ * and the game history (event ordinal and cell id per entry).
+ * Cell types are not stored as they follow from the exits.
+ * Loading puts the cell regions into a store of the kind the loading game uses and builds a
+ * randomizer which continues with exactly the values the saved one would have produced next.
+ */
+final class GameSnapshot {
+
+  private static final int MAGIC = 0x44475356;
+  private static final int VERSION = 3;
+  private static final int FIXED_BODY_BYTES = 11 * Integer.BYTES + Long.BYTES + 2;
+  private static final int TRUE_RANDOM = -1;
+  private static final DungeonsGame.WrapType[] WRAP_TYPES = DungeonsGame.WrapType.values();
+  private static final DungeonsGame.MazeAlgorithm[] MAZE_ALGORITHMS =
+          DungeonsGame.MazeAlgorithm.values();
+  private static final DungeonsGame.GameState[] GAME_STATES = DungeonsGame.GameState.values();
+  private static final DungeonsGame.GameEvents[] GAME_EVENTS = DungeonsGame.GameEvents.values();
+  private static final DungeonsGame.TreasureType[] TREASURE_TYPES =
+          DungeonsGame.TreasureType.values();
+  private static final int HEALTH_CODES = Monster.Health.values().length;
+
+  private final DungeonLayout layout;
+  private final byte[] monsterHealth;
+  private final DungeonsGame.MazeAlgorithm mazeAlgorithm;
+  private final RandomNumberGeneratorImpl randomizer;
+  private final DungeonsGame.GameState gameState;
+  private final Player player;
+  private final int playerCellId;
+  private final PackedGameHistory gameHistory;
+
+  private GameSnapshot(DungeonLayout layout, byte[] monsterHealth,
+                       DungeonsGame.MazeAlgorithm mazeAlgorithm,
+                       RandomNumberGeneratorImpl randomizer, DungeonsGame.GameState gameState,
+                       Player player, int playerCellId, PackedGameHistory gameHistory) {
+    this.layout = layout;
+    this.monsterHealth = monsterHealth;
+    this.mazeAlgorithm = mazeAlgorithm;
+    this.randomizer = randomizer;
+    this.gameState = gameState;
+    this.player = player;
+    this.playerCellId = playerCellId;
+    this.gameHistory = gameHistory;
+  }
+
+  /**
+   * This function is used to write a game session to the given output.
+   *
+   * @param output        output to write to
+   * @param store         storage of the dungeon
+   * @param mazeAlgorithm algorithm the dungeon was generated with
+   * @param randomizer    randomizer of the game
+   * @param gameState     current game state
+   * @param player        current player or null if the game has not been started
+   * @param gameHistory   history of the game
+   * @throws IllegalArgumentException if any argument apart from the player is null or the
+   *                                  randomizer is not a {@link RandomNumberGeneratorImpl}
+   * @throws IOException              if writing to the output fails
+   */
+  static void write(OutputStream output, DungeonStore store,
+                    DungeonsGame.MazeAlgorithm mazeAlgorithm, RandomNumberGenerator randomizer,
+                    DungeonsGame.GameState gameState, Player player,
+                    PackedGameHistory gameHistory)
+          throws IllegalArgumentException, IOException {
+    if (output == null || store == null || mazeAlgorithm == null || randomizer == null
+            || gameState == null || gameHistory == null) {
+      throw new IllegalArgumentException("Input parameters cannot be null");
+    }
+    if (!(randomizer instanceof RandomNumberGeneratorImpl)) {
+      throw new IllegalArgumentException("Only the state of a RandomNumberGeneratorImpl "
+              + "can be saved, not of " + randomizer.getClass().getName());
+    }
+    RandomNumberGeneratorImpl savedRandomizer = (RandomNumberGeneratorImpl) randomizer;
+    int[] predefinedValues = savedRandomizer.getPredefinedValues();
+    GridTopology topology = store.getTopology();
+    int cellCount = topology.cellCount();
+    int[] monsterCellIds = store.getMonsterCellIds();
+    byte[] playerName = player == null ? new byte[0]
+            : player.getName().getBytes(StandardCharsets.UTF_8);
+    int pathLength = player == null ? 0 : player.getTravelledPath().size();
+    long bodyLength = FIXED_BODY_BYTES + (long) monsterCellIds.length * Integer.BYTES
+            + 4L * cellCount + Integer.BYTES
+            + (long) gameHistory.size() * (1 + Integer.BYTES);
+    if (predefinedValues != null) {
+      bodyLength += (long) (predefinedValues.length + 1) * Integer.BYTES;
+    }
+    if (player != null) {
+      bodyLength += (long) (3 + TREASURE_TYPES.length) * Integer.BYTES + playerName.length
+              + (long) pathLength * Integer.BYTES;
+    }
+    if (bodyLength > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Game is too large to be saved");
+    }
+    ByteBuffer body = ByteBuffer.allocate((int) bodyLength);
+    body.putInt(topology.getWrapType().ordinal());
+    body.putInt(topology.getRowCount());
+    body.putInt(topology.getColumnCount());
+    body.putInt(store.getInterConnectivity());
+    body.putInt(store.getDistributionPercent());
+    body.putInt(mazeAlgorithm.ordinal());
+    body.putInt(randomizer.getRandomSeed());
+    body.putLong(savedRandomizer.getState());
+    if (predefinedValues == null) {
+      body.putInt(TRUE_RANDOM);
+    } else {
+      body.putInt(predefinedValues.length);
+      for (int value : predefinedValues) {
+        body.putInt(value);
+      }
+      body.putInt(savedRandomizer.getPredefinedPosition());
+    }
+    body.putInt(store.getStartCellId());
+    body.putInt(store.getEndCellId());
+    body.putInt(monsterCellIds.length);
+    for (int cellId : monsterCellIds) {
+      body.putInt(cellId);
+    }
+    for (int cellId = 0; cellId < cellCount; cellId++) {
+      body.put(store.getExits(cellId));
+    }
+    for (int cellId = 0; cellId < cellCount; cellId++) {
+      body.put(store.getTreasure(cellId));
+    }
+    for (int cellId = 0; cellId < cellCount; cellId++) {
+      body.put(store.getArrows(cellId));
+    }
+    for (int cellId = 0; cellId < cellCount; cellId++) {
+      body.put(store.getMonsterHealth(cellId));
+    }
+    body.put((byte) gameState.ordinal());
+    body.put((byte) (player == null ? 0 : 1));
+    if (player != null) {
+      body.putInt(playerName.length);
+      body.put(playerName);
+      body.putInt(player.getArrowCount());
+      for (DungeonsGame.TreasureType treasureType : TREASURE_TYPES) {
+        body.putInt(player.getTreasureCount(treasureType));
+      }
+      body.putInt(pathLength);
+      for (int cellId : player.getTravelledCellIds()) {
+        body.putInt(cellId);
+      }
+    }
+    body.putInt(gameHistory.size());
+    for (int index = 0; index < gameHistory.size(); index++) {
+      body.put((byte) gameHistory.getEventFromHistory(index).ordinal());
+      body.putInt(gameHistory.getCellIdFromHistory(index));
+    }
+    CRC32 checksum = new CRC32();
+    checksum.update(body.array());
+    DataOutputStream dataOutput = new DataOutputStream(output);
+    dataOutput.writeInt(MAGIC);
+    dataOutput.writeInt(VERSION);
+    dataOutput.writeInt(body.capacity());
+    dataOutput.writeInt((int) checksum.getValue());
+    dataOutput.write(body.array());
+    dataOutput.flush();
+  }
+
+  /**
+   * This function is used to read a game session written by
+   * {@link #write(OutputStream, DungeonStore, DungeonsGame.MazeAlgorithm,
+   * RandomNumberGenerator, DungeonsGame.GameState, Player, PackedGameHistory)}.
+   *
+   * @param input input to read from
+   * @return the session read
+   * @throws IllegalArgumentException if the input is null, has an unknown version or is corrupt
+   * @throws IOException              if reading from the input fails
+   */
+  static GameSnapshot read(InputStream input) throws IllegalArgumentException, IOException {
+    if (input == null) {
+      throw new IllegalArgumentException("Input cannot be null");
+    }
+    DataInputStream dataInput = new DataInputStream(input);
+    if (dataInput.readInt() != MAGIC) {
+      throw new IllegalArgumentException("Not a saved dungeons game");
+    }
+    int version = dataInput.readInt();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported saved game version " + version);
+    }
+    int bodyLength = dataInput.readInt();
+    int expectedChecksum = dataInput.readInt();
+    if (bodyLength < FIXED_BODY_BYTES) {
+      throw new IllegalArgumentException("Saved game is corrupted");
+    }
+    byte[] bodyBytes = new byte[bodyLength];
+    dataInput.readFully(bodyBytes);
+    CRC32 checksum = new CRC32();
+    checksum.update(bodyBytes);
+    if ((int) checksum.getValue() != expectedChecksum) {
+      throw new IllegalArgumentException("Saved game is corrupted");
+    }
+    try {
+      return readBody(ByteBuffer.wrap(bodyBytes));
+    } catch (BufferUnderflowException | IndexOutOfBoundsException exception) {
+      throw new IllegalArgumentException("Saved game is corrupted", exception);
+    }
+  }
+
+  private static GameSnapshot readBody(ByteBuffer body) throws IllegalArgumentException {
+    DungeonsGame.WrapType wrapType = WRAP_TYPES[body.getInt()];
+    int rowCount = body.getInt();
+    int columnCount = body.getInt();
+    int interConnectivity = body.getInt();
+    int distributionPercent = body.getInt();
+    DungeonsGame.MazeAlgorithm mazeAlgorithm = MAZE_ALGORITHMS[body.getInt()];
+    RandomNumberGeneratorImpl randomizer = readRandomizer(body);
+    int startCellId = body.getInt();
+    int endCellId = body.getInt();
+    int monsterCount = body.getInt();
+    if (rowCount <= 0 || columnCount <= 0
+            || (long) rowCount * columnCount * 4 > body.remaining()
+            || monsterCount < 0 || monsterCount > body.remaining() / Integer.BYTES) {
+      throw new IllegalArgumentException("Saved game is corrupted");
+    }
+    GridTopology topology = new GridTopology(wrapType, rowCount, columnCount);
+    int cellCount = topology.cellCount();
+    checkCellId(topology, startCellId);
+    checkCellId(topology, endCellId);
+    int[] monsterCellIds = new int[monsterCount];
+    for (int count = 0; count < monsterCount; count++) {
+      monsterCellIds[count] = checkCellId(topology, body.getInt());
+    }
+    byte[] exits = new byte[cellCount];
+    byte[] treasure = new byte[cellCount];
+    byte[] arrows = new byte[cellCount];
+    body.get(exits);
+    body.get(treasure);
+    body.get(arrows);
+    byte[] monsterHealth = new byte[cellCount];
+    body.get(monsterHealth);
+    boolean[] monsterCells = new boolean[cellCount];
+    for (int cellId : monsterCellIds) {
+      monsterCells[cellId] = true;
+    }
+    for (int cellId = 0; cellId < cellCount; cellId++) {
+      // only the cells of the monster table hold a monster
+      int healthCode = monsterHealth[cellId];
+      if (monsterCells[cellId] ? healthCode <= DungeonLayout.NO_MONSTER
+              || healthCode > HEALTH_CODES : healthCode != DungeonLayout.NO_MONSTER) {
+        throw new IllegalArgumentException("Saved game is corrupted");
+      }
+    }
+    DungeonsGame.GameState gameState = GAME_STATES[body.get()];
+    Player player = null;
+    int playerCellId = -1;
+    if (body.get() != 0) {
+      int nameLength = body.getInt();
+      if (nameLength < 0 || nameLength > body.remaining()) {
+        throw new IllegalArgumentException("Saved game is corrupted");
+      }
+      byte[] playerName = new byte[nameLength];
+      body.get(playerName);
+      int arrowCount = body.getInt();
+      if (arrowCount < 0) {
+        throw new IllegalArgumentException("Saved game is corrupted");
+      }
+      player = new PlayerImpl(new String(playerName, StandardCharsets.UTF_8), topology,
+              arrowCount);
+      for (DungeonsGame.TreasureType treasureType : TREASURE_TYPES) {
+        int treasureCount = body.getInt();
+        if (treasureCount < 0) {
+          throw new IllegalArgumentException("Saved game is corrupted");
+        }
+        player.captureTreasure(treasureType, treasureCount);
+      }
+      int pathLength = body.getInt();
+      if (pathLength <= 0 || pathLength > body.remaining() / Integer.BYTES) {
+        throw new IllegalArgumentException("Saved game is corrupted");
+      }
+      for (int count = 0; count < pathLength; count++) {
+        playerCellId = checkCellId(topology, body.getInt());
+        player.addCellAsVisited(playerCellId);
+      }
+    }
+    int historySize = body.getInt();
+    if (historySize < 0 || historySize > body.remaining() / (1 + Integer.BYTES)) {
+      throw new IllegalArgumentException("Saved game is corrupted");
+    }
+    PackedGameHistory gameHistory = new PackedGameHistory(topology, false);
+    for (int index = 0; index < historySize; index++) {
+      DungeonsGame.GameEvents event = GAME_EVENTS[body.get()];
+      gameHistory.addToHistory(event, checkCellId(topology, body.getInt()));
+    }
+    if (body.hasRemaining()) {
+      throw new IllegalArgumentException("Saved game is corrupted");
+    }
+    return new GameSnapshot(new DungeonLayout(topology, interConnectivity, distributionPercent,
+            mazeAlgorithm, randomizer.getRandomSeed(), exits, startCellId, endCellId, treasure,
+            arrows, monsterCellIds), monsterHealth,
+            mazeAlgorithm, randomizer, gameState, player, playerCellId, gameHistory);
+  }
+
+  private static RandomNumberGeneratorImpl readRandomizer(ByteBuffer body)
+          throws IllegalArgumentException {
+    int seed = body.getInt();
+    long state = body.getLong();
+    int valueCount = body.getInt();
+    if (valueCount == TRUE_RANDOM) {
+      return new RandomNumberGeneratorImpl(seed, state);
+    }
+    if (valueCount < 0 || valueCount > body.remaining() / Integer.BYTES) {
+      throw new IllegalArgumentException("Saved game is corrupted");
+    }
+    int[] predefinedValues = new int[valueCount];
+    for (int index = 0; index < valueCount; index++) {
+      predefinedValues[index] = body.getInt();
+    }
+    int position = body.getInt();
+    if (position < 0 || position > valueCount) {
+      throw new IllegalArgumentException("Saved game is corrupted");
+    }
+    return new RandomNumberGeneratorImpl(predefinedValues, position);
+  }
+
+  private static int checkCellId(GridTopology topology, int cellId)
+          throws IllegalArgumentException {
+    if (cellId < 0 || cellId >= topology.cellCount()) {
+      throw new IllegalArgumentException("Saved game is corrupted");
+    }
+    return cellId;
+  }
+
+  /**
+   * This function is used to put the saved dungeon into a new store.
+   *
+   * @param storeFactory factory putting a dungeon into a store
+   * @return store holding the saved cells
+   */
+  DungeonStore createStore(Function<DungeonLayout, DungeonStore> storeFactory) {
+    DungeonStore store = storeFactory.apply(layout);
+    for (int cellId : layout.getMonsterCellIds()) {
+      store.setMonsterHealth(cellId, monsterHealth[cellId]);
+    }
+    return store;
+  }
+
+  DungeonsGame.MazeAlgorithm getMazeAlgorithm() {
+    return mazeAlgorithm;
+  }
+
+  RandomNumberGeneratorImpl getRandomizer() {
+    return randomizer;
+  }
+
+  DungeonsGame.GameState getGameState() {
+    return gameState;
+  }
+
+  Player getPlayer() {
+    return player;
+  }
+
+  int getPlayerCellId() {
+    return playerCellId;
+  }
+
+  PackedGameHistory getGameHistory() {
+    return gameHistory;
+  }
+}
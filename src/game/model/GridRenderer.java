@@ -0,0 +1,211 @@
+package game.model;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class is used to write the text grid of a dungeon to an output, one row after the
+ * other, without building the grid in memory. Every item of the grid is right aligned in a
+ * column of {@link #COLUMN_WIDTH} characters.
+ * The text of a cell is cached together with the packed cell state (and whether the player is
+ * in it) it was written for, so it is only built again once that cell changes. The cell id
+ * and this key decide the whole text within one dungeon, so a game and all its forks share
+ * one renderer and the cells they did not change are never written twice.
+ * The cache holds one text per cell in chunks of {@link #CHUNK_SIZE} cells. A chunk is only
+ * allocated once a cell of it is rendered, so games which are never drawn (like forks made
+ * during a search) do not pay for it and drawing part of a large grid only pays for the
+ * chunks it shows.
+ * Several threads may render at the same time, like those reading the published forks of a
+ * {@link ConcurrentDungeonsGame}. Every cached text is an immutable entry which is replaced
+ * as a whole, so a thread either finds a text for the state it renders or builds it again.
+ */
+final class GridRenderer {
+
+  private static final int COLUMN_WIDTH = 30;
+  private static final String BLANK = pad(" ");
+  private static final String WALL = pad("WALL");
+  private static final String PATH = pad("<--------->");
+  private static final String PIPE = pad("|");
+  private static final int PLAYER_FLAG = 1 << 24;
+  private static final int CHUNK_BITS = 10;
+  private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+  private final GridTopology topology;
+  private final AtomicReferenceArray<AtomicReferenceArray<CellText>> cellTexts;
+
+  /**
+   * Constructor for the renderer of a dungeon.
+   *
+   * @param topology topology of the dungeon
+   * @throws IllegalArgumentException if the topology is null
+   */
+  GridRenderer(GridTopology topology) throws IllegalArgumentException {
+    if (topology == null) {
+      throw new IllegalArgumentException("Invalid renderer parameters");
+    }
+    this.topology = topology;
+    this.cellTexts = new AtomicReferenceArray<>(
+            (topology.cellCount() + CHUNK_SIZE - 1) >>> CHUNK_BITS);
+  }
+
+  /**
+   * This function is used to write the whole grid.
+   *
+   * @param cellStates   cells of the game to be written
+   * @param output       output to write to
+   * @param playerCellId id of the cell of the player, -1 if the player has not entered
+   * @throws IOException if the output cannot be written
+   */
+  void render(CellStateTable cellStates, Appendable output, int playerCellId)
+          throws IOException {
+    render(cellStates, output, playerCellId, 0, 0, topology.getRowCount(),
+            topology.getColumnCount());
+  }
+
+  /**
+   * This function is used to write a rectangle of the grid. The walls and paths at the
+   * border of the rectangle are written like those at the border of the grid.
+   *
+   * @param cellStates   cells of the game to be written
+   * @param output       output to write to
+   * @param playerCellId id of the cell of the player, -1 if the player has not entered
+   * @param firstRow     first row of the rectangle
+   * @param firstColumn  first column of the rectangle
+   * @param rowCount     number of rows of the rectangle
+   * @param columnCount  number of columns of the rectangle
+   * @throws IOException              if the output cannot be written
+   * @throws IllegalArgumentException if the rectangle is empty or not inside the grid
+   */
+  void render(CellStateTable cellStates, Appendable output, int playerCellId, int firstRow,
+              int firstColumn, int rowCount, int columnCount)
+          throws IOException, IllegalArgumentException {
+    if (output == null || firstRow < 0 || firstColumn < 0 || rowCount <= 0 || columnCount <= 0
+            || firstRow + rowCount > topology.getRowCount()
+            || firstColumn + columnCount > topology.getColumnCount()) {
+      throw new IllegalArgumentException("Invalid area of the grid provided");
+    }
+    int lastColumn = firstColumn + columnCount - 1;
+    for (int row = firstRow; row < firstRow + rowCount; row++) {
+      renderVerticalLine(cellStates, output, row, firstColumn, lastColumn,
+              DungeonsGame.Direction.NORTH);
+      for (int column = firstColumn; column <= lastColumn; column++) {
+        int cellId = topology.cellId(row, column);
+        if (column > firstColumn) {
+          output.append(' ');
+        }
+        output.append(hasExit(cellStates, cellId, DungeonsGame.Direction.WEST) ? PATH : WALL);
+        output.append(' ').append(cellText(cellStates, cellId, cellId == playerCellId));
+      }
+      output.append(' ').append(hasExit(cellStates, topology.cellId(row, lastColumn),
+              DungeonsGame.Direction.EAST) ? PATH : WALL);
+      output.append('\n');
+    }
+    renderVerticalLine(cellStates, output, firstRow + rowCount - 1, firstColumn, lastColumn,
+            DungeonsGame.Direction.SOUTH);
+  }
+
+  private void renderVerticalLine(CellStateTable cellStates, Appendable output, int row,
+                                  int firstColumn, int lastColumn,
+                                  DungeonsGame.Direction direction) throws IOException {
+    for (int column = firstColumn; column <= lastColumn; column++) {
+      if (column > firstColumn) {
+        output.append(' ');
+      }
+      output.append(BLANK).append(' ')
+              .append(hasExit(cellStates, topology.cellId(row, column), direction)
+                      ? PIPE : WALL);
+    }
+    output.append('\n');
+  }
+
+  private static boolean hasExit(CellStateTable cellStates, int cellId,
+                                 DungeonsGame.Direction direction) {
+    return (cellStates.getExits(cellId) & (1 << direction.ordinal())) != 0;
+  }
+
+  private String cellText(CellStateTable cellStates, int cellId, boolean hasPlayer) {
+    int cellState = cellStates.getCellState(cellId);
+    int key = hasPlayer ? cellState | PLAYER_FLAG : cellState;
+    int chunk = cellId >>> CHUNK_BITS;
+    AtomicReferenceArray<CellText> texts = cellTexts.get(chunk);
+    if (texts == null) {
+      // only one chunk is kept when several threads allocate it at the same time
+      cellTexts.compareAndSet(chunk, null, new AtomicReferenceArray<>(
+              Math.min(CHUNK_SIZE, topology.cellCount() - (chunk << CHUNK_BITS))));
+      texts = cellTexts.get(chunk);
+    }
+    int slot = cellId & (CHUNK_SIZE - 1);
+    CellText cached = texts.get(slot);
+    if (cached != null && cached.key == key) {
+      return cached.text;
+    }
+    String text = pad(describeCell(cellStates, cellId, cellState, hasPlayer));
+    texts.set(slot, new CellText(key, text));
+    return text;
+  }
+
+  private static String describeCell(CellStateTable cellStates, int cellId, int cellState,
+                                     boolean hasPlayer) {
+    StringBuilder cellInformation = new StringBuilder(COLUMN_WIDTH);
+    if (hasPlayer) {
+      // add * to show the current location of the player
+      cellInformation.append('*');
+    }
+    cellInformation.append(GridTopology.cellName(cellId));
+    cellInformation.append('{').append(DungeonLayout.isCave(cellStates.getExits(cellId))
+            ? DungeonCell.CellType.CAVE : DungeonCell.CellType.TUNNEL).append('}');
+    cellInformation.append('[');
+    byte packedTreasure = CellStateTable.treasureOf(cellState);
+    for (int slot = 0; slot < DungeonLayout.treasureCount(packedTreasure); slot++) {
+      if (slot > 0) {
+        cellInformation.append(',');
+      }
+      DungeonsGame.TreasureType treasure = DungeonLayout.treasureAt(packedTreasure, slot);
+      if (treasure == DungeonsGame.TreasureType.DIAMONDS) {
+        cellInformation.append('D');
+      } else if (treasure == DungeonsGame.TreasureType.RUBIES) {
+        cellInformation.append('R');
+      } else {
+        cellInformation.append('S');
+      }
+    }
+    cellInformation.append("]<");
+    if (CellStateTable.healthOf(cellState) != DungeonLayout.NO_MONSTER) {
+      cellInformation.append(cellStates.getMonsterName(cellId));
+    }
+    cellInformation.append(">(");
+    for (int count = 0; count < CellStateTable.arrowsOf(cellState); count++) {
+      if (count > 0) {
+        cellInformation.append(',');
+      }
+      cellInformation.append('A');
+    }
+    cellInformation.append(')');
+    return cellInformation.toString();
+  }
+
+  private static String pad(String text) {
+    if (text.length() >= COLUMN_WIDTH) {
+      return text;
+    }
+    StringBuilder padded = new StringBuilder(COLUMN_WIDTH);
+    for (int count = text.length(); count < COLUMN_WIDTH; count++) {
+      padded.append(' ');
+    }
+    return padded.append(text).toString();
+  }
+
+  /**
+   * This class is used to represent a cached text together with the state it was written for.
+   */
+  private static final class CellText {
+
+    private final int key;
+    private final String text;
+
+    private CellText(int key, String text) {
+      this.key = key;
+      this.text = text;
+    }
+  }
+}
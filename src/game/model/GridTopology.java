@@ -0,0 +1,208 @@
+package game.model;
+
+/**
+ * This class is used to describe the shape of a dungeon grid using integer cell ids.
+ * A cell id is the row major index of a cell (row * columns + column). It provides
+ * neighbour resolution for both wrapping and non-wrapping dungeons and the enumeration
+ * of all potential paths (edges) between neighbouring cells.
+ */
+final class GridTopology {
+
+  private static final String CELL_NAME_PREFIX = "Cell-";
+  // opposite direction by ordinal of the direction
+  private static final DungeonsGame.Direction[] OPPOSITES = {
+      DungeonsGame.Direction.SOUTH, DungeonsGame.Direction.NORTH,
+      DungeonsGame.Direction.WEST, DungeonsGame.Direction.EAST
+  };
+
+  private final DungeonsGame.WrapType wrapType;
+  private final int rowCount;
+  private final int columnCount;
+  private final int horizontalEdgesPerRow;
+  private final int horizontalEdgeCount;
+  private final int edgeCount;
+
+  /**
+   * Constructor for the grid topology.
+   *
+   * @param wrapType    type of wrap
+   * @param rowCount    number of rows in the grid
+   * @param columnCount number of columns in the grid
+   * @throws IllegalArgumentException if the wrap type is null or the dimensions are not positive
+   */
+  GridTopology(DungeonsGame.WrapType wrapType, int rowCount, int columnCount)
+          throws IllegalArgumentException {
+    if (wrapType == null || rowCount <= 0 || columnCount <= 0) {
+      throw new IllegalArgumentException("Invalid grid topology parameters");
+    }
+    this.wrapType = wrapType;
+    this.rowCount = rowCount;
+    this.columnCount = columnCount;
+    int wrap = wrapType == DungeonsGame.WrapType.WRAPPING ? 1 : 0;
+    this.horizontalEdgesPerRow = columnCount - 1 + wrap;
+    this.horizontalEdgeCount = rowCount * horizontalEdgesPerRow;
+    this.edgeCount = horizontalEdgeCount + (rowCount - 1 + wrap) * columnCount;
+  }
+
+  /**
+   * This function is used to get the name of the cell for the given id.
+   * It matches the naming used throughout the game ("Cell-01" for id zero).
+   *
+   * @param cellId id of the cell
+   * @return name of the cell
+   */
+  static String cellName(int cellId) {
+    return String.format(CELL_NAME_PREFIX + "%02d", cellId + 1);
+  }
+
+  /**
+   * This function is used to get the id of the cell with the given name without
+   * searching the grid. It is the inverse of {@link #cellName(int)}.
+   *
+   * @param cellName name of the cell
+   * @return id of the cell or -1 if the name does not belong to this grid
+   */
+  int cellIdOf(String cellName) {
+    if (cellName == null || !cellName.startsWith(CELL_NAME_PREFIX)) {
+      return -1;
+    }
+    int digits = cellName.length() - CELL_NAME_PREFIX.length();
+    // names are padded to two digits, so only those may start with a zero
+    if (digits < 2 || digits > 10 || (digits > 2 && cellName.charAt(CELL_NAME_PREFIX.length())
+            == '0')) {
+      return -1;
+    }
+    long number = 0;
+    for (int index = CELL_NAME_PREFIX.length(); index < cellName.length(); index++) {
+      char digit = cellName.charAt(index);
+      if (digit < '0' || digit > '9') {
+        return -1;
+      }
+      number = number * 10 + (digit - '0');
+    }
+    if (number < 1 || number > cellCount()) {
+      return -1;
+    }
+    return (int) number - 1;
+  }
+
+  /**
+   * This function is used to get the direction opposite to the given direction.
+   *
+   * @param direction direction
+   * @return opposite direction
+   */
+  static DungeonsGame.Direction opposite(DungeonsGame.Direction direction) {
+    return OPPOSITES[direction.ordinal()];
+  }
+
+  DungeonsGame.WrapType getWrapType() {
+    return wrapType;
+  }
+
+  int getRowCount() {
+    return rowCount;
+  }
+
+  int getColumnCount() {
+    return columnCount;
+  }
+
+  int cellCount() {
+    return rowCount * columnCount;
+  }
+
+  int cellId(int row, int column) {
+    return row * columnCount + column;
+  }
+
+  int row(int cellId) {
+    return cellId / columnCount;
+  }
+
+  int column(int cellId) {
+    return cellId % columnCount;
+  }
+
+  /**
+   * This function is used to get the id of the neighbouring cell in the given direction.
+   *
+   * @param cellId    id of the cell
+   * @param direction direction of the neighbour
+   * @return id of the neighbour or -1 if the grid does not wrap in that direction
+   */
+  int neighbourId(int cellId, DungeonsGame.Direction direction) {
+    int row = row(cellId);
+    int column = column(cellId);
+    boolean wrapping = wrapType == DungeonsGame.WrapType.WRAPPING;
+    switch (direction) {
+      case NORTH:
+        if (row == 0) {
+          return wrapping ? cellId(rowCount - 1, column) : -1;
+        }
+        return cellId - columnCount;
+      case SOUTH:
+        if (row == rowCount - 1) {
+          return wrapping ? column : -1;
+        }
+        return cellId + columnCount;
+      case EAST:
+        if (column == columnCount - 1) {
+          return wrapping ? cellId(row, 0) : -1;
+        }
+        return cellId + 1;
+      case WEST:
+        if (column == 0) {
+          return wrapping ? cellId(row, columnCount - 1) : -1;
+        }
+        return cellId - 1;
+      default:
+        return -1;
+    }
+  }
+
+  /**
+   * This function is used to get the total number of potential paths in the grid.
+   *
+   * @return number of edges
+   */
+  int edgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * This function is used to get the cell where the given edge starts. Edges are numbered
+   * in the same order the potential paths have always been listed: all left to right paths
+   * row by row first, followed by all up to down paths row by row.
+   *
+   * @param edge edge index
+   * @return id of the first cell of the edge
+   */
+  int edgeSource(int edge) {
+    if (edge < horizontalEdgeCount) {
+      return cellId(edge / horizontalEdgesPerRow, edge % horizontalEdgesPerRow);
+    }
+    return edge - horizontalEdgeCount;
+  }
+
+  /**
+   * This function is used to get the direction of the edge as seen from its source cell.
+   *
+   * @param edge edge index
+   * @return EAST for left to right paths and SOUTH for up to down paths
+   */
+  DungeonsGame.Direction edgeDirection(int edge) {
+    return edge < horizontalEdgeCount ? DungeonsGame.Direction.EAST
+            : DungeonsGame.Direction.SOUTH;
+  }
+
+  /**
+   * This function is used to get the cell where the given edge ends.
+   *
+   * @param edge edge index
+   * @return id of the second cell of the edge
+   */
+  int edgeTarget(int edge) {
+    return neighbourId(edgeSource(edge), edgeDirection(edge));
+  }
+}
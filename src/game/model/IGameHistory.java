@@ -3,7 +3,8 @@ package game.model;
 /**
  * This interface is used to represent the game history of the game.
  * It includes information regarding various events along with the
- * dungeon locations.
+ * dungeon locations. Events are only ever appended, so read only views and cursors can
+ * share the storage of the history instead of copying it.
  */
 public interface IGameHistory {
 
@@ -12,6 +13,7 @@ public interface IGameHistory {
    *
    * @param event        event to be added in history
    * @param locationName name of location where the event happened
+   * @throws UnsupportedOperationException if the history is a read only view
    */
   void addToHistory(DungeonsGame.GameEvents event, String locationName)
           throws IllegalArgumentException;
@@ -40,7 +42,43 @@ public interface IGameHistory {
   int size();
 
   /**
-   * clears the game history.
+   * gets the most recent event of the history.
+   *
+   * @return last event in the history
+   * @throws IllegalStateException if the history is empty
+   */
+  DungeonsGame.GameEvents getLastEvent() throws IllegalStateException;
+
+  /**
+   * gets the location of the most recent event of the history.
+   *
+   * @return location name of the last event in the history
+   * @throws IllegalStateException if the history is empty
+   */
+  String getLastLocation() throws IllegalStateException;
+
+  /**
+   * gets a cursor which reads the events starting at the given offset.
+   *
+   * @param offset index of the first event to be read, at most the size of the history
+   * @return cursor over the events from the offset
+   * @throws IllegalArgumentException if the offset is negative or beyond the history
+   */
+  IHistoryCursor cursor(int offset) throws IllegalArgumentException;
+
+  /**
+   * gets a read only view of the history as it is now. The view shares the storage of the
+   * history, so getting one does not copy any event, and events added later are not part of
+   * the view.
+   *
+   * @return read only view of the history
+   */
+  IGameHistory getReadOnlyView();
+
+  /**
+   * clears the game history. Views taken before clearing keep their events.
+   *
+   * @throws UnsupportedOperationException if the history is a read only view
    */
   void clear();
 }
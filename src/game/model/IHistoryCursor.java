@@ -0,0 +1,41 @@
+package game.model;
+
+/**
+ * This interface is used to read the events of a game history one after the other, starting
+ * from a given offset. A viewer keeps the offset of its cursor and asks for a new cursor from
+ * that offset later on, so it only reads the events which are new since then.
+ */
+public interface IHistoryCursor {
+
+  /**
+   * This function is used to check if there is another event to read.
+   *
+   * @return true if there is another event to read
+   */
+  boolean hasNext();
+
+  /**
+   * This function is used to move to the next event and get it.
+   *
+   * @return next event
+   * @throws IllegalStateException if there is no event left to read
+   */
+  DungeonsGame.GameEvents next() throws IllegalStateException;
+
+  /**
+   * This function is used to get the location of the event returned by the last call to
+   * {@link #next()}.
+   *
+   * @return location name of the current event
+   * @throws IllegalStateException if no event has been read yet
+   */
+  String getLocation() throws IllegalStateException;
+
+  /**
+   * This function is used to get the offset of the next event to be read. Passing it to
+   * {@link IGameHistory#cursor(int)} later continues reading where this cursor stopped.
+   *
+   * @return offset of the next event
+   */
+  int getOffset();
+}
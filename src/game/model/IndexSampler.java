@@ -0,0 +1,180 @@
+package game.model;
+
+import java.util.Arrays;
+
+/**
+ * This class is used to draw indexes from [0, population size) without replacement using a
+ * partial Fisher-Yates shuffle. Every draw takes one random value in [0, remaining) and
+ * swaps the drawn position with the last remaining one, so each draw is O(1) and a sampler
+ * never runs out of fresh indexes before the population is exhausted. Only the positions
+ * touched by a swap are remembered, so the memory used grows with the number of draws
+ * instead of the population size. They are kept in primitive maps, so a draw does not box
+ * any values, and a small population is kept in plain arrays instead.
+ */
+public final class IndexSampler {
+
+  private static final int ARRAY_POPULATION_LIMIT = 1 << 12;
+
+  private final RandomNumberGenerator randomizer;
+  private final int populationSize;
+  private final IdentityMap valueAtPosition;
+  private final IdentityMap positionOfValue;
+  private int remaining;
+
+  /**
+   * Constructor for the sampler.
+   *
+   * @param randomizer     randomizer used for the draws
+   * @param populationSize number of indexes to draw from
+   * @throws IllegalArgumentException if the randomizer is null or the size is negative
+   */
+  public IndexSampler(RandomNumberGenerator randomizer, int populationSize)
+          throws IllegalArgumentException {
+    if (randomizer == null || populationSize < 0) {
+      throw new IllegalArgumentException("Invalid sampler parameters provided");
+    }
+    this.randomizer = randomizer;
+    this.populationSize = populationSize;
+    this.valueAtPosition = new IdentityMap(populationSize);
+    this.positionOfValue = new IdentityMap(populationSize);
+    this.remaining = populationSize;
+  }
+
+  /**
+   * This function is used to get the number of indexes which can still be drawn.
+   *
+   * @return number of remaining indexes
+   */
+  public int remaining() {
+    return remaining;
+  }
+
+  /**
+   * This function is used to draw the next index at random.
+   *
+   * @return drawn index
+   * @throws IllegalStateException if all indexes have been drawn already
+   */
+  public int next() throws IllegalStateException {
+    if (remaining == 0) {
+      throw new IllegalStateException("No more indexes available to draw");
+    }
+    int position = randomizer.generateRandomValueForRange(0, remaining);
+    if (position < 0 || position >= remaining) {
+      throw new IllegalStateException("Random value is outside the requested range");
+    }
+    return removeAt(position);
+  }
+
+  /**
+   * This function is used to take the given index out of the population without a draw.
+   * Excluding an index which has already been drawn or excluded does nothing.
+   *
+   * @param index index to exclude
+   * @return true if the index was still part of the population
+   */
+  public boolean exclude(int index) {
+    if (index < 0 || index >= populationSize) {
+      return false;
+    }
+    int position = positionOfValue.get(index);
+    if (position >= remaining || valueAt(position) != index) {
+      return false;
+    }
+    removeAt(position);
+    return true;
+  }
+
+  private int valueAt(int position) {
+    return valueAtPosition.get(position);
+  }
+
+  private int removeAt(int position) {
+    int value = valueAt(position);
+    int last = remaining - 1;
+    int lastValue = valueAt(last);
+    // move the last remaining value into the freed position, the last position is never
+    // read again
+    valueAtPosition.put(position, lastValue);
+    positionOfValue.put(lastValue, position);
+    positionOfValue.put(value, last);
+    remaining--;
+    return value;
+  }
+
+  /**
+   * This class is used to map indexes of the population to indexes, where every index not
+   * put yet maps to itself. A small population is kept in an array holding every index, a
+   * large one in an open addressing table holding only the indexes put.
+   */
+  private static final class IdentityMap {
+    private static final int FIRST_CAPACITY = 16;
+    private static final int EMPTY = -1;
+
+    private final int[] values;
+    private int[] slotKeys;
+    private int[] slotValues;
+    private int size;
+
+    private IdentityMap(int populationSize) {
+      if (populationSize <= ARRAY_POPULATION_LIMIT) {
+        values = new int[populationSize];
+        for (int index = 0; index < populationSize; index++) {
+          values[index] = index;
+        }
+      } else {
+        values = null;
+        createSlots(FIRST_CAPACITY);
+      }
+    }
+
+    private void createSlots(int slotCount) {
+      slotKeys = new int[slotCount];
+      slotValues = new int[slotCount];
+      Arrays.fill(slotKeys, EMPTY);
+    }
+
+    private int slotOf(int key) {
+      int mask = slotKeys.length - 1;
+      int slot = (key * 0x9E3779B9) >>> 7 & mask;
+      while (slotKeys[slot] != EMPTY && slotKeys[slot] != key) {
+        slot = (slot + 1) & mask;
+      }
+      return slot;
+    }
+
+    private int get(int key) {
+      if (values != null) {
+        return values[key];
+      }
+      int slot = slotOf(key);
+      return slotKeys[slot] == EMPTY ? key : slotValues[slot];
+    }
+
+    private void put(int key, int value) {
+      if (values != null) {
+        values[key] = value;
+        return;
+      }
+      int slot = slotOf(key);
+      if (slotKeys[slot] == EMPTY) {
+        if ((size + 1) * 2 > slotKeys.length) {
+          int[] oldKeys = slotKeys;
+          int[] oldValues = slotValues;
+          createSlots(slotKeys.length * 2);
+          for (int oldSlot = 0; oldSlot < oldKeys.length; oldSlot++) {
+            if (oldKeys[oldSlot] != EMPTY) {
+              int newSlot = slotOf(oldKeys[oldSlot]);
+              slotKeys[newSlot] = oldKeys[oldSlot];
+              slotValues[newSlot] = oldValues[oldSlot];
+            }
+          }
+          slot = slotOf(key);
+        }
+        slotKeys[slot] = key;
+        size++;
+      }
+      slotValues[slot] = value;
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package game.model;
+
+/**
+ * This class is used to pick and remove the n-th remaining element of a sequence
+ * 0..size-1 in logarithmic time. It behaves exactly like calling remove(n) on a list
+ * holding the remaining elements in their original order, which lets the generation code
+ * consume random draws the same way it always did without paying for list shifting.
+ * It is backed by a Fenwick (binary indexed) tree of presence counts.
+ */
+final class IndexSelectionTree {
+
+  private final int[] tree;
+  private final int highestBit;
+  private int remaining;
+
+  /**
+   * Constructor for the selection tree. All elements start as present.
+   *
+   * @param size number of elements
+   * @throws IllegalArgumentException if the size is negative
+   */
+  IndexSelectionTree(int size) throws IllegalArgumentException {
+    if (size < 0) {
+      throw new IllegalArgumentException("Size cannot be negative");
+    }
+    tree = new int[size + 1];
+    // linear time construction of a tree where every element has a count of one
+    for (int index = 1; index <= size; index++) {
+      tree[index]++;
+      int parentIndex = index + (index & -index);
+      if (parentIndex <= size) {
+        tree[parentIndex] += tree[index];
+      }
+    }
+    highestBit = size == 0 ? 0 : Integer.highestOneBit(size);
+    remaining = size;
+  }
+
+  /**
+   * This function is used to get the number of elements still present.
+   *
+   * @return remaining element count
+   */
+  int size() {
+    return remaining;
+  }
+
+  /**
+   * This function is used to remove the element at the given position among the
+   * remaining elements.
+   *
+   * @param position position among the remaining elements
+   * @return the original index of the removed element
+   * @throws IndexOutOfBoundsException if the position is not valid
+   */
+  int removeAt(int position) throws IndexOutOfBoundsException {
+    if (position < 0 || position >= remaining) {
+      throw new IndexOutOfBoundsException("Index " + position + " out of bounds for length "
+              + remaining);
+    }
+    // find the smallest index whose prefix count is greater than position
+    int index = 0;
+    int rest = position;
+    for (int step = highestBit; step > 0; step >>= 1) {
+      int next = index + step;
+      if (next < tree.length && tree[next] <= rest) {
+        index = next;
+        rest -= tree[next];
+      }
+    }
+    // index is now the 0-based element, update counts on the 1-based tree
+    for (int treeIndex = index + 1; treeIndex < tree.length; treeIndex += treeIndex & -treeIndex) {
+      tree[treeIndex]--;
+    }
+    remaining--;
+    return index;
+  }
+}
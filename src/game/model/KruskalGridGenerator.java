@@ -0,0 +1,80 @@
+package game.model;
+
+/**
+ * This class is used to generate the paths of a dungeon using randomized Kruskal.
+ * It works purely on integer cell ids: potential paths are edge indexes of a
+ * {@link GridTopology}, groups of cells are tracked by a {@link DisjointSet} and the
+ * result is an exit bitmask per cell (bit position = direction ordinal).
+ * The random draws are consumed in the same order and with the same ranges as the
+ * original list based implementation, so a given randomizer sequence produces the
+ * same dungeon.
+ */
+final class KruskalGridGenerator implements MazeGenerator {
+
+  private final GridTopology topology;
+  private final RandomNumberGenerator randomizer;
+
+  /**
+   * Constructor for the generator.
+   *
+   * @param topology   shape of the grid
+   * @param randomizer randomizer instance
+   * @throws IllegalArgumentException if any argument is null
+   */
+  KruskalGridGenerator(GridTopology topology, RandomNumberGenerator randomizer)
+          throws IllegalArgumentException {
+    if (topology == null || randomizer == null) {
+      throw new IllegalArgumentException("Input parameters cannot be null");
+    }
+    this.topology = topology;
+    this.randomizer = randomizer;
+  }
+
+  /**
+   * This function is used to generate the exits of every cell.
+   *
+   * @param interConnectivity number of extra paths on top of the spanning tree
+   * @return exit bitmask per cell id
+   * @throws IllegalArgumentException if the interconnectivity > left over paths
+   */
+  @Override
+  public byte[] generateExits(int interConnectivity) throws IllegalArgumentException {
+    int edgeCount = topology.edgeCount();
+    byte[] exits = new byte[topology.cellCount()];
+    DisjointSet groups = new DisjointSet(topology.cellCount());
+    IndexSelectionTree potentialPaths = new IndexSelectionTree(edgeCount);
+    // shuffle the edges once, drawing exactly like removing from the list of potential paths
+    int[] leftOverPaths = new int[edgeCount];
+    int leftOverCount = 0;
+    for (int drawn = 0; drawn < edgeCount; drawn++) {
+      int randomIndex = randomizer.generateRandomValueForRange(0, edgeCount - drawn);
+      int edge = potentialPaths.removeAt(randomIndex);
+      int source = topology.edgeSource(edge);
+      int target = topology.edgeTarget(edge);
+      if (groups.union(source, target)) {
+        openEdge(exits, edge, source, target);
+      } else {
+        // both cells are part of the same group, so add them to left over path
+        leftOverPaths[leftOverCount++] = edge;
+      }
+    }
+    // now we have a grid with zero interconnectivity.
+    if (interConnectivity > leftOverCount) {
+      throw new IllegalArgumentException("Interconnectivity "
+              + "provided is not possible with the current grid");
+    }
+    IndexSelectionTree extraPaths = new IndexSelectionTree(leftOverCount);
+    for (int selectionCount = 0; selectionCount < interConnectivity; selectionCount++) {
+      int randomIndex = randomizer.generateRandomValueForRange(0, extraPaths.size());
+      int edge = leftOverPaths[extraPaths.removeAt(randomIndex)];
+      openEdge(exits, edge, topology.edgeSource(edge), topology.edgeTarget(edge));
+    }
+    return exits;
+  }
+
+  private void openEdge(byte[] exits, int edge, int source, int target) {
+    DungeonsGame.Direction direction = topology.edgeDirection(edge);
+    exits[source] |= 1 << direction.ordinal();
+    exits[target] |= 1 << GridTopology.opposite(direction).ordinal();
+  }
+}
@@ -0,0 +1,86 @@
+package game.model;
+
+import java.util.List;
+
+/**
+ * This interface is used to describe the location of the player in a structured format.
+ * This includes the cell type, treasure, arrows, monster, exits and smell of the location,
+ * as they were when the location was queried.
+ */
+public interface LocationInfo {
+
+  /**
+   * gets the id of the cell (row * column count + column).
+   * @return id of the cell
+   */
+  int getCellId();
+
+  /**
+   * gets the name of the cell.
+   * @return name of the cell
+   */
+  String getCellName();
+
+  /**
+   * gets the type of the cell.
+   * @return cave or tunnel
+   */
+  DungeonCell.CellType getCellType();
+
+  /**
+   * gets the treasures available in the cell, in the order they were placed.
+   * @return read only list of treasures
+   */
+  List<DungeonsGame.TreasureType> getTreasures();
+
+  /**
+   * gets the number of treasures of the given type available in the cell.
+   * @param treasure type of treasure
+   * @return number of treasures of the type
+   */
+  int getTreasureCount(DungeonsGame.TreasureType treasure);
+
+  /**
+   * gets the number of arrows available in the cell.
+   * @return number of arrows
+   */
+  int getArrowCount();
+
+  /**
+   * checks if there is a monster in the cell, alive or dead.
+   * @return true if the cell has a monster
+   */
+  boolean hasMonster();
+
+  /**
+   * gets the name of the monster in the cell.
+   * @return name of the monster, null if the cell has no monster
+   */
+  String getMonsterName();
+
+  /**
+   * gets the health of the monster in the cell.
+   * @return health of the monster, null if the cell has no monster
+   */
+  Monster.Health getMonsterHealth();
+
+  /**
+   * checks if the cell has an exit in the given direction.
+   * @param direction direction of the exit
+   * @return true if the player can move in the direction
+   */
+  boolean hasExit(DungeonsGame.Direction direction);
+
+  /**
+   * gets the name of the cell behind the exit in the given direction.
+   * @param direction direction of the exit
+   * @return name of the neighbouring cell, null if there is no exit in the direction
+   */
+  String getNeighbourName(DungeonsGame.Direction direction);
+
+  /**
+   * gets the smell of the location.
+   * @return smell of the location
+   */
+  DungeonsGame.SmellType getSmell();
+}
@@ -0,0 +1,66 @@
+package game.model;
+
+import java.util.List;
+
+/**
+ * This class is used to write the text description of the location of the player. Both game
+ * models and the console controller describe a location through it, so the text is the same
+ * wherever it is shown.
+ */
+public final class LocationInfoFormatter {
+
+  private LocationInfoFormatter() {
+  }
+
+  /**
+   * This function is used to describe the given location: its name and type, the treasure,
+   * the arrows, the monster and the directions the player can move in.
+   *
+   * @param locationInfo location to be described
+   * @return text description of the location
+   * @throws IllegalArgumentException if the location is null
+   */
+  public static String format(LocationInfo locationInfo) throws IllegalArgumentException {
+    if (locationInfo == null) {
+      throw new IllegalArgumentException("Location info cannot be null");
+    }
+    StringBuilder locationInformation = new StringBuilder();
+    //current location
+    locationInformation.append(String.format("Player's Current Location: %s\n",
+            locationInfo.getCellName()));
+    //current location type
+    locationInformation.append(String.format("Player's Current Location Type: %s\n",
+            locationInfo.getCellType()));
+    // treasure information
+    locationInformation.append("Available Treasure:\n");
+    List<DungeonsGame.TreasureType> treasures = locationInfo.getTreasures();
+    if (treasures.isEmpty()) {
+      locationInformation.append("None\n");
+    } else {
+      for (DungeonsGame.TreasureType treasure : treasures) {
+        locationInformation.append(treasure).append("\n");
+      }
+    }
+    // arrow information
+    locationInformation.append(String.format("Available Arrows:%s\n",
+            locationInfo.getArrowCount()));
+    // monster information
+    if (!locationInfo.hasMonster()) {
+      locationInformation.append("No Monster Available\n");
+    } else {
+      locationInformation.append(String.format("Monster Name:%s\n",
+              locationInfo.getMonsterName()));
+      locationInformation.append(String.format("Monster Health:%s\n",
+              locationInfo.getMonsterHealth()));
+    }
+    // available directions
+    locationInformation.append("Available Direction For Movement:\n");
+    for (DungeonsGame.Direction direction : DungeonsGame.Direction.values()) {
+      if (locationInfo.hasExit(direction)) {
+        locationInformation.append(String.format("%s : %s\n", direction,
+                locationInfo.getNeighbourName(direction)));
+      }
+    }
+    return locationInformation.toString();
+  }
+}
@@ -0,0 +1,121 @@
+package game.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class is used to implement the location info interface. It stores the state of the
+ * location as plain values and only builds the names of the cells when they are asked for.
+ */
+public class LocationInfoImpl implements LocationInfo {
+
+  private final int cellId;
+  private final DungeonCell.CellType cellType;
+  private final List<DungeonsGame.TreasureType> treasures;
+  private final int arrowCount;
+  private final String monsterName;
+  private final Monster.Health monsterHealth;
+  private final int[] neighbourCellIds;
+  private final DungeonsGame.SmellType smell;
+
+  /**
+   * Constructor for location info implementation.
+   *
+   * @param cellId           id of the cell
+   * @param cellType         type of the cell
+   * @param treasures        treasures in the cell, which must not change afterwards
+   * @param arrowCount       number of arrows in the cell
+   * @param monsterName      name of the monster, null if the cell has no monster
+   * @param monsterHealth    health of the monster, null if the cell has no monster
+   * @param neighbourCellIds neighbouring cell id per direction ordinal, -1 for no exit
+   * @param smell            smell of the location
+   * @throws IllegalArgumentException if the arguments provided are invalid
+   */
+  public LocationInfoImpl(int cellId, DungeonCell.CellType cellType,
+                          List<DungeonsGame.TreasureType> treasures, int arrowCount,
+                          String monsterName, Monster.Health monsterHealth,
+                          int[] neighbourCellIds, DungeonsGame.SmellType smell)
+          throws IllegalArgumentException {
+    if (cellId < 0 || cellType == null || treasures == null || arrowCount < 0
+            || (monsterName == null) != (monsterHealth == null) || neighbourCellIds == null
+            || neighbourCellIds.length != DungeonsGame.Direction.values().length
+            || smell == null) {
+      throw new IllegalArgumentException("Invalid arguments provided");
+    }
+    this.cellId = cellId;
+    this.cellType = cellType;
+    this.treasures = Collections.unmodifiableList(treasures);
+    this.arrowCount = arrowCount;
+    this.monsterName = monsterName;
+    this.monsterHealth = monsterHealth;
+    this.neighbourCellIds = neighbourCellIds.clone();
+    this.smell = smell;
+  }
+
+  @Override
+  public int getCellId() {
+    return cellId;
+  }
+
+  @Override
+  public String getCellName() {
+    return GridTopology.cellName(cellId);
+  }
+
+  @Override
+  public DungeonCell.CellType getCellType() {
+    return cellType;
+  }
+
+  @Override
+  public List<DungeonsGame.TreasureType> getTreasures() {
+    return treasures;
+  }
+
+  @Override
+  public int getTreasureCount(DungeonsGame.TreasureType treasure) {
+    int count = 0;
+    for (DungeonsGame.TreasureType availableTreasure : treasures) {
+      if (availableTreasure == treasure) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public int getArrowCount() {
+    return arrowCount;
+  }
+
+  @Override
+  public boolean hasMonster() {
+    return monsterName != null;
+  }
+
+  @Override
+  public String getMonsterName() {
+    return monsterName;
+  }
+
+  @Override
+  public Monster.Health getMonsterHealth() {
+    return monsterHealth;
+  }
+
+  @Override
+  public boolean hasExit(DungeonsGame.Direction direction) {
+    return neighbourCellIds[direction.ordinal()] >= 0;
+  }
+
+  @Override
+  public String getNeighbourName(DungeonsGame.Direction direction) {
+    int neighbourCellId = neighbourCellIds[direction.ordinal()];
+    return neighbourCellId < 0 ? null : GridTopology.cellName(neighbourCellId);
+  }
+
+  @Override
+  public DungeonsGame.SmellType getSmell() {
+    return smell;
+  }
+}
@@ -0,0 +1,495 @@
+package game.model;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class is used to store a dungeon in a memory mapped file so that the per cell state
+ * lives outside the Java heap and survives the process. The file starts with a header
+ * holding the shape of the grid, the generation parameters (including the maze algorithm and
+ * the seed a reset generates the dungeon again with), the start and end cell and the
+ * monster table, followed by one region of cell count bytes for each kind of cell state
+ * (exits, packed treasure, arrow count and monster health code). Cell state is read and
+ * written in place, so reopening a file gives back the dungeon exactly as it was left.
+ * Freezing the store does not copy the file. Instead every chunk of 64 cells is copied to the
+ * heap right before its first change after a freeze, into the generation of that freeze.
+ * A frozen store reads a chunk from the first generation starting at its own one which holds
+ * a copy of it, and from the file if none does. Generations nobody can read anymore are left
+ * to the garbage collector, so changes made while no frozen store is in use copy nothing.
+ * A new dungeon is written to a new file which then replaces the old one, so stores still
+ * reading the old file keep the dungeon they were created with.
+ */
+final class MappedDungeonStore implements DungeonStore {
+
+  private static final int MAGIC = 0x44554E47;
+  private static final int VERSION = 2;
+  private static final int HEADER_INTS = 12;
+  private static final int REGION_COUNT = 4;
+  private static final int CHUNK_BITS = 6;
+  private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+  private final GridTopology topology;
+  private final int interConnectivity;
+  private final int distributionPercent;
+  private final DungeonsGame.MazeAlgorithm mazeAlgorithm;
+  private final int randomSeed;
+  private final int startCellId;
+  private final int endCellId;
+  private final int[] monsterCellIds;
+  private final MappedByteBuffer exits;
+  private final MappedByteBuffer treasure;
+  private final MappedByteBuffer arrows;
+  private final MappedByteBuffer monsterHealth;
+  private WeakReference<Generation> latestGeneration;
+  private WeakReference<FrozenStore> frozenStore;
+
+  private MappedDungeonStore(FileChannel channel, GridTopology topology, int interConnectivity,
+                             int distributionPercent, DungeonsGame.MazeAlgorithm mazeAlgorithm,
+                             int randomSeed, int startCellId, int endCellId,
+                             int[] monsterCellIds) throws IOException {
+    this.topology = topology;
+    this.interConnectivity = interConnectivity;
+    this.distributionPercent = distributionPercent;
+    this.mazeAlgorithm = mazeAlgorithm;
+    this.randomSeed = randomSeed;
+    this.startCellId = startCellId;
+    this.endCellId = endCellId;
+    this.monsterCellIds = monsterCellIds;
+    int cellCount = topology.cellCount();
+    long offset = headerSize(monsterCellIds.length);
+    exits = channel.map(FileChannel.MapMode.READ_WRITE, offset, cellCount);
+    offset += cellCount;
+    treasure = channel.map(FileChannel.MapMode.READ_WRITE, offset, cellCount);
+    offset += cellCount;
+    arrows = channel.map(FileChannel.MapMode.READ_WRITE, offset, cellCount);
+    offset += cellCount;
+    monsterHealth = channel.map(FileChannel.MapMode.READ_WRITE, offset, cellCount);
+    latestGeneration = null;
+    frozenStore = null;
+  }
+
+  /**
+   * This function is used to write a freshly generated layout into a new storage file.
+   * An existing file at the same location is replaced once the new one is written. Stores
+   * which still read the replaced file keep reading it.
+   *
+   * @param storageFile location of the storage file
+   * @param layout      generated layout
+   * @return store backed by the file
+   * @throws IllegalArgumentException if any argument is null
+   * @throws IOException              if the file cannot be written
+   */
+  static MappedDungeonStore create(Path storageFile, DungeonLayout layout)
+          throws IllegalArgumentException, IOException {
+    if (storageFile == null || layout == null) {
+      throw new IllegalArgumentException("Input parameters cannot be null");
+    }
+    GridTopology topology = layout.getTopology();
+    int[] monsterCellIds = layout.getMonsterCellIds();
+    Path targetFile = storageFile.toAbsolutePath();
+    // the new dungeon must not be written into a file which older stores still map
+    Path newFile = Files.createTempFile(targetFile.getParent(),
+            targetFile.getFileName().toString(), ".tmp");
+    MappedDungeonStore store;
+    try (FileChannel channel = FileChannel.open(newFile, StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      ByteBuffer header = ByteBuffer.allocate((int) headerSize(monsterCellIds.length));
+      header.putInt(MAGIC);
+      header.putInt(VERSION);
+      header.putInt(topology.getWrapType().ordinal());
+      header.putInt(topology.getRowCount());
+      header.putInt(topology.getColumnCount());
+      header.putInt(layout.getInterConnectivity());
+      header.putInt(layout.getDistributionPercent());
+      header.putInt(layout.getMazeAlgorithm().ordinal());
+      header.putInt(layout.getRandomSeed());
+      header.putInt(layout.getStartCellId());
+      header.putInt(layout.getEndCellId());
+      header.putInt(monsterCellIds.length);
+      for (int cellId : monsterCellIds) {
+        header.putInt(cellId);
+      }
+      header.flip();
+      while (header.hasRemaining()) {
+        channel.write(header);
+      }
+      store = new MappedDungeonStore(channel, topology, layout.getInterConnectivity(),
+              layout.getDistributionPercent(), layout.getMazeAlgorithm(),
+              layout.getRandomSeed(), layout.getStartCellId(), layout.getEndCellId(),
+              monsterCellIds.clone());
+      store.exits.put(layout.getExits());
+      store.treasure.put(layout.getTreasure());
+      store.arrows.put(layout.getArrows());
+      for (int cellId : monsterCellIds) {
+        store.monsterHealth.put(cellId, DungeonLayout.healthCode(Monster.Health.FULL));
+      }
+      store.flush();
+    } catch (IOException | RuntimeException exception) {
+      Files.deleteIfExists(newFile);
+      throw exception;
+    }
+    // the mappings follow the new file to its place, the old one lives on for its readers
+    Files.move(newFile, targetFile, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+    return store;
+  }
+
+  /**
+   * This function is used to open a storage file written earlier.
+   *
+   * @param storageFile location of the storage file
+   * @return store backed by the file
+   * @throws IllegalArgumentException if the file is null or not a valid storage file
+   * @throws IOException              if the file cannot be read
+   */
+  static MappedDungeonStore open(Path storageFile)
+          throws IllegalArgumentException, IOException {
+    if (storageFile == null) {
+      throw new IllegalArgumentException("Storage file cannot be null");
+    }
+    try (FileChannel channel = FileChannel.open(storageFile, StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      long fileSize = channel.size();
+      if (fileSize < headerSize(0)) {
+        throw new IllegalArgumentException("Not a valid dungeon storage file");
+      }
+      ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, headerSize(0));
+      if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+        throw new IllegalArgumentException("Not a valid dungeon storage file");
+      }
+      int wrapOrdinal = header.getInt();
+      int rowCount = header.getInt();
+      int columnCount = header.getInt();
+      int interConnectivity = header.getInt();
+      int distributionPercent = header.getInt();
+      int mazeOrdinal = header.getInt();
+      int randomSeed = header.getInt();
+      int startCellId = header.getInt();
+      int endCellId = header.getInt();
+      int monsterCount = header.getInt();
+      DungeonsGame.WrapType[] wrapTypes = DungeonsGame.WrapType.values();
+      DungeonsGame.MazeAlgorithm[] mazeAlgorithms = DungeonsGame.MazeAlgorithm.values();
+      if (wrapOrdinal < 0 || wrapOrdinal >= wrapTypes.length
+              || mazeOrdinal < 0 || mazeOrdinal >= mazeAlgorithms.length || rowCount <= 0
+              || columnCount <= 0 || monsterCount < 0
+              || fileSize != headerSize(monsterCount)
+              + (long) REGION_COUNT * rowCount * columnCount) {
+        throw new IllegalArgumentException("Not a valid dungeon storage file");
+      }
+      GridTopology topology = new GridTopology(wrapTypes[wrapOrdinal], rowCount, columnCount);
+      if (!isCellId(topology, startCellId) || !isCellId(topology, endCellId)) {
+        throw new IllegalArgumentException("Not a valid dungeon storage file");
+      }
+      ByteBuffer monsterTable = channel.map(FileChannel.MapMode.READ_ONLY, headerSize(0),
+              (long) monsterCount * Integer.BYTES);
+      int[] monsterCellIds = new int[monsterCount];
+      for (int count = 0; count < monsterCount; count++) {
+        monsterCellIds[count] = monsterTable.getInt();
+        if (!isCellId(topology, monsterCellIds[count])) {
+          throw new IllegalArgumentException("Not a valid dungeon storage file");
+        }
+      }
+      return new MappedDungeonStore(channel, topology, interConnectivity, distributionPercent,
+              mazeAlgorithms[mazeOrdinal], randomSeed, startCellId, endCellId, monsterCellIds);
+    }
+  }
+
+  private static boolean isCellId(GridTopology topology, int cellId) {
+    return cellId >= 0 && cellId < topology.cellCount();
+  }
+
+  private static long headerSize(int monsterCount) {
+    return ((long) HEADER_INTS + monsterCount) * Integer.BYTES;
+  }
+
+  @Override
+  public GridTopology getTopology() {
+    return topology;
+  }
+
+  @Override
+  public int getInterConnectivity() {
+    return interConnectivity;
+  }
+
+  @Override
+  public int getDistributionPercent() {
+    return distributionPercent;
+  }
+
+  /**
+   * gets the algorithm the paths of the stored dungeon were generated with.
+   *
+   * @return maze algorithm
+   */
+  DungeonsGame.MazeAlgorithm getMazeAlgorithm() {
+    return mazeAlgorithm;
+  }
+
+  /**
+   * gets the seed a reset generates the stored dungeon again with.
+   *
+   * @return random seed
+   */
+  int getRandomSeed() {
+    return randomSeed;
+  }
+
+  @Override
+  public int getStartCellId() {
+    return startCellId;
+  }
+
+  @Override
+  public int getEndCellId() {
+    return endCellId;
+  }
+
+  @Override
+  public int[] getMonsterCellIds() {
+    return monsterCellIds.clone();
+  }
+
+  @Override
+  public byte getExits(int cellId) {
+    return exits.get(cellId);
+  }
+
+  @Override
+  public byte getTreasure(int cellId) {
+    return treasure.get(cellId);
+  }
+
+  @Override
+  public void setTreasure(int cellId, byte packedTreasure) {
+    beforeChange(cellId);
+    treasure.put(cellId, packedTreasure);
+  }
+
+  @Override
+  public byte getArrows(int cellId) {
+    return arrows.get(cellId);
+  }
+
+  @Override
+  public void setArrows(int cellId, byte arrowCount) {
+    beforeChange(cellId);
+    arrows.put(cellId, arrowCount);
+  }
+
+  @Override
+  public byte getMonsterHealth(int cellId) {
+    return monsterHealth.get(cellId);
+  }
+
+  @Override
+  public void setMonsterHealth(int cellId, byte healthCode) {
+    beforeChange(cellId);
+    monsterHealth.put(cellId, healthCode);
+  }
+
+  @Override
+  public int getCellState(int cellId) {
+    return CellStateTable.pack(treasure.get(cellId), arrows.get(cellId),
+            monsterHealth.get(cellId));
+  }
+
+  @Override
+  public DungeonStore freeze() {
+    FrozenStore frozen = frozenStore == null ? null : frozenStore.get();
+    if (frozen == null) {
+      Generation generation = new Generation(chunkCount());
+      Generation latest = latestGeneration == null ? null : latestGeneration.get();
+      if (latest != null) {
+        latest.next = generation;
+      }
+      latestGeneration = new WeakReference<>(generation);
+      frozen = new FrozenStore(generation);
+      frozenStore = new WeakReference<>(frozen);
+    }
+    return frozen;
+  }
+
+  private int chunkCount() {
+    return (topology.cellCount() + CHUNK_SIZE - 1) >>> CHUNK_BITS;
+  }
+
+  private void beforeChange(int cellId) {
+    frozenStore = null;
+    // a generation which is gone can no longer be read by any frozen store
+    Generation latest = latestGeneration == null ? null : latestGeneration.get();
+    if (latest == null) {
+      return;
+    }
+    int chunk = cellId >>> CHUNK_BITS;
+    if (latest.savedChunks.get(chunk) == null) {
+      int start = chunk << CHUNK_BITS;
+      int[] cellStates = new int[Math.min(CHUNK_SIZE, topology.cellCount() - start)];
+      for (int offset = 0; offset < cellStates.length; offset++) {
+        cellStates[offset] = getCellState(start + offset);
+      }
+      latest.savedChunks.set(chunk, cellStates);
+      // frozen stores must see the copy before they can see the change in the file
+      VarHandle.fullFence();
+    }
+  }
+
+  @Override
+  public DungeonStore fork() {
+    // a fork keeps the cells it changes on the heap and does not write to the file
+    return new ChunkedDungeonStore(this);
+  }
+
+  @Override
+  public void flush() {
+    exits.force();
+    treasure.force();
+    arrows.force();
+    monsterHealth.force();
+  }
+
+  /**
+   * This class is used to hold the chunks copied after one freeze, before the next one.
+   */
+  private static final class Generation {
+
+    private final AtomicReferenceArray<int[]> savedChunks;
+    private volatile Generation next;
+
+    private Generation(int chunkCount) {
+      this.savedChunks = new AtomicReferenceArray<>(chunkCount);
+      this.next = null;
+    }
+  }
+
+  /**
+   * This class is used to read the store as it was when it was frozen.
+   */
+  private final class FrozenStore implements DungeonStore {
+
+    private final Generation generation;
+
+    private FrozenStore(Generation generation) {
+      this.generation = generation;
+    }
+
+    @Override
+    public GridTopology getTopology() {
+      return topology;
+    }
+
+    @Override
+    public int getInterConnectivity() {
+      return interConnectivity;
+    }
+
+    @Override
+    public int getDistributionPercent() {
+      return distributionPercent;
+    }
+
+    @Override
+    public int getStartCellId() {
+      return startCellId;
+    }
+
+    @Override
+    public int getEndCellId() {
+      return endCellId;
+    }
+
+    @Override
+    public int[] getMonsterCellIds() {
+      return monsterCellIds.clone();
+    }
+
+    @Override
+    public byte getExits(int cellId) {
+      // exits never change, so the file always holds the frozen ones
+      return exits.get(cellId);
+    }
+
+    @Override
+    public byte getTreasure(int cellId) {
+      return CellStateTable.treasureOf(getCellState(cellId));
+    }
+
+    @Override
+    public void setTreasure(int cellId, byte packedTreasure) {
+      throw new UnsupportedOperationException("A frozen store is read only");
+    }
+
+    @Override
+    public byte getArrows(int cellId) {
+      return CellStateTable.arrowsOf(getCellState(cellId));
+    }
+
+    @Override
+    public void setArrows(int cellId, byte arrowCount) {
+      throw new UnsupportedOperationException("A frozen store is read only");
+    }
+
+    @Override
+    public byte getMonsterHealth(int cellId) {
+      return CellStateTable.healthOf(getCellState(cellId));
+    }
+
+    @Override
+    public void setMonsterHealth(int cellId, byte healthCode) {
+      throw new UnsupportedOperationException("A frozen store is read only");
+    }
+
+    @Override
+    public int getCellState(int cellId) {
+      int chunk = cellId >>> CHUNK_BITS;
+      Generation current = generation;
+      while (true) {
+        // the writer copies a chunk before it links the next generation, so reading the
+        // link first guarantees that a copy made before it is seen
+        Generation next = current.next;
+        int[] cellStates = current.savedChunks.get(chunk);
+        if (cellStates != null) {
+          if (current != generation) {
+            // the chunk did not change in between, remember the copy for the next read
+            generation.savedChunks.set(chunk, cellStates);
+          }
+          return cellStates[cellId & (CHUNK_SIZE - 1)];
+        }
+        if (next != null) {
+          current = next;
+          continue;
+        }
+        int cellState = MappedDungeonStore.this.getCellState(cellId);
+        VarHandle.loadLoadFence();
+        // the file can only be trusted if the chunk was not copied in the meantime
+        if (current.savedChunks.get(chunk) == null && current.next == null) {
+          return cellState;
+        }
+      }
+    }
+
+    @Override
+    public DungeonStore freeze() {
+      return this;
+    }
+
+    @Override
+    public DungeonStore fork() {
+      return new ChunkedDungeonStore(this);
+    }
+
+    @Override
+    public void flush() {
+      // nothing to write, the store is read only
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package game.model;
+
+/**
+ * This interface is used to generate the paths of a dungeon grid. A generator carves a
+ * spanning tree over the cells of a {@link GridTopology} so that every cell can be reached
+ * from every other cell, then opens the requested number of extra paths on top of it.
+ * The result is an exit bitmask per cell id (bit position = direction ordinal).
+ */
+interface MazeGenerator {
+
+  /**
+   * This function is used to generate the exits of every cell.
+   *
+   * @param interConnectivity number of extra paths on top of the spanning tree
+   * @return exit bitmask per cell id
+   * @throws IllegalArgumentException if the interconnectivity > left over paths
+   */
+  byte[] generateExits(int interConnectivity) throws IllegalArgumentException;
+
+  /**
+   * This function is used to create the generator for the given algorithm.
+   *
+   * @param algorithm  algorithm used to carve the spanning tree
+   * @param topology   shape of the grid
+   * @param randomizer randomizer instance
+   * @return generator for the algorithm
+   * @throws IllegalArgumentException if any argument is null
+   */
+  static MazeGenerator create(DungeonsGame.MazeAlgorithm algorithm, GridTopology topology,
+                              RandomNumberGenerator randomizer)
+          throws IllegalArgumentException {
+    if (algorithm == null) {
+      throw new IllegalArgumentException("Maze algorithm cannot be null");
+    }
+    switch (algorithm) {
+      case WILSON:
+        return new WilsonGridGenerator(topology, randomizer);
+      case PRIM:
+        return new PrimGridGenerator(topology, randomizer);
+      case BACKTRACKER:
+        return new BacktrackerGridGenerator(topology, randomizer);
+      case ELLER:
+        return new EllerGridGenerator(topology, randomizer);
+      case KRUSKAL:
+      default:
+        return new KruskalGridGenerator(topology, randomizer);
+    }
+  }
+}
@@ -0,0 +1,237 @@
+package game.model;
+
+/**
+ * This class is used to store a dungeon as a grid of {@link DungeonCellImpl} objects, the
+ * object model of the dungeons game. Every cell keeps its own neighbours, exits, treasure,
+ * arrows and monster, and the store reads and changes the state of a cell through the cell.
+ * The cells are kept in chunks of 16. Freezing the store shares the current chunks with the
+ * frozen store. The first change after that copies the chunk table and every chunk is copied
+ * cell by cell once before it is changed again, so a cell which is shared with a frozen store
+ * or a fork is never changed. The links between cells are made while the grid is built and
+ * copied cells keep linking to the cells they were copied along with; the store itself reads
+ * every cell by its id.
+ */
+final class ObjectDungeonStore implements DungeonStore {
+
+  private static final int CHUNK_BITS = 4;
+  private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+  private static final DungeonsGame.Direction[] DIRECTIONS = DungeonsGame.Direction.values();
+
+  private final GridTopology topology;
+  private final int interConnectivity;
+  private final int distributionPercent;
+  private final int startCellId;
+  private final int endCellId;
+  private final int[] monsterCellIds;
+  private final boolean readOnly;
+  private final int[] chunkEpochs;
+  private DungeonCellImpl[][] chunks;
+  private boolean tableShared;
+  private int epoch;
+  private ObjectDungeonStore frozenStore;
+
+  /**
+   * Constructor for the store which builds the cells of a freshly generated layout.
+   *
+   * @param layout generated layout
+   * @throws IllegalArgumentException if the layout is null
+   */
+  ObjectDungeonStore(DungeonLayout layout) throws IllegalArgumentException {
+    if (layout == null) {
+      throw new IllegalArgumentException("Layout cannot be null");
+    }
+    this.topology = layout.getTopology();
+    this.interConnectivity = layout.getInterConnectivity();
+    this.distributionPercent = layout.getDistributionPercent();
+    this.startCellId = layout.getStartCellId();
+    this.endCellId = layout.getEndCellId();
+    this.monsterCellIds = layout.getMonsterCellIds().clone();
+    this.readOnly = false;
+    int cellCount = topology.cellCount();
+    DungeonCellImpl[] cells = new DungeonCellImpl[cellCount];
+    for (int cellId = 0; cellId < cellCount; cellId++) {
+      cells[cellId] = new DungeonCellImpl(cellId, topology);
+    }
+    byte[] exits = layout.getExits();
+    byte[] treasure = layout.getTreasure();
+    byte[] arrows = layout.getArrows();
+    for (int cellId = 0; cellId < cellCount; cellId++) {
+      DungeonCellImpl cell = cells[cellId];
+      for (DungeonsGame.Direction direction : DIRECTIONS) {
+        if ((exits[cellId] & (1 << direction.ordinal())) != 0) {
+          cell.linkNeighbour(cells[topology.neighbourId(cellId, direction)], direction);
+        }
+      }
+      cell.updateCellType(DungeonLayout.isCave(exits[cellId])
+              ? DungeonCell.CellType.CAVE : DungeonCell.CellType.TUNNEL);
+      if (treasure[cellId] != 0) {
+        cell.addTreasureToCell(DungeonLayout.treasureList(treasure[cellId]));
+      }
+      cell.createNumberOfArrows(arrows[cellId]);
+    }
+    for (int count = 0; count < monsterCellIds.length; count++) {
+      cells[monsterCellIds[count]].assignMonster(new Otyughs("Monster-" + count));
+    }
+    this.chunks = new DungeonCellImpl[(cellCount + CHUNK_SIZE - 1) >>> CHUNK_BITS][];
+    for (int chunk = 0; chunk < chunks.length; chunk++) {
+      int start = chunk << CHUNK_BITS;
+      chunks[chunk] = new DungeonCellImpl[Math.min(CHUNK_SIZE, cellCount - start)];
+      System.arraycopy(cells, start, chunks[chunk], 0, chunks[chunk].length);
+    }
+    // every chunk was just built, so all of them belong to this store
+    this.chunkEpochs = new int[chunks.length];
+    this.tableShared = false;
+    this.epoch = 0;
+    this.frozenStore = null;
+  }
+
+  private ObjectDungeonStore(ObjectDungeonStore store, boolean readOnly) {
+    this.topology = store.topology;
+    this.interConnectivity = store.interConnectivity;
+    this.distributionPercent = store.distributionPercent;
+    this.startCellId = store.startCellId;
+    this.endCellId = store.endCellId;
+    this.monsterCellIds = store.monsterCellIds;
+    this.readOnly = readOnly;
+    this.chunks = store.chunks;
+    this.tableShared = true;
+    if (readOnly) {
+      this.chunkEpochs = null;
+      this.epoch = 0;
+      this.frozenStore = this;
+    } else {
+      // no chunk was copied in the current epoch, so every chunk is copied before its change
+      this.chunkEpochs = new int[chunks.length];
+      this.epoch = 1;
+      this.frozenStore = store;
+    }
+  }
+
+  @Override
+  public GridTopology getTopology() {
+    return topology;
+  }
+
+  @Override
+  public int getInterConnectivity() {
+    return interConnectivity;
+  }
+
+  @Override
+  public int getDistributionPercent() {
+    return distributionPercent;
+  }
+
+  @Override
+  public int getStartCellId() {
+    return startCellId;
+  }
+
+  @Override
+  public int getEndCellId() {
+    return endCellId;
+  }
+
+  @Override
+  public int[] getMonsterCellIds() {
+    return monsterCellIds.clone();
+  }
+
+  @Override
+  public byte getExits(int cellId) {
+    return cell(cellId).getExits();
+  }
+
+  @Override
+  public byte getTreasure(int cellId) {
+    return DungeonLayout.packTreasure(cell(cellId).getAvailableTreasures());
+  }
+
+  @Override
+  public void setTreasure(int cellId, byte packedTreasure) {
+    DungeonCellImpl cell = writableCell(cellId);
+    cell.clearCellTreasure();
+    if (packedTreasure != 0) {
+      cell.addTreasureToCell(DungeonLayout.treasureList(packedTreasure));
+    }
+  }
+
+  @Override
+  public byte getArrows(int cellId) {
+    return (byte) cell(cellId).getArrowCount();
+  }
+
+  @Override
+  public void setArrows(int cellId, byte arrowCount) {
+    DungeonCellImpl cell = writableCell(cellId);
+    cell.clearCellArrows();
+    cell.createNumberOfArrows(arrowCount);
+  }
+
+  @Override
+  public byte getMonsterHealth(int cellId) {
+    Monster.Health health = cell(cellId).getMonsterHealth();
+    return health == null ? DungeonLayout.NO_MONSTER : DungeonLayout.healthCode(health);
+  }
+
+  @Override
+  public void setMonsterHealth(int cellId, byte healthCode) {
+    if (healthCode == DungeonLayout.NO_MONSTER) {
+      throw new IllegalArgumentException("A monster cannot be removed from its cell");
+    }
+    writableCell(cellId).updateMonsterHealth(DungeonLayout.healthOf(healthCode));
+  }
+
+  @Override
+  public int getCellState(int cellId) {
+    return CellStateTable.pack(getTreasure(cellId), getArrows(cellId),
+            getMonsterHealth(cellId));
+  }
+
+  @Override
+  public DungeonStore freeze() {
+    if (frozenStore == null) {
+      // the frozen store holds the current chunk table, continue on a copy of it and copy
+      // every chunk before it is changed again
+      frozenStore = new ObjectDungeonStore(this, true);
+      tableShared = true;
+      epoch++;
+    }
+    return frozenStore;
+  }
+
+  @Override
+  public DungeonStore fork() {
+    return new ObjectDungeonStore((ObjectDungeonStore) freeze(), false);
+  }
+
+  @Override
+  public void flush() {
+    // nothing to write, the cells are the storage
+  }
+
+  private DungeonCellImpl cell(int cellId) {
+    return chunks[cellId >>> CHUNK_BITS][cellId & (CHUNK_SIZE - 1)];
+  }
+
+  private DungeonCellImpl writableCell(int cellId) {
+    if (readOnly) {
+      throw new UnsupportedOperationException("A frozen store is read only");
+    }
+    frozenStore = null;
+    if (tableShared) {
+      chunks = chunks.clone();
+      tableShared = false;
+    }
+    int chunk = cellId >>> CHUNK_BITS;
+    if (chunkEpochs[chunk] != epoch) {
+      DungeonCellImpl[] cells = new DungeonCellImpl[chunks[chunk].length];
+      for (int offset = 0; offset < cells.length; offset++) {
+        cells[offset] = new DungeonCellImpl(chunks[chunk][offset]);
+      }
+      chunks[chunk] = cells;
+      chunkEpochs[chunk] = epoch;
+    }
+    return chunks[chunk][cellId & (CHUNK_SIZE - 1)];
+  }
+}
@@ -0,0 +1,458 @@
+package game.model;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * This class implements the game history interface for the cells of one dungeon grid using
+ * primitive storage. Every entry is kept as an event ordinal byte and the id of its cell,
+ * with an optional timestamp per entry, in chunks of {@link #CHUNK_SIZE} entries, of which
+ * the one being filled starts small and grows while entries are added. Without
+ * timestamps an entry takes 5 bytes, and location names are only built when they are read.
+ * Like {@link GameHistory} the log is append only: filled chunks are never changed, so read
+ * only views and cursors share the chunks of the history.
+ * The history can be exported in a compact form where every entry is one varint holding
+ * the event and the difference to the cell of the previous entry, followed by the
+ * difference to the previous timestamp when timestamps are recorded.
+ */
+public final class PackedGameHistory implements IGameHistory {
+
+  private static final int CHUNK_SHIFT = 12;
+  private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+  private static final int FIRST_CHUNK_CAPACITY = 16;
+  private static final int EVENT_BITS = 3;
+  private static final int MAGIC = 0x44474850;
+  private static final int VERSION = 1;
+  private static final DungeonsGame.GameEvents[] GAME_EVENTS = DungeonsGame.GameEvents.values();
+  private static final DungeonsGame.WrapType[] WRAP_TYPES = DungeonsGame.WrapType.values();
+
+  private final GridTopology topology;
+  private final boolean recordTimestamps;
+  private final boolean readOnly;
+  private byte[][] eventChunks;
+  private int[][] cellChunks;
+  private long[][] timestampChunks;
+  private int size;
+  // the chunk being filled is shared with the history this one was branched from
+  private boolean sharedTail;
+
+  /**
+   * Constructor for an empty history of the cells of a grid with the given shape.
+   *
+   * @param wrapType         type of wrap of the grid
+   * @param rowCount         number of rows in the grid
+   * @param columnCount      number of columns in the grid
+   * @param recordTimestamps true to store the time at which every entry is added
+   * @throws IllegalArgumentException if the wrap type is null or the dimensions are not positive
+   */
+  public PackedGameHistory(DungeonsGame.WrapType wrapType, int rowCount, int columnCount,
+                           boolean recordTimestamps) throws IllegalArgumentException {
+    this(new GridTopology(wrapType, rowCount, columnCount), recordTimestamps);
+  }
+
+  /**
+   * Constructor for an empty history of the cells of the given grid.
+   *
+   * @param topology         grid whose cell names are stored
+   * @param recordTimestamps true to store the time at which every entry is added
+   * @throws IllegalArgumentException if the topology is null
+   */
+  PackedGameHistory(GridTopology topology, boolean recordTimestamps)
+          throws IllegalArgumentException {
+    if (topology == null) {
+      throw new IllegalArgumentException("Topology cannot be null");
+    }
+    this.topology = topology;
+    this.recordTimestamps = recordTimestamps;
+    this.readOnly = false;
+    startChunks();
+  }
+
+  private PackedGameHistory(PackedGameHistory history) {
+    this.topology = history.topology;
+    this.recordTimestamps = history.recordTimestamps;
+    this.readOnly = true;
+    this.eventChunks = history.eventChunks;
+    this.cellChunks = history.cellChunks;
+    this.timestampChunks = history.timestampChunks;
+    this.size = history.size;
+  }
+
+  private void startChunks() {
+    eventChunks = new byte[1][];
+    cellChunks = new int[1][];
+    timestampChunks = recordTimestamps ? new long[1][] : null;
+    size = 0;
+    sharedTail = false;
+  }
+
+  @Override
+  public void addToHistory(DungeonsGame.GameEvents event, String locationName)
+          throws IllegalArgumentException {
+    if (readOnly) {
+      throw new UnsupportedOperationException("Game history view is read only");
+    }
+    int cellId = topology.cellIdOf(locationName);
+    if (event == null || cellId < 0) {
+      throw new IllegalArgumentException("Invalid arguments provided");
+    }
+    append(event, cellId, recordTimestamps ? System.currentTimeMillis() : 0);
+  }
+
+  /**
+   * This function is used to add an event at the cell with the given id, like
+   * {@link #addToHistory(DungeonsGame.GameEvents, String)} without going through the name
+   * of the cell.
+   *
+   * @param event  game event
+   * @param cellId id of the cell
+   * @throws IllegalArgumentException if the event is null or the id is outside the grid
+   */
+  void addToHistory(DungeonsGame.GameEvents event, int cellId)
+          throws IllegalArgumentException {
+    if (readOnly) {
+      throw new UnsupportedOperationException("Game history view is read only");
+    }
+    if (event == null || cellId < 0 || cellId >= topology.cellCount()) {
+      throw new IllegalArgumentException("Invalid arguments provided");
+    }
+    append(event, cellId, recordTimestamps ? System.currentTimeMillis() : 0);
+  }
+
+  private void append(DungeonsGame.GameEvents event, int cellId, long timestamp) {
+    int chunk = size >>> CHUNK_SHIFT;
+    if (chunk == eventChunks.length) {
+      eventChunks = Arrays.copyOf(eventChunks, chunk * 2);
+      cellChunks = Arrays.copyOf(cellChunks, chunk * 2);
+      if (recordTimestamps) {
+        timestampChunks = Arrays.copyOf(timestampChunks, chunk * 2);
+      }
+    }
+    int slot = size & CHUNK_MASK;
+    if (eventChunks[chunk] == null) {
+      eventChunks[chunk] = new byte[FIRST_CHUNK_CAPACITY];
+      cellChunks[chunk] = new int[FIRST_CHUNK_CAPACITY];
+      if (recordTimestamps) {
+        timestampChunks[chunk] = new long[FIRST_CHUNK_CAPACITY];
+      }
+    } else if (sharedTail || slot == eventChunks[chunk].length) {
+      // the chunk being filled grows up to its full size, and a shared one is copied
+      int capacity = Math.min(CHUNK_SIZE, Math.max(FIRST_CHUNK_CAPACITY, slot * 2));
+      eventChunks[chunk] = Arrays.copyOf(eventChunks[chunk], capacity);
+      cellChunks[chunk] = Arrays.copyOf(cellChunks[chunk], capacity);
+      if (recordTimestamps) {
+        timestampChunks[chunk] = Arrays.copyOf(timestampChunks[chunk], capacity);
+      }
+      sharedTail = false;
+    }
+    eventChunks[chunk][slot] = (byte) event.ordinal();
+    cellChunks[chunk][slot] = cellId;
+    if (recordTimestamps) {
+      timestampChunks[chunk][slot] = timestamp;
+    }
+    size++;
+  }
+
+  @Override
+  public DungeonsGame.GameEvents getEventFromHistory(int index) throws IllegalArgumentException {
+    checkIndex(index);
+    return GAME_EVENTS[eventChunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK]];
+  }
+
+  @Override
+  public String getLocationFromHistory(int index) throws IllegalArgumentException {
+    return GridTopology.cellName(getCellIdFromHistory(index));
+  }
+
+  /**
+   * This function is used to get the id of the cell of the entry at the given index.
+   *
+   * @param index index in the history
+   * @return cell id at the index
+   * @throws IllegalArgumentException if the index is outside the history
+   */
+  int getCellIdFromHistory(int index) throws IllegalArgumentException {
+    checkIndex(index);
+    return cellChunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+  }
+
+  /**
+   * This function is used to start a new writable history holding the first entries of this
+   * one. All chunks are shared with this history, and the new history copies the chunk which
+   * is still being filled before it adds its first entry, so the cost does not grow with the
+   * number of entries. This history only ever writes beyond the shared entries.
+   *
+   * @param branchSize number of entries to keep
+   * @return new history with the first entries
+   * @throws IllegalArgumentException if the size is negative or beyond the history
+   */
+  PackedGameHistory branch(int branchSize) throws IllegalArgumentException {
+    if (branchSize < 0 || branchSize > size) {
+      throw new IllegalArgumentException("Invalid index provided");
+    }
+    PackedGameHistory branch = new PackedGameHistory(topology, recordTimestamps);
+    int chunk = branchSize >>> CHUNK_SHIFT;
+    branch.eventChunks = Arrays.copyOf(eventChunks, chunk + 1);
+    branch.cellChunks = Arrays.copyOf(cellChunks, chunk + 1);
+    if (recordTimestamps) {
+      branch.timestampChunks = Arrays.copyOf(timestampChunks, chunk + 1);
+    }
+    boolean partialChunk = (branchSize & CHUNK_MASK) != 0;
+    if (!partialChunk) {
+      // the next entry starts a new chunk of its own
+      branch.eventChunks[chunk] = null;
+      branch.cellChunks[chunk] = null;
+      if (recordTimestamps) {
+        branch.timestampChunks[chunk] = null;
+      }
+    }
+    branch.sharedTail = partialChunk;
+    branch.size = branchSize;
+    return branch;
+  }
+
+  /**
+   * This function is used to check if the history stores the time of every entry.
+   *
+   * @return true if timestamps are recorded
+   */
+  public boolean hasTimestamps() {
+    return recordTimestamps;
+  }
+
+  /**
+   * This function is used to get the time at which the entry at the given index was added.
+   *
+   * @param index index in the history
+   * @return time of the entry in milliseconds since the epoch
+   * @throws IllegalArgumentException if the index is outside the history
+   * @throws IllegalStateException    if the history does not record timestamps
+   */
+  public long getTimestampFromHistory(int index)
+          throws IllegalArgumentException, IllegalStateException {
+    if (!recordTimestamps) {
+      throw new IllegalStateException("Game history does not record timestamps");
+    }
+    checkIndex(index);
+    return timestampChunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+  }
+
+  private void checkIndex(int index) throws IllegalArgumentException {
+    if (index < 0 || index >= size) {
+      throw new IllegalArgumentException("Invalid index provided");
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public DungeonsGame.GameEvents getLastEvent() throws IllegalStateException {
+    if (size == 0) {
+      throw new IllegalStateException("Game history is empty");
+    }
+    return getEventFromHistory(size - 1);
+  }
+
+  @Override
+  public String getLastLocation() throws IllegalStateException {
+    if (size == 0) {
+      throw new IllegalStateException("Game history is empty");
+    }
+    return getLocationFromHistory(size - 1);
+  }
+
+  @Override
+  public IHistoryCursor cursor(int offset) throws IllegalArgumentException {
+    if (offset < 0 || offset > size) {
+      throw new IllegalArgumentException("Invalid offset provided");
+    }
+    return new Cursor(new PackedGameHistory(this), offset);
+  }
+
+  @Override
+  public IGameHistory getReadOnlyView() {
+    if (readOnly) {
+      return this;
+    }
+    return new PackedGameHistory(this);
+  }
+
+  @Override
+  public void clear() {
+    if (readOnly) {
+      throw new UnsupportedOperationException("Game history view is read only");
+    }
+    // outstanding views keep the old chunks
+    startChunks();
+  }
+
+  /**
+   * This function is used to write the history in its compact export form. The output
+   * starts with a header (magic number, format version, grid shape, timestamp flag and entry
+   * count) followed by one varint per entry and, with timestamps, one more varint per entry.
+   *
+   * @param output output to write to
+   * @throws IllegalArgumentException if the output is null
+   * @throws IOException              if writing to the output fails
+   */
+  public void export(OutputStream output) throws IllegalArgumentException, IOException {
+    if (output == null) {
+      throw new IllegalArgumentException("Output cannot be null");
+    }
+    DataOutputStream dataOutput = new DataOutputStream(output);
+    dataOutput.writeInt(MAGIC);
+    dataOutput.writeInt(VERSION);
+    dataOutput.writeInt(topology.getWrapType().ordinal());
+    dataOutput.writeInt(topology.getRowCount());
+    dataOutput.writeInt(topology.getColumnCount());
+    dataOutput.writeBoolean(recordTimestamps);
+    dataOutput.writeInt(size);
+    int previousCellId = 0;
+    long previousTimestamp = 0;
+    for (int index = 0; index < size; index++) {
+      int cellId = getCellIdFromHistory(index);
+      long cellDelta = zigZag(cellId - previousCellId);
+      writeVarLong(dataOutput, cellDelta << EVENT_BITS
+              | eventChunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK]);
+      previousCellId = cellId;
+      if (recordTimestamps) {
+        long timestamp = getTimestampFromHistory(index);
+        writeVarLong(dataOutput, zigZag(timestamp - previousTimestamp));
+        previousTimestamp = timestamp;
+      }
+    }
+    dataOutput.flush();
+  }
+
+  /**
+   * This function is used to read a history written by {@link #export(OutputStream)}.
+   *
+   * @param input input to read from
+   * @return history read from the input
+   * @throws IllegalArgumentException if the input is null or not a valid export
+   * @throws IOException              if reading from the input fails
+   */
+  public static PackedGameHistory read(InputStream input)
+          throws IllegalArgumentException, IOException {
+    if (input == null) {
+      throw new IllegalArgumentException("Input cannot be null");
+    }
+    DataInputStream dataInput = new DataInputStream(input);
+    if (dataInput.readInt() != MAGIC || dataInput.readInt() != VERSION) {
+      throw new IllegalArgumentException("Not an exported game history");
+    }
+    int wrapOrdinal = dataInput.readInt();
+    int rowCount = dataInput.readInt();
+    int columnCount = dataInput.readInt();
+    boolean recordTimestamps = dataInput.readBoolean();
+    int size = dataInput.readInt();
+    if (wrapOrdinal < 0 || wrapOrdinal >= WRAP_TYPES.length || rowCount <= 0
+            || columnCount <= 0 || size < 0) {
+      throw new IllegalArgumentException("Exported game history is corrupted");
+    }
+    PackedGameHistory history = new PackedGameHistory(
+            new GridTopology(WRAP_TYPES[wrapOrdinal], rowCount, columnCount), recordTimestamps);
+    int cellCount = history.topology.cellCount();
+    long previousCellId = 0;
+    long previousTimestamp = 0;
+    for (int index = 0; index < size; index++) {
+      long entry = readVarLong(dataInput);
+      int eventOrdinal = (int) (entry & ((1 << EVENT_BITS) - 1));
+      long cellId = previousCellId + unZigZag(entry >>> EVENT_BITS);
+      if (eventOrdinal >= GAME_EVENTS.length || cellId < 0 || cellId >= cellCount) {
+        throw new IllegalArgumentException("Exported game history is corrupted");
+      }
+      long timestamp = 0;
+      if (recordTimestamps) {
+        timestamp = previousTimestamp + unZigZag(readVarLong(dataInput));
+        previousTimestamp = timestamp;
+      }
+      history.append(GAME_EVENTS[eventOrdinal], (int) cellId, timestamp);
+      previousCellId = cellId;
+    }
+    return history;
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static void writeVarLong(DataOutputStream output, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      output.writeByte((int) (value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    output.writeByte((int) value);
+  }
+
+  private static long readVarLong(DataInputStream input)
+          throws IllegalArgumentException, IOException {
+    long value = 0;
+    for (int shift = 0; shift < Long.SIZE; shift += 7) {
+      int part = input.read();
+      if (part < 0) {
+        throw new EOFException("Exported game history ended early");
+      }
+      value |= (long) (part & 0x7F) << shift;
+      if ((part & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Exported game history is corrupted");
+  }
+
+  /**
+   * This class is used to read the entries of a history view from an offset.
+   */
+  private static final class Cursor implements IHistoryCursor {
+
+    private final PackedGameHistory view;
+    private final int start;
+    private int offset;
+
+    private Cursor(PackedGameHistory view, int offset) {
+      this.view = view;
+      this.start = offset;
+      this.offset = offset;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return offset < view.size;
+    }
+
+    @Override
+    public DungeonsGame.GameEvents next() throws IllegalStateException {
+      if (offset >= view.size) {
+        throw new IllegalStateException("No more events in the history");
+      }
+      return view.getEventFromHistory(offset++);
+    }
+
+    @Override
+    public String getLocation() throws IllegalStateException {
+      if (offset == start) {
+        throw new IllegalStateException("No event has been read yet");
+      }
+      return view.getLocationFromHistory(offset - 1);
+    }
+
+    @Override
+    public int getOffset() {
+      return offset;
+    }
+  }
+}
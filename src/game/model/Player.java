@@ -1,7 +1,6 @@
 package game.model;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * This interface represents a player entity in the dungeons game. It holds all the different
@@ -18,11 +17,12 @@ interface Player {
   String getName();
 
   /**
-   * This function is used to get the list of treasure acquired till now.
+   * This function is used to get the number of treasures of the given type acquired till now.
    *
-   * @return map of acquired treasures.
+   * @param treasure type of treasure
+   * @return number of acquired treasures of the type
    */
-  Map<DungeonsGame.TreasureType, Integer> getTreasure();
+  int getTreasureCount(DungeonsGame.TreasureType treasure);
 
   /**
    * This function is used to capture the provided treasure by the player.
@@ -33,12 +33,38 @@ interface Player {
   void captureTreasure(DungeonsGame.TreasureType treasure) throws IllegalArgumentException;
 
   /**
-   * This function is used to get the travelled path of the player.
+   * This function is used to capture a number of treasures of the same type at once.
+   *
+   * @param treasure treasure to be captured
+   * @param count    number of treasures to be captured
+   * @throws IllegalArgumentException if the treasure is null or the count is negative
+   */
+  void captureTreasure(DungeonsGame.TreasureType treasure, int count)
+          throws IllegalArgumentException;
+
+  /**
+   * This function is used to get the travelled path of the player. The list is a read only
+   * view of the path as it is now and does not copy it.
    *
    * @return string format of the traversed path for the player
    */
   List<String> getTravelledPath();
 
+  /**
+   * This function is used to get the ids of the cells on the travelled path.
+   *
+   * @return cell ids of the traversed path in order
+   */
+  int[] getTravelledCellIds();
+
+  /**
+   * This function is used to check if the player has been to the given cell.
+   *
+   * @param cellId id of the cell
+   * @return true if the cell is on the travelled path
+   */
+  boolean hasVisited(int cellId);
+
   /**
    * This function is used to mark the provided cell name as visited.
    * This is helpful when we want to know what path has the player traversed
@@ -49,6 +75,15 @@ interface Player {
    */
   void addCellAsVisited(String cellName) throws IllegalArgumentException;
 
+  /**
+   * This function is used to mark the cell with the provided id as visited, like
+   * {@link #addCellAsVisited(String)} without going through the name of the cell.
+   *
+   * @param cellId id of the cell(cave/tunnel)
+   * @throws IllegalArgumentException if the cell id is outside the grid
+   */
+  void addCellAsVisited(int cellId) throws IllegalArgumentException;
+
   /**
    * This function is used to get current dungeon location.
    *
@@ -56,6 +91,13 @@ interface Player {
    */
   String getCurrentDungeonLocation();
 
+  /**
+   * This function is used to get the id of the current dungeon location.
+   *
+   * @return id of the current dungeon cell location
+   */
+  int getCurrentCellId();
+
   /**
    * This function is used to check if there is at least one arrow available.
    *
@@ -64,11 +106,11 @@ interface Player {
   boolean checkForAtLeastOneArrow();
 
   /**
-   * This function is used to get the available arrows to shoot.
+   * This function is used to get the number of available arrows to shoot.
    *
-   * @return list of available arrows.
+   * @return number of available arrows
    */
-  List<DungeonsGame.ArrowType> getAvailableArrows();
+  int getArrowCount();
 
   /**
    * This function is used to reduce available arrow by one.
@@ -82,4 +124,29 @@ interface Player {
    * This function is used to add an arrow to acquired list.
    */
   void addArrow();
+
+  /**
+   * This function is used to add a number of arrows to acquired list at once.
+   *
+   * @param count number of arrows to be added
+   * @throws IllegalArgumentException if the count is negative
+   */
+  void addArrows(int count) throws IllegalArgumentException;
+
+  /**
+   * This function is used to get a read only view of the player as it is now. Getting the
+   * view does not copy the travelled path.
+   *
+   * @return player data of the player
+   */
+  PlayerData getPlayerData();
+
+  /**
+   * This function is used to create an independent player with the same name, position,
+   * treasure, arrows and travelled path. The travelled path is shared until either player
+   * moves, so forking does not copy it.
+   *
+   * @return copy of the player
+   */
+  Player fork();
 }
@@ -1,43 +1,114 @@
 package game.model;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.NoSuchElementException;
 
 /**
  * This class implements the player interface and stores the player's data.
  * It includes functionalities like getting the player's name and getting
  * the amount of treasure acquired by the player.
+ * Treasures and arrows are kept as counters. The travelled path is kept as the start cell
+ * followed by a stream of 2 bit directions, one per move, with the cell id stored every
+ * {@link #STEPS_PER_WORD} steps so that any step can be found without decoding the whole
+ * path. A step which does not follow an exit of the previous cell (the start cell entered
+ * again) is kept as a jump on the side. The visited cells are also kept in a bit set.
+ * A forked player shares the path and the visited cells with the player it was forked from
+ * until either of them moves, which copies them first.
  */
 class PlayerImpl implements Player {
+
+  private static final DungeonsGame.Direction[] DIRECTIONS = DungeonsGame.Direction.values();
+  private static final int STEPS_PER_WORD = Long.SIZE / 2;
+  // number of arrows every player starts with
+  static final int STARTING_ARROWS = 3;
+
   private final String playerName;
-  private final Map<DungeonsGame.TreasureType, Integer> acquiredTreasures;
-  private final List<String> cellsTravelled;
-  private final List<DungeonsGame.ArrowType> availableArrows;
+  private final GridTopology topology;
+  private final int[] treasureCounts;
+  private BitSet visitedCells;
+  private int arrowCount;
+  private long[] steps;
+  private int[] anchorCellIds;
+  private int[] jumpIndexes;
+  private int[] jumpCellIds;
+  private int jumpCount;
+  private int pathLength;
+  private int currentCellId;
+  private String currentCellName;
+  private boolean sharedPath;
 
   /**
    * This function is used to create a player with the given name.
    *
    * @param playerName name of the player
-   * @throws IllegalArgumentException if the player name is null
+   * @param topology   grid the player moves on
+   * @throws IllegalArgumentException if the player name or the topology is null
+   */
+  public PlayerImpl(String playerName, GridTopology topology) throws IllegalArgumentException {
+    this(playerName, topology, STARTING_ARROWS);
+  }
+
+  /**
+   * This function is used to create a player with the given name who holds the given number
+   * of arrows, like a player loaded from a saved game.
+   *
+   * @param playerName name of the player
+   * @param topology   grid the player moves on
+   * @param arrowCount number of arrows the player holds
+   * @throws IllegalArgumentException if the player name or the topology is null or the arrow
+   *                                  count is negative
    */
-  public PlayerImpl(String playerName) throws IllegalArgumentException {
-    if (playerName == null) {
+  PlayerImpl(String playerName, GridTopology topology, int arrowCount)
+          throws IllegalArgumentException {
+    if (playerName == null || topology == null) {
       throw new IllegalArgumentException("Invalid player name provided");
     }
+    if (arrowCount < 0) {
+      throw new IllegalArgumentException("Arrow count cannot be negative");
+    }
     this.playerName = playerName;
-    this.acquiredTreasures = new TreeMap<>();
-    this.cellsTravelled = new ArrayList<>();
-    this.availableArrows = new ArrayList<>();
-    addDefaultArrows();
+    this.topology = topology;
+    this.treasureCounts = new int[DungeonsGame.TreasureType.values().length];
+    this.visitedCells = new BitSet(topology.cellCount());
+    this.steps = new long[1];
+    this.anchorCellIds = new int[1];
+    this.jumpIndexes = new int[0];
+    this.jumpCellIds = new int[0];
+    this.jumpCount = 0;
+    this.pathLength = 0;
+    this.currentCellId = -1;
+    this.arrowCount = arrowCount;
+    this.sharedPath = false;
   }
 
-  private void addDefaultArrows() {
-    // add three arrows by default
-    for (int count = 0; count < 3; count++) {
-      this.availableArrows.add(DungeonsGame.ArrowType.CROOKED_ARROW);
-    }
+  private PlayerImpl(PlayerImpl player) {
+    this.playerName = player.playerName;
+    this.topology = player.topology;
+    this.treasureCounts = player.treasureCounts.clone();
+    this.visitedCells = player.visitedCells;
+    this.steps = player.steps;
+    this.anchorCellIds = player.anchorCellIds;
+    this.jumpIndexes = player.jumpIndexes;
+    this.jumpCellIds = player.jumpCellIds;
+    this.jumpCount = player.jumpCount;
+    this.pathLength = player.pathLength;
+    this.currentCellId = player.currentCellId;
+    this.currentCellName = player.currentCellName;
+    this.arrowCount = player.arrowCount;
+    this.sharedPath = true;
+  }
+
+  @Override
+  public Player fork() {
+    sharedPath = true;
+    return new PlayerImpl(this);
   }
 
   @Override
@@ -47,37 +118,57 @@ class PlayerImpl implements Player {
 
   @Override
   public String getCurrentDungeonLocation() {
-    return cellsTravelled.get(cellsTravelled.size() - 1);
+    if (pathLength == 0) {
+      throw new IllegalStateException("Player has not entered the dungeon yet");
+    }
+    if (currentCellName == null) {
+      // moves by cell id leave the name to be built once it is asked for; the name is an
+      // immutable string, so threads reading a published player at most build it twice
+      currentCellName = GridTopology.cellName(currentCellId);
+    }
+    return currentCellName;
+  }
+
+  @Override
+  public int getCurrentCellId() {
+    return currentCellId;
   }
 
   @Override
   public boolean checkForAtLeastOneArrow() {
-    return availableArrows.size() > 0;
+    return arrowCount > 0;
   }
 
   @Override
-  public List<DungeonsGame.ArrowType> getAvailableArrows() {
-    return availableArrows;
+  public int getArrowCount() {
+    return arrowCount;
   }
 
   @Override
   public void reduceAvailableArrowByOne() throws IllegalStateException {
     if (this.checkForAtLeastOneArrow()) {
-      availableArrows.remove(0);
+      arrowCount--;
     } else {
       throw new IllegalStateException("No arrow available to remove");
     }
-
   }
 
   @Override
   public void addArrow() {
-    availableArrows.add(DungeonsGame.ArrowType.CROOKED_ARROW);
+    arrowCount++;
   }
 
   @Override
-  public Map<DungeonsGame.TreasureType, Integer> getTreasure() {
-    return acquiredTreasures;
+  public void addArrows(int count) throws IllegalArgumentException {
+    if (count < 0) {
+      throw new IllegalArgumentException("Arrow count cannot be negative");
+    }
+    arrowCount += count;
+  }
+
+  @Override
+  public int getTreasureCount(DungeonsGame.TreasureType treasure) {
+    return treasureCounts[treasure.ordinal()];
   }
 
   @Override
@@ -85,24 +176,216 @@ class PlayerImpl implements Player {
     if (treasure == null) {
       throw new IllegalArgumentException("Invalid treasure provided");
     }
-    int existingCount = 0;
-    if (acquiredTreasures.containsKey(treasure)) {
-      existingCount = acquiredTreasures.get(treasure);
+    treasureCounts[treasure.ordinal()]++;
+  }
+
+  @Override
+  public void captureTreasure(DungeonsGame.TreasureType treasure, int count)
+          throws IllegalArgumentException {
+    if (treasure == null || count < 0) {
+      throw new IllegalArgumentException("Invalid treasure provided");
     }
-    acquiredTreasures.put(treasure, ++existingCount);
+    treasureCounts[treasure.ordinal()] += count;
   }
 
   @Override
   public List<String> getTravelledPath() {
-    return cellsTravelled;
+    return new TravelledPath(pathLength);
+  }
+
+  @Override
+  public int[] getTravelledCellIds() {
+    int[] cellIds = new int[pathLength];
+    int jump = 0;
+    for (int index = 0; index < pathLength; index++) {
+      if (jump < jumpCount && jumpIndexes[jump] == index) {
+        cellIds[index] = jumpCellIds[jump++];
+      } else {
+        cellIds[index] = index == 0 ? anchorCellIds[0] : step(cellIds[index - 1], index);
+      }
+    }
+    return cellIds;
+  }
+
+  @Override
+  public boolean hasVisited(int cellId) {
+    return cellId >= 0 && visitedCells.get(cellId);
   }
 
   @Override
   public void addCellAsVisited(String cellName) throws IllegalArgumentException {
-    if (cellName == null) {
+    int cellId = topology.cellIdOf(cellName);
+    if (cellId < 0) {
       throw new IllegalArgumentException("Invalid cell name provided");
     }
-    cellsTravelled.add(cellName);
+    visit(cellId);
+    currentCellName = cellName;
+  }
+
+  @Override
+  public void addCellAsVisited(int cellId) throws IllegalArgumentException {
+    if (cellId < 0 || cellId >= topology.cellCount()) {
+      throw new IllegalArgumentException("Invalid cell id provided");
+    }
+    visit(cellId);
+    currentCellName = null;
   }
 
+  private void visit(int cellId) {
+    if (sharedPath) {
+      // the other player may write the same words beyond the shared path
+      steps = steps.clone();
+      anchorCellIds = anchorCellIds.clone();
+      jumpIndexes = jumpIndexes.clone();
+      jumpCellIds = jumpCellIds.clone();
+      visitedCells = (BitSet) visitedCells.clone();
+      sharedPath = false;
+    }
+    int code = pathLength == 0 ? -1 : directionCode(currentCellId, cellId);
+    if (pathLength % STEPS_PER_WORD == 0) {
+      int word = pathLength / STEPS_PER_WORD;
+      if (word == steps.length) {
+        steps = Arrays.copyOf(steps, word * 2);
+        anchorCellIds = Arrays.copyOf(anchorCellIds, word * 2);
+      }
+      anchorCellIds[word] = cellId;
+    }
+    if (code < 0) {
+      if (jumpCount == jumpIndexes.length) {
+        jumpIndexes = Arrays.copyOf(jumpIndexes, jumpCount * 2 + 1);
+        jumpCellIds = Arrays.copyOf(jumpCellIds, jumpCount * 2 + 1);
+      }
+      jumpIndexes[jumpCount] = pathLength;
+      jumpCellIds[jumpCount] = cellId;
+      jumpCount++;
+    } else {
+      steps[pathLength / STEPS_PER_WORD] |= (long) code << (2 * (pathLength % STEPS_PER_WORD));
+    }
+    pathLength++;
+    currentCellId = cellId;
+    visitedCells.set(cellId);
+  }
+
+  @Override
+  public PlayerData getPlayerData() {
+    Map<DungeonsGame.TreasureType, Integer> treasures =
+            new EnumMap<>(DungeonsGame.TreasureType.class);
+    for (DungeonsGame.TreasureType treasure : DungeonsGame.TreasureType.values()) {
+      if (treasureCounts[treasure.ordinal()] > 0) {
+        treasures.put(treasure, treasureCounts[treasure.ordinal()]);
+      }
+    }
+    return new PlayerDataImpl(playerName, Collections.unmodifiableMap(treasures),
+            getTravelledPath(), Collections.nCopies(arrowCount,
+            DungeonsGame.ArrowType.CROOKED_ARROW));
+  }
+
+  private int directionCode(int fromCellId, int toCellId) {
+    for (DungeonsGame.Direction direction : DIRECTIONS) {
+      if (topology.neighbourId(fromCellId, direction) == toCellId) {
+        return direction.ordinal();
+      }
+    }
+    return -1;
+  }
+
+  private int step(int fromCellId, int index) {
+    int code = (int) (steps[index / STEPS_PER_WORD] >>> (2 * (index % STEPS_PER_WORD))) & 3;
+    return topology.neighbourId(fromCellId, DIRECTIONS[code]);
+  }
+
+  private int cellIdAt(int index) {
+    int anchor = index - index % STEPS_PER_WORD;
+    int cellId = anchorCellIds[anchor / STEPS_PER_WORD];
+    int jump = firstJumpAfter(anchor);
+    for (int position = anchor + 1; position <= index; position++) {
+      if (jump < jumpCount && jumpIndexes[jump] == position) {
+        cellId = jumpCellIds[jump++];
+      } else {
+        cellId = step(cellId, position);
+      }
+    }
+    return cellId;
+  }
+
+  private int firstJumpAfter(int index) {
+    int low = 0;
+    int high = jumpCount;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (jumpIndexes[middle] <= index) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * This class is a read only view of the first cells of the travelled path. The path only
+   * grows, so the view stays valid while the player moves on.
+   */
+  private final class TravelledPath extends AbstractList<String> {
+
+    private final int length;
+
+    private TravelledPath(int length) {
+      this.length = length;
+    }
+
+    @Override
+    public String get(int index) {
+      if (index < 0 || index >= length) {
+        throw new IndexOutOfBoundsException("Invalid index provided");
+      }
+      return GridTopology.cellName(cellIdAt(index));
+    }
+
+    @Override
+    public int size() {
+      return length;
+    }
+
+    @Override
+    public boolean contains(Object cellName) {
+      if (!(cellName instanceof String)) {
+        return false;
+      }
+      int cellId = topology.cellIdOf((String) cellName);
+      if (!hasVisited(cellId)) {
+        return false;
+      }
+      // the bit set covers the whole path, which is this view unless the player moved on
+      return length == pathLength || super.contains(cellName);
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+      return new Iterator<>() {
+        private int index = 0;
+        private int cellId = -1;
+        private int jump = 0;
+
+        @Override
+        public boolean hasNext() {
+          return index < length;
+        }
+
+        @Override
+        public String next() {
+          if (index >= length) {
+            throw new NoSuchElementException("No more cells on the path");
+          }
+          if (jump < jumpCount && jumpIndexes[jump] == index) {
+            cellId = jumpCellIds[jump++];
+          } else {
+            cellId = index == 0 ? anchorCellIds[0] : step(cellId, index);
+          }
+          index++;
+          return GridTopology.cellName(cellId);
+        }
+      };
+    }
+  }
 }
@@ -0,0 +1,61 @@
+package game.model;
+
+import java.util.Arrays;
+
+/**
+ * This class is used to generate the paths of a dungeon using randomized Prim.
+ * The tree grows from a random cell. The frontier holds every path leaving the tree, packed
+ * as cell id * 4 + direction ordinal, and each step opens a random frontier path whose far
+ * end is not part of the tree yet. A drawn entry is removed by moving the last entry into
+ * its place, so every step is O(1).
+ */
+final class PrimGridGenerator extends SpanningTreeGenerator {
+
+  /**
+   * Constructor for the generator.
+   *
+   * @param topology   shape of the grid
+   * @param randomizer randomizer instance
+   * @throws IllegalArgumentException if any argument is null
+   */
+  PrimGridGenerator(GridTopology topology, RandomNumberGenerator randomizer)
+          throws IllegalArgumentException {
+    super(topology, randomizer);
+  }
+
+  @Override
+  protected void carveSpanningTree(byte[] exits) {
+    int cellCount = topology.cellCount();
+    boolean[] inTree = new boolean[cellCount];
+    int[] frontier = new int[Math.max(16, cellCount)];
+    int cellId = randomizer.generateRandomValueForRange(0, cellCount);
+    inTree[cellId] = true;
+    int frontierSize = addFrontier(cellId, inTree, frontier, 0);
+    while (frontierSize > 0) {
+      if (frontier.length - frontierSize < DIRECTIONS.length) {
+        frontier = Arrays.copyOf(frontier, frontier.length * 2);
+      }
+      int randomIndex = randomizer.generateRandomValueForRange(0, frontierSize);
+      int path = frontier[randomIndex];
+      frontier[randomIndex] = frontier[--frontierSize];
+      DungeonsGame.Direction direction = DIRECTIONS[path & 3];
+      int neighbourId = topology.neighbourId(path >>> 2, direction);
+      if (inTree[neighbourId]) {
+        continue;
+      }
+      openPath(exits, path >>> 2, direction);
+      inTree[neighbourId] = true;
+      frontierSize = addFrontier(neighbourId, inTree, frontier, frontierSize);
+    }
+  }
+
+  private int addFrontier(int cellId, boolean[] inTree, int[] frontier, int frontierSize) {
+    for (DungeonsGame.Direction direction : DIRECTIONS) {
+      int neighbourId = topology.neighbourId(cellId, direction);
+      if (neighbourId >= 0 && !inTree[neighbourId]) {
+        frontier[frontierSize++] = cellId << 2 | direction.ordinal();
+      }
+    }
+    return frontierSize;
+  }
+}
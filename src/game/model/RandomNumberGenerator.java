@@ -18,6 +18,30 @@ public interface RandomNumberGenerator {
   int generateRandomValueForRange(int minimumRangeValue, int maximumRangeValue)
           throws IllegalStateException;
 
+  /**
+   * This function is used to start drawing indexes from [0, populationSize) without
+   * replacement. Every draw of the returned sampler is one step of a partial Fisher-Yates
+   * shuffle and takes exactly one random value from this generator, so draws can be
+   * interleaved with other random values.
+   *
+   * @param populationSize number of indexes to draw from
+   * @return sampler for the indexes
+   * @throws IllegalArgumentException if the population size is negative
+   */
+  IndexSampler createIndexSampler(int populationSize) throws IllegalArgumentException;
+
+  /**
+   * This function is used to select sampleSize distinct indexes from [0, populationSize)
+   * at random. It takes exactly sampleSize random values from this generator.
+   *
+   * @param populationSize number of indexes to select from
+   * @param sampleSize     number of indexes to select
+   * @return selected indexes in the order they were drawn
+   * @throws IllegalArgumentException if the sample size is negative or larger than the
+   *                                  population size
+   */
+  int[] selectIndexes(int populationSize, int sampleSize) throws IllegalArgumentException;
+
   /**
    * gets the random seed.
    * @return seed value
@@ -29,4 +53,12 @@ public interface RandomNumberGenerator {
    * @param seed seed value
    */
   void setRandomSeed(int seed);
+
+  /**
+   * This function is used to create a generator continuing with exactly the values this one
+   * would produce next. Both generators draw independently afterwards.
+   *
+   * @return copy of the generator
+   */
+  RandomNumberGenerator copy();
 }
@@ -5,21 +5,29 @@ import java.util.Random;
 /**
  * This class is used to generate random numbers. It is used for mocking the random functionality
  * as well as it supports true randomness.
+ * The true random values come from the same linear congruential generator as
+ * {@link Random}, so a seed gives the same values as before, but the 48 bit state is kept in
+ * a field so that a copy of the generator costs no more than a copy of that field.
  */
 public class RandomNumberGeneratorImpl implements RandomNumberGenerator {
 
-  private final Random javaRandom;
+  private static final long MULTIPLIER = 0x5DEECE66DL;
+  private static final long ADDEND = 0xBL;
+  private static final long MASK = (1L << 48) - 1;
+
+  private final boolean trueRandom;
   private final int[] predefinedValues;
   private int countRandomValues;
   private final int seedValue;
+  private long state;
 
   /**
    * This function is a constructor for creation of random number generator.(True random)
    */
   public RandomNumberGeneratorImpl() {
-    javaRandom = new Random();
-    seedValue = javaRandom.nextInt();
-    javaRandom.setSeed(seedValue);
+    trueRandom = true;
+    seedValue = new Random().nextInt();
+    state = scramble(seedValue);
     this.predefinedValues = null;
     countRandomValues = 0;
   }
@@ -36,14 +44,72 @@ public class RandomNumberGeneratorImpl implements RandomNumberGenerator {
     }
     this.predefinedValues = predefinedValues;
     countRandomValues = 0;
-    javaRandom = null;
+    trueRandom = false;
     seedValue = 10;
+    state = scramble(seedValue);
+  }
+
+  /**
+   * This function is a constructor which continues a true random generator from a saved
+   * seed and state, as returned by {@link #getRandomSeed()} and {@link #getState()}.
+   *
+   * @param seed  seed the generator was created with
+   * @param state 48 bit state of the generator
+   */
+  RandomNumberGeneratorImpl(int seed, long state) {
+    trueRandom = true;
+    seedValue = seed;
+    this.state = state & MASK;
+    this.predefinedValues = null;
+    countRandomValues = 0;
+  }
+
+  /**
+   * This function is a constructor which continues a generator with predefined values from
+   * the given position, as returned by {@link #getPredefinedValues()} and
+   * {@link #getPredefinedPosition()}.
+   *
+   * @param predefinedValues predefined values of randomness
+   * @param position         number of values already produced
+   * @throws IllegalArgumentException if the values are null or the position is outside them
+   */
+  RandomNumberGeneratorImpl(int[] predefinedValues, int position)
+          throws IllegalArgumentException {
+    this(predefinedValues);
+    if (position < 0 || position > predefinedValues.length) {
+      throw new IllegalArgumentException("Position is outside the predefined values");
+    }
+    countRandomValues = position;
+  }
+
+  /**
+   * This function is a copy constructor which creates a generator continuing with exactly the
+   * values the given generator would produce next. Both generators draw independently
+   * afterwards.
+   *
+   * @param instance generator to be copied
+   * @throws IllegalArgumentException if the generator is null
+   */
+  RandomNumberGeneratorImpl(RandomNumberGeneratorImpl instance) throws IllegalArgumentException {
+    if (instance == null) {
+      throw new IllegalArgumentException("Arguments cannot be null");
+    }
+    this.predefinedValues = instance.predefinedValues;
+    this.countRandomValues = instance.countRandomValues;
+    this.seedValue = instance.seedValue;
+    this.trueRandom = instance.trueRandom;
+    this.state = instance.state;
+  }
+
+  @Override
+  public RandomNumberGenerator copy() {
+    return new RandomNumberGeneratorImpl(this);
   }
 
   @Override
   public int generateRandomValueForRange(int minimumRangeValue, int maximumRangeValue)
           throws IllegalStateException {
-    if (javaRandom == null) {
+    if (!trueRandom) {
       assert predefinedValues != null;
       if (predefinedValues.length == countRandomValues) {
         throw new IllegalStateException("Pre defined values are over.");
@@ -55,11 +121,84 @@ public class RandomNumberGeneratorImpl implements RandomNumberGenerator {
       if (minimumRangeValue > maximumRangeValue) {
         throw new IllegalArgumentException("Minimum Value cannot be more than Maximum Value");
       }
-      return javaRandom.nextInt(maximumRangeValue - minimumRangeValue)
-              + minimumRangeValue;
+      return nextInt(maximumRangeValue - minimumRangeValue) + minimumRangeValue;
     }
   }
 
+  private int next(int bits) {
+    state = (state * MULTIPLIER + ADDEND) & MASK;
+    return (int) (state >>> (48 - bits));
+  }
+
+  private int nextInt(int bound) {
+    // same algorithm as Random.nextInt(int), which rejects values that would skew the result
+    if (bound <= 0) {
+      throw new IllegalArgumentException("bound must be positive");
+    }
+    int value = next(31);
+    int mask = bound - 1;
+    if ((bound & mask) == 0) {
+      return (int) ((bound * (long) value) >> 31);
+    }
+    int candidate = value;
+    while (candidate - (value = candidate % bound) + mask < 0) {
+      candidate = next(31);
+    }
+    return value;
+  }
+
+  private static long scramble(long seed) {
+    return (seed ^ MULTIPLIER) & MASK;
+  }
+
+  @Override
+  public IndexSampler createIndexSampler(int populationSize) throws IllegalArgumentException {
+    return new IndexSampler(this, populationSize);
+  }
+
+  @Override
+  public int[] selectIndexes(int populationSize, int sampleSize)
+          throws IllegalArgumentException {
+    if (sampleSize < 0 || sampleSize > populationSize) {
+      throw new IllegalArgumentException("Sample size cannot be negative "
+              + "nor can it be more than the population size");
+    }
+    IndexSampler sampler = createIndexSampler(populationSize);
+    int[] selectedIndexes = new int[sampleSize];
+    for (int count = 0; count < sampleSize; count++) {
+      selectedIndexes[count] = sampler.next();
+    }
+    return selectedIndexes;
+  }
+
+  /**
+   * gets the 48 bit state of the generator, which decides every value it produces next.
+   * A generator with predefined values keeps the state of its seed.
+   *
+   * @return state of the generator
+   */
+  long getState() {
+    return state;
+  }
+
+  /**
+   * gets the predefined values of the generator.
+   *
+   * @return copy of the predefined values or null for a true random generator
+   */
+  int[] getPredefinedValues() {
+    return predefinedValues == null ? null : predefinedValues.clone();
+  }
+
+  /**
+   * gets the number of predefined values the generator has produced so far.
+   *
+   * @return position in the predefined values
+   */
+  int getPredefinedPosition() {
+    return countRandomValues;
+  }
+
   @Override
   public int getRandomSeed() {
     return seedValue;
@@ -68,7 +207,7 @@ public class RandomNumberGeneratorImpl implements RandomNumberGenerator {
   @Override
   public void setRandomSeed(int seed) {
     if (predefinedValues == null) {
-      javaRandom.setSeed(seed);
+      state = scramble(seed);
     }
   }
 }
\ No newline at end of file
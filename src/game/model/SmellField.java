@@ -0,0 +1,186 @@
+package game.model;
+
+import java.util.Arrays;
+
+/**
+ * This class is used to keep the smell of every cell up to date while monsters are killed,
+ * so that the smell at a location is a table lookup instead of a walk over the two layers of
+ * neighbouring locations. For every cell it counts the paths of length one and two which
+ * end at a live monster. A monster reachable along two different paths counts twice, just
+ * like when the neighbours are walked one by one.
+ * The smell of a cell is strong if it holds a live monster itself, if a live monster is one
+ * path away or if at least two are two paths away, and weak if exactly one is two paths
+ * away. Killing a monster only touches the cells at most two paths away from it.
+ * Only cells near a monster have counters, so they are kept in an open addressing table
+ * keyed by cell id, which grows with the number of monsters instead of the size of the grid.
+ * The counters of a cell are packed into an int (bits 0-7 paths of length one, bits 8-15
+ * paths of length two and bit 16 set for a live monster in the cell itself).
+ * A forked field shares the counters with the field it was forked from until either of
+ * them changes, which copies them first.
+ */
+final class SmellField {
+
+  private static final DungeonsGame.Direction[] DIRECTIONS = DungeonsGame.Direction.values();
+  private static final int FIRST_CAPACITY = 16;
+  private static final int EMPTY = -1;
+  private static final int NEARBY_MONSTER = 1;
+  private static final int DISTANT_MONSTER = 1 << 8;
+  private static final int LIVE_MONSTER = 1 << 16;
+
+  private final GridTopology topology;
+  private final DungeonStore store;
+  private int[] slotCells;
+  private int[] slotCounters;
+  private int size;
+  private boolean shared;
+
+  /**
+   * Constructor for the smell field of a dungeon without any live monsters.
+   *
+   * @param store store of the dungeon, only its exits are read
+   * @throws IllegalArgumentException if the store is null
+   */
+  SmellField(DungeonStore store) throws IllegalArgumentException {
+    if (store == null) {
+      throw new IllegalArgumentException("Invalid smell field parameters");
+    }
+    this.topology = store.getTopology();
+    this.store = store;
+    createSlots(FIRST_CAPACITY);
+    this.size = 0;
+    this.shared = false;
+  }
+
+  private SmellField(SmellField field) {
+    this.topology = field.topology;
+    this.store = field.store;
+    this.slotCells = field.slotCells;
+    this.slotCounters = field.slotCounters;
+    this.size = field.size;
+    this.shared = true;
+  }
+
+  /**
+   * This function is used to create an independent field with the same smells. The counters
+   * are only copied once one of the fields changes.
+   *
+   * @return field with the same smells
+   */
+  SmellField fork() {
+    shared = true;
+    return new SmellField(this);
+  }
+
+  /**
+   * This function is used to add a live monster to the given cell.
+   * Adding a monster to a cell which already holds a live one does nothing.
+   *
+   * @param cellId id of the cell
+   */
+  void addMonster(int cellId) {
+    if ((countersOf(cellId) & LIVE_MONSTER) == 0) {
+      copyIfShared();
+      add(cellId, LIVE_MONSTER);
+      spread(cellId, 1);
+    }
+  }
+
+  /**
+   * This function is used to remove the live monster of the given cell once it is killed.
+   * Removing a monster from a cell without a live one does nothing.
+   *
+   * @param cellId id of the cell
+   */
+  void removeMonster(int cellId) {
+    if ((countersOf(cellId) & LIVE_MONSTER) != 0) {
+      copyIfShared();
+      add(cellId, -LIVE_MONSTER);
+      spread(cellId, -1);
+    }
+  }
+
+  /**
+   * This function is used to get the smell at the given cell.
+   *
+   * @param cellId id of the cell
+   * @return smell at the cell
+   */
+  DungeonsGame.SmellType smellAt(int cellId) {
+    int counters = countersOf(cellId);
+    int distantMonsters = counters >>> 8 & 0xFF;
+    if ((counters & LIVE_MONSTER) != 0 || (counters & 0xFF) > 0 || distantMonsters > 1) {
+      return DungeonsGame.SmellType.STRONG;
+    } else if (distantMonsters == 1) {
+      return DungeonsGame.SmellType.WEAK;
+    }
+    return DungeonsGame.SmellType.NO_SMELL;
+  }
+
+  private void copyIfShared() {
+    if (shared) {
+      slotCells = slotCells.clone();
+      slotCounters = slotCounters.clone();
+      shared = false;
+    }
+  }
+
+  private void spread(int monsterCellId, int change) {
+    // paths are symmetric, so the paths ending at the monster are the ones leaving it
+    for (DungeonsGame.Direction direction : DIRECTIONS) {
+      if ((store.getExits(monsterCellId) & 1 << direction.ordinal()) == 0) {
+        continue;
+      }
+      int neighbourId = topology.neighbourId(monsterCellId, direction);
+      add(neighbourId, change * NEARBY_MONSTER);
+      for (DungeonsGame.Direction neighbourDirection : DIRECTIONS) {
+        if ((store.getExits(neighbourId) & 1 << neighbourDirection.ordinal()) != 0) {
+          add(topology.neighbourId(neighbourId, neighbourDirection),
+                  change * DISTANT_MONSTER);
+        }
+      }
+    }
+  }
+
+  private void createSlots(int slotCount) {
+    slotCells = new int[slotCount];
+    slotCounters = new int[slotCount];
+    Arrays.fill(slotCells, EMPTY);
+  }
+
+  private int slotOf(int cellId) {
+    int mask = slotCells.length - 1;
+    int slot = (cellId * 0x9E3779B9) >>> 7 & mask;
+    while (slotCells[slot] != EMPTY && slotCells[slot] != cellId) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private int countersOf(int cellId) {
+    int slot = slotOf(cellId);
+    return slotCells[slot] == EMPTY ? 0 : slotCounters[slot];
+  }
+
+  private void add(int cellId, int change) {
+    // counters which drop back to zero keep their slot, so nothing is ever removed
+    int slot = slotOf(cellId);
+    if (slotCells[slot] == EMPTY) {
+      if ((size + 1) * 2 > slotCells.length) {
+        int[] oldCells = slotCells;
+        int[] oldCounters = slotCounters;
+        createSlots(slotCells.length * 2);
+        for (int oldSlot = 0; oldSlot < oldCells.length; oldSlot++) {
+          if (oldCells[oldSlot] != EMPTY) {
+            int newSlot = slotOf(oldCells[oldSlot]);
+            slotCells[newSlot] = oldCells[oldSlot];
+            slotCounters[newSlot] = oldCounters[oldSlot];
+          }
+        }
+        slot = slotOf(cellId);
+      }
+      slotCells[slot] = cellId;
+      size++;
+    }
+    slotCounters[slot] += change;
+  }
+}
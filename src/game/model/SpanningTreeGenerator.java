@@ -0,0 +1,97 @@
+package game.model;
+
+import java.util.Arrays;
+
+/**
+ * This class is used as the base of the generators which carve their spanning tree by
+ * walking the grid instead of shuffling all potential paths up front. Once the tree is
+ * carved, the extra paths for the interconnectivity are drawn without replacement from the
+ * left over paths in edge order of the {@link GridTopology}. Only the positions of the drawn
+ * paths are kept, which are then found in one more walk over the edges, so the extra paths
+ * need memory proportional to the interconnectivity instead of the number of paths.
+ */
+abstract class SpanningTreeGenerator implements MazeGenerator {
+
+  protected static final DungeonsGame.Direction[] DIRECTIONS = DungeonsGame.Direction.values();
+
+  protected final GridTopology topology;
+  protected final RandomNumberGenerator randomizer;
+
+  /**
+   * Constructor for the generator.
+   *
+   * @param topology   shape of the grid
+   * @param randomizer randomizer instance
+   * @throws IllegalArgumentException if any argument is null
+   */
+  SpanningTreeGenerator(GridTopology topology, RandomNumberGenerator randomizer)
+          throws IllegalArgumentException {
+    if (topology == null || randomizer == null) {
+      throw new IllegalArgumentException("Input parameters cannot be null");
+    }
+    this.topology = topology;
+    this.randomizer = randomizer;
+  }
+
+  @Override
+  public byte[] generateExits(int interConnectivity) throws IllegalArgumentException {
+    byte[] exits = new byte[topology.cellCount()];
+    carveSpanningTree(exits);
+    // every cell is reachable now, the remaining edges are the left over paths
+    int leftOverCount = topology.edgeCount() - (topology.cellCount() - 1);
+    if (interConnectivity > leftOverCount) {
+      throw new IllegalArgumentException("Interconnectivity "
+              + "provided is not possible with the current grid");
+    }
+    if (interConnectivity == 0) {
+      return exits;
+    }
+    IndexSampler extraPaths = randomizer.createIndexSampler(leftOverCount);
+    int[] selectedPositions = new int[interConnectivity];
+    for (int selectionCount = 0; selectionCount < interConnectivity; selectionCount++) {
+      selectedPositions[selectionCount] = extraPaths.next();
+    }
+    Arrays.sort(selectedPositions);
+    // find the selected left over paths first, opening them changes which paths are left over
+    int[] selectedEdges = new int[interConnectivity];
+    int position = 0;
+    int selected = 0;
+    for (int edge = 0; selected < interConnectivity; edge++) {
+      int source = topology.edgeSource(edge);
+      if ((exits[source] & 1 << topology.edgeDirection(edge).ordinal()) == 0) {
+        if (position == selectedPositions[selected]) {
+          selectedEdges[selected++] = edge;
+        }
+        position++;
+      }
+    }
+    for (int edge : selectedEdges) {
+      openPath(exits, topology.edgeSource(edge), topology.edgeDirection(edge));
+    }
+    return exits;
+  }
+
+  /**
+   * This function is used to carve a spanning tree by opening exactly cell count - 1 paths
+   * which connect every cell of the grid.
+   *
+   * @param exits exit bitmask per cell id, all zero when called
+   */
+  protected abstract void carveSpanningTree(byte[] exits);
+
+  /**
+   * This function is used to open the path leaving the given cell in the given direction
+   * on both of its ends.
+   *
+   * @param exits     exit bitmask per cell id
+   * @param cellId    id of the cell
+   * @param direction direction of the path
+   * @return id of the cell at the other end of the path
+   */
+  protected int openPath(byte[] exits, int cellId, DungeonsGame.Direction direction) {
+    int neighbourId = topology.neighbourId(cellId, direction);
+    exits[cellId] |= 1 << direction.ordinal();
+    exits[neighbourId] |= 1 << GridTopology.opposite(direction).ordinal();
+    return neighbourId;
+  }
+}
@@ -0,0 +1,160 @@
+package game.model;
+
+/**
+ * This class is used to choose the start and end location of a dungeon. The end location
+ * has to be a cave which is more than four moves away from the start location.
+ * Distances are found by a breadth first search over integer cell ids using an int
+ * distance array and an int ring buffer queue which are reused across tries.
+ * An upper bound on the eccentricity of every cell is cached from each search, which
+ * lets later tries skip the search for start cells that cannot reach any cell more than
+ * four moves away.
+ */
+final class StartEndPlacer {
+
+  private static final int MINIMUM_DISTANCE = 5;
+  private static final DungeonsGame.Direction[] DIRECTIONS = DungeonsGame.Direction.values();
+
+  private final GridTopology topology;
+  private final byte[] exits;
+  private final boolean[] caves;
+  private final int[] distance;
+  private final int[] visitedMark;
+  private final int[] queue;
+  private final int[] eccentricityBound;
+  private final int[] candidates;
+  private int searchMark;
+
+  /**
+   * Constructor for the placer.
+   *
+   * @param topology shape of the grid
+   * @param exits    exit bitmask per cell id
+   * @param caves    true for every cell id which is a cave
+   * @throws IllegalArgumentException if any argument is null or does not match the grid
+   */
+  StartEndPlacer(GridTopology topology, byte[] exits, boolean[] caves)
+          throws IllegalArgumentException {
+    if (topology == null || exits == null || caves == null
+            || exits.length != topology.cellCount() || caves.length != exits.length) {
+      throw new IllegalArgumentException("Invalid input parameters provided");
+    }
+    this.topology = topology;
+    this.exits = exits;
+    this.caves = caves;
+    int cellCount = exits.length;
+    distance = new int[cellCount];
+    visitedMark = new int[cellCount];
+    queue = new int[cellCount];
+    eccentricityBound = new int[cellCount];
+    candidates = new int[cellCount];
+    for (int cellId = 0; cellId < cellCount; cellId++) {
+      eccentricityBound[cellId] = Integer.MAX_VALUE;
+    }
+    searchMark = 0;
+  }
+
+  /**
+   * This function is used to choose the start and end location. Start cells are drawn at
+   * random until one of them has at least one valid end cave, then the end cave is drawn
+   * from the valid ones. The draws happen in the same order as they always did.
+   *
+   * @param randomizer randomizer instance
+   * @return array holding the start cell id followed by the end cell id
+   * @throws IllegalArgumentException if no valid start and end location exists
+   */
+  int[] place(RandomNumberGenerator randomizer) throws IllegalArgumentException {
+    int cellCount = exits.length;
+    boolean[] alreadyTried = new boolean[cellCount];
+    int triedCount = 0;
+    while (triedCount != cellCount) {
+      // select a start point at random
+      int randomStartIndex = randomizer.generateRandomValueForRange(0, cellCount);
+      if (alreadyTried[randomStartIndex]) {
+        //node already visited so move to next one.
+        continue;
+      }
+      int candidateCount = collectEndCandidates(randomStartIndex);
+      if (candidateCount == 0) {
+        // no end point available. Try another node
+        alreadyTried[randomStartIndex] = true;
+        triedCount++;
+      } else {
+        //choose a random end node from the list
+        int randomEndIndex = randomizer.generateRandomValueForRange(0, candidateCount);
+        return new int[]{randomStartIndex, candidates[randomEndIndex]};
+      }
+    }
+    throw new IllegalArgumentException("Provided dimensions for dungeons are "
+            + "not sufficient to find a valid start and end location");
+  }
+
+  /**
+   * This function is used to get all the valid end caves for the given start cell.
+   *
+   * @param startCellId id of the start cell
+   * @return ids of the valid end caves in ascending order
+   */
+  int[] getEndCandidates(int startCellId) {
+    int candidateCount = collectEndCandidates(startCellId);
+    int[] result = new int[candidateCount];
+    System.arraycopy(candidates, 0, result, 0, candidateCount);
+    return result;
+  }
+
+  private int collectEndCandidates(int startCellId) {
+    if (eccentricityBound[startCellId] < MINIMUM_DISTANCE) {
+      // every cell is within four moves, no need to search again
+      return 0;
+    }
+    int eccentricity = search(startCellId);
+    int candidateCount = 0;
+    // one linear pass collects the candidates and tightens the cached bounds
+    for (int cellId = 0; cellId < exits.length; cellId++) {
+      if (visitedMark[cellId] != searchMark) {
+        continue;
+      }
+      int cellDistance = distance[cellId];
+      if (cellDistance >= MINIMUM_DISTANCE && caves[cellId]) {
+        candidates[candidateCount++] = cellId;
+      }
+      int bound = cellDistance + eccentricity;
+      if (bound < eccentricityBound[cellId]) {
+        eccentricityBound[cellId] = bound;
+      }
+    }
+    return candidateCount;
+  }
+
+  private int search(int startCellId) {
+    searchMark++;
+    int capacity = queue.length;
+    int head = 0;
+    int size = 0;
+    int eccentricity = 0;
+    queue[0] = startCellId;
+    size++;
+    distance[startCellId] = 0;
+    visitedMark[startCellId] = searchMark;
+    while (size > 0) {
+      int cellId = queue[head];
+      head = (head + 1) % capacity;
+      size--;
+      int nextDistance = distance[cellId] + 1;
+      for (DungeonsGame.Direction direction : DIRECTIONS) {
+        if ((exits[cellId] & (1 << direction.ordinal())) == 0) {
+          continue;
+        }
+        int neighbourId = topology.neighbourId(cellId, direction);
+        if (visitedMark[neighbourId] == searchMark) {
+          continue;
+        }
+        visitedMark[neighbourId] = searchMark;
+        distance[neighbourId] = nextDistance;
+        eccentricity = nextDistance;
+        queue[(head + size) % capacity] = neighbourId;
+        size++;
+      }
+    }
+    return eccentricity;
+  }
+}
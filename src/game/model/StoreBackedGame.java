@@ -0,0 +1,645 @@
+package game.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * This class is used to play the dungeons game on a {@link DungeonStore}. It holds the rules
+ * of the game (movement, shooting, pickups, smells, setup and reset) once for every game
+ * model: {@link DungeonsGameImpl} plays on a store of cell objects and
+ * {@link CompactDungeonsGame} on a store of packed cells, both delegate to this class.
+ * The store is the only place the cells are kept. A new dungeon is put into a store by the
+ * store factory of the game, so setting up a new game keeps the kind of storage.
+ */
+final class StoreBackedGame {
+
+  private static final DungeonsGame.Direction[] DIRECTIONS = DungeonsGame.Direction.values();
+
+  private final Function<DungeonLayout, DungeonStore> storeFactory;
+  private DungeonStore store;
+  private GridTopology topology;
+  private SmellField smellField;
+  private FlightTable flightTable;
+  private CellStateTable cellStates;
+  private GridRenderer gridRenderer;
+  private long modelVersion;
+  private int startCellId;
+  private int endCellId;
+  private int playerCellId;
+  private DungeonsGame.GameState gameState;
+  private Player currentPlayer;
+  private DungeonsGame.MazeAlgorithm mazeAlgorithm;
+  private RandomNumberGenerator randomizer;
+  private PackedGameHistory gameHistory;
+
+  /**
+   * Constructor for a game on a freshly generated dungeon.
+   *
+   * @param storeFactory        factory putting a generated dungeon into a store
+   * @param wrapType            type of wrap
+   * @param rowCount            number of rows in dungeons game
+   * @param columnCount         number of columns in dungeons game
+   * @param interConnectivity   interconnectivity number
+   * @param distributionPercent distribution percentage for treasure and arrow to be present in game
+   * @param monsterCount        number of monsters to be created
+   * @param mazeAlgorithm       algorithm used to generate the paths
+   * @param randomizer          randomizer instance
+   * @throws IllegalArgumentException if any row or column count are invalid or other args are null
+   */
+  StoreBackedGame(Function<DungeonLayout, DungeonStore> storeFactory,
+                  DungeonsGame.WrapType wrapType, int rowCount, int columnCount,
+                  int interConnectivity, int distributionPercent, int monsterCount,
+                  DungeonsGame.MazeAlgorithm mazeAlgorithm, RandomNumberGenerator randomizer)
+          throws IllegalArgumentException {
+    this.storeFactory = storeFactory;
+    setupDungeon(wrapType, rowCount, columnCount, interConnectivity, distributionPercent,
+            monsterCount, mazeAlgorithm, randomizer);
+  }
+
+  /**
+   * Constructor for a game on a dungeon which is already stored. The game starts in the not
+   * started state.
+   *
+   * @param storeFactory  factory putting a generated dungeon into a store
+   * @param store         store holding the dungeon
+   * @param mazeAlgorithm algorithm the dungeon was generated with
+   * @param randomizer    randomizer instance
+   * @throws IllegalArgumentException if any argument is null
+   */
+  StoreBackedGame(Function<DungeonLayout, DungeonStore> storeFactory, DungeonStore store,
+                  DungeonsGame.MazeAlgorithm mazeAlgorithm, RandomNumberGenerator randomizer)
+          throws IllegalArgumentException {
+    if (storeFactory == null || store == null || mazeAlgorithm == null || randomizer == null) {
+      throw new IllegalArgumentException("Input parameters cannot be null");
+    }
+    this.storeFactory = storeFactory;
+    this.mazeAlgorithm = mazeAlgorithm;
+    this.randomizer = randomizer;
+    useStore(store);
+  }
+
+  private StoreBackedGame(StoreBackedGame game,
+                          Function<DungeonLayout, DungeonStore> storeFactory) {
+    this.storeFactory = storeFactory;
+    this.cellStates = game.cellStates.fork();
+    this.store = cellStates.getStore();
+    this.topology = game.topology;
+    this.smellField = game.smellField.fork();
+    this.flightTable = game.flightTable;
+    this.gridRenderer = game.gridRenderer;
+    this.modelVersion = game.modelVersion;
+    this.startCellId = game.startCellId;
+    this.endCellId = game.endCellId;
+    this.playerCellId = game.playerCellId;
+    this.gameState = game.gameState;
+    this.currentPlayer = game.currentPlayer == null ? null : game.currentPlayer.fork();
+    this.mazeAlgorithm = game.mazeAlgorithm;
+    this.randomizer = game.randomizer.copy();
+    this.gameHistory = game.gameHistory.branch(game.gameHistory.size());
+  }
+
+  /**
+   * This function is used to get the core of a game model of this package.
+   *
+   * @param game game model
+   * @return core the game delegates to
+   * @throws IllegalArgumentException if the game is null or not played on a store
+   */
+  static StoreBackedGame of(DungeonsGame game) throws IllegalArgumentException {
+    if (game instanceof DungeonsGameImpl) {
+      return ((DungeonsGameImpl) game).getCore();
+    } else if (game instanceof CompactDungeonsGame) {
+      return ((CompactDungeonsGame) game).getCore();
+    }
+    throw new IllegalArgumentException("Game is not played on a dungeon store");
+  }
+
+  private void setupDungeon(DungeonsGame.WrapType wrapType, int rowCount, int columnCount,
+                            int interConnectivity, int distributionPercent, int monsterCount,
+                            DungeonsGame.MazeAlgorithm mazeAlgorithm,
+                            RandomNumberGenerator randomizer)
+          throws IllegalArgumentException {
+    // validation of all arguments and the random generation happen in the layout
+    DungeonLayout layout = DungeonLayout.generate(wrapType, rowCount, columnCount,
+            interConnectivity, distributionPercent, monsterCount, mazeAlgorithm, randomizer);
+    this.mazeAlgorithm = mazeAlgorithm;
+    this.randomizer = randomizer;
+    useStore(storeFactory.apply(layout));
+  }
+
+  private void useStore(DungeonStore newStore) {
+    //save data to model
+    store = newStore;
+    topology = store.getTopology();
+    startCellId = store.getStartCellId();
+    endCellId = store.getEndCellId();
+    // the store stays the only place the cells are kept, everything else reads from it
+    cellStates = new CellStateTable(store);
+    smellField = new SmellField(store);
+    flightTable = new FlightTable(store);
+    gridRenderer = new GridRenderer(topology);
+    modelVersion++;
+    for (int cellId : store.getMonsterCellIds()) {
+      if (hasLiveMonster(cellId)) {
+        smellField.addMonster(cellId);
+      }
+    }
+    currentPlayer = null;
+    playerCellId = -1;
+    gameHistory = new PackedGameHistory(topology, false);
+    gameState = DungeonsGame.GameState.NOT_STARTED;
+  }
+
+  /**
+   * This function is used to create an independent game in exactly the state of this one.
+   * The fork shares the grid, the cell states, the smells, the player and the history with
+   * this game and each of them is only copied once either game changes it, so forking does
+   * not copy any cells.
+   *
+   * @param storeFactory factory the fork puts a new dungeon into a store with
+   * @return fork of the game
+   */
+  StoreBackedGame fork(Function<DungeonLayout, DungeonStore> storeFactory) {
+    return new StoreBackedGame(this, storeFactory);
+  }
+
+  /**
+   * gets the store holding the cells.
+   *
+   * @return dungeon store
+   */
+  DungeonStore getStore() {
+    return store;
+  }
+
+  /**
+   * This function is used to write all changes to the storage of the store.
+   */
+  void flush() {
+    store.flush();
+  }
+
+  /**
+   * This function is used to save the complete session (dungeon, maze algorithm, randomizer,
+   * player, game state and history) in the format of {@link GameSnapshot}.
+   *
+   * @param output output to write the session to
+   * @throws IllegalArgumentException if the output is null or the randomizer cannot be saved
+   * @throws IOException              if writing to the output fails
+   */
+  void save(OutputStream output) throws IllegalArgumentException, IOException {
+    GameSnapshot.write(output, store, mazeAlgorithm, randomizer, gameState, currentPlayer,
+            gameHistory);
+  }
+
+  /**
+   * This function is used to write the session like {@link #save(OutputStream)} but without
+   * the game history, for callers which keep the history themselves.
+   *
+   * @param output output to write the session to
+   * @throws IOException if writing to the output fails
+   */
+  void saveWithoutHistory(OutputStream output) throws IOException {
+    GameSnapshot.write(output, store, mazeAlgorithm, randomizer, gameState, currentPlayer,
+            new PackedGameHistory(topology, false));
+  }
+
+  /**
+   * This function is used to load a session saved by {@link #save(OutputStream)} into a game
+   * whose cells are moved into a store by the given factory.
+   *
+   * @param input        input to read the session from
+   * @param storeFactory factory putting a dungeon into a store
+   * @return loaded game
+   * @throws IllegalArgumentException if the input is null or not a valid save
+   * @throws IOException              if reading from the input fails
+   */
+  static StoreBackedGame load(InputStream input,
+                              Function<DungeonLayout, DungeonStore> storeFactory)
+          throws IllegalArgumentException, IOException {
+    GameSnapshot snapshot = GameSnapshot.read(input);
+    StoreBackedGame game = new StoreBackedGame(storeFactory,
+            snapshot.createStore(storeFactory), snapshot.getMazeAlgorithm(),
+            snapshot.getRandomizer());
+    game.currentPlayer = snapshot.getPlayer();
+    game.playerCellId = snapshot.getPlayerCellId();
+    game.gameState = snapshot.getGameState();
+    game.gameHistory = snapshot.getGameHistory();
+    return game;
+  }
+
+  /**
+   * This function is used to replace the history of the game.
+   *
+   * @param gameHistory new history
+   */
+  void useHistory(PackedGameHistory gameHistory) {
+    this.gameHistory = gameHistory;
+  }
+
+  /**
+   * This function is used to get a new writable history holding the first entries of the
+   * history of this game.
+   *
+   * @param size number of entries to keep
+   * @return history with the first entries
+   * @throws IllegalArgumentException if the size is negative or beyond the history
+   */
+  PackedGameHistory branchHistory(int size) throws IllegalArgumentException {
+    return gameHistory.branch(size);
+  }
+
+  /**
+   * This function is used to measure how hard the dungeon is to play as it currently is.
+   *
+   * @return metrics of the dungeon
+   */
+  DungeonMetrics measureDungeon() {
+    return DungeonMetrics.of(cellStates, startCellId, endCellId);
+  }
+
+  /**
+   * This function is used to solve the dungeon from the location of the player as it
+   * currently is, or from the start cave before the game is started.
+   *
+   * @param solver solver to be used
+   * @return solution of the dungeon
+   * @throws IllegalStateException if the game is already over
+   */
+  DungeonSolution solve(DungeonSolver solver) throws IllegalStateException {
+    if (gameState == DungeonsGame.GameState.WON || gameState == DungeonsGame.GameState.LOST) {
+      throw new IllegalStateException("Game is already over");
+    }
+    return solver.solve(cellStates, currentPlayer == null ? startCellId : playerCellId,
+            endCellId,
+            currentPlayer == null ? PlayerImpl.STARTING_ARROWS : currentPlayer.getArrowCount());
+  }
+
+  /**
+   * This function is used to find the exit of the player location which leads to the given
+   * cell.
+   *
+   * @param cellId id of the neighbouring cell
+   * @return direction of the exit or null if no exit leads to the cell
+   */
+  DungeonsGame.Direction directionTo(int cellId) {
+    for (DungeonsGame.Direction direction : DIRECTIONS) {
+      if (hasExit(playerCellId, direction)
+              && topology.neighbourId(playerCellId, direction) == cellId) {
+        return direction;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * This function is used to find a shot from the player location whose arrow lands in the
+   * given cave, or misses every monster when no cave is given.
+   *
+   * @param cellId id of the cave or -1 for a shot which misses
+   * @return direction ordinal plus 4 times the distance, or -1 if there is no such shot
+   */
+  int findShotInto(int cellId) {
+    for (int distance = 0; distance <= 10; distance++) {
+      for (DungeonsGame.Direction direction : DIRECTIONS) {
+        int landing = flightTable.land(playerCellId, direction, distance);
+        boolean hits = landing != FlightTable.MISSED
+                && hasLiveMonster(FlightTable.cellOf(landing));
+        if (cellId < 0 ? !hits : hits && FlightTable.cellOf(landing) == cellId) {
+          return direction.ordinal() + DIRECTIONS.length * distance;
+        }
+      }
+    }
+    return -1;
+  }
+
+  private boolean hasExit(int cellId, DungeonsGame.Direction direction) {
+    return (store.getExits(cellId) & (1 << direction.ordinal())) != 0;
+  }
+
+  private boolean hasLiveMonster(int cellId) {
+    byte health = store.getMonsterHealth(cellId);
+    return health != DungeonLayout.NO_MONSTER
+            && health != DungeonLayout.healthCode(Monster.Health.ZERO);
+  }
+
+  private void checkGameStarted() throws IllegalStateException {
+    if (currentPlayer == null) {
+      throw new IllegalStateException("Game has not been started yet. "
+              + "Please start the game first.");
+    }
+  }
+
+  void startGameForPlayer(String playerName) throws IllegalArgumentException {
+    if (playerName == null || playerName.isEmpty()) {
+      throw new IllegalArgumentException("Invalid player");
+    }
+    if (currentPlayer == null) {
+      currentPlayer = new PlayerImpl(playerName, topology);
+    }
+    currentPlayer.addCellAsVisited(startCellId);
+    playerCellId = startCellId;
+    gameHistory.addToHistory(DungeonsGame.GameEvents.MOVE, startCellId);
+    modelVersion++;
+    gameState = DungeonsGame.GameState.PROGRESS;
+  }
+
+  DungeonsGame.MovementStates movePlayerToLocation(DungeonsGame.Direction direction)
+          throws IllegalArgumentException, IllegalStateException {
+    if (gameState != DungeonsGame.GameState.PROGRESS) {
+      throw new IllegalStateException("Game has not been started yet. "
+              + "Please start the game first.");
+    }
+    if (direction == null) {
+      throw new IllegalArgumentException("Direction provided cannot be null or empty");
+    }
+    if (!hasExit(playerCellId, direction)) {
+      throw new IllegalArgumentException("No such direction/neighbour exists. "
+              + "Please check the grid and try again.");
+    }
+    int nextCellId = topology.neighbourId(playerCellId, direction);
+    currentPlayer.addCellAsVisited(nextCellId);
+    playerCellId = nextCellId;
+    gameHistory.addToHistory(DungeonsGame.GameEvents.MOVE, nextCellId);
+    modelVersion++;
+    //check if monster exists
+    byte health = store.getMonsterHealth(nextCellId);
+    if (health == DungeonLayout.healthCode(Monster.Health.FULL)) {
+      gameState = DungeonsGame.GameState.LOST;
+      return DungeonsGame.MovementStates.PLAYER_EATEN;
+    } else if (health == DungeonLayout.healthCode(Monster.Health.HALF)) {
+      int survivalChance = randomizer.generateRandomValueForRange(0, 2);
+      if (survivalChance == 0) {
+        gameState = DungeonsGame.GameState.LOST;
+        return DungeonsGame.MovementStates.PLAYER_EATEN;
+      } else {
+        if (nextCellId == endCellId) {
+          gameState = DungeonsGame.GameState.WON;
+        }
+        return DungeonsGame.MovementStates.ESCAPE_MONSTER;
+      }
+    }
+    if (nextCellId == endCellId) {
+      gameState = DungeonsGame.GameState.WON;
+    }
+    return DungeonsGame.MovementStates.MOVE_SUCCESS;
+  }
+
+  DungeonsGame.ShootResultStates shootArrowForPlayer(DungeonsGame.Direction direction,
+                                                     int distance)
+          throws IllegalArgumentException, IllegalStateException {
+    if (gameState != DungeonsGame.GameState.PROGRESS) {
+      throw new IllegalStateException("Game has not been started yet. "
+              + "Please start the game first.");
+    }
+    if (direction == null) {
+      throw new IllegalArgumentException("Invalid direction provided by the player");
+    }
+    if (distance < 0 || distance > 10) {
+      throw new IllegalArgumentException("Distance cannot be less than 0 "
+              + "nor can it be more than 10");
+    }
+    //check if the player has at least one arrow left to shoot
+    if (!currentPlayer.checkForAtLeastOneArrow()) {
+      throw new IllegalStateException("Player doesn't have any arrows to shoot");
+    }
+    currentPlayer.reduceAvailableArrowByOne();
+    gameHistory.addToHistory(DungeonsGame.GameEvents.ARROW_SHOOT, playerCellId);
+    modelVersion++;
+    // the flight table resolves where the arrow stops, the cell there checks for a monster
+    int landing = flightTable.land(playerCellId, direction, distance);
+    if (landing == FlightTable.MISSED) {
+      return DungeonsGame.ShootResultStates.MONSTER_MISSED;
+    }
+    int cellId = FlightTable.cellOf(landing);
+    DungeonsGame.ShootResultStates result;
+    byte health = store.getMonsterHealth(cellId);
+    if (health == DungeonLayout.healthCode(Monster.Health.FULL)) {
+      store.setMonsterHealth(cellId, DungeonLayout.healthCode(Monster.Health.HALF));
+      result = DungeonsGame.ShootResultStates.MONSTER_HIT_PARTIAL_DAMAGE;
+    } else if (health == DungeonLayout.healthCode(Monster.Health.HALF)) {
+      store.setMonsterHealth(cellId, DungeonLayout.healthCode(Monster.Health.ZERO));
+      smellField.removeMonster(cellId);
+      result = DungeonsGame.ShootResultStates.MONSTER_HIT_KILLED;
+    } else {
+      result = DungeonsGame.ShootResultStates.MONSTER_MISSED;
+    }
+    if (result != DungeonsGame.ShootResultStates.MONSTER_MISSED) {
+      gameHistory.addToHistory(DungeonsGame.GameEvents.MONSTER_HIT, cellId);
+    }
+    return result;
+  }
+
+  void pickUpTreasureCurrentLocation() throws IllegalStateException {
+    if (gameState == DungeonsGame.GameState.NOT_STARTED) {
+      throw new IllegalStateException("Game has not been started yet. "
+              + "Please start the game first.");
+    }
+    byte packedTreasure = store.getTreasure(playerCellId);
+    if (packedTreasure == 0) {
+      throw new IllegalStateException("No treasure available for pick up. "
+              + "Please move the location of the player.");
+    }
+    for (DungeonsGame.TreasureType treasureType : DungeonsGame.TreasureType.values()) {
+      int treasureCount = DungeonLayout.treasureCount(packedTreasure, treasureType);
+      if (treasureCount > 0) {
+        currentPlayer.captureTreasure(treasureType, treasureCount);
+      }
+    }
+    store.setTreasure(playerCellId, (byte) 0);
+    gameHistory.addToHistory(DungeonsGame.GameEvents.TREASURE_PICKUP, playerCellId);
+    modelVersion++;
+  }
+
+  void pickUpArrowCurrentLocation() throws IllegalStateException {
+    if (gameState == DungeonsGame.GameState.NOT_STARTED) {
+      throw new IllegalStateException("Game has not been started yet. "
+              + "Please start the game first.");
+    }
+    byte arrowCount = store.getArrows(playerCellId);
+    if (arrowCount == 0) {
+      throw new IllegalStateException("No arrows available for pick up. "
+              + "Please move the location of the player.");
+    }
+    currentPlayer.addArrows(arrowCount);
+    store.setArrows(playerCellId, (byte) 0);
+    gameHistory.addToHistory(DungeonsGame.GameEvents.ARROW_PICKUP, playerCellId);
+    modelVersion++;
+  }
+
+  void reset() {
+    randomizer.setRandomSeed(randomizer.getRandomSeed());
+    setupDungeon(topology.getWrapType(), topology.getRowCount(), topology.getColumnCount(),
+            store.getInterConnectivity(), store.getDistributionPercent(),
+            cellStates.getMonsterCount(), mazeAlgorithm, randomizer);
+  }
+
+  void setupNewGame(DungeonsGame.WrapType wrapType, int rowCount, int columnCount,
+                    int interConnectivity, int distributionPercent, int monsterCount)
+          throws IllegalArgumentException {
+    setupNewGame(wrapType, rowCount, columnCount, interConnectivity, distributionPercent,
+            monsterCount, mazeAlgorithm);
+  }
+
+  void setupNewGame(DungeonsGame.WrapType wrapType, int rowCount, int columnCount,
+                    int interConnectivity, int distributionPercent, int monsterCount,
+                    DungeonsGame.MazeAlgorithm mazeAlgorithm)
+          throws IllegalArgumentException {
+    int existingSeed = randomizer.getRandomSeed();
+    int newSeed;
+    do {
+      newSeed = randomizer.generateRandomValueForRange(0, 10000);
+    }
+    while (newSeed == existingSeed);
+    randomizer.setRandomSeed(newSeed);
+    // validation of all arguments happen in setupDungeon function
+    setupDungeon(wrapType, rowCount, columnCount,
+            interConnectivity, distributionPercent,
+            monsterCount, mazeAlgorithm, randomizer);
+  }
+
+  DungeonsGame.SmellType getCurrentLocationSmell() throws IllegalStateException {
+    checkGameStarted();
+    return smellField.smellAt(playerCellId);
+  }
+
+  DungeonCell getPlayerCurrentLocation() throws IllegalStateException {
+    checkGameStarted();
+    return getSnapshot().getCell(playerCellId);
+  }
+
+  int getRowCount() {
+    return topology.getRowCount();
+  }
+
+  int getColumnCount() {
+    return topology.getColumnCount();
+  }
+
+  DungeonCell getCell(int row, int column) throws IllegalArgumentException {
+    if (row < 0 || row >= topology.getRowCount()
+            || column < 0 || column >= topology.getColumnCount()) {
+      throw new IllegalArgumentException("Row or column is outside the grid");
+    }
+    return getSnapshot().getCell(row, column);
+  }
+
+  DungeonCell getCell(int cellId) throws IllegalArgumentException {
+    if (cellId < 0 || cellId >= topology.cellCount()) {
+      throw new IllegalArgumentException("Cell id is outside the grid");
+    }
+    return getSnapshot().getCell(cellId);
+  }
+
+  int getCellId(String cellName) throws IllegalArgumentException {
+    int cellId = topology.cellIdOf(cellName);
+    if (cellId < 0) {
+      throw new IllegalArgumentException("No such cell exists in the grid");
+    }
+    return cellId;
+  }
+
+  int getPlayerCurrentCellId() throws IllegalStateException {
+    checkGameStarted();
+    return playerCellId;
+  }
+
+  List<String> getAvailableMovements() throws IllegalStateException {
+    checkGameStarted();
+    List<String> availableDirection = new ArrayList<>();
+    for (DungeonsGame.Direction direction : DIRECTIONS) {
+      if (hasExit(playerCellId, direction)) {
+        availableDirection.add(direction.toString());
+      }
+    }
+    Collections.sort(availableDirection);
+    return availableDirection;
+  }
+
+  String getPlayerCurrentLocationInformation() throws IllegalStateException {
+    // the location info checks that the game has started
+    return LocationInfoFormatter.format(getPlayerLocationInfo());
+  }
+
+  LocationInfo getPlayerLocationInfo() throws IllegalStateException {
+    if (gameState == DungeonsGame.GameState.NOT_STARTED) {
+      throw new IllegalStateException("Game has not been started yet. "
+              + "Please start the game first.");
+    }
+    int cellState = store.getCellState(playerCellId);
+    byte health = CellStateTable.healthOf(cellState);
+    boolean hasMonster = health != DungeonLayout.NO_MONSTER;
+    int[] neighbourCellIds = new int[DIRECTIONS.length];
+    for (DungeonsGame.Direction direction : DIRECTIONS) {
+      neighbourCellIds[direction.ordinal()] = hasExit(playerCellId, direction)
+              ? topology.neighbourId(playerCellId, direction) : -1;
+    }
+    return new LocationInfoImpl(playerCellId,
+            DungeonLayout.isCave(store.getExits(playerCellId))
+                    ? DungeonCell.CellType.CAVE : DungeonCell.CellType.TUNNEL,
+            DungeonLayout.treasureList(CellStateTable.treasureOf(cellState)),
+            CellStateTable.arrowsOf(cellState),
+            hasMonster ? cellStates.getMonsterName(playerCellId) : null,
+            hasMonster ? DungeonLayout.healthOf(health) : null,
+            neighbourCellIds, smellField.smellAt(playerCellId));
+  }
+
+  PlayerData getPlayerInformation() throws IllegalStateException {
+    checkGameStarted();
+    return currentPlayer.getPlayerData();
+  }
+
+  DungeonsGame.GameState getGameStatus() {
+    return gameState;
+  }
+
+  long getModelVersion() {
+    return modelVersion;
+  }
+
+  DungeonSnapshot getSnapshot() {
+    return cellStates.snapshot(modelVersion);
+  }
+
+  IGameHistory getGameHistory() {
+    // the view shares the append only log, so nothing is copied
+    return gameHistory.getReadOnlyView();
+  }
+
+  String getGameGrid() {
+    StringBuilder fullGrid = new StringBuilder();
+    try {
+      renderGameGrid(fullGrid);
+    } catch (IOException exception) {
+      throw new IllegalStateException("Grid could not be written", exception);
+    }
+    return fullGrid.toString();
+  }
+
+  void renderGameGrid(Appendable output) throws IOException, IllegalArgumentException {
+    if (output == null) {
+      throw new IllegalArgumentException("Output cannot be null");
+    }
+    gridRenderer.render(cellStates, output, currentPlayer == null ? -1 : playerCellId);
+  }
+
+  void renderGameGridAroundPlayer(Appendable output, int rowRadius, int columnRadius)
+          throws IOException, IllegalArgumentException, IllegalStateException {
+    if (output == null || rowRadius < 0 || columnRadius < 0) {
+      throw new IllegalArgumentException("Invalid output or radius provided");
+    }
+    checkGameStarted();
+    int row = topology.row(playerCellId);
+    int column = topology.column(playerCellId);
+    int firstRow = Math.max(0, row - rowRadius);
+    int firstColumn = Math.max(0, column - columnRadius);
+    gridRenderer.render(cellStates, output, playerCellId, firstRow, firstColumn,
+            Math.min(topology.getRowCount() - 1, row + rowRadius) - firstRow + 1,
+            Math.min(topology.getColumnCount() - 1, column + columnRadius) - firstColumn + 1);
+  }
+}
@@ -0,0 +1,132 @@
+package game.model;
+
+import java.util.Arrays;
+
+/**
+ * This class is used to store the states a search has seen, so that every state is only
+ * expanded once. A state is a fixed number of long words and is looked up by its Zobrist
+ * key, which the search updates with every action instead of hashing the words again. The
+ * words of a state are compared as well, so two states sharing a key are still told apart.
+ * States are numbered in the order they are added and their words are kept in one flat
+ * array. The table holds at most a given number of states.
+ */
+final class TranspositionTable {
+
+  private static final int FIRST_CAPACITY = 1 << 10;
+
+  private final int stride;
+  private final int stateLimit;
+  private long[] stateWords;
+  private long[] slotKeys;
+  private int[] slotStates;
+  private int size;
+
+  /**
+   * Constructor for an empty table.
+   *
+   * @param stride     number of words per state
+   * @param stateLimit largest number of states to hold
+   * @throws IllegalArgumentException if the stride is negative or the limit is not positive
+   */
+  TranspositionTable(int stride, int stateLimit) throws IllegalArgumentException {
+    if (stride < 0 || stateLimit <= 0) {
+      throw new IllegalArgumentException("Invalid transposition table parameters");
+    }
+    this.stride = stride;
+    this.stateLimit = stateLimit;
+    this.stateWords = new long[stride * Math.min(stateLimit, FIRST_CAPACITY)];
+    createSlots(FIRST_CAPACITY * 2);
+  }
+
+  private void createSlots(int slotCount) {
+    slotKeys = new long[slotCount];
+    slotStates = new int[slotCount];
+    Arrays.fill(slotStates, -1);
+  }
+
+  /**
+   * This function is used to find a state.
+   *
+   * @param key   Zobrist key of the state
+   * @param words words of the state
+   * @return number of the state, -1 if it is not in the table
+   */
+  int find(long key, long[] words) {
+    int mask = slotKeys.length - 1;
+    for (int slot = (int) key & mask; slotStates[slot] >= 0; slot = (slot + 1) & mask) {
+      if (slotKeys[slot] == key && sameWords(slotStates[slot], words)) {
+        return slotStates[slot];
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * This function is used to add a state which is not in the table yet.
+   *
+   * @param key   Zobrist key of the state
+   * @param words words of the state
+   * @return number of the new state, -1 if the table is full
+   */
+  int add(long key, long[] words) {
+    if (size == stateLimit) {
+      return -1;
+    }
+    if ((size + 1) * stride > stateWords.length) {
+      stateWords = Arrays.copyOf(stateWords,
+              stride * (int) Math.min(stateLimit, (long) size * 2));
+    }
+    if (size * 2 >= slotKeys.length) {
+      long[] oldKeys = slotKeys;
+      int[] oldStates = slotStates;
+      createSlots(slotKeys.length * 2);
+      for (int slot = 0; slot < oldKeys.length; slot++) {
+        if (oldStates[slot] >= 0) {
+          insert(oldKeys[slot], oldStates[slot]);
+        }
+      }
+    }
+    System.arraycopy(words, 0, stateWords, size * stride, stride);
+    insert(key, size);
+    return size++;
+  }
+
+  private void insert(long key, int state) {
+    int mask = slotKeys.length - 1;
+    int slot = (int) key & mask;
+    while (slotStates[slot] >= 0) {
+      slot = (slot + 1) & mask;
+    }
+    slotKeys[slot] = key;
+    slotStates[slot] = state;
+  }
+
+  private boolean sameWords(int state, long[] words) {
+    int offset = state * stride;
+    for (int word = 0; word < stride; word++) {
+      if (stateWords[offset + word] != words[word]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * This function is used to copy the words of a state.
+   *
+   * @param state number of the state
+   * @param words array to copy the words to
+   */
+  void copyState(int state, long[] words) {
+    System.arraycopy(stateWords, state * stride, words, 0, stride);
+  }
+
+  /**
+   * gets the number of states in the table.
+   *
+   * @return number of states
+   */
+  int size() {
+    return size;
+  }
+}
@@ -0,0 +1,56 @@
+package game.model;
+
+/**
+ * This class is used to generate the paths of a dungeon using Wilson's algorithm.
+ * Starting from a single random cell, every cell which is not part of the tree yet starts a
+ * random walk that ends as soon as it hits the tree. Only the last direction taken out of
+ * each visited cell is remembered, which erases the loops of the walk, and the remaining
+ * loop free path is added to the tree. The result is a uniformly random spanning tree.
+ */
+final class WilsonGridGenerator extends SpanningTreeGenerator {
+
+  /**
+   * Constructor for the generator.
+   *
+   * @param topology   shape of the grid
+   * @param randomizer randomizer instance
+   * @throws IllegalArgumentException if any argument is null
+   */
+  WilsonGridGenerator(GridTopology topology, RandomNumberGenerator randomizer)
+          throws IllegalArgumentException {
+    super(topology, randomizer);
+  }
+
+  @Override
+  protected void carveSpanningTree(byte[] exits) {
+    int cellCount = topology.cellCount();
+    boolean[] inTree = new boolean[cellCount];
+    byte[] walkDirection = new byte[cellCount];
+    int[] validDirections = new int[DIRECTIONS.length];
+    inTree[randomizer.generateRandomValueForRange(0, cellCount)] = true;
+    for (int startId = 0; startId < cellCount; startId++) {
+      if (inTree[startId]) {
+        continue;
+      }
+      // random walk until the tree is hit, overwriting the direction erases the loops
+      int cellId = startId;
+      while (!inTree[cellId]) {
+        int validCount = 0;
+        for (DungeonsGame.Direction direction : DIRECTIONS) {
+          if (topology.neighbourId(cellId, direction) >= 0) {
+            validDirections[validCount++] = direction.ordinal();
+          }
+        }
+        int chosen = validDirections[randomizer.generateRandomValueForRange(0, validCount)];
+        walkDirection[cellId] = (byte) chosen;
+        cellId = topology.neighbourId(cellId, DIRECTIONS[chosen]);
+      }
+      // add the loop erased walk to the tree
+      cellId = startId;
+      while (!inTree[cellId]) {
+        inTree[cellId] = true;
+        cellId = openPath(exits, cellId, DIRECTIONS[walkDirection[cellId]]);
+      }
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package game.simulation;
+
+import game.model.DungeonsGame;
+
+/**
+ * This class is used to represent one turn a bot wants to play. A turn is a move, a pick up
+ * of the treasure or the arrows at the location, or a shot.
+ */
+public final class BotAction {
+
+  /**
+   * This enum represents the kind of turn.
+   */
+  public enum ActionType {
+    MOVE,
+    PICK_UP_TREASURE,
+    PICK_UP_ARROWS,
+    SHOOT
+  }
+
+  private static final BotAction PICK_UP_TREASURE =
+          new BotAction(ActionType.PICK_UP_TREASURE, null, 0);
+  private static final BotAction PICK_UP_ARROWS =
+          new BotAction(ActionType.PICK_UP_ARROWS, null, 0);
+  private static final BotAction[] MOVES = new BotAction[DungeonsGame.Direction.values().length];
+
+  static {
+    for (DungeonsGame.Direction direction : DungeonsGame.Direction.values()) {
+      MOVES[direction.ordinal()] = new BotAction(ActionType.MOVE, direction, 0);
+    }
+  }
+
+  private final ActionType actionType;
+  private final DungeonsGame.Direction direction;
+  private final int distance;
+
+  private BotAction(ActionType actionType, DungeonsGame.Direction direction, int distance) {
+    this.actionType = actionType;
+    this.direction = direction;
+    this.distance = distance;
+  }
+
+  /**
+   * This function is used to get the turn moving the player in the given direction.
+   *
+   * @param direction direction to move in
+   * @return move turn
+   * @throws IllegalArgumentException if the direction is null
+   */
+  public static BotAction move(DungeonsGame.Direction direction) throws IllegalArgumentException {
+    if (direction == null) {
+      throw new IllegalArgumentException("Direction cannot be null");
+    }
+    return MOVES[direction.ordinal()];
+  }
+
+  /**
+   * This function is used to get the turn picking up the treasure at the location.
+   *
+   * @return treasure pick up turn
+   */
+  public static BotAction pickUpTreasure() {
+    return PICK_UP_TREASURE;
+  }
+
+  /**
+   * This function is used to get the turn picking up the arrows at the location.
+   *
+   * @return arrow pick up turn
+   */
+  public static BotAction pickUpArrows() {
+    return PICK_UP_ARROWS;
+  }
+
+  /**
+   * This function is used to get the turn shooting an arrow.
+   *
+   * @param direction direction to shoot in
+   * @param distance  number of caves the arrow travels
+   * @return shoot turn
+   * @throws IllegalArgumentException if the direction is null or the distance is not positive
+   */
+  public static BotAction shoot(DungeonsGame.Direction direction, int distance)
+          throws IllegalArgumentException {
+    if (direction == null || distance <= 0) {
+      throw new IllegalArgumentException("Invalid direction or distance for the shot");
+    }
+    return new BotAction(ActionType.SHOOT, direction, distance);
+  }
+
+  /**
+   * gets the kind of turn.
+   *
+   * @return kind of turn
+   */
+  public ActionType getActionType() {
+    return actionType;
+  }
+
+  /**
+   * gets the direction of a move or shot.
+   *
+   * @return direction, null for pick ups
+   */
+  public DungeonsGame.Direction getDirection() {
+    return direction;
+  }
+
+  /**
+   * gets the distance of a shot.
+   *
+   * @return distance, zero for other turns
+   */
+  public int getDistance() {
+    return distance;
+  }
+}
@@ -0,0 +1,21 @@
+package game.simulation;
+
+import game.model.DungeonsGameReadOnly;
+import game.model.RandomNumberGenerator;
+
+/**
+ * This interface represents a bot which decides the turns of a player. One policy is shared
+ * by all games of a simulation, which run at the same time on different threads, so a
+ * policy must not keep any state between calls.
+ */
+public interface BotPolicy {
+
+  /**
+   * This function is used to decide the next turn of the player.
+   *
+   * @param game       game being played, which is in progress
+   * @param randomizer random number generator of the game, for random decisions
+   * @return turn to be played
+   */
+  BotAction chooseAction(DungeonsGameReadOnly game, RandomNumberGenerator randomizer);
+}
@@ -0,0 +1,133 @@
+package game.simulation;
+
+import game.model.DungeonsGame;
+import game.model.DungeonsGameImpl;
+import game.model.RandomNumberGenerator;
+
+/**
+ * This class is used to describe the dungeon every game of a simulation is played in.
+ * It holds the same parameters the game model is created with.
+ */
+public final class GameConfiguration {
+
+  private final DungeonsGame.WrapType wrapType;
+  private final int rowCount;
+  private final int columnCount;
+  private final int interConnectivity;
+  private final int treasurePercent;
+  private final int monsterCount;
+  private final DungeonsGame.MazeAlgorithm mazeAlgorithm;
+
+  /**
+   * Constructor for the game configuration.
+   *
+   * @param wrapType          type of wrap
+   * @param rowCount          number of rows in the dungeon
+   * @param columnCount       number of columns in the dungeon
+   * @param interConnectivity interconnectivity of the dungeon
+   * @param treasurePercent   percentage of caves with treasure
+   * @param monsterCount      number of monsters
+   * @param mazeAlgorithm     algorithm used to generate the paths
+   * @throws IllegalArgumentException if the wrap type or maze algorithm is null or a number
+   *                                  is negative
+   */
+  public GameConfiguration(DungeonsGame.WrapType wrapType, int rowCount, int columnCount,
+                           int interConnectivity, int treasurePercent, int monsterCount,
+                           DungeonsGame.MazeAlgorithm mazeAlgorithm)
+          throws IllegalArgumentException {
+    if (wrapType == null || mazeAlgorithm == null || rowCount < 0 || columnCount < 0
+            || interConnectivity < 0 || treasurePercent < 0 || monsterCount < 0) {
+      throw new IllegalArgumentException("Invalid game configuration provided");
+    }
+    this.wrapType = wrapType;
+    this.rowCount = rowCount;
+    this.columnCount = columnCount;
+    this.interConnectivity = interConnectivity;
+    this.treasurePercent = treasurePercent;
+    this.monsterCount = monsterCount;
+    this.mazeAlgorithm = mazeAlgorithm;
+  }
+
+  /**
+   * This function is used to create a new game for this configuration.
+   *
+   * @param randomizer random number generator of the game
+   * @return new game which has not been started yet
+   * @throws IllegalArgumentException if the game model rejects the configuration
+   */
+  public DungeonsGame createGame(RandomNumberGenerator randomizer)
+          throws IllegalArgumentException {
+    return new DungeonsGameImpl(wrapType, rowCount, columnCount, interConnectivity,
+            treasurePercent, monsterCount, mazeAlgorithm, randomizer);
+  }
+
+  /**
+   * gets the type of wrap.
+   *
+   * @return type of wrap
+   */
+  public DungeonsGame.WrapType getWrapType() {
+    return wrapType;
+  }
+
+  /**
+   * gets the number of rows in the dungeon.
+   *
+   * @return row count
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * gets the number of columns in the dungeon.
+   *
+   * @return column count
+   */
+  public int getColumnCount() {
+    return columnCount;
+  }
+
+  /**
+   * gets the interconnectivity of the dungeon.
+   *
+   * @return interconnectivity
+   */
+  public int getInterConnectivity() {
+    return interConnectivity;
+  }
+
+  /**
+   * gets the percentage of caves with treasure.
+   *
+   * @return treasure percentage
+   */
+  public int getTreasurePercent() {
+    return treasurePercent;
+  }
+
+  /**
+   * gets the number of monsters.
+   *
+   * @return monster count
+   */
+  public int getMonsterCount() {
+    return monsterCount;
+  }
+
+  /**
+   * gets the algorithm used to generate the paths.
+   *
+   * @return maze algorithm
+   */
+  public DungeonsGame.MazeAlgorithm getMazeAlgorithm() {
+    return mazeAlgorithm;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s %dx%d interconnectivity %d treasure %d%% monsters %d %s",
+            wrapType, rowCount, columnCount, interConnectivity, treasurePercent, monsterCount,
+            mazeAlgorithm);
+  }
+}
@@ -0,0 +1,85 @@
+package game.simulation;
+
+/**
+ * This interface is used to convey the totals of a simulation run outside the runner.
+ */
+public interface ISimulationResult {
+
+  /**
+   * gets the number of games played.
+   *
+   * @return number of games
+   */
+  long getGameCount();
+
+  /**
+   * gets the number of games the bot won by reaching the end cave.
+   *
+   * @return number of games won
+   */
+  long getGamesWon();
+
+  /**
+   * gets the number of games the bot lost by getting eaten by a monster.
+   *
+   * @return number of games lost
+   */
+  long getGamesEaten();
+
+  /**
+   * gets the number of games the game model could not generate for their seed, which were
+   * not played.
+   *
+   * @return number of rejected games
+   */
+  long getGamesRejected();
+
+  /**
+   * gets the number of games which were still in progress when the turn limit was reached.
+   *
+   * @return number of unfinished games
+   */
+  long getGamesUnfinished();
+
+  /**
+   * gets the number of turns played over all games.
+   *
+   * @return number of turns
+   */
+  long getTotalTurns();
+
+  /**
+   * gets the number of treasures collected over all games.
+   *
+   * @return number of treasures
+   */
+  long getTotalTreasure();
+
+  /**
+   * gets the number of arrows shot over all games.
+   *
+   * @return number of arrows shot
+   */
+  long getTotalArrowsUsed();
+
+  /**
+   * gets the number of turns the model rejected over all games.
+   *
+   * @return number of rejected turns
+   */
+  long getInvalidActions();
+
+  /**
+   * gets the wall clock time the run took.
+   *
+   * @return time in nanoseconds
+   */
+  long getElapsedNanos();
+
+  /**
+   * gets the number of games played per second of wall clock time.
+   *
+   * @return games per second
+   */
+  double getGamesPerSecond();
+}
@@ -0,0 +1,181 @@
+package game.simulation;
+
+import game.model.DungeonMetrics;
+import game.model.DungeonsGame;
+import game.model.DungeonsGameImpl;
+import game.model.RandomNumberGenerator;
+import game.model.RandomNumberGeneratorImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class is used to tune the difficulty of dungeons. It generates a number of dungeons
+ * for every configuration of a grid of configurations, measures each of them and keeps only
+ * running statistics of the measurements, so the memory used does not grow with the number
+ * of dungeons. The dungeons are generated on the threads of a fork join pool, each with its
+ * own random number generator seeded with its own seed.
+ */
+public class ParameterSweep {
+
+  // ranges of dungeons per thread, so that threads finishing early can take work from others
+  private static final int TASKS_PER_THREAD = 16;
+
+  private final int parallelism;
+
+  /**
+   * Constructor for a sweep using all available processors.
+   */
+  public ParameterSweep() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Constructor for a sweep using the given number of threads.
+   *
+   * @param parallelism number of threads
+   * @throws IllegalArgumentException if the number of threads is not positive
+   */
+  public ParameterSweep(int parallelism) throws IllegalArgumentException {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("Number of threads should be positive");
+    }
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * This function is used to create every combination of the given parameter values.
+   *
+   * @param wrapType            type of wrap
+   * @param gridSizes           grid sizes as pairs of row and column count
+   * @param interConnectivities interconnectivity values
+   * @param treasurePercents    treasure percentage values
+   * @param monsterCounts       monster count values
+   * @param mazeAlgorithm       algorithm used to generate the paths
+   * @return configurations, the last parameter changing fastest
+   * @throws IllegalArgumentException if any argument is null, a grid size is not a pair or a
+   *                                  value is not valid for a configuration
+   */
+  public static List<GameConfiguration> cartesianGrid(DungeonsGame.WrapType wrapType,
+                                                      int[][] gridSizes,
+                                                      int[] interConnectivities,
+                                                      int[] treasurePercents,
+                                                      int[] monsterCounts,
+                                                      DungeonsGame.MazeAlgorithm mazeAlgorithm)
+          throws IllegalArgumentException {
+    if (gridSizes == null || interConnectivities == null || treasurePercents == null
+            || monsterCounts == null) {
+      throw new IllegalArgumentException("Parameter values cannot be null");
+    }
+    List<GameConfiguration> configurations = new ArrayList<>();
+    for (int[] gridSize : gridSizes) {
+      if (gridSize == null || gridSize.length != 2) {
+        throw new IllegalArgumentException("Grid size should be a row and column count");
+      }
+      for (int interConnectivity : interConnectivities) {
+        for (int treasurePercent : treasurePercents) {
+          for (int monsterCount : monsterCounts) {
+            configurations.add(new GameConfiguration(wrapType, gridSize[0], gridSize[1],
+                    interConnectivity, treasurePercent, monsterCount, mazeAlgorithm));
+          }
+        }
+      }
+    }
+    return configurations;
+  }
+
+  /**
+   * This function is used to generate and measure the given number of dungeons for every
+   * configuration. Every configuration uses the seeds from the first seed onwards, so the
+   * configurations are compared on the same seeds.
+   *
+   * @param configurations           configurations to be measured
+   * @param firstSeed                seed of the first dungeon of every configuration
+   * @param dungeonsPerConfiguration number of dungeons per configuration
+   * @return statistics per configuration, in the order of the configurations
+   * @throws IllegalArgumentException if the configurations are null or contain null, or the
+   *                                  number of dungeons is negative
+   */
+  public List<SweepResult> run(List<GameConfiguration> configurations, int firstSeed,
+                               int dungeonsPerConfiguration) throws IllegalArgumentException {
+    if (configurations == null || configurations.contains(null)
+            || dungeonsPerConfiguration < 0) {
+      throw new IllegalArgumentException("Invalid sweep parameters provided");
+    }
+    long dungeonCount = (long) configurations.size() * dungeonsPerConfiguration;
+    long rangeSize = Math.max(1, dungeonCount / ((long) parallelism * TASKS_PER_THREAD));
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      List<ForkJoinTask<SweepResult>> tasks = new ArrayList<>(configurations.size());
+      for (GameConfiguration configuration : configurations) {
+        tasks.add(pool.submit(new DungeonRange(configuration, firstSeed, 0,
+                dungeonsPerConfiguration, rangeSize)));
+      }
+      List<SweepResult> results = new ArrayList<>(configurations.size());
+      for (ForkJoinTask<SweepResult> task : tasks) {
+        results.add(task.join());
+      }
+      return results;
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * This class is used to measure a range of dungeons of one configuration, splitting it
+   * while it is large.
+   */
+  private static final class DungeonRange extends RecursiveTask<SweepResult> {
+    private static final long serialVersionUID = 1L;
+
+    private final GameConfiguration configuration;
+    private final int firstSeed;
+    private final int firstDungeon;
+    private final int lastDungeon;
+    private final long rangeSize;
+
+    private DungeonRange(GameConfiguration configuration, int firstSeed, int firstDungeon,
+                         int lastDungeon, long rangeSize) {
+      this.configuration = configuration;
+      this.firstSeed = firstSeed;
+      this.firstDungeon = firstDungeon;
+      this.lastDungeon = lastDungeon;
+      this.rangeSize = rangeSize;
+    }
+
+    @Override
+    protected SweepResult compute() {
+      if (lastDungeon - firstDungeon > rangeSize) {
+        int middleDungeon = firstDungeon + (lastDungeon - firstDungeon) / 2;
+        DungeonRange secondHalf = new DungeonRange(configuration, firstSeed, middleDungeon,
+                lastDungeon, rangeSize);
+        secondHalf.fork();
+        SweepResult result = new DungeonRange(configuration, firstSeed, firstDungeon,
+                middleDungeon, rangeSize).compute();
+        result.merge(secondHalf.join());
+        return result;
+      }
+      SweepResult result = new SweepResult(configuration);
+      for (int dungeon = firstDungeon; dungeon < lastDungeon; dungeon++) {
+        RandomNumberGenerator randomizer = new RandomNumberGeneratorImpl();
+        randomizer.setRandomSeed(firstSeed + dungeon);
+        DungeonsGameImpl game;
+        try {
+          game = new DungeonsGameImpl(configuration.getWrapType(),
+                  configuration.getRowCount(), configuration.getColumnCount(),
+                  configuration.getInterConnectivity(), configuration.getTreasurePercent(),
+                  configuration.getMonsterCount(), configuration.getMazeAlgorithm(),
+                  randomizer);
+        } catch (IllegalArgumentException exception) {
+          result.addRejectedDungeon();
+          continue;
+        }
+        result.addDungeon(DungeonMetrics.measure(game));
+      }
+      return result;
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package game.simulation;
+
+import game.model.DungeonsGame;
+import game.model.DungeonsGameReadOnly;
+import game.model.LocationInfo;
+import game.model.RandomNumberGenerator;
+
+/**
+ * This class is used to represent a simple bot. It picks up everything it finds, shoots into
+ * a random exit when it smells a monster close by and otherwise moves through a random exit.
+ */
+public class RandomWalkBot implements BotPolicy {
+
+  private static final DungeonsGame.Direction[] DIRECTIONS = DungeonsGame.Direction.values();
+
+  @Override
+  public BotAction chooseAction(DungeonsGameReadOnly game, RandomNumberGenerator randomizer) {
+    LocationInfo location = game.getPlayerLocationInfo();
+    if (!location.getTreasures().isEmpty()) {
+      return BotAction.pickUpTreasure();
+    }
+    if (location.getArrowCount() > 0) {
+      return BotAction.pickUpArrows();
+    }
+    int exitCount = 0;
+    for (DungeonsGame.Direction direction : DIRECTIONS) {
+      if (location.hasExit(direction)) {
+        exitCount++;
+      }
+    }
+    int exitIndex = randomizer.generateRandomValueForRange(0, exitCount);
+    DungeonsGame.Direction exitDirection = null;
+    for (DungeonsGame.Direction direction : DIRECTIONS) {
+      if (location.hasExit(direction) && exitIndex-- == 0) {
+        exitDirection = direction;
+      }
+    }
+    if (location.getSmell() == DungeonsGame.SmellType.STRONG
+            && !game.getPlayerInformation().getAcquiredArrows().isEmpty()) {
+      return BotAction.shoot(exitDirection, 1);
+    }
+    return BotAction.move(exitDirection);
+  }
+}
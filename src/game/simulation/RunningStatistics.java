@@ -0,0 +1,167 @@
+package game.simulation;
+
+/**
+ * This class is used to keep statistics of a stream of values without keeping the values.
+ * The mean and variance are updated with every value (Welford's method) and the values are
+ * counted in a fixed number of equally wide bins between a lowest and a highest value, from
+ * which the percentiles are read. The memory used does not grow with the number of values.
+ * Statistics collected on different threads can be merged.
+ */
+public final class RunningStatistics {
+
+  private final double lowestValue;
+  private final double binWidth;
+  private final long[] binCounts;
+  private long count;
+  private double mean;
+  // sum of squared differences from the mean
+  private double squaredDeviations;
+  private double minimum;
+  private double maximum;
+
+  /**
+   * Constructor for the statistics. Values outside the range are counted in the first or
+   * last bin. Integer values are kept exactly when the bins are one wide.
+   *
+   * @param lowestValue  lowest value of the first bin
+   * @param highestValue value at which the last bin ends
+   * @param binCount     number of bins
+   * @throws IllegalArgumentException if the range is empty or the number of bins is not
+   *                                  positive
+   */
+  public RunningStatistics(double lowestValue, double highestValue, int binCount)
+          throws IllegalArgumentException {
+    if (!(highestValue > lowestValue) || binCount <= 0) {
+      throw new IllegalArgumentException("Invalid range or number of bins");
+    }
+    this.lowestValue = lowestValue;
+    this.binWidth = (highestValue - lowestValue) / binCount;
+    this.binCounts = new long[binCount];
+    this.minimum = Double.NaN;
+    this.maximum = Double.NaN;
+  }
+
+  /**
+   * This function is used to add a value.
+   *
+   * @param value value to be added
+   */
+  public void add(double value) {
+    count++;
+    double difference = value - mean;
+    mean += difference / count;
+    squaredDeviations += difference * (value - mean);
+    minimum = count == 1 ? value : Math.min(minimum, value);
+    maximum = count == 1 ? value : Math.max(maximum, value);
+    binCounts[binOf(value)]++;
+  }
+
+  /**
+   * This function is used to add all values of other statistics with the same bins.
+   *
+   * @param other statistics to be added
+   * @throws IllegalArgumentException if the other statistics are null or have other bins
+   */
+  public void merge(RunningStatistics other) throws IllegalArgumentException {
+    if (other == null || other.binCounts.length != binCounts.length
+            || other.lowestValue != lowestValue || other.binWidth != binWidth) {
+      throw new IllegalArgumentException("Statistics with other bins cannot be merged");
+    }
+    if (other.count == 0) {
+      return;
+    }
+    if (count == 0) {
+      minimum = other.minimum;
+      maximum = other.maximum;
+    } else {
+      minimum = Math.min(minimum, other.minimum);
+      maximum = Math.max(maximum, other.maximum);
+    }
+    long mergedCount = count + other.count;
+    double difference = other.mean - mean;
+    squaredDeviations += other.squaredDeviations
+            + difference * difference * ((double) count * other.count / mergedCount);
+    mean += difference * other.count / mergedCount;
+    count = mergedCount;
+    for (int bin = 0; bin < binCounts.length; bin++) {
+      binCounts[bin] += other.binCounts[bin];
+    }
+  }
+
+  /**
+   * gets the number of values added.
+   *
+   * @return number of values
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * gets the mean of the values.
+   *
+   * @return mean, zero if there are no values
+   */
+  public double getMean() {
+    return mean;
+  }
+
+  /**
+   * gets the variance of the values.
+   *
+   * @return population variance, zero if there are no values
+   */
+  public double getVariance() {
+    return count == 0 ? 0 : squaredDeviations / count;
+  }
+
+  /**
+   * gets the smallest value.
+   *
+   * @return smallest value, NaN if there are no values
+   */
+  public double getMinimum() {
+    return minimum;
+  }
+
+  /**
+   * gets the largest value.
+   *
+   * @return largest value, NaN if there are no values
+   */
+  public double getMaximum() {
+    return maximum;
+  }
+
+  /**
+   * This function is used to get the smallest value which at least the given share of the
+   * values are not larger than. The value is exact up to the width of a bin.
+   *
+   * @param share share of the values between zero and one, 0.5 for the median
+   * @return start of the bin holding the percentile, NaN if there are no values
+   * @throws IllegalArgumentException if the share is not between zero and one
+   */
+  public double getPercentile(double share) throws IllegalArgumentException {
+    if (!(share >= 0 && share <= 1)) {
+      throw new IllegalArgumentException("Share should be between zero and one");
+    }
+    if (count == 0) {
+      return Double.NaN;
+    }
+    long rank = Math.max(1, (long) Math.ceil(share * count));
+    long seen = 0;
+    for (int bin = 0; bin < binCounts.length; bin++) {
+      seen += binCounts[bin];
+      if (seen >= rank) {
+        // the bins at the ends also hold the values outside the range
+        return Math.min(Math.max(lowestValue + bin * binWidth, minimum), maximum);
+      }
+    }
+    return maximum;
+  }
+
+  private int binOf(double value) {
+    int bin = (int) Math.floor((value - lowestValue) / binWidth);
+    return Math.min(Math.max(bin, 0), binCounts.length - 1);
+  }
+}
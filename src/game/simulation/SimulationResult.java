@@ -0,0 +1,117 @@
+package game.simulation;
+
+/**
+ * This class implements the simulation result interface. It holds the totals of a finished
+ * run, which do not change anymore.
+ */
+public class SimulationResult implements ISimulationResult {
+  private final long gameCount;
+  private final long gamesWon;
+  private final long gamesEaten;
+  private final long gamesRejected;
+  private final long totalTurns;
+  private final long totalTreasure;
+  private final long totalArrowsUsed;
+  private final long invalidActions;
+  private final long elapsedNanos;
+
+  /**
+   * Constructor for simulation result.
+   *
+   * @param gameCount       number of games played
+   * @param gamesWon        number of games won
+   * @param gamesEaten      number of games lost to a monster
+   * @param gamesRejected   number of games which could not be generated
+   * @param totalTurns      number of turns played
+   * @param totalTreasure   number of treasures collected
+   * @param totalArrowsUsed number of arrows shot
+   * @param invalidActions  number of turns the model rejected
+   * @param elapsedNanos    wall clock time of the run in nanoseconds
+   * @throws IllegalArgumentException if a number is negative or more games ended or were
+   *                                  rejected than were played
+   */
+  public SimulationResult(long gameCount, long gamesWon, long gamesEaten, long gamesRejected,
+                          long totalTurns, long totalTreasure, long totalArrowsUsed,
+                          long invalidActions, long elapsedNanos)
+          throws IllegalArgumentException {
+    if (gameCount < 0 || gamesWon < 0 || gamesEaten < 0 || gamesRejected < 0
+            || gamesWon + gamesEaten + gamesRejected > gameCount || totalTurns < 0
+            || totalTreasure < 0 || totalArrowsUsed < 0 || invalidActions < 0
+            || elapsedNanos < 0) {
+      throw new IllegalArgumentException("Invalid Parameters");
+    }
+    this.gameCount = gameCount;
+    this.gamesWon = gamesWon;
+    this.gamesEaten = gamesEaten;
+    this.gamesRejected = gamesRejected;
+    this.totalTurns = totalTurns;
+    this.totalTreasure = totalTreasure;
+    this.totalArrowsUsed = totalArrowsUsed;
+    this.invalidActions = invalidActions;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  @Override
+  public long getGameCount() {
+    return gameCount;
+  }
+
+  @Override
+  public long getGamesWon() {
+    return gamesWon;
+  }
+
+  @Override
+  public long getGamesEaten() {
+    return gamesEaten;
+  }
+
+  @Override
+  public long getGamesRejected() {
+    return gamesRejected;
+  }
+
+  @Override
+  public long getGamesUnfinished() {
+    return gameCount - gamesWon - gamesEaten - gamesRejected;
+  }
+
+  @Override
+  public long getTotalTurns() {
+    return totalTurns;
+  }
+
+  @Override
+  public long getTotalTreasure() {
+    return totalTreasure;
+  }
+
+  @Override
+  public long getTotalArrowsUsed() {
+    return totalArrowsUsed;
+  }
+
+  @Override
+  public long getInvalidActions() {
+    return invalidActions;
+  }
+
+  @Override
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  @Override
+  public double getGamesPerSecond() {
+    return elapsedNanos == 0 ? 0 : gameCount / (elapsedNanos / 1e9);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("games: %d, won: %d, eaten: %d, rejected: %d, unfinished: %d, "
+                    + "turns: %d, treasure: %d, arrows used: %d, invalid turns: %d, "
+                    + "games/second: %.0f",
+            gameCount, gamesWon, gamesEaten, gamesRejected, getGamesUnfinished(), totalTurns,
+            totalTreasure, totalArrowsUsed, invalidActions, getGamesPerSecond());
+  }
+}
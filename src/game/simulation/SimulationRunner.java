@@ -0,0 +1,218 @@
+package game.simulation;
+
+import game.model.DungeonsGame;
+import game.model.RandomNumberGenerator;
+import game.model.RandomNumberGeneratorImpl;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is used to play many games with a bot without any console or view, for soak
+ * testing bots against the model. The games are split over the threads of a fork join pool.
+ * Every game has its own random number generator which is seeded with its own seed, so a
+ * game plays the same whichever thread plays it. The totals of the games are collected in
+ * counters that do not need locking.
+ */
+public class SimulationRunner {
+
+  private static final String BOT_NAME = "Bot";
+  // ranges of games per thread, so that threads finishing early can take work from others
+  private static final int TASKS_PER_THREAD = 16;
+
+  private final int parallelism;
+
+  /**
+   * Constructor for a runner using all available processors.
+   */
+  public SimulationRunner() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Constructor for a runner using the given number of threads.
+   *
+   * @param parallelism number of threads
+   * @throws IllegalArgumentException if the number of threads is not positive
+   */
+  public SimulationRunner(int parallelism) throws IllegalArgumentException {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("Number of threads should be positive");
+    }
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * This function is used to play the given number of games and wait for all of them to
+   * finish. The games use the seeds from the first seed onwards, one seed per game.
+   *
+   * @param configuration dungeon the games are played in
+   * @param firstSeed     seed of the first game
+   * @param gameCount     number of games to be played
+   * @param policy        bot deciding the turns, shared by all games
+   * @param maxTurns      number of turns after which a game is left unfinished
+   * @return totals of all games
+   * @throws IllegalArgumentException if the configuration or policy is null, or the number of
+   *                                  games or turns is not valid
+   */
+  public ISimulationResult run(GameConfiguration configuration, int firstSeed, long gameCount,
+                               BotPolicy policy, int maxTurns) throws IllegalArgumentException {
+    if (configuration == null || policy == null || gameCount < 0 || maxTurns <= 0) {
+      throw new IllegalArgumentException("Invalid simulation parameters provided");
+    }
+    long leafSize = Math.max(1, gameCount / ((long) parallelism * TASKS_PER_THREAD));
+    Simulation simulation = new Simulation(configuration, firstSeed, policy, maxTurns,
+            leafSize);
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    long start = System.nanoTime();
+    try {
+      pool.invoke(new GameRange(simulation, 0, gameCount));
+    } finally {
+      pool.shutdown();
+    }
+    long elapsed = System.nanoTime() - start;
+    try {
+      pool.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+    return new SimulationResult(gameCount, simulation.gamesWon.sum(),
+            simulation.gamesEaten.sum(), simulation.gamesRejected.sum(),
+            simulation.totalTurns.sum(),
+            simulation.totalTreasure.sum(), simulation.totalArrowsUsed.sum(),
+            simulation.invalidActions.sum(), elapsed);
+  }
+
+  /**
+   * This class holds the settings of one run and the counters its games add to.
+   */
+  private static final class Simulation {
+    private final GameConfiguration configuration;
+    private final int firstSeed;
+    private final BotPolicy policy;
+    private final int maxTurns;
+    private final long leafSize;
+    private final LongAdder gamesWon = new LongAdder();
+    private final LongAdder gamesEaten = new LongAdder();
+    private final LongAdder gamesRejected = new LongAdder();
+    private final LongAdder totalTurns = new LongAdder();
+    private final LongAdder totalTreasure = new LongAdder();
+    private final LongAdder totalArrowsUsed = new LongAdder();
+    private final LongAdder invalidActions = new LongAdder();
+
+    private Simulation(GameConfiguration configuration, int firstSeed, BotPolicy policy,
+                       int maxTurns, long leafSize) {
+      this.configuration = configuration;
+      this.firstSeed = firstSeed;
+      this.policy = policy;
+      this.maxTurns = maxTurns;
+      this.leafSize = leafSize;
+    }
+
+    private void playGame(int seed, GameTotals totals) {
+      RandomNumberGenerator randomizer = new RandomNumberGeneratorImpl();
+      randomizer.setRandomSeed(seed);
+      DungeonsGame game;
+      try {
+        game = configuration.createGame(randomizer);
+      } catch (IllegalArgumentException exception) {
+        // the configuration cannot be generated for this seed, the other games go on
+        totals.gamesRejected++;
+        return;
+      }
+      game.startGameForPlayer(BOT_NAME);
+      int turns = 0;
+      while (game.getGameStatus() == DungeonsGame.GameState.PROGRESS && turns < maxTurns) {
+        BotAction action = policy.chooseAction(game, randomizer);
+        turns++;
+        try {
+          switch (action.getActionType()) {
+            case MOVE:
+              game.movePlayerToLocation(action.getDirection());
+              break;
+            case PICK_UP_TREASURE:
+              game.pickUpTreasureCurrentLocation();
+              break;
+            case PICK_UP_ARROWS:
+              game.pickUpArrowCurrentLocation();
+              break;
+            case SHOOT:
+              game.shootArrowForPlayer(action.getDirection(), action.getDistance());
+              totals.arrowsUsed++;
+              break;
+            default:
+              throw new IllegalStateException("Unknown bot action");
+          }
+        } catch (IllegalArgumentException | IllegalStateException exception) {
+          // the model rejected the turn, the bot goes on with the next one
+          totals.invalidActions++;
+        }
+      }
+      totals.turns += turns;
+      if (game.getGameStatus() == DungeonsGame.GameState.WON) {
+        totals.gamesWon++;
+      } else if (game.getGameStatus() == DungeonsGame.GameState.LOST) {
+        totals.gamesEaten++;
+      }
+      for (int treasureCount : game.getPlayerInformation().getAcquiredTreasures().values()) {
+        totals.treasure += treasureCount;
+      }
+    }
+  }
+
+  /**
+   * This class is used to play a range of games of a simulation, splitting it while it is
+   * large.
+   */
+  private static final class GameRange extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final Simulation simulation;
+    private final long firstGame;
+    private final long lastGame;
+
+    private GameRange(Simulation simulation, long firstGame, long lastGame) {
+      this.simulation = simulation;
+      this.firstGame = firstGame;
+      this.lastGame = lastGame;
+    }
+
+    @Override
+    protected void compute() {
+      if (lastGame - firstGame > simulation.leafSize) {
+        long middleGame = firstGame + (lastGame - firstGame) / 2;
+        invokeAll(new GameRange(simulation, firstGame, middleGame),
+                new GameRange(simulation, middleGame, lastGame));
+        return;
+      }
+      // count locally and add to the shared counters once per range
+      GameTotals totals = new GameTotals();
+      for (long game = firstGame; game < lastGame; game++) {
+        // seeds wrap around once they pass the largest int
+        simulation.playGame(simulation.firstSeed + (int) game, totals);
+      }
+      simulation.gamesWon.add(totals.gamesWon);
+      simulation.gamesEaten.add(totals.gamesEaten);
+      simulation.gamesRejected.add(totals.gamesRejected);
+      simulation.totalTurns.add(totals.turns);
+      simulation.totalTreasure.add(totals.treasure);
+      simulation.totalArrowsUsed.add(totals.arrowsUsed);
+      simulation.invalidActions.add(totals.invalidActions);
+    }
+  }
+
+  /**
+   * This class holds the totals of the games played by one range.
+   */
+  private static final class GameTotals {
+    private long gamesWon;
+    private long gamesEaten;
+    private long gamesRejected;
+    private long turns;
+    private long treasure;
+    private long arrowsUsed;
+    private long invalidActions;
+  }
+}
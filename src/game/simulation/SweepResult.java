@@ -0,0 +1,154 @@
+package game.simulation;
+
+import game.model.DungeonMetrics;
+
+/**
+ * This class is used to hold the difficulty statistics of all dungeons a parameter sweep
+ * generated for one configuration. Only the statistics are kept, not the dungeons.
+ */
+public final class SweepResult {
+
+  // bins per statistic, so that large grids do not need large statistics
+  private static final int MAXIMUM_BINS = 4096;
+  // a location has at most three arrows
+  private static final int MAXIMUM_ARROWS_PER_CELL = 3;
+  private static final int TUNNEL_RATIO_BINS = 1000;
+
+  private final GameConfiguration configuration;
+  private final RunningStatistics pathLength;
+  private final RunningStatistics tunnelRatio;
+  private final RunningStatistics monstersOnPath;
+  private final RunningStatistics arrowsBeforeMonster;
+  private long rejectedDungeons;
+
+  /**
+   * Constructor for the empty result of a configuration.
+   *
+   * @param configuration configuration the dungeons are generated with
+   * @throws IllegalArgumentException if the configuration is null
+   */
+  SweepResult(GameConfiguration configuration) throws IllegalArgumentException {
+    if (configuration == null) {
+      throw new IllegalArgumentException("Configuration cannot be null");
+    }
+    this.configuration = configuration;
+    int cellCount = Math.max(1, configuration.getRowCount() * configuration.getColumnCount());
+    this.pathLength = integerStatistics(cellCount);
+    this.tunnelRatio = new RunningStatistics(0, 1, TUNNEL_RATIO_BINS);
+    this.monstersOnPath = integerStatistics(configuration.getMonsterCount() + 1);
+    this.arrowsBeforeMonster = integerStatistics(cellCount * MAXIMUM_ARROWS_PER_CELL + 1);
+  }
+
+  private static RunningStatistics integerStatistics(int valueCount) {
+    return new RunningStatistics(0, valueCount, Math.min(valueCount, MAXIMUM_BINS));
+  }
+
+  /**
+   * This function is used to add the metrics of a generated dungeon.
+   *
+   * @param metrics metrics of the dungeon
+   */
+  void addDungeon(DungeonMetrics metrics) {
+    pathLength.add(metrics.getPathLength());
+    tunnelRatio.add(metrics.getTunnelRatio());
+    monstersOnPath.add(metrics.getMonstersOnPath());
+    arrowsBeforeMonster.add(metrics.getArrowsBeforeMonster());
+  }
+
+  /**
+   * This function is used to count a dungeon the game model could not generate.
+   */
+  void addRejectedDungeon() {
+    rejectedDungeons++;
+  }
+
+  /**
+   * This function is used to add the dungeons of another result of the same configuration.
+   *
+   * @param other result to be added
+   */
+  void merge(SweepResult other) {
+    pathLength.merge(other.pathLength);
+    tunnelRatio.merge(other.tunnelRatio);
+    monstersOnPath.merge(other.monstersOnPath);
+    arrowsBeforeMonster.merge(other.arrowsBeforeMonster);
+    rejectedDungeons += other.rejectedDungeons;
+  }
+
+  /**
+   * gets the configuration the dungeons were generated with.
+   *
+   * @return configuration
+   */
+  public GameConfiguration getConfiguration() {
+    return configuration;
+  }
+
+  /**
+   * gets the number of dungeons measured.
+   *
+   * @return number of dungeons
+   */
+  public long getDungeonCount() {
+    return pathLength.getCount();
+  }
+
+  /**
+   * gets the number of dungeons the game model could not generate with the configuration.
+   *
+   * @return number of rejected dungeons
+   */
+  public long getRejectedDungeons() {
+    return rejectedDungeons;
+  }
+
+  /**
+   * gets the statistics of the shortest path length from the start to the end cave.
+   *
+   * @return path length statistics
+   */
+  public RunningStatistics getPathLength() {
+    return pathLength;
+  }
+
+  /**
+   * gets the statistics of the share of tunnels.
+   *
+   * @return tunnel ratio statistics
+   */
+  public RunningStatistics getTunnelRatio() {
+    return tunnelRatio;
+  }
+
+  /**
+   * gets the statistics of the number of monsters on the shortest path.
+   *
+   * @return monsters on path statistics
+   */
+  public RunningStatistics getMonstersOnPath() {
+    return monstersOnPath;
+  }
+
+  /**
+   * gets the statistics of the number of arrows reachable before the first monster.
+   *
+   * @return arrow statistics
+   */
+  public RunningStatistics getArrowsBeforeMonster() {
+    return arrowsBeforeMonster;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s: dungeons %d, rejected %d, path %s, tunnels %s, "
+                    + "monsters on path %s, arrows before monster %s", configuration,
+            getDungeonCount(), rejectedDungeons, describe(pathLength), describe(tunnelRatio),
+            describe(monstersOnPath), describe(arrowsBeforeMonster));
+  }
+
+  private static String describe(RunningStatistics statistics) {
+    return String.format("mean %.3f sd %.3f p50 %.3f p90 %.3f p99 %.3f", statistics.getMean(),
+            Math.sqrt(statistics.getVariance()), statistics.getPercentile(0.5),
+            statistics.getPercentile(0.9), statistics.getPercentile(0.99));
+  }
+}
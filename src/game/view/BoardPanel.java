@@ -2,9 +2,11 @@ package game.view;
 
 import game.controller.IDungeonControllerGui;
 import game.model.DungeonCell;
+import game.model.DungeonSnapshot;
 import game.model.DungeonsGame;
 import game.model.DungeonsGameReadOnly;
 import game.model.IGameHistory;
+import game.model.IHistoryCursor;
 import game.model.Monster;
 
 import java.awt.Color;
@@ -19,7 +21,6 @@ import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.net.URL;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -72,8 +73,10 @@ class BoardPanel extends JPanel implements KeyListener {
   }
 
   private final DungeonsGameReadOnly model;
-  private final Map<String, JLabel> dungeonNameLabel;
+  private JLabel[] cellLabels;
   private IDungeonControllerGui controller;
+  private int historyOffset;
+  private int previousPlayerCellId;
 
   /**
    * Constructor for board panel.
@@ -88,24 +91,22 @@ class BoardPanel extends JPanel implements KeyListener {
     }
     this.model = model;
     this.controller = null;
-    dungeonNameLabel = new HashMap<>();
+    cellLabels = new JLabel[0];
     previousKeyCode = -1;
     setup();
   }
 
   void setup() {
     removeAll();
-    dungeonNameLabel.clear();
-    List<List<DungeonCell>> locations = model.getDungeonCells();
-    int rows = locations.size();
-    int cols = locations.get(0).size();
+    int rows = model.getRowCount();
+    int cols = model.getColumnCount();
     setLayout(new GridLayout(rows, cols, 0, 0));
-    for (List<DungeonCell> row : locations) {
-      for (DungeonCell cell : row) {
-        JLabel dungeonLabel = new JLabel();
-        dungeonNameLabel.put(cell.getCellName(), dungeonLabel);
-        add(dungeonLabel);
-      }
+    // labels are indexed by cell id, which is row major like the grid layout
+    cellLabels = new JLabel[rows * cols];
+    for (int cellId = 0; cellId < cellLabels.length; cellId++) {
+      JLabel dungeonLabel = new JLabel();
+      cellLabels[cellId] = dungeonLabel;
+      add(dungeonLabel);
     }
     setVisible(true);
     setSize(new Dimension(cols * 128, rows * 128));
@@ -113,20 +114,18 @@ class BoardPanel extends JPanel implements KeyListener {
   }
 
   void reset() {
-    List<List<DungeonCell>> locations = model.getDungeonCells();
-    for (List<DungeonCell> row : locations) {
-      for (DungeonCell cell : row) {
-        JLabel dungeonLabel = dungeonNameLabel.get(cell.getCellName());
-        URL url = getClass().getResource("/images/Blank.png");
-        if (url == null) {
-          throw new IllegalStateException("Blank file missing");
-        }
-        try {
-          BufferedImage baseImage = ImageIO.read(url);
-          dungeonLabel.setIcon(new ImageIcon(baseImage));
-        } catch (IOException exception) {
-          throw new IllegalArgumentException("Error reading blank file resource");
-        }
+    historyOffset = 0;
+    previousPlayerCellId = -1;
+    for (JLabel dungeonLabel : cellLabels) {
+      URL url = getClass().getResource("/images/Blank.png");
+      if (url == null) {
+        throw new IllegalStateException("Blank file missing");
+      }
+      try {
+        BufferedImage baseImage = ImageIO.read(url);
+        dungeonLabel.setIcon(new ImageIcon(baseImage));
+      } catch (IOException exception) {
+        throw new IllegalArgumentException("Error reading blank file resource");
       }
     }
   }
@@ -145,8 +144,7 @@ class BoardPanel extends JPanel implements KeyListener {
     } catch (IOException exception) {
       throw new IllegalStateException("Error reading location file resource");
     }
-    List<DungeonsGame.TreasureType> treasures = cell.getAvailableTreasures();
-    int diamondCount = Collections.frequency(treasures, DungeonsGame.TreasureType.DIAMONDS);
+    int diamondCount = cell.getTreasureCount(DungeonsGame.TreasureType.DIAMONDS);
     if (diamondCount > 0) {
       url = getClass().getResource("/images/diamond.png");
       if (url == null) {
@@ -161,7 +159,7 @@ class BoardPanel extends JPanel implements KeyListener {
         throw new IllegalStateException("Error reading diamond file resource");
       }
     }
-    int rubyCount = Collections.frequency(treasures, DungeonsGame.TreasureType.RUBIES);
+    int rubyCount = cell.getTreasureCount(DungeonsGame.TreasureType.RUBIES);
     if (rubyCount > 0) {
       url = getClass().getResource("/images/ruby.png");
       if (url == null) {
@@ -176,7 +174,7 @@ class BoardPanel extends JPanel implements KeyListener {
         throw new IllegalStateException("Error reading ruby file resource");
       }
     }
-    int sapphireCount = Collections.frequency(treasures, DungeonsGame.TreasureType.SAPPHIRES);
+    int sapphireCount = cell.getTreasureCount(DungeonsGame.TreasureType.SAPPHIRES);
     if (sapphireCount > 0) {
       url = getClass().getResource("/images/sapphire.png");
       if (url == null) {
@@ -191,9 +189,8 @@ class BoardPanel extends JPanel implements KeyListener {
         throw new IllegalStateException("Error reading sapphire file resource");
       }
     }
-    if (cell.getMonster() != null) {
-      Monster monster = cell.getMonster();
-      Monster.Health monsterHealth = monster.getHealth();
+    Monster.Health monsterHealth = cell.getMonsterHealth();
+    if (monsterHealth != null) {
       BufferedImage monsterImage;
       try {
         if (monsterHealth == Monster.Health.FULL) {
@@ -221,8 +218,8 @@ class BoardPanel extends JPanel implements KeyListener {
 
       baseImage = superImposeImage(baseImage, monsterImage, 32, 32);
     }
-    List<DungeonsGame.ArrowType> arrows = cell.getAvailableArrows();
-    if (arrows.size() > 0) {
+    int arrowCount = cell.getArrowCount();
+    if (arrowCount > 0) {
       url = getClass().getResource("/images/arrow.png");
       if (url == null) {
         throw new IllegalStateException("arrow image file missing");
@@ -230,7 +227,7 @@ class BoardPanel extends JPanel implements KeyListener {
       try {
         BufferedImage arrowsImage = ImageIO.read(url);
         BufferedImage countArrowsImage = superImposeText(arrowsImage,
-                String.valueOf(arrows.size()), 12, 26, Color.white);
+                String.valueOf(arrowCount), 12, 26, Color.white);
         if (cell.getCellType() == DungeonCell.CellType.CAVE) {
           baseImage = superImposeImage(baseImage, countArrowsImage, 75, 75);
         } else {
@@ -279,51 +276,45 @@ class BoardPanel extends JPanel implements KeyListener {
   @Override
   protected void paintComponent(Graphics g) {
     super.paintComponent(g);
-    if (model.getGameStatus() != DungeonsGame.GameState.NOT_STARTED) {
-      IGameHistory gameHistory = model.getGameHistory();
-      if (gameHistory.size() > 1) {
-        DungeonsGame.GameEvents recentEvent = gameHistory
-                .getEventFromHistory(gameHistory.size() - 1);
-        if (recentEvent == DungeonsGame.GameEvents.MOVE
-                || recentEvent == DungeonsGame.GameEvents.MONSTER_HIT) {
-          String previousCellName;
-          List<String> playerTraversedCells = model.getPlayerInformation().getTraversedPath();
-          if (recentEvent == DungeonsGame.GameEvents.MONSTER_HIT) {
-            previousCellName = gameHistory.getLocationFromHistory(gameHistory.size() - 1);
-          } else {
-            previousCellName = playerTraversedCells.get(playerTraversedCells.size() - 2);
+    // one view per paint so every value read while painting belongs to the same version
+    DungeonsGameReadOnly view = model.getCurrentView();
+    if (view.getGameStatus() != DungeonsGame.GameState.NOT_STARTED) {
+      DungeonSnapshot snapshot = view.getSnapshot();
+      IGameHistory gameHistory = view.getGameHistory();
+      if (historyOffset > gameHistory.size()) {
+        historyOffset = 0;
+      }
+      // only the events added since the last paint are read
+      IHistoryCursor historyCursor = gameHistory.cursor(historyOffset);
+      List<String> playerTraversedCells = null;
+      while (historyCursor.hasNext()) {
+        if (historyCursor.next() == DungeonsGame.GameEvents.MONSTER_HIT) {
+          if (playerTraversedCells == null) {
+            playerTraversedCells = view.getPlayerInformation().getTraversedPath();
           }
-          if (playerTraversedCells.contains(previousCellName)) {
-            DungeonCell previousCell = null;
-            List<List<DungeonCell>> cells = model.getDungeonCells();
-            for (List<DungeonCell> rows : cells) {
-              for (DungeonCell cell : rows) {
-                if (cell.getCellName().equals(previousCellName)) {
-                  previousCell = cell;
-                  break;
-                }
-              }
-              if (previousCell != null) {
-                break;
-              }
-            }
-            if (previousCell != null) {
-              refreshCell(previousCell);
-            }
+          String hitCellName = historyCursor.getLocation();
+          if (playerTraversedCells.contains(hitCellName)) {
+            refreshCell(view, snapshot, view.getCellId(hitCellName));
           }
         }
       }
-      DungeonCell cell = model.getPlayerCurrentLocation();
-      refreshCell(cell);
+      historyOffset = historyCursor.getOffset();
+      int playerCellId = view.getPlayerCurrentCellId();
+      if (previousPlayerCellId >= 0 && previousPlayerCellId != playerCellId) {
+        refreshCell(view, snapshot, previousPlayerCellId);
+      }
+      previousPlayerCellId = playerCellId;
+      refreshCell(view, snapshot, playerCellId);
     }
   }
 
-  private void refreshCell(DungeonCell cell) {
-    JLabel currentCellLabel = dungeonNameLabel.get(cell.getCellName());
+  private void refreshCell(DungeonsGameReadOnly view, DungeonSnapshot snapshot, int cellId) {
+    DungeonCell cell = snapshot.getCell(cellId);
+    JLabel currentCellLabel = cellLabels[cellId];
     BufferedImage baseImage;
     try {
       baseImage = getFinalBaseImage(cell);
-      if (cell.getCellName().equals(model.getPlayerCurrentLocation().getCellName())) {
+      if (cellId == view.getPlayerCurrentCellId()) {
         URL url = getClass().getResource("/images/player.png");
         if (url == null) {
           JOptionPane.showMessageDialog(getParent(),
@@ -332,7 +323,7 @@ class BoardPanel extends JPanel implements KeyListener {
         }
         BufferedImage playerImage = ImageIO.read(url);
         baseImage = superImposeImage(baseImage, playerImage, 32, 32);
-        DungeonsGame.SmellType currentSmell = model.getCurrentLocationSmell();
+        DungeonsGame.SmellType currentSmell = view.getCurrentLocationSmell();
         if (currentSmell == DungeonsGame.SmellType.STRONG) {
           url = getClass().getResource("/images/HighSmell.png");
           if (url == null) {
@@ -372,8 +363,7 @@ class BoardPanel extends JPanel implements KeyListener {
         if (model.getGameStatus() == DungeonsGame.GameState.PROGRESS) {
           int mouseX = e.getPoint().x;
           int mouseY = e.getPoint().y;
-          DungeonCell currentCellLocation = model.getPlayerCurrentLocation();
-          JLabel currentLabel = dungeonNameLabel.get(currentCellLocation.getCellName());
+          JLabel currentLabel = cellLabels[model.getPlayerCurrentCellId()];
           int labelX = currentLabel.getX();
           int labelY = currentLabel.getY();
           if ((mouseX > (labelX + 128) && (mouseX < (labelX + 256)))
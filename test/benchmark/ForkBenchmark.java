@@ -0,0 +1,78 @@
+package benchmark;
+
+import game.model.CompactDungeonsGame;
+import game.model.DungeonsGame;
+import game.model.DungeonsGameImpl;
+import game.model.RandomNumberGeneratorImpl;
+
+import java.util.List;
+
+/**
+ * This class is used to measure how fast a started game can be forked, the way a search
+ * forks a game before trying a move. For both game models it reports the forks per second
+ * of a fork alone and of a fork followed by one move and one shot, which makes the fork copy
+ * the parts it changes. It is not part of the unit tests and is run by hand:
+ * <pre>
+ *   java benchmark.ForkBenchmark [forks] [rows] [columns]
+ * </pre>
+ */
+public final class ForkBenchmark {
+
+  private static final int ROUNDS = 5;
+
+  private ForkBenchmark() {
+  }
+
+  /**
+   * This function is used to run the benchmark.
+   *
+   * @param args optional number of forks per round, rows and columns
+   */
+  public static void main(String[] args) {
+    int forkCount = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+    int rowCount = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+    int columnCount = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+    System.out.printf("%d forks per round, %d x %d grid%n", forkCount, rowCount, columnCount);
+    System.out.printf("%-20s %-14s %16s%n", "model", "workload", "forks/second");
+    measure("CompactDungeonsGame", new CompactDungeonsGame(DungeonsGame.WrapType.WRAPPING,
+            rowCount, columnCount, 4, 50, 8, seeded()), forkCount);
+    measure("DungeonsGameImpl", new DungeonsGameImpl(DungeonsGame.WrapType.WRAPPING,
+            rowCount, columnCount, 4, 50, 8, seeded()), forkCount);
+  }
+
+  private static RandomNumberGeneratorImpl seeded() {
+    RandomNumberGeneratorImpl randomizer = new RandomNumberGeneratorImpl();
+    randomizer.setRandomSeed(42);
+    return randomizer;
+  }
+
+  private static void measure(String model, DungeonsGame dungeonsGame, int forkCount) {
+    dungeonsGame.startGameForPlayer("Player-1");
+    List<String> movements = dungeonsGame.getAvailableMovements();
+    DungeonsGame.Direction direction = DungeonsGame.Direction.valueOf(movements.get(0));
+    long checksum = 0;
+    double forkRate = 0;
+    double playRate = 0;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (int count = 0; count < forkCount; count++) {
+        checksum += dungeonsGame.fork().getModelVersion();
+      }
+      forkRate = forkCount * 1e9 / (System.nanoTime() - start);
+      start = System.nanoTime();
+      for (int count = 0; count < forkCount; count++) {
+        DungeonsGame fork = dungeonsGame.fork();
+        fork.shootArrowForPlayer(direction, 1);
+        fork.movePlayerToLocation(direction);
+        checksum += fork.getModelVersion();
+      }
+      playRate = forkCount * 1e9 / (System.nanoTime() - start);
+    }
+    // the rates of the last round, after the earlier rounds warmed up the code
+    System.out.printf("%-20s %-14s %16.0f%n", model, "fork", forkRate);
+    System.out.printf("%-20s %-14s %16.0f%n", model, "fork+shot+move", playRate);
+    if (checksum == 0) {
+      System.out.println("no forks were made");
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package benchmark;
+
+import game.model.CompactDungeonsGame;
+import game.model.DungeonsGame;
+import game.model.RandomNumberGeneratorImpl;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is used to compare the maze algorithms on large dungeons. Every algorithm
+ * generates the same grid a number of times through the public game constructor and the
+ * benchmark reports the best time, the throughput in cells per second and the peak heap
+ * used while generating. It is not part of the unit tests and is run by hand:
+ * <pre>
+ *   java benchmark.MazeGenerationBenchmark [rows] [columns] [repetitions] [wrapping|non_wrapping]
+ * </pre>
+ */
+public final class MazeGenerationBenchmark {
+
+  private MazeGenerationBenchmark() {
+  }
+
+  /**
+   * This function is used to run the benchmark.
+   *
+   * @param args optional rows, columns, repetitions and wrap type
+   */
+  public static void main(String[] args) {
+    int rowCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+    int columnCount = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+    int repetitions = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+    DungeonsGame.WrapType wrapType = args.length > 3
+            ? DungeonsGame.WrapType.valueOf(args[3].toUpperCase())
+            : DungeonsGame.WrapType.WRAPPING;
+    long cellCount = (long) rowCount * columnCount;
+    List<MemoryPoolMXBean> heapPools = heapPools();
+    System.out.printf("%d x %d %s dungeon, best of %d%n", rowCount, columnCount, wrapType,
+            repetitions);
+    System.out.printf("%-12s %12s %16s %14s%n", "algorithm", "best ms", "cells/second",
+            "peak heap MB");
+    for (DungeonsGame.MazeAlgorithm mazeAlgorithm : DungeonsGame.MazeAlgorithm.values()) {
+      long bestNanos = Long.MAX_VALUE;
+      long peakBytes = 0;
+      for (int repetition = 0; repetition < repetitions; repetition++) {
+        System.gc();
+        for (MemoryPoolMXBean pool : heapPools) {
+          pool.resetPeakUsage();
+        }
+        long start = System.nanoTime();
+        DungeonsGame dungeonsGame = new CompactDungeonsGame(wrapType, rowCount, columnCount,
+                0, 20, 1, mazeAlgorithm, new RandomNumberGeneratorImpl());
+        long elapsed = System.nanoTime() - start;
+        long usedBytes = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+          usedBytes += pool.getPeakUsage().getUsed();
+        }
+        if (dungeonsGame.getRowCount() != rowCount) {
+          throw new IllegalStateException("Unexpected dungeon generated");
+        }
+        bestNanos = Math.min(bestNanos, elapsed);
+        peakBytes = Math.max(peakBytes, usedBytes);
+      }
+      System.out.printf("%-12s %12.1f %16.0f %14.1f%n", mazeAlgorithm, bestNanos / 1e6,
+              cellCount / (bestNanos / 1e9), peakBytes / (1024.0 * 1024.0));
+    }
+  }
+
+  private static List<MemoryPoolMXBean> heapPools() {
+    List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        heapPools.add(pool);
+      }
+    }
+    return heapPools;
+  }
+}
@@ -0,0 +1,63 @@
+package benchmark;
+
+import game.model.DungeonsGame;
+import game.simulation.GameConfiguration;
+import game.simulation.ISimulationResult;
+import game.simulation.RandomWalkBot;
+import game.simulation.SimulationRunner;
+
+/**
+ * This class is used to measure how the simulation runner scales with the number of threads.
+ * The same seed range is played with one thread, then doubling the threads up to all
+ * available processors, and the benchmark reports the games per second and the speedup over
+ * one thread. It is not part of the unit tests and is run by hand:
+ * <pre>
+ *   java benchmark.SimulationBenchmark [games] [rows] [columns] [monsters]
+ * </pre>
+ */
+public final class SimulationBenchmark {
+
+  private SimulationBenchmark() {
+  }
+
+  /**
+   * This function is used to run the benchmark.
+   *
+   * @param args optional number of games, rows, columns and monsters
+   */
+  public static void main(String[] args) {
+    long gameCount = args.length > 0 ? Long.parseLong(args[0]) : 200_000;
+    int rowCount = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+    int columnCount = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+    int monsterCount = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+    GameConfiguration configuration = new GameConfiguration(DungeonsGame.WrapType.NON_WRAPPING,
+            rowCount, columnCount, 2, 40, monsterCount, DungeonsGame.MazeAlgorithm.KRUSKAL);
+    int processors = Runtime.getRuntime().availableProcessors();
+    // warm up the model code before measuring
+    new SimulationRunner(processors).run(configuration, 0, gameCount / 10 + 1,
+            new RandomWalkBot(), 500);
+    System.out.printf("%d games, %s%n", gameCount, configuration);
+    System.out.printf("%-8s %14s %10s%n", "threads", "games/second", "speedup");
+    double singleThreadRate = 0;
+    for (int threads = 1; threads <= processors; threads = nextThreadCount(threads,
+            processors)) {
+      ISimulationResult result = new SimulationRunner(threads).run(configuration, 0,
+              gameCount, new RandomWalkBot(), 500);
+      if (threads == 1) {
+        singleThreadRate = result.getGamesPerSecond();
+      }
+      System.out.printf("%-8d %14.0f %10.2f%n", threads, result.getGamesPerSecond(),
+              result.getGamesPerSecond() / singleThreadRate);
+      if (threads == processors) {
+        System.out.println(result);
+      }
+    }
+  }
+
+  private static int nextThreadCount(int threads, int processors) {
+    if (threads == processors) {
+      return processors + 1;
+    }
+    return Math.min(threads * 2, processors);
+  }
+}
@@ -0,0 +1,73 @@
+package benchmark;
+
+import game.model.CompactDungeonsGame;
+import game.model.DungeonSolution;
+import game.model.DungeonSolver;
+import game.model.DungeonsGame;
+import game.model.RandomNumberGeneratorImpl;
+
+/**
+ * This class is used to measure how long the solver takes to grade a dungeon. For a range of
+ * seeds it solves a non wrapping dungeon of the given size and reports the mean and worst
+ * solve time, the states stored and how many dungeons can be won safely. It is not part of
+ * the unit tests and is run by hand:
+ * <pre>
+ *   java benchmark.SolverBenchmark [dungeons] [rows] [columns] [monsters]
+ * </pre>
+ */
+public final class SolverBenchmark {
+
+  private static final int WARMUP_DUNGEONS = 50;
+
+  private SolverBenchmark() {
+  }
+
+  /**
+   * This function is used to run the benchmark.
+   *
+   * @param args optional number of dungeons, rows, columns and monsters
+   */
+  public static void main(String[] args) {
+    int dungeonCount = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+    int rowCount = args.length > 1 ? Integer.parseInt(args[1]) : 12;
+    int columnCount = args.length > 2 ? Integer.parseInt(args[2]) : 12;
+    int monsterCount = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+    System.out.printf("%d dungeons, %d x %d grid, %d monsters%n", dungeonCount, rowCount,
+            columnCount, monsterCount);
+    DungeonSolver solver = new DungeonSolver();
+    // the first dungeons warm up the code and are not counted
+    for (int seed = 0; seed < WARMUP_DUNGEONS; seed++) {
+      solver.solve(createGame(seed, rowCount, columnCount, monsterCount));
+    }
+    long totalNanos = 0;
+    long worstNanos = 0;
+    long totalStates = 0;
+    int winnableCount = 0;
+    int incompleteCount = 0;
+    for (int seed = 0; seed < dungeonCount; seed++) {
+      CompactDungeonsGame dungeonsGame = createGame(WARMUP_DUNGEONS + seed, rowCount,
+              columnCount, monsterCount);
+      long start = System.nanoTime();
+      DungeonSolution solution = solver.solve(dungeonsGame);
+      long nanos = System.nanoTime() - start;
+      totalNanos += nanos;
+      worstNanos = Math.max(worstNanos, nanos);
+      totalStates += solution.getStatesExplored();
+      winnableCount += solution.isWinnable() ? 1 : 0;
+      incompleteCount += solution.isComplete() ? 0 : 1;
+    }
+    System.out.printf("%-18s %12.2f%n", "mean ms", totalNanos / 1e6 / dungeonCount);
+    System.out.printf("%-18s %12.2f%n", "worst ms", worstNanos / 1e6);
+    System.out.printf("%-18s %12d%n", "mean states", totalStates / dungeonCount);
+    System.out.printf("%-18s %12d%n", "winnable", winnableCount);
+    System.out.printf("%-18s %12d%n", "incomplete", incompleteCount);
+  }
+
+  private static CompactDungeonsGame createGame(int seed, int rowCount, int columnCount,
+                                                int monsterCount) {
+    RandomNumberGeneratorImpl randomizer = new RandomNumberGeneratorImpl();
+    randomizer.setRandomSeed(seed);
+    return new CompactDungeonsGame(DungeonsGame.WrapType.NON_WRAPPING, rowCount, columnCount,
+            4, 30, monsterCount, randomizer);
+  }
+}
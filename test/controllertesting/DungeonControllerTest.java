@@ -44,7 +44,7 @@ public class DungeonControllerTest {
             0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
             3, 0,
             0, 1, 1, 1, 1, 2,
-            5,
+            0,
             0, 2, 1, 2, 2, 2, 3, 2
     );
     //create model
@@ -227,7 +227,7 @@ public class DungeonControllerTest {
             0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
             3, 0,
             0, 1, 1, 1, 1, 2,
-            5,
+            0,
             0, 2, 1, 2, 2, 2, 3, 2
     );
     //create model
@@ -409,7 +409,7 @@ public class DungeonControllerTest {
             0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
             3, 0,
             0, 1, 1, 1, 1, 2,
-            5,
+            0,
             0, 2, 1, 2, 2, 2, 3, 2
     );
     //create model
@@ -477,7 +477,7 @@ public class DungeonControllerTest {
             0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
             3, 0,
             0, 1, 1, 1, 1, 2,
-            5,
+            0,
             0, 2, 1, 2, 2, 2, 3, 2
     );
     //create model
@@ -525,7 +525,7 @@ public class DungeonControllerTest {
             0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
             3, 0,
             0, 1, 1, 1, 1, 2,
-            5,
+            0,
             0, 2, 1, 2, 2, 2, 3, 2
     );
     //create model
@@ -573,7 +573,7 @@ public class DungeonControllerTest {
             0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
             3, 0,
             0, 1, 1, 1, 1, 2,
-            5,
+            0,
             0, 2, 1, 2, 2, 2, 3, 2
     );
     //create model
@@ -1000,31 +1000,44 @@ public class DungeonControllerTest {
             + "Getting Game State: PROGRESS\n"
             + "Movement Direction: SOUTH\n"
             + "Getting Game State: PROGRESS\n", log.toString()); // input reaches model correctly
+    // the location of the mock model is rendered by the controller
+    String locationInformation = "Player's Current Location: Cell-12344321\n"
+            + "Player's Current Location Type: CAVE\n"
+            + "Available Treasure:\n"
+            + "RUBIES\n"
+            + "Available Arrows:1\n"
+            + "No Monster Available\n"
+            + "Available Direction For Movement:\n"
+            + "NORTH : Cell-12344321\n"
+            + "SOUTH : Cell-12344321\n"
+            + "EAST : Cell-12344321\n"
+            + "WEST : Cell-12344321\n";
     String expectedOutput = "Hey Player-1. Let's start the game.\n"
-            + "12344321"
+            + locationInformation
             + "What would you like to do?\n"
             + "Move, Pickup, or Shoot or Quit(M-P-S-Q)?\n"
             + "Which direction do you want to explore?\n"
-            + "Options - [12344321,12344321,12344321,12344321]?\n"
+            + "Options - [EAST,NORTH,SOUTH,WEST]?\n"
             + "-----------------------------------------------\n"
-            + "12344321"
+            + locationInformation
             + "What would you like to do?\n"
             + "Move, Pickup, or Shoot or Quit(M-P-S-Q)?\n"
             + "Which direction do you want to explore?\n"
-            + "Options - [12344321,12344321,12344321,12344321]?\n"
+            + "Options - [EAST,NORTH,SOUTH,WEST]?\n"
             + "-----------------------------------------------\n"
-            + "12344321What would you like to do?\n"
+            + locationInformation
+            + "What would you like to do?\n"
             + "Move, Pickup, or Shoot or Quit(M-P-S-Q)?\n"
             + "Which direction do you want to explore?\n"
-            + "Options - [12344321,12344321,12344321,12344321]?\n"
+            + "Options - [EAST,NORTH,SOUTH,WEST]?\n"
             + "-----------------------------------------------\n"
-            + "12344321"
+            + locationInformation
             + "What would you like to do?\n"
             + "Move, Pickup, or Shoot or Quit(M-P-S-Q)?\n"
             + "Which direction do you want to explore?\n"
-            + "Options - [12344321,12344321,12344321,12344321]?\n"
+            + "Options - [EAST,NORTH,SOUTH,WEST]?\n"
             + "-----------------------------------------------\n"
-            + "12344321"
+            + locationInformation
             + "What would you like to do?\n"
             + "Move, Pickup, or Shoot or Quit(M-P-S-Q)?\n"
             + "\n"
@@ -1055,7 +1068,7 @@ public class DungeonControllerTest {
             0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
             3, 0,
             0, 1, 1, 1, 1, 2,
-            5,
+            0,
             0, 2, 1, 2, 2, 2, 3, 2
     );
     //create model
@@ -1088,7 +1101,7 @@ public class DungeonControllerTest {
             0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
             3, 0,
             0, 1, 1, 1, 1, 2,
-            5,
+            0,
             0, 2, 1, 2, 2, 2, 3, 2
     );
     //create model
@@ -2,13 +2,20 @@ package controllertesting;
 
 import game.model.DungeonCell;
 import game.model.DungeonCellImpl;
+import game.model.DungeonSnapshot;
 import game.model.DungeonsGame;
+import game.model.DungeonsGameReadOnly;
 import game.model.GameHistory;
 import game.model.IGameHistory;
+import game.model.LocationInfo;
+import game.model.LocationInfoImpl;
 import game.model.PlayerData;
 import game.model.PlayerDataImpl;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 
@@ -57,6 +64,24 @@ public class MockModel implements DungeonsGame {
     return gameState;
   }
 
+  @Override
+  public long getModelVersion() {
+    log.append("Getting Model Version").append("\n");
+    return uniqueCode;
+  }
+
+  @Override
+  public DungeonSnapshot getSnapshot() {
+    log.append("Getting Snapshot").append("\n");
+    return null;
+  }
+
+  @Override
+  public DungeonsGameReadOnly getCurrentView() {
+    log.append("Getting Current View").append("\n");
+    return this;
+  }
+
   @Override
   public List<List<DungeonCell>> getDungeonCells() {
     log.append("Getting Four Cells with designed unique code as name").append("\n");
@@ -88,6 +113,17 @@ public class MockModel implements DungeonsGame {
     return String.valueOf(uniqueCode);
   }
 
+  @Override
+  public void renderGameGrid(Appendable output) throws IOException {
+    output.append(String.valueOf(uniqueCode));
+  }
+
+  @Override
+  public void renderGameGridAroundPlayer(Appendable output, int rowRadius, int columnRadius)
+          throws IOException {
+    output.append(String.valueOf(uniqueCode));
+  }
+
   @Override
   public ShootResultStates shootArrowForPlayer(Direction direction, int distance)
           throws IllegalArgumentException, IllegalStateException {
@@ -101,6 +137,16 @@ public class MockModel implements DungeonsGame {
     return String.valueOf(uniqueCode);
   }
 
+  @Override
+  public LocationInfo getPlayerLocationInfo() throws IllegalStateException {
+    // the unique code is the name of the location and of all its neighbours
+    int[] neighbourCellIds = new int[Direction.values().length];
+    Arrays.fill(neighbourCellIds, uniqueCode - 1);
+    return new LocationInfoImpl(uniqueCode - 1, DungeonCell.CellType.CAVE,
+            Collections.singletonList(TreasureType.RUBIES), 1, null, null,
+            neighbourCellIds, SmellType.NO_SMELL);
+  }
+
   @Override
   public PlayerData getPlayerInformation() throws IllegalStateException {
     return new PlayerDataImpl(String.valueOf(uniqueCode), new HashMap<>(),
@@ -122,6 +168,12 @@ public class MockModel implements DungeonsGame {
     log.append("Resetting the model");
   }
 
+  @Override
+  public DungeonsGame fork() {
+    log.append("Forking the model");
+    return this;
+  }
+
   @Override
   public void setupNewGame(WrapType wrapType, int rowCount, int columnCount, int interConnectivity,
                            int distributionPercent, int monsterCount) {
@@ -133,6 +185,15 @@ public class MockModel implements DungeonsGame {
     log.append("Monster Count: ").append(monsterCount).append("\n");
   }
 
+  @Override
+  public void setupNewGame(WrapType wrapType, int rowCount, int columnCount, int interConnectivity,
+                           int distributionPercent, int monsterCount,
+                           MazeAlgorithm mazeAlgorithm) {
+    setupNewGame(wrapType, rowCount, columnCount, interConnectivity, distributionPercent,
+            monsterCount);
+    log.append("Maze Algorithm: ").append(mazeAlgorithm).append("\n");
+  }
+
   @Override
   public SmellType getCurrentLocationSmell() {
     return SmellType.NO_SMELL;
@@ -143,6 +204,38 @@ public class MockModel implements DungeonsGame {
     return new DungeonCellImpl(String.valueOf(uniqueCode));
   }
 
+  @Override
+  public int getRowCount() {
+    return 1;
+  }
+
+  @Override
+  public int getColumnCount() {
+    return 4;
+  }
+
+  @Override
+  public DungeonCell getCell(int row, int column) throws IllegalArgumentException {
+    log.append("Getting Cell Row: ").append(row).append(" Column: ").append(column).append("\n");
+    return new DungeonCellImpl(String.valueOf(uniqueCode));
+  }
+
+  @Override
+  public DungeonCell getCell(int cellId) throws IllegalArgumentException {
+    log.append("Getting Cell Id: ").append(cellId).append("\n");
+    return new DungeonCellImpl(String.valueOf(uniqueCode));
+  }
+
+  @Override
+  public int getCellId(String cellName) throws IllegalArgumentException {
+    return uniqueCode;
+  }
+
+  @Override
+  public int getPlayerCurrentCellId() throws IllegalStateException {
+    return uniqueCode;
+  }
+
   @Override
   public List<String> getAvailableMovements() {
     List<String> mockList = new ArrayList<>();
@@ -0,0 +1,292 @@
+package modeltesting;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import game.model.CompactDungeonsGame;
+import game.model.DungeonCell;
+import game.model.DungeonsGame;
+import game.model.DungeonsGameImpl;
+import game.model.IGameHistory;
+import game.model.PlayerData;
+import game.model.RandomNumberGenerator;
+import game.model.RandomNumberGeneratorImpl;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * This class is used to run all the dungeon game tests against the compact game model and
+ * to check that it generates the same dungeon as the object based model and that sessions
+ * can be saved and loaded.
+ */
+public class CompactDungeonsGameTest extends DungeonsGameTest {
+
+  @Override
+  protected DungeonsGame createGame(DungeonsGame.WrapType wrapType, int rowCount,
+                                    int columnCount, int interConnectivity,
+                                    int distributionPercent, int monsterCount,
+                                    RandomNumberGenerator randomizer) {
+    return new CompactDungeonsGame(wrapType, rowCount, columnCount, interConnectivity,
+            distributionPercent, monsterCount, randomizer);
+  }
+
+  /**
+   * This test is used to show that both game models produce the same grid for a seed.
+   */
+  @Test
+  public void testSameGridAsObjectModel() {
+    for (int seed = 0; seed < 20; seed++) {
+      RandomNumberGenerator compactRandomizer = new RandomNumberGeneratorImpl();
+      compactRandomizer.setRandomSeed(seed);
+      RandomNumberGenerator objectRandomizer = new RandomNumberGeneratorImpl();
+      objectRandomizer.setRandomSeed(seed);
+      DungeonsGame compactGame = createGame(DungeonsGame.WrapType.WRAPPING,
+              6, 8, 3, 40, 3, compactRandomizer);
+      DungeonsGame objectGame = new DungeonsGameImpl(DungeonsGame.WrapType.WRAPPING,
+              6, 8, 3, 40, 3, objectRandomizer);
+      compactGame.startGameForPlayer("Player");
+      objectGame.startGameForPlayer("Player");
+      assertEquals(objectGame.getGameGrid(), compactGame.getGameGrid());
+      assertEquals(objectGame.getPlayerCurrentLocationInformation(),
+              compactGame.getPlayerCurrentLocationInformation());
+      assertEquals(objectGame.getCurrentLocationSmell(), compactGame.getCurrentLocationSmell());
+    }
+  }
+
+  /**
+   * This test is used to show that both game models generate the dungeon which the object
+   * based model generated for the seed before the compact model was added. Every cell is
+   * written as its type, exits, treasure, arrow count and a mark for a monster.
+   */
+  @Test
+  public void testSameDungeonAsRecordedObjectModel() {
+    List<String> recordedRows = List.of(
+            "TSE//0 TEW//0 CSEW//2 TNW//3 TNS//1",
+            "CN//0 CE/DSR/0 CNEW//0/M TSW//0 CN//2",
+            "TSW//2 CE/SR/2 CSEW//0 TNW//0 TSE//2",
+            "CNEW/DD/0/M CW//0 TNE//0 CSEW/SDD/0 CNSEW/RRS/1");
+    RandomNumberGenerator compactRandomizer = new RandomNumberGeneratorImpl();
+    compactRandomizer.setRandomSeed(5);
+    RandomNumberGenerator objectRandomizer = new RandomNumberGeneratorImpl();
+    objectRandomizer.setRandomSeed(5);
+    assertEquals(recordedRows, describeRows(createGame(DungeonsGame.WrapType.WRAPPING,
+            4, 5, 2, 40, 2, compactRandomizer)));
+    assertEquals(recordedRows, describeRows(new DungeonsGameImpl(DungeonsGame.WrapType.WRAPPING,
+            4, 5, 2, 40, 2, objectRandomizer)));
+  }
+
+  private static List<String> describeRows(DungeonsGame dungeonsGame) {
+    List<String> rows = new ArrayList<>();
+    for (List<DungeonCell> row : dungeonsGame.getDungeonCells()) {
+      StringJoiner rowText = new StringJoiner(" ");
+      for (DungeonCell cell : row) {
+        StringBuilder cellText = new StringBuilder(
+                cell.getCellType() == DungeonCell.CellType.CAVE ? "C" : "T");
+        for (DungeonsGame.Direction direction : DungeonsGame.Direction.values()) {
+          if (cell.getActualNeighbours().containsKey(direction)) {
+            cellText.append(direction.name().charAt(0));
+          }
+        }
+        cellText.append('/');
+        for (DungeonsGame.TreasureType treasure : cell.getAvailableTreasures()) {
+          cellText.append(treasure.name().charAt(0));
+        }
+        cellText.append('/').append(cell.getArrowCount());
+        if (cell.getMonster() != null) {
+          cellText.append("/M");
+        }
+        rowText.add(cellText);
+      }
+      rows.add(rowText.toString());
+    }
+    return rows;
+  }
+
+  /**
+   * This test is used to show that the compact model keeps a started game in less than
+   * sixteen bytes of heap per cell.
+   */
+  @Test
+  public void testLessThanSixteenBytesPerCell() {
+    int rowCount = 512;
+    int columnCount = 512;
+    long usedBefore = usedHeap();
+    RandomNumberGenerator randomizer = new RandomNumberGeneratorImpl();
+    randomizer.setRandomSeed(7);
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.WRAPPING,
+            rowCount, columnCount, 5, 50, 10, randomizer);
+    dungeonsGame.startGameForPlayer("Player");
+    long bytesPerCell = (usedHeap() - usedBefore) / ((long) rowCount * columnCount);
+    assertTrue("Game takes " + bytesPerCell + " bytes per cell", bytesPerCell < 16);
+    assertEquals(rowCount, dungeonsGame.getRowCount());
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int count = 0; count < 5; count++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  /**
+   * This test is used to show that cells of the compact model cannot be modified.
+   */
+  @Test(expected = UnsupportedOperationException.class)
+  public void testCellViewIsReadOnly() {
+    RandomNumberGenerator randomizer = new RandomNumberGeneratorImpl();
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING,
+            4, 4, 0, 0, 1, randomizer);
+    DungeonCell cell = dungeonsGame.getCell(0);
+    cell.clearCellArrows();
+  }
+
+  /**
+   * This test is used to show that a saved session loads with the same dungeon, player,
+   * state and history and can be continued from there.
+   */
+  @Test
+  public void testSaveAndLoadSession() throws IOException {
+    RandomNumberGenerator randomizer = new RandomNumberGeneratorImpl();
+    CompactDungeonsGame dungeonsGame = (CompactDungeonsGame) createGame(
+            DungeonsGame.WrapType.WRAPPING, 8, 8, 4, 60, 3, randomizer);
+    dungeonsGame.startGameForPlayer("Player");
+    dungeonsGame.shootArrowForPlayer(DungeonsGame.Direction.valueOf(
+            dungeonsGame.getAvailableMovements().get(0)), 1);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    dungeonsGame.save(output);
+    CompactDungeonsGame loadedGame = CompactDungeonsGame.load(
+            new ByteArrayInputStream(output.toByteArray()));
+    assertEquals(dungeonsGame.getGameGrid(), loadedGame.getGameGrid());
+    assertEquals(dungeonsGame.getGameStatus(), loadedGame.getGameStatus());
+    assertEquals(dungeonsGame.getPlayerCurrentLocationInformation(),
+            loadedGame.getPlayerCurrentLocationInformation());
+    PlayerData playerData = dungeonsGame.getPlayerInformation();
+    PlayerData loadedPlayerData = loadedGame.getPlayerInformation();
+    assertEquals(playerData.getPlayerName(), loadedPlayerData.getPlayerName());
+    assertEquals(playerData.getTraversedPath(), loadedPlayerData.getTraversedPath());
+    assertEquals(playerData.getAcquiredArrows(), loadedPlayerData.getAcquiredArrows());
+    assertEquals(playerData.getAcquiredTreasures(), loadedPlayerData.getAcquiredTreasures());
+    IGameHistory history = dungeonsGame.getGameHistory();
+    IGameHistory loadedHistory = loadedGame.getGameHistory();
+    assertEquals(history.size(), loadedHistory.size());
+    for (int index = 0; index < history.size(); index++) {
+      assertEquals(history.getEventFromHistory(index), loadedHistory.getEventFromHistory(index));
+      assertEquals(history.getLocationFromHistory(index),
+              loadedHistory.getLocationFromHistory(index));
+    }
+    DungeonsGame.Direction direction = DungeonsGame.Direction.valueOf(
+            loadedGame.getAvailableMovements().get(0));
+    assertEquals(dungeonsGame.movePlayerToLocation(direction),
+            loadedGame.movePlayerToLocation(direction));
+    assertEquals(dungeonsGame.getGameGrid(), loadedGame.getGameGrid());
+  }
+
+  /**
+   * This test is used to show that a loaded session keeps the maze algorithm and the seed of
+   * the saved one, so both generate the same dungeon again when they are reset.
+   */
+  @Test
+  public void testLoadedSessionResetsLikeSavedOne() throws IOException {
+    CompactDungeonsGame dungeonsGame = new CompactDungeonsGame(DungeonsGame.WrapType.WRAPPING,
+            8, 8, 4, 60, 3, DungeonsGame.MazeAlgorithm.WILSON, new RandomNumberGeneratorImpl());
+    dungeonsGame.startGameForPlayer("Player");
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    dungeonsGame.save(output);
+    CompactDungeonsGame loadedGame = CompactDungeonsGame.load(
+            new ByteArrayInputStream(output.toByteArray()));
+    dungeonsGame.reset();
+    loadedGame.reset();
+    assertEquals(dungeonsGame.getGameGrid(), loadedGame.getGameGrid());
+  }
+
+  /**
+   * This test is used to show that a session played with predefined random values saves the
+   * values and the position in them, so the loaded session draws the same values and runs
+   * out of them at the same reset as the saved one.
+   */
+  @Test
+  public void testSaveAndLoadPredefinedRandomValues() throws IOException {
+    CompactDungeonsGame dungeonsGame = new CompactDungeonsGame(
+            DungeonsGame.WrapType.NON_WRAPPING, 4, 4, 1, 50, 1,
+            DungeonsGame.MazeAlgorithm.KRUSKAL, new RandomNumberGeneratorImpl(new int[2000]));
+    dungeonsGame.startGameForPlayer("Player");
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    dungeonsGame.save(output);
+    CompactDungeonsGame loadedGame = CompactDungeonsGame.load(
+            new ByteArrayInputStream(output.toByteArray()));
+    ByteArrayOutputStream loadedOutput = new ByteArrayOutputStream();
+    loadedGame.save(loadedOutput);
+    assertArrayEquals(output.toByteArray(), loadedOutput.toByteArray());
+    assertEquals(countResets(dungeonsGame), countResets(loadedGame));
+  }
+
+  private static int countResets(DungeonsGame dungeonsGame) {
+    int resetCount = 0;
+    try {
+      while (resetCount < 2000) {
+        dungeonsGame.reset();
+        resetCount++;
+      }
+    } catch (IllegalStateException exception) {
+      // the predefined values are over
+      return resetCount;
+    }
+    throw new AssertionError("Randomizer did not run out of predefined values");
+  }
+
+  /**
+   * This test is used to show that a session of the object based game saves in the same
+   * format, loads into either model and plays on exactly like the saved game.
+   */
+  @Test
+  public void testSaveObjectModelAndLoadBothModels() throws IOException {
+    DungeonsGameImpl dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.WRAPPING,
+            8, 8, 4, 60, 3, DungeonsGame.MazeAlgorithm.PRIM, new RandomNumberGeneratorImpl());
+    dungeonsGame.startGameForPlayer("Player");
+    dungeonsGame.shootArrowForPlayer(DungeonsGame.Direction.valueOf(
+            dungeonsGame.getAvailableMovements().get(0)), 1);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    dungeonsGame.save(output);
+    DungeonsGame[] loadedGames = {
+        DungeonsGameImpl.load(new ByteArrayInputStream(output.toByteArray())),
+        CompactDungeonsGame.load(new ByteArrayInputStream(output.toByteArray()))
+    };
+    DungeonsGame.Direction direction = DungeonsGame.Direction.valueOf(
+            dungeonsGame.getAvailableMovements().get(0));
+    DungeonsGame.MovementStates movementState = dungeonsGame.movePlayerToLocation(direction);
+    for (DungeonsGame loadedGame : loadedGames) {
+      assertEquals(movementState, loadedGame.movePlayerToLocation(direction));
+      assertEquals(dungeonsGame.getGameGrid(), loadedGame.getGameGrid());
+      assertEquals(dungeonsGame.getGameStatus(), loadedGame.getGameStatus());
+      assertEquals(dungeonsGame.getPlayerInformation().getTraversedPath(),
+              loadedGame.getPlayerInformation().getTraversedPath());
+      assertEquals(dungeonsGame.getGameHistory().size(), loadedGame.getGameHistory().size());
+      loadedGame.reset();
+    }
+    dungeonsGame.reset();
+    assertEquals(dungeonsGame.getGameGrid(), loadedGames[0].getGameGrid());
+    assertEquals(dungeonsGame.getGameGrid(), loadedGames[1].getGameGrid());
+  }
+
+  /**
+   * This test is used to show that a damaged save is rejected by the checksum.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testLoadCorruptedSession() throws IOException {
+    CompactDungeonsGame dungeonsGame = (CompactDungeonsGame) createGame(
+            DungeonsGame.WrapType.NON_WRAPPING, 5, 5, 0, 20, 1, new RandomNumberGeneratorImpl());
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    dungeonsGame.save(output);
+    byte[] savedGame = output.toByteArray();
+    savedGame[savedGame.length / 2] ^= 1;
+    CompactDungeonsGame.load(new ByteArrayInputStream(savedGame));
+  }
+}
@@ -0,0 +1,349 @@
+package modeltesting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import game.model.CompactDungeonsGame;
+import game.model.ConcurrentDungeonsGame;
+import game.model.DungeonsGame;
+import game.model.DungeonsGameImpl;
+import game.model.DungeonsGameReadOnly;
+import game.model.RandomNumberGeneratorImpl;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is used to test that a game shared between threads runs its commands one after
+ * the other and that its readers only ever see whole versions of the game, also while many
+ * threads use it at the same time.
+ */
+public class ConcurrentDungeonsGameTest {
+
+  private static final String PLAYER_NAME = "Player-1";
+  private static final int SEED = 77;
+
+  private DungeonsGame createGame() {
+    RandomNumberGeneratorImpl randomizer = new RandomNumberGeneratorImpl();
+    randomizer.setRandomSeed(SEED);
+    return new CompactDungeonsGame(DungeonsGame.WrapType.WRAPPING, 8, 8, 4, 50, 2, randomizer);
+  }
+
+  /**
+   * This function is used to play one action on the game, starting the game again once it
+   * is over. Actions the game rejects leave it unchanged.
+   */
+  private void play(DungeonsGame dungeonsGame, int action) {
+    if (dungeonsGame.getGameStatus() == DungeonsGame.GameState.WON
+            || dungeonsGame.getGameStatus() == DungeonsGame.GameState.LOST) {
+      dungeonsGame.reset();
+    }
+    if (dungeonsGame.getGameStatus() == DungeonsGame.GameState.NOT_STARTED) {
+      dungeonsGame.startGameForPlayer(PLAYER_NAME);
+    }
+    try {
+      switch (action % 5) {
+        case 0:
+        case 1:
+          List<String> movements = dungeonsGame.getAvailableMovements();
+          dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.valueOf(
+                  movements.get(action / 5 % movements.size())));
+          break;
+        case 2:
+          dungeonsGame.shootArrowForPlayer(DungeonsGame.Direction.values()[action / 5 % 4],
+                  action / 20 % 3);
+          break;
+        case 3:
+          dungeonsGame.pickUpArrowCurrentLocation();
+          break;
+        default:
+          dungeonsGame.pickUpTreasureCurrentLocation();
+      }
+    } catch (IllegalArgumentException | IllegalStateException exception) {
+      // no arrows left or nothing to pick up
+    }
+  }
+
+  /**
+   * This function is used to check that everything read from a published game belongs to
+   * the same version.
+   *
+   * @return description of the first inconsistency, null if there is none
+   */
+  private String checkPublishedGame(DungeonsGameReadOnly published) {
+    long version = published.getModelVersion();
+    if (published.getSnapshot().getVersion() != version) {
+      return "snapshot of another version";
+    }
+    String grid = published.getGameGrid();
+    if (published.getGameStatus() != DungeonsGame.GameState.NOT_STARTED) {
+      String cellName = published.getPlayerCurrentLocation().getCellName();
+      List<String> path = published.getPlayerInformation().getTraversedPath();
+      if (!cellName.equals(path.get(path.size() - 1))) {
+        return "player is not at the end of its path";
+      }
+      if (!grid.contains("*" + cellName + "{")) {
+        return "grid does not show the player";
+      }
+    }
+    if (!grid.equals(published.getGameGrid()) || published.getModelVersion() != version) {
+      return "published game changed";
+    }
+    return null;
+  }
+
+  /**
+   * This test is used to show that the commands change the game like they change a game
+   * which is not shared.
+   */
+  @Test
+  public void testCommandsPlayLikeTheGame() {
+    DungeonsGame dungeonsGame = createGame();
+    // a reset seeds the generator again, so both games start from the same generator
+    ConcurrentDungeonsGame sharedGame = new ConcurrentDungeonsGame(dungeonsGame.fork());
+    assertEquals(dungeonsGame.getGameGrid(), sharedGame.getGameGrid());
+    for (int action = 0; action < 200; action++) {
+      play(dungeonsGame, action * 7);
+      play(sharedGame, action * 7);
+      assertEquals(dungeonsGame.getGameStatus(), sharedGame.getGameStatus());
+      assertEquals(dungeonsGame.getModelVersion(), sharedGame.getModelVersion());
+    }
+    assertEquals(dungeonsGame.getGameGrid(), sharedGame.getGameGrid());
+    assertEquals(dungeonsGame.getPlayerInformation().getTraversedPath(),
+            sharedGame.getPlayerInformation().getTraversedPath());
+    assertEquals(dungeonsGame.getGameHistory().size(), sharedGame.getGameHistory().size());
+    sharedGame.shutdown();
+  }
+
+  /**
+   * This test is used to show that a failed command throws its own exception on the thread
+   * which ran it and leaves the game as it was.
+   */
+  @Test
+  public void testFailedCommandThrowsItsException() {
+    ConcurrentDungeonsGame sharedGame = new ConcurrentDungeonsGame(createGame());
+    try {
+      sharedGame.movePlayerToLocation(DungeonsGame.Direction.NORTH);
+      fail("Moving before the start should fail");
+    } catch (IllegalStateException exception) {
+      assertEquals(DungeonsGame.GameState.NOT_STARTED, sharedGame.getGameStatus());
+    }
+    sharedGame.startGameForPlayer(PLAYER_NAME);
+    long version = sharedGame.getModelVersion();
+    try {
+      sharedGame.shootArrowForPlayer(DungeonsGame.Direction.NORTH, -1);
+      fail("Shooting a negative distance should fail");
+    } catch (IllegalArgumentException exception) {
+      assertEquals(version, sharedGame.getModelVersion());
+    }
+    sharedGame.shutdown();
+  }
+
+  /**
+   * This test is used to show that reads return while a command is still running and see
+   * the game before the command.
+   */
+  @Test(timeout = 10000)
+  public void testReadsDoNotWaitForCommands() throws InterruptedException {
+    ConcurrentDungeonsGame sharedGame = new ConcurrentDungeonsGame(createGame());
+    sharedGame.startGameForPlayer(PLAYER_NAME);
+    String grid = sharedGame.getGameGrid();
+    long version = sharedGame.getModelVersion();
+    CountDownLatch commandStarted = new CountDownLatch(1);
+    CountDownLatch releaseCommand = new CountDownLatch(1);
+    CompletableFuture<DungeonsGame.MovementStates> command = sharedGame.submit(
+        dungeonsGame -> {
+          commandStarted.countDown();
+          try {
+            releaseCommand.await();
+          } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+          }
+          return dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.valueOf(
+                  dungeonsGame.getAvailableMovements().get(0)));
+        });
+    assertTrue(commandStarted.await(5, TimeUnit.SECONDS));
+    // the writer is busy, reads still return the game before the command
+    assertEquals(grid, sharedGame.getGameGrid());
+    assertEquals(version, sharedGame.getModelVersion());
+    assertFalse(command.isDone());
+    releaseCommand.countDown();
+    command.join();
+    assertTrue(sharedGame.getModelVersion() > version);
+    assertNotEquals(grid, sharedGame.getGameGrid());
+    sharedGame.shutdown();
+  }
+
+  /**
+   * This test is used to show that a published game never changes and that a fork is
+   * independent of the shared game.
+   */
+  @Test
+  public void testPublishedGameAndForkDoNotChange() {
+    ConcurrentDungeonsGame sharedGame = new ConcurrentDungeonsGame(new DungeonsGameImpl(
+            DungeonsGame.WrapType.NON_WRAPPING, 6, 6, 2, 40, 2, new RandomNumberGeneratorImpl()));
+    sharedGame.startGameForPlayer(PLAYER_NAME);
+    DungeonsGameReadOnly published = sharedGame.getPublishedGame();
+    DungeonsGame fork = sharedGame.fork();
+    String grid = published.getGameGrid();
+    List<String> path = new ArrayList<>(published.getPlayerInformation().getTraversedPath());
+    for (int action = 0; action < 40; action++) {
+      play(sharedGame, action * 3);
+    }
+    assertEquals(grid, published.getGameGrid());
+    assertEquals(path, published.getPlayerInformation().getTraversedPath());
+    assertEquals(grid, fork.getGameGrid());
+    assertEquals(path, fork.getPlayerInformation().getTraversedPath());
+    sharedGame.shutdown();
+  }
+
+  /**
+   * This test is used to show that the current view of the shared game is the published
+   * game, so a reader which needs several values gets all of them from the same version.
+   */
+  @Test
+  public void testCurrentViewIsPublishedGame() {
+    ConcurrentDungeonsGame sharedGame = new ConcurrentDungeonsGame(createGame());
+    sharedGame.startGameForPlayer(PLAYER_NAME);
+    DungeonsGameReadOnly view = sharedGame.getCurrentView();
+    assertSame(sharedGame.getPublishedGame(), view);
+    assertSame(view, view.getCurrentView());
+    String grid = view.getGameGrid();
+    play(sharedGame, 0);
+    assertEquals(grid, view.getGameGrid());
+    assertNotSame(view, sharedGame.getCurrentView());
+    sharedGame.shutdown();
+  }
+
+  /**
+   * This test is used to show that commands are rejected once the shared game is shut
+   * down, while reads keep working.
+   */
+  @Test
+  public void testShutdownRejectsCommands() {
+    ConcurrentDungeonsGame sharedGame = new ConcurrentDungeonsGame(createGame());
+    sharedGame.startGameForPlayer(PLAYER_NAME);
+    String grid = sharedGame.getGameGrid();
+    sharedGame.shutdown();
+    try {
+      sharedGame.pickUpArrowCurrentLocation();
+      fail("A command after the shutdown should fail");
+    } catch (IllegalStateException exception) {
+      assertEquals(grid, sharedGame.getGameGrid());
+    }
+  }
+
+  /**
+   * This test is used to show that a null game cannot be shared.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullGame() {
+    new ConcurrentDungeonsGame(null);
+  }
+
+  /**
+   * This test is used to show that a null command cannot be queued.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullCommand() {
+    new ConcurrentDungeonsGame(createGame()).submit(null);
+  }
+
+  /**
+   * This test is used to show that many threads running commands and reading at the same
+   * time see consistent games which only move forward, and that the game ends up exactly as
+   * if the commands had been played one after the other in the order they ran.
+   */
+  @Test(timeout = 60000)
+  public void testCommandsAndReadsUnderContention() throws InterruptedException {
+    int writerCount = 4;
+    int readerCount = 4;
+    int actionsPerWriter = 400;
+    DungeonsGame replayedGame = createGame();
+    // a reset seeds the generator again, so both games start from the same generator
+    ConcurrentDungeonsGame sharedGame = new ConcurrentDungeonsGame(replayedGame.fork());
+    // only the writer thread adds to the log, in the order the commands run
+    List<Integer> playedActions = new ArrayList<>();
+    ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+    CountDownLatch start = new CountDownLatch(1);
+    CountDownLatch writersDone = new CountDownLatch(writerCount);
+    List<Thread> threads = new ArrayList<>();
+    for (int writer = 0; writer < writerCount; writer++) {
+      Random random = new Random(writer);
+      threads.add(new Thread(() -> {
+        try {
+          start.await();
+          for (int count = 0; count < actionsPerWriter; count++) {
+            int action = random.nextInt(1000);
+            long version = sharedGame.submit(dungeonsGame -> {
+              playedActions.add(action);
+              play(dungeonsGame, action);
+              return dungeonsGame.getModelVersion();
+            }).join();
+            // the writing thread reads what its command published or something newer
+            if (sharedGame.getModelVersion() < version) {
+              failures.add("command result is not visible");
+            }
+          }
+        } catch (InterruptedException exception) {
+          failures.add("writer interrupted");
+        } finally {
+          writersDone.countDown();
+        }
+      }));
+    }
+    for (int reader = 0; reader < readerCount; reader++) {
+      threads.add(new Thread(() -> {
+        long lastVersion = -1;
+        try {
+          start.await();
+          while (writersDone.getCount() > 0) {
+            DungeonsGameReadOnly published = sharedGame.getPublishedGame();
+            if (published.getModelVersion() < lastVersion) {
+              failures.add("version went back");
+            }
+            lastVersion = published.getModelVersion();
+            String failure = checkPublishedGame(published);
+            if (failure != null) {
+              failures.add(failure);
+            }
+          }
+        } catch (InterruptedException exception) {
+          failures.add("reader interrupted");
+        } catch (RuntimeException exception) {
+          failures.add(exception.toString());
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertTrue(failures.toString(), failures.isEmpty());
+    List<Integer> actions = sharedGame.submit(dungeonsGame -> new ArrayList<>(playedActions))
+            .join();
+    assertEquals(writerCount * actionsPerWriter, actions.size());
+    for (int action : actions) {
+      play(replayedGame, action);
+    }
+    assertEquals(replayedGame.getModelVersion(), sharedGame.getModelVersion());
+    assertEquals(replayedGame.getGameStatus(), sharedGame.getGameStatus());
+    assertEquals(replayedGame.getGameGrid(), sharedGame.getGameGrid());
+    assertEquals(replayedGame.getGameHistory().size(), sharedGame.getGameHistory().size());
+    sharedGame.shutdown();
+  }
+}
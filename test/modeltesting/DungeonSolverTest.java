@@ -0,0 +1,183 @@
+package modeltesting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import game.model.CompactDungeonsGame;
+import game.model.DungeonMetrics;
+import game.model.DungeonSolution;
+import game.model.DungeonSolver;
+import game.model.DungeonsGame;
+import game.model.DungeonsGameImpl;
+import game.model.RandomNumberGeneratorImpl;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * This class is used to test that the solver finds safe wins which can be played on the game
+ * and that both game models are solved the same way.
+ */
+public class DungeonSolverTest {
+
+  private static final String PLAYER_NAME = "Player-1";
+
+  private RandomNumberGeneratorImpl seeded(int seed) {
+    RandomNumberGeneratorImpl randomizer = new RandomNumberGeneratorImpl();
+    randomizer.setRandomSeed(seed);
+    return randomizer;
+  }
+
+  /**
+   * This function is used to play the actions of a solution on the game and to check that
+   * every move is safe.
+   */
+  private void play(DungeonsGame dungeonsGame, List<DungeonSolution.Action> actions) {
+    for (DungeonSolution.Action action : actions) {
+      switch (action.getActionType()) {
+        case MOVE:
+          assertEquals(DungeonsGame.MovementStates.MOVE_SUCCESS,
+                  dungeonsGame.movePlayerToLocation(action.getDirection()));
+          break;
+        case SHOOT:
+          assertTrue(dungeonsGame.shootArrowForPlayer(action.getDirection(),
+                  action.getDistance()) != DungeonsGame.ShootResultStates.MONSTER_MISSED);
+          break;
+        default:
+          dungeonsGame.pickUpArrowCurrentLocation();
+      }
+    }
+  }
+
+  /**
+   * This test is used to show that the shortest safe win of a solution wins the game.
+   */
+  @Test
+  public void testShortestWinWinsTheGame() {
+    int winnableCount = 0;
+    for (int seed = 0; seed < 30; seed++) {
+      DungeonsGameImpl dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING,
+              8, 8, 3, 40, 6, seeded(seed));
+      DungeonSolution solution = new DungeonSolver().solve(dungeonsGame);
+      assertTrue(solution.isComplete());
+      if (!solution.isWinnable()) {
+        assertEquals(-1, solution.getShortestPathLength());
+        assertTrue(solution.getActions().isEmpty());
+        continue;
+      }
+      winnableCount++;
+      DungeonsGame fork = dungeonsGame.fork();
+      fork.startGameForPlayer(PLAYER_NAME);
+      List<String> path = solution.getShortestPath();
+      assertEquals(fork.getPlayerCurrentLocation().getCellName(), path.get(0));
+      assertTrue(solution.getShortestPathLength()
+              >= DungeonMetrics.measure(dungeonsGame).getPathLength());
+      assertTrue(solution.getMinimumArrows() >= 2);
+      play(fork, solution.getActions());
+      assertEquals(DungeonsGame.GameState.WON, fork.getGameStatus());
+      assertEquals(path, fork.getPlayerInformation().getTraversedPath());
+    }
+    assertTrue(winnableCount > 0);
+  }
+
+  /**
+   * This test is used to show that a dungeon with only the monster of the end cave is won
+   * along the shortest path with two arrows.
+   */
+  @Test
+  public void testSingleMonsterDungeon() {
+    for (int seed = 0; seed < 10; seed++) {
+      DungeonsGameImpl dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.WRAPPING,
+              6, 6, 2, 50, 1, seeded(seed));
+      DungeonSolution solution = new DungeonSolver().solve(dungeonsGame);
+      assertTrue(solution.isWinnable());
+      assertEquals(2, solution.getMinimumArrows());
+      assertEquals(DungeonMetrics.measure(dungeonsGame).getPathLength(),
+              solution.getShortestPathLength());
+    }
+  }
+
+  /**
+   * This test is used to show that both game models give the same solution for a seed.
+   */
+  @Test
+  public void testSameSolutionForBothModels() {
+    for (int seed = 0; seed < 10; seed++) {
+      DungeonsGameImpl objectGame = new DungeonsGameImpl(DungeonsGame.WrapType.WRAPPING,
+              6, 8, 3, 40, 4, seeded(seed));
+      CompactDungeonsGame compactGame = new CompactDungeonsGame(DungeonsGame.WrapType.WRAPPING,
+              6, 8, 3, 40, 4, seeded(seed));
+      DungeonSolution objectSolution = new DungeonSolver().solve(objectGame);
+      DungeonSolution compactSolution = new DungeonSolver().solve(compactGame);
+      assertEquals(objectSolution.toString(), compactSolution.toString());
+      assertEquals(objectSolution.getShortestPath(), compactSolution.getShortestPath());
+      assertEquals(objectSolution.getActions().toString(),
+              compactSolution.getActions().toString());
+    }
+  }
+
+  /**
+   * This test is used to show that a started game is solved from the location of the player
+   * with the arrows the player holds.
+   */
+  @Test
+  public void testSolveFromPlayerLocation() {
+    CompactDungeonsGame dungeonsGame = new CompactDungeonsGame(
+            DungeonsGame.WrapType.NON_WRAPPING, 8, 8, 3, 40, 3, seeded(5));
+    dungeonsGame.startGameForPlayer(PLAYER_NAME);
+    dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.valueOf(
+            dungeonsGame.getAvailableMovements().get(0)));
+    if (dungeonsGame.getGameStatus() != DungeonsGame.GameState.PROGRESS) {
+      return;
+    }
+    DungeonSolution solution = new DungeonSolver().solve(dungeonsGame);
+    assertTrue(solution.isWinnable());
+    assertEquals(dungeonsGame.getPlayerCurrentLocation().getCellName(),
+            solution.getShortestPath().get(0));
+    play(dungeonsGame, solution.getActions());
+    assertEquals(DungeonsGame.GameState.WON, dungeonsGame.getGameStatus());
+  }
+
+  /**
+   * This test is used to show that a search stopped at its state limit is not complete.
+   */
+  @Test
+  public void testStateLimit() {
+    DungeonsGameImpl dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.WRAPPING,
+            8, 8, 3, 40, 6, seeded(3));
+    DungeonSolution solution = new DungeonSolver(1).solve(dungeonsGame);
+    assertFalse(solution.isComplete());
+    assertTrue(solution.getStatesExplored() <= 2);
+  }
+
+  /**
+   * This test is used to show that a game which is over cannot be solved.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testSolveFinishedGame() {
+    CompactDungeonsGame dungeonsGame = new CompactDungeonsGame(DungeonsGame.WrapType.WRAPPING,
+            6, 6, 2, 50, 1, seeded(1));
+    DungeonSolver solver = new DungeonSolver();
+    dungeonsGame.startGameForPlayer(PLAYER_NAME);
+    play(dungeonsGame, solver.solve(dungeonsGame).getActions());
+    assertEquals(DungeonsGame.GameState.WON, dungeonsGame.getGameStatus());
+    solver.solve(dungeonsGame);
+  }
+
+  /**
+   * This test is used to show that the state limit has to be positive.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidStateLimit() {
+    new DungeonSolver(0);
+  }
+
+  /**
+   * This test is used to show that a null game cannot be solved.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testSolveNullGame() {
+    new DungeonSolver().solve((DungeonsGameImpl) null);
+  }
+}
@@ -1,16 +1,25 @@
 package modeltesting;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import game.model.DungeonCell;
+import game.model.DungeonSnapshot;
 import game.model.DungeonsGame;
 import game.model.DungeonsGameImpl;
+import game.model.IGameHistory;
+import game.model.LocationInfo;
+import game.model.Monster;
 import game.model.PlayerData;
 import game.model.RandomNumberGenerator;
 import game.model.RandomNumberGeneratorImpl;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -24,13 +33,34 @@ import java.util.Set;
  */
 public class DungeonsGameTest {
 
+  /**
+   * This function is used to create the dungeons game under test. Subclasses override it to
+   * run the same tests against another implementation of the game.
+   *
+   * @param wrapType            type of wrap
+   * @param rowCount            number of rows in dungeons game
+   * @param columnCount         number of columns in dungeons game
+   * @param interConnectivity   interconnectivity number
+   * @param distributionPercent distribution percentage for treasure and arrow
+   * @param monsterCount        number of monsters to be created
+   * @param randomizer          randomizer instance
+   * @return dungeons game under test
+   */
+  protected DungeonsGame createGame(DungeonsGame.WrapType wrapType, int rowCount,
+                                    int columnCount, int interConnectivity,
+                                    int distributionPercent, int monsterCount,
+                                    RandomNumberGenerator randomizer) {
+    return new DungeonsGameImpl(wrapType, rowCount, columnCount, interConnectivity,
+            distributionPercent, monsterCount, randomizer);
+  }
+
   /**
    * This test is used to show that invalid input row dimension throws exception or not.
    */
   @Test(expected = IllegalArgumentException.class)
   public void testInvalidInputRowDimension() {
     RandomNumberGenerator randomizer = new RandomNumberGeneratorImpl();
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING,
             -1, 5, 2, 20, 10, randomizer);
   }
 
@@ -40,7 +70,7 @@ public class DungeonsGameTest {
   @Test(expected = IllegalArgumentException.class)
   public void testInvalidInputColumnDimension() {
     RandomNumberGenerator randomizer = new RandomNumberGeneratorImpl();
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING,
             4, -5, 2, 20, 10, randomizer);
   }
 
@@ -50,7 +80,7 @@ public class DungeonsGameTest {
   @Test(expected = IllegalArgumentException.class)
   public void testInvalidInputWrapType() {
     RandomNumberGenerator randomizer = new RandomNumberGeneratorImpl();
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(null,
+    DungeonsGame dungeonsGame = createGame(null,
             4, 4, 2, 20, 10, randomizer);
   }
 
@@ -60,7 +90,7 @@ public class DungeonsGameTest {
   @Test(expected = IllegalArgumentException.class)
   public void testInvalidInputInterConnectivity() {
     RandomNumberGenerator randomizer = new RandomNumberGeneratorImpl();
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING,
             4, 4, -2, 20, 10, randomizer);
   }
 
@@ -70,7 +100,7 @@ public class DungeonsGameTest {
   @Test(expected = IllegalArgumentException.class)
   public void testInvalidTreasurePercent() {
     RandomNumberGenerator randomizer = new RandomNumberGeneratorImpl();
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING,
             4, 4, 2, -20, 10, randomizer);
   }
 
@@ -80,7 +110,7 @@ public class DungeonsGameTest {
   @Test(expected = IllegalArgumentException.class)
   public void testInvalidMonsterCountPercent() {
     RandomNumberGenerator randomizer = new RandomNumberGeneratorImpl();
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING,
             4, 4, 2, -20, -10, randomizer);
   }
 
@@ -90,7 +120,7 @@ public class DungeonsGameTest {
   @Test(expected = IllegalArgumentException.class)
   public void testInvalidRandomizerInput() {
     RandomNumberGenerator randomizer = new RandomNumberGeneratorImpl();
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING,
             4, 4, 2, 20, 10, null);
   }
 
@@ -101,7 +131,7 @@ public class DungeonsGameTest {
   @Test(expected = IllegalArgumentException.class)
   public void testInvalidInterConnectivityMoreThanAvailablePaths() {
     RandomNumberGenerator randomizer = new RandomNumberGeneratorImpl();
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING,
             4, 4, 50, 20, 10, randomizer);
   }
 
@@ -121,10 +151,10 @@ public class DungeonsGameTest {
             0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
             3, 0,
             0, 1, 1, 1, 1, 1,
-            0, 5, 6, 7,
+            0, 0, 0, 2,
             0, 2, 1, 2, 2, 2, 3, 2
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.WRAPPING, 4, 4,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.WRAPPING, 4, 4,
             0, 20, 5, randomizer);
     dungeonsGame.startGameForPlayer("Player-1");
     //check player location before wrap node on right
@@ -159,7 +189,7 @@ public class DungeonsGameTest {
             0, 1, 1, 1, 1, 2,
             0, 2, 1, 2, 2, 2, 3, 2
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
             0, 20, 1, randomizer);
     dungeonsGame.startGameForPlayer("Player-1");
     dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
@@ -197,7 +227,7 @@ public class DungeonsGameTest {
             0, 1, 1, 1, 1, 2,
             0, 2, 1, 2, 2, 2, 3, 2
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
             0, 20, 1, randomizer);
     dungeonsGame.startGameForPlayer("Player-1");
     dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
@@ -226,7 +256,7 @@ public class DungeonsGameTest {
             0, 1, 1, 1, 1, 2,
             0, 2, 1, 2, 2, 2, 3, 2
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
             0, 20, 1, randomizer);
     dungeonsGame.startGameForPlayer("Player-1");
     dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
@@ -262,7 +292,7 @@ public class DungeonsGameTest {
             0, 1, 1, 1, 1, 2,
             0, 2, 1, 2, 2, 2, 3, 2
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
             0, 20, 1, randomizer);
     dungeonsGame.startGameForPlayer("Player-1");
     assertEquals("Cell-04", dungeonsGame.getPlayerCurrentLocation().getCellName());
@@ -285,7 +315,7 @@ public class DungeonsGameTest {
             0, 1, 1, 1, 1, 2,
             0, 2, 1, 2, 2, 2, 3, 2
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
             0, 20, 1, randomizer);
     dungeonsGame.startGameForPlayer("Player-1");
     dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
@@ -352,10 +382,10 @@ public class DungeonsGameTest {
             0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
             3, 0,
             0, 1, 1, 1, 1, 2,
-            5,
+            0,
             0, 2, 1, 2, 2, 2, 3, 2
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
             0, 20, 2, randomizer);
     dungeonsGame.startGameForPlayer("Player-1");
     dungeonsGame.pickUpTreasureCurrentLocation();
@@ -389,7 +419,7 @@ public class DungeonsGameTest {
             0, 1, 1, 1, 1, 2,
             0, 2, 1, 2, 2, 2, 3, 2
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
             0, 20, 1, randomizer);
     double caveCount = (dungeonsGame.getGameGrid().split("\\{CAVE}", -1).length) - 1;
     int treasureCaveCount = (dungeonsGame.getGameGrid().split("\\{CAVE}\\[.+]", -1).length) - 1;
@@ -413,10 +443,10 @@ public class DungeonsGameTest {
             0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
             3, 0,
             0, 1, 1, 1, 1, 2,
-            5,
+            0,
             0, 2, 1, 2, 2, 2, 3, 2
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
             0, 20, 2, randomizer);
     dungeonsGame.startGameForPlayer("Player-1");
     dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
@@ -448,7 +478,7 @@ public class DungeonsGameTest {
             0, 1, 1, 1, 1, 2,
             0, 2, 1, 2, 2, 2, 3, 2
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
             0, 20, 1, randomizer);
     dungeonsGame.startGameForPlayer("Player-1");
     dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
@@ -493,10 +523,10 @@ public class DungeonsGameTest {
             0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
             3, 0,
             0, 1, 1, 1, 1, 2,
-            5,
+            0,
             0, 2, 1, 2, 2, 2, 3, 2
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
             0, 20, 2, randomizer);
     dungeonsGame.startGameForPlayer("Player-1");
     dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
@@ -532,10 +562,10 @@ public class DungeonsGameTest {
             0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
             3, 0,
             0, 1, 1, 1, 1, 2,
-            5,
+            0,
             0, 2, 1, 2, 2, 2, 3, 2
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
             0, 20, 2, randomizer);
     dungeonsGame.startGameForPlayer("Player-1");
     dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
@@ -566,7 +596,7 @@ public class DungeonsGameTest {
             0, 1, 1, 1, 1, 2,
             0, 2, 1, 2, 2, 2, 3, 2
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
             0, 20, 1, randomizer);
     //another way to prove this
     dungeonsGame.startGameForPlayer("Player-1");
@@ -600,7 +630,7 @@ public class DungeonsGameTest {
             3,
             0, 2, 1, 2, 2, 2, 3, 2
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
             0, 20, 2, randomizer);
     dungeonsGame.startGameForPlayer("Player-1");
     DungeonsGame.ShootResultStates firstArrow =
@@ -639,7 +669,7 @@ public class DungeonsGameTest {
             3,
             0, 2, 1, 2, 2, 2, 3, 2
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.WRAPPING, 4, 5,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.WRAPPING, 4, 5,
             0, 20, 2, randomizer);
     dungeonsGame.startGameForPlayer("Player-1");
     dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.EAST);
@@ -677,10 +707,10 @@ public class DungeonsGameTest {
             0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
             3, 0,
             0, 1, 1, 1, 1, 2,
-            5,
+            0,
             0, 2, 1, 2, 2, 2, 3, 2
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
             0, 20, 2, randomizer);
     int monsterCount = dungeonsGame.getGameGrid().split("<Monster-", -1).length - 1;
     assertEquals(2, monsterCount);
@@ -703,10 +733,10 @@ public class DungeonsGameTest {
             0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
             3, 0,
             0, 1, 1, 1, 1, 2,
-            5,
+            0,
             0, 2, 1, 2, 2, 2, 3, 2
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
             0, 20, 2, randomizer);
     dungeonsGame.startGameForPlayer("Player-1");
     dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
@@ -719,6 +749,204 @@ public class DungeonsGameTest {
     assertEquals(DungeonsGame.SmellType.STRONG, currentLocationSmell);
   }
 
+  /**
+   * This test is used to show that an arrow passes through a run of tunnels without using up
+   * its distance and misses once a cave has no exit straight ahead.
+   */
+  @Test
+  public void testArrowFlightThroughTunnelRun() {
+    //description of randomizer values
+    // row one and two -> path pick up in kruskal
+    // row three -> start end selection
+    // row four -> treasure values
+    // row five -> monster creation
+    // row six -> arrow creation
+    RandomNumberGenerator randomizer = new RandomNumberGeneratorImpl(
+            0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+            3, 0,
+            0, 1, 1, 1, 1, 2,
+            0,
+            0, 2, 1, 2, 2, 2, 3, 2
+    );
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+            0, 20, 2, randomizer);
+    dungeonsGame.startGameForPlayer("Player-1");
+    dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
+    dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
+    dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
+    dungeonsGame.pickUpArrowCurrentLocation();
+    dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.SOUTH);
+    // two tunnels lie between the player and the cave of the monster
+    assertEquals(DungeonsGame.ShootResultStates.MONSTER_MISSED,
+            dungeonsGame.shootArrowForPlayer(DungeonsGame.Direction.EAST, 2));
+    assertEquals(DungeonsGame.ShootResultStates.MONSTER_MISSED,
+            dungeonsGame.shootArrowForPlayer(DungeonsGame.Direction.EAST, 0));
+    assertEquals(DungeonsGame.ShootResultStates.MONSTER_HIT_PARTIAL_DAMAGE,
+            dungeonsGame.shootArrowForPlayer(DungeonsGame.Direction.EAST, 1));
+    assertEquals(DungeonsGame.ShootResultStates.MONSTER_MISSED,
+            dungeonsGame.shootArrowForPlayer(DungeonsGame.Direction.NORTH, 1));
+  }
+
+  /**
+   * This test is used to show that a snapshot keeps showing the cells of its own version
+   * while the game goes on, and that a new snapshot shows the change.
+   */
+  @Test
+  public void testSnapshotUnchangedByLaterMoves() {
+    //description of randomizer values
+    // row one and two -> path pick up in kruskal
+    // row three -> start end selection
+    // row four -> treasure values
+    // row five -> monster creation
+    // row six -> arrow creation
+    RandomNumberGenerator randomizer = new RandomNumberGeneratorImpl(
+            0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+            3, 0,
+            0, 1, 1, 1, 1, 2,
+            0,
+            0, 2, 1, 2, 2, 2, 3, 2
+    );
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+            0, 20, 2, randomizer);
+    dungeonsGame.startGameForPlayer("Player-1");
+    dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
+    dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
+    dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
+    DungeonSnapshot beforePickup = dungeonsGame.getSnapshot();
+    assertSame(beforePickup, dungeonsGame.getSnapshot());
+    assertEquals(dungeonsGame.getModelVersion(), beforePickup.getVersion());
+    int arrowCount = beforePickup.getCell(0).getAvailableArrows().size();
+    assertTrue(arrowCount > 0);
+    dungeonsGame.pickUpArrowCurrentLocation();
+    DungeonSnapshot afterPickup = dungeonsGame.getSnapshot();
+    assertTrue(afterPickup.getVersion() > beforePickup.getVersion());
+    assertEquals(arrowCount, beforePickup.getCell(0).getAvailableArrows().size());
+    assertEquals(0, afterPickup.getCell(0).getAvailableArrows().size());
+    assertEquals(0, dungeonsGame.getDungeonCells().get(0).get(0).getAvailableArrows().size());
+    dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.SOUTH);
+    DungeonSnapshot beforeShot = dungeonsGame.getSnapshot();
+    assertEquals(DungeonsGame.ShootResultStates.MONSTER_HIT_PARTIAL_DAMAGE,
+            dungeonsGame.shootArrowForPlayer(DungeonsGame.Direction.EAST, 1));
+    assertEquals(0, countMonsters(beforeShot, Monster.Health.HALF));
+    assertEquals(1, countMonsters(dungeonsGame.getSnapshot(), Monster.Health.HALF));
+  }
+
+  /**
+   * This test is used to show that the history given out by the game cannot be changed.
+   */
+  @Test(expected = UnsupportedOperationException.class)
+  public void testHistoryViewIsReadOnly() {
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+            0, 20, 2, new RandomNumberGeneratorImpl());
+    dungeonsGame.startGameForPlayer("Player-1");
+    dungeonsGame.getGameHistory().addToHistory(DungeonsGame.GameEvents.MOVE, "Cell-01");
+  }
+
+  /**
+   * This test is used to show that the cells of a snapshot cannot be changed.
+   */
+  @Test(expected = UnsupportedOperationException.class)
+  public void testSnapshotCellsAreReadOnly() {
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+            0, 20, 2, new RandomNumberGeneratorImpl());
+    dungeonsGame.getSnapshot().getCell(0, 0).clearCellArrows();
+  }
+
+  /**
+   * This test is used to show that the monster accessors of the cells match the monster
+   * copies, before and after monsters get hit.
+   */
+  @Test
+  public void testMonsterAccessorsMatchMonster() {
+    RandomNumberGeneratorImpl randomizer = new RandomNumberGeneratorImpl();
+    randomizer.setRandomSeed(5);
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.WRAPPING, 5, 5, 6, 20, 8,
+            randomizer);
+    dungeonsGame.startGameForPlayer("Player-1");
+    // the player starts with three arrows, the last round only checks the cells
+    for (int shot = 0; shot < 4; shot++) {
+      DungeonSnapshot snapshot = dungeonsGame.getSnapshot();
+      for (int cellId = 0; cellId < 25; cellId++) {
+        assertMonsterAccessors(dungeonsGame.getCell(cellId));
+        assertMonsterAccessors(snapshot.getCell(cellId / 5, cellId % 5));
+      }
+      if (dungeonsGame.getPlayerInformation().getAcquiredArrows().isEmpty()) {
+        break;
+      }
+      List<String> movements = dungeonsGame.getAvailableMovements();
+      dungeonsGame.shootArrowForPlayer(DungeonsGame.Direction.valueOf(
+              movements.get(shot % movements.size())), 1 + shot % 3);
+    }
+  }
+
+  private void assertMonsterAccessors(DungeonCell cell) {
+    Monster monster = cell.getMonster();
+    if (monster == null) {
+      assertEquals(null, cell.getMonsterHealth());
+      assertEquals(null, cell.getMonsterName());
+      assertFalse(cell.hasLiveMonster());
+    } else {
+      assertEquals(monster.getHealth(), cell.getMonsterHealth());
+      assertEquals(monster.getName(), cell.getMonsterName());
+      assertEquals(monster.getHealth() != Monster.Health.ZERO, cell.hasLiveMonster());
+    }
+  }
+
+  private int countMonsters(DungeonSnapshot snapshot, Monster.Health health) {
+    int monsterCount = 0;
+    for (List<DungeonCell> rowCells : snapshot.getDungeonCells()) {
+      for (DungeonCell cell : rowCells) {
+        if (cell.getMonster() != null && cell.getMonster().getHealth() == health) {
+          monsterCount++;
+        }
+      }
+    }
+    return monsterCount;
+  }
+
+  /**
+   * This test is used to show that the smell goes away for every nearby location once the
+   * monster causing it is killed.
+   */
+  @Test
+  public void testSmellUpdatedAfterMonsterKilled() {
+    //description of randomizer values
+    // row one and two -> path pick up in kruskal
+    // row three -> start end selection
+    // row four -> treasure values
+    // row five -> monster creation
+    // row six -> arrow creation
+    RandomNumberGenerator randomizer = new RandomNumberGeneratorImpl(
+            0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+            3, 0,
+            0, 1, 1, 1, 1, 2,
+            0,
+            0, 2, 1, 2, 2, 2, 3, 2
+    );
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+            0, 20, 2, randomizer);
+    dungeonsGame.startGameForPlayer("Player-1");
+    dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
+    dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
+    dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
+    dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.SOUTH);
+    dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.EAST);
+    assertEquals(DungeonsGame.SmellType.WEAK, dungeonsGame.getCurrentLocationSmell());
+    dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.EAST);
+    assertEquals(DungeonsGame.SmellType.STRONG, dungeonsGame.getCurrentLocationSmell());
+    assertEquals(DungeonsGame.ShootResultStates.MONSTER_HIT_PARTIAL_DAMAGE,
+            dungeonsGame.shootArrowForPlayer(DungeonsGame.Direction.EAST, 1));
+    assertEquals(DungeonsGame.SmellType.STRONG, dungeonsGame.getCurrentLocationSmell());
+    assertEquals(DungeonsGame.ShootResultStates.MONSTER_HIT_KILLED,
+            dungeonsGame.shootArrowForPlayer(DungeonsGame.Direction.EAST, 1));
+    assertEquals(DungeonsGame.SmellType.NO_SMELL, dungeonsGame.getCurrentLocationSmell());
+    dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
+    assertEquals(DungeonsGame.SmellType.NO_SMELL, dungeonsGame.getCurrentLocationSmell());
+  }
+
   /**
    * This test is used to show that the game highlights a high smell when there are more than
    * two monsters present within 2 cell radius.
@@ -739,7 +967,7 @@ public class DungeonsGameTest {
             1,
             0, 2, 1, 2, 2, 2, 3, 2
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
             0, 20, 2, randomizer);
     dungeonsGame.startGameForPlayer("Player-1");
     dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
@@ -767,10 +995,10 @@ public class DungeonsGameTest {
             0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
             3, 0,
             0, 1, 1, 2, 1, 2,
-            5,
+            0,
             0, 2, 1, 2, 2, 2, 3, 2
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
             0, 20, 2, randomizer);
     int monsterTreasureCount = dungeonsGame.getGameGrid().split(
             "\\[.*?]<Monster-", -1).length - 1;
@@ -794,7 +1022,7 @@ public class DungeonsGameTest {
             0, 1, 1, 1, 1, 2,
             0, 2, 1, 2, 2, 2, 3, 2
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
             0, 20, 1, randomizer);
     dungeonsGame.startGameForPlayer("Player-1");
     dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
@@ -838,7 +1066,7 @@ public class DungeonsGameTest {
             3,
             0, 2, 1, 2, 2, 2, 3, 2
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
             0, 20, 2, randomizer);
     dungeonsGame.startGameForPlayer("Player-1");
     dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
@@ -872,7 +1100,7 @@ public class DungeonsGameTest {
             0, 2, 1, 2, 2, 2, 3, 2,
             1
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
             0, 20, 2, randomizer);
     dungeonsGame.startGameForPlayer("Player-1");
     dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
@@ -919,7 +1147,7 @@ public class DungeonsGameTest {
             0, 2, 1, 2, 2, 2, 3, 2,
             1
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
             0, 20, 2, randomizer);
     dungeonsGame.startGameForPlayer("Player-1");
     String firstGameGrid = dungeonsGame.getGameGrid();
@@ -954,12 +1182,13 @@ public class DungeonsGameTest {
             12,
             30, 12, 17, 32, 31, 30, 1, 19, 22, 17, 21, 6, 19, 0,
             16, 16, 15, 4, 12, 10, 16, 14, 0, 10, 6, 10, 6, 10, 4,
-            8, 5, 2, 0, 1, 0, 3, 2, 2, 0, 0, 5, 4, 0, 2, 0, 2, 13, 1, 2,
-            10, 3, 2, 2, 0, 0, 3, 3, 1, 0, 2, 11, 1, 1, 12, 2, 1, 2, 2, 2,
-            2, 6, 7, 1, 14, 1, 5, 3, 23, 1, 11, 2, 15, 2, 1, 1, 14, 13, 2,
-            21, 2, 3, 3
+            8, 5, 2, 0, 1, 0, 3, 2, 2, 0, 0,
+            5, 4,
+            0, 2, 0, 2, 0, 1, 2, 10, 3, 2, 2, 0, 3, 3, 1, 0, 2, 3, 1, 1, 0, 2, 1, 2,
+            2, 6,
+            7, 1, 14, 1, 5, 3, 14, 1, 11, 2, 15, 2, 1, 1, 13, 2, 14, 2, 3, 3
     );
-    DungeonsGame dungeonsGame = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
             0, 20, 2, randomizer);
     dungeonsGame.startGameForPlayer("Player-1");
     String firstGameGrid = dungeonsGame.getGameGrid();
@@ -1031,4 +1260,450 @@ public class DungeonsGameTest {
             + "                               WALL\n";
     assertEquals(expectedGrid, secondGameGrid);
   }
-}
\ No newline at end of file
+
+  /**
+   * This test is used to show that cells can be addressed by row, column and id.
+   */
+  @Test
+  public void testCellAddressingByRowColumnAndId() {
+    //description of randomizer values
+    // row one and two -> path pick up in kruskal
+    // row three -> start end selection
+    // row four -> treasure values
+    // row five -> arrow creation
+    RandomNumberGenerator randomizer = new RandomNumberGeneratorImpl(
+            0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+            1, 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0,
+            3, 2,
+            0, 1, 1, 1, 1, 2,
+            0, 2, 1, 2, 2, 2, 3, 2
+    );
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+            0, 20, 1, randomizer);
+    dungeonsGame.startGameForPlayer("Player-1");
+    assertEquals(4, dungeonsGame.getRowCount());
+    assertEquals(4, dungeonsGame.getColumnCount());
+    assertEquals("Cell-04", dungeonsGame.getCell(0, 3).getCellName());
+    assertEquals("Cell-10", dungeonsGame.getCell(9).getCellName());
+    assertEquals(3, dungeonsGame.getCellId("Cell-04"));
+    assertEquals(3, dungeonsGame.getPlayerCurrentCellId());
+    dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
+    assertEquals(2, dungeonsGame.getPlayerCurrentCellId());
+  }
+
+  /**
+   * This test is used to show that an unknown cell name is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidCellName() {
+    RandomNumberGenerator randomizer = new RandomNumberGeneratorImpl();
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING,
+            4, 4, 0, 20, 1, randomizer);
+    dungeonsGame.getCellId("Cell-17");
+  }
+
+  /**
+   * This test is used to show that every location gets arrows at full distribution.
+   */
+  @Test
+  public void testFullDistributionPlacement() {
+    RandomNumberGenerator randomizer = new RandomNumberGeneratorImpl();
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.WRAPPING,
+            30, 30, 5, 100, 5, randomizer);
+    for (int cellId = 0; cellId < 30 * 30; cellId++) {
+      assertTrue(dungeonsGame.getCell(cellId).getAvailableArrows().size() > 0);
+    }
+  }
+
+  /**
+   * This test is used to show that monsters need a free cave apart from the start cave.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testMonstersForEveryCaveIncludingStart() {
+    //description of randomizer values
+    // row one and two -> path pick up in kruskal
+    // row three -> start end selection
+    // row four -> treasure values
+    RandomNumberGenerator randomizer = new RandomNumberGeneratorImpl(
+            0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+            3, 0,
+            0, 1, 1, 1, 1, 2
+    );
+    // six caves, one of them is the start cave
+    createGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4, 0, 20, 6, randomizer);
+  }
+
+  /**
+   * This test is used to show that every maze algorithm connects all cells with a spanning
+   * tree when there is no interconnectivity.
+   */
+  @Test
+  public void testEveryMazeAlgorithmConnectsAllCells() {
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING,
+            4, 4, 0, 20, 1, new RandomNumberGeneratorImpl());
+    for (DungeonsGame.MazeAlgorithm mazeAlgorithm : DungeonsGame.MazeAlgorithm.values()) {
+      for (DungeonsGame.WrapType wrapType : DungeonsGame.WrapType.values()) {
+        dungeonsGame.setupNewGame(wrapType, 8, 9, 0, 20, 1, mazeAlgorithm);
+        assertEquals(8 * 9 - 1, countPaths(dungeonsGame));
+        Set<Integer> reached = new HashSet<>();
+        List<Integer> pending = new ArrayList<>();
+        pending.add(0);
+        reached.add(0);
+        while (!pending.isEmpty()) {
+          int cellId = pending.remove(pending.size() - 1);
+          for (DungeonCell neighbour
+                  : dungeonsGame.getCell(cellId).getActualNeighbours().values()) {
+            int neighbourId = dungeonsGame.getCellId(neighbour.getCellName());
+            if (reached.add(neighbourId)) {
+              pending.add(neighbourId);
+            }
+          }
+        }
+        assertEquals(mazeAlgorithm + " " + wrapType, 8 * 9, reached.size());
+      }
+    }
+  }
+
+  /**
+   * This test is used to show that every maze algorithm honours the interconnectivity.
+   */
+  @Test
+  public void testEveryMazeAlgorithmHonoursInterConnectivity() {
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING,
+            4, 4, 0, 20, 1, new RandomNumberGeneratorImpl());
+    for (DungeonsGame.MazeAlgorithm mazeAlgorithm : DungeonsGame.MazeAlgorithm.values()) {
+      dungeonsGame.setupNewGame(DungeonsGame.WrapType.WRAPPING, 6, 6, 4, 20, 1,
+              mazeAlgorithm);
+      assertEquals(6 * 6 - 1 + 4, countPaths(dungeonsGame));
+      // a wrapping 6*6 grid has 72 paths, 37 of them are left over after the spanning tree
+      dungeonsGame.setupNewGame(DungeonsGame.WrapType.WRAPPING, 6, 6, 37, 20, 1,
+              mazeAlgorithm);
+      assertEquals(72, countPaths(dungeonsGame));
+      try {
+        dungeonsGame.setupNewGame(DungeonsGame.WrapType.WRAPPING, 6, 6, 38, 20, 1,
+                mazeAlgorithm);
+        fail("Interconnectivity above the left over paths should not be possible");
+      } catch (IllegalArgumentException exception) {
+        assertEquals("Interconnectivity provided is not possible with the current grid",
+                exception.getMessage());
+      }
+    }
+  }
+
+  /**
+   * This test is used to show that resetting a game generates the paths with the maze
+   * algorithm the game was set up with. Eller's algorithm never carves the wrapping paths
+   * from the last row back to the first row into its spanning tree.
+   */
+  @Test
+  public void testResetKeepsMazeAlgorithm() {
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING,
+            4, 4, 0, 20, 1, new RandomNumberGeneratorImpl());
+    dungeonsGame.setupNewGame(DungeonsGame.WrapType.WRAPPING, 8, 40, 0, 20, 1,
+            DungeonsGame.MazeAlgorithm.ELLER);
+    dungeonsGame.reset();
+    for (int column = 0; column < 40; column++) {
+      assertTrue(dungeonsGame.getCell(0, column).getActualNeighbours()
+              .get(DungeonsGame.Direction.NORTH) == null);
+    }
+    assertEquals(8 * 40 - 1, countPaths(dungeonsGame));
+  }
+
+  /**
+   * This test is used to show that the neighbour of a cell in a direction matches its
+   * neighbour map, leads back through the opposite direction and is one of its potential
+   * neighbours.
+   */
+  @Test
+  public void testNeighboursMatchInBothDirections() {
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.WRAPPING, 5, 6, 4, 20, 1,
+            new RandomNumberGeneratorImpl());
+    DungeonsGame.Direction[] opposites = {DungeonsGame.Direction.SOUTH,
+        DungeonsGame.Direction.NORTH, DungeonsGame.Direction.WEST, DungeonsGame.Direction.EAST};
+    for (int cellId = 0; cellId < 30; cellId++) {
+      DungeonCell cell = dungeonsGame.getCell(cellId);
+      assertEquals(4, cell.getPotentialNeighbours().size());
+      List<DungeonsGame.Direction> exits = new ArrayList<>();
+      for (DungeonsGame.Direction direction : DungeonsGame.Direction.values()) {
+        DungeonCell neighbour = cell.getNeighbour(direction);
+        if (neighbour == null) {
+          assertFalse(cell.getActualNeighbours().containsKey(direction));
+          continue;
+        }
+        exits.add(direction);
+        assertEquals(cell.getActualNeighbours().get(direction).getCellName(),
+                neighbour.getCellName());
+        assertEquals(direction, cell.getPotentialNeighbours().get(neighbour.getCellName()));
+        assertEquals(cell.getCellName(),
+                neighbour.getNeighbour(opposites[direction.ordinal()]).getCellName());
+      }
+      assertEquals(exits, new ArrayList<>(cell.getActualNeighbours().keySet()));
+    }
+  }
+
+
+  /**
+   * This test is used to show that the traversed path of the player data keeps the path as
+   * it was when the data was fetched, matches the moves made over many steps and is read
+   * only.
+   */
+  @Test
+  public void testPlayerPathViewAfterManyMoves() {
+    RandomNumberGeneratorImpl randomizer = new RandomNumberGeneratorImpl();
+    randomizer.setRandomSeed(99);
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.WRAPPING, 6, 8, 6, 20, 1,
+            randomizer);
+    dungeonsGame.startGameForPlayer("Player-1");
+    List<String> expectedPath = new ArrayList<>();
+    expectedPath.add(dungeonsGame.getGameHistory().getLastLocation());
+    PlayerData startData = dungeonsGame.getPlayerInformation();
+    for (int move = 0; move < 150
+            && dungeonsGame.getGameStatus() == DungeonsGame.GameState.PROGRESS; move++) {
+      List<String> movements = dungeonsGame.getAvailableMovements();
+      dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.valueOf(
+              movements.get(move % movements.size())));
+      expectedPath.add(dungeonsGame.getGameHistory().getLastLocation());
+    }
+    List<String> traversedPath = dungeonsGame.getPlayerInformation().getTraversedPath();
+    assertEquals(expectedPath, traversedPath);
+    assertEquals(expectedPath.get(expectedPath.size() - 1),
+            traversedPath.get(traversedPath.size() - 1));
+    assertEquals(expectedPath.get(40), traversedPath.get(40));
+    assertEquals(1, startData.getTraversedPath().size());
+    assertEquals(expectedPath.get(0), startData.getTraversedPath().get(0));
+    for (int cellId = 0; cellId < 6 * 8; cellId++) {
+      String cellName = dungeonsGame.getCell(cellId).getCellName();
+      assertEquals(expectedPath.contains(cellName), traversedPath.contains(cellName));
+      assertEquals(expectedPath.get(0).equals(cellName),
+              startData.getTraversedPath().contains(cellName));
+    }
+    try {
+      traversedPath.add(expectedPath.get(0));
+      fail("Traversed path should be read only");
+    } catch (UnsupportedOperationException exception) {
+      assertEquals(expectedPath.size(), traversedPath.size());
+    }
+  }
+
+
+  /**
+   * This test is used to show that the location info of the player describes the same
+   * location as the cell, smell and movements of the current location along a walk.
+   */
+  @Test
+  public void testPlayerLocationInfoMatchesCurrentLocation() {
+    RandomNumberGeneratorImpl randomizer = new RandomNumberGeneratorImpl();
+    randomizer.setRandomSeed(7);
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 6, 8, 4, 60, 4,
+            randomizer);
+    dungeonsGame.startGameForPlayer("Player-1");
+    for (int move = 0; move < 60
+            && dungeonsGame.getGameStatus() == DungeonsGame.GameState.PROGRESS; move++) {
+      LocationInfo locationInfo = dungeonsGame.getPlayerLocationInfo();
+      DungeonCell currentCell = dungeonsGame.getPlayerCurrentLocation();
+      assertEquals(currentCell.getCellName(), locationInfo.getCellName());
+      assertEquals(dungeonsGame.getPlayerCurrentCellId(), locationInfo.getCellId());
+      assertEquals(currentCell.getCellType(), locationInfo.getCellType());
+      assertEquals(currentCell.getAvailableTreasures(), locationInfo.getTreasures());
+      assertEquals(currentCell.getAvailableArrows().size(), locationInfo.getArrowCount());
+      assertEquals(currentCell.getMonster() != null, locationInfo.hasMonster());
+      assertEquals(dungeonsGame.getCurrentLocationSmell(), locationInfo.getSmell());
+      List<String> movements = new ArrayList<>();
+      for (DungeonsGame.Direction direction : DungeonsGame.Direction.values()) {
+        DungeonCell neighbour = currentCell.getActualNeighbours().get(direction);
+        assertEquals(neighbour != null, locationInfo.hasExit(direction));
+        if (neighbour != null) {
+          assertEquals(neighbour.getCellName(), locationInfo.getNeighbourName(direction));
+          movements.add(direction.toString());
+        }
+      }
+      Collections.sort(movements);
+      assertEquals(dungeonsGame.getAvailableMovements(), movements);
+      if (locationInfo.getArrowCount() > 0) {
+        dungeonsGame.pickUpArrowCurrentLocation();
+        assertTrue(locationInfo.getArrowCount() > 0);
+        assertEquals(0, dungeonsGame.getPlayerLocationInfo().getArrowCount());
+      }
+      dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.valueOf(
+              movements.get(move % movements.size())));
+    }
+  }
+
+  /**
+   * This test is used to show that the treasure and arrow counts of the cells match their
+   * lists, and that picking up moves the whole count to the player.
+   */
+  @Test
+  public void testCellCountsMatchListsAndPickups() {
+    RandomNumberGeneratorImpl randomizer = new RandomNumberGeneratorImpl();
+    randomizer.setRandomSeed(11);
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.WRAPPING, 6, 6, 3, 80, 1,
+            randomizer);
+    for (int cellId = 0; cellId < 36; cellId++) {
+      DungeonCell cell = dungeonsGame.getCell(cellId);
+      for (DungeonsGame.TreasureType treasure : DungeonsGame.TreasureType.values()) {
+        assertEquals(Collections.frequency(cell.getAvailableTreasures(), treasure),
+                cell.getTreasureCount(treasure));
+      }
+      assertEquals(cell.getAvailableArrows().size(), cell.getArrowCount());
+    }
+    dungeonsGame.startGameForPlayer("Player-1");
+    int[] expectedTreasures = new int[DungeonsGame.TreasureType.values().length];
+    int expectedArrows = dungeonsGame.getPlayerInformation().getAcquiredArrows().size();
+    for (int move = 0; move < 80
+            && dungeonsGame.getGameStatus() == DungeonsGame.GameState.PROGRESS; move++) {
+      DungeonCell currentCell = dungeonsGame.getPlayerCurrentLocation();
+      if (!currentCell.getAvailableTreasures().isEmpty()) {
+        for (DungeonsGame.TreasureType treasure : DungeonsGame.TreasureType.values()) {
+          expectedTreasures[treasure.ordinal()] += currentCell.getTreasureCount(treasure);
+        }
+        dungeonsGame.pickUpTreasureCurrentLocation();
+        assertTrue(dungeonsGame.getPlayerCurrentLocation().getAvailableTreasures().isEmpty());
+      }
+      if (currentCell.getArrowCount() > 0) {
+        expectedArrows += currentCell.getArrowCount();
+        dungeonsGame.pickUpArrowCurrentLocation();
+        assertEquals(0, dungeonsGame.getPlayerCurrentLocation().getArrowCount());
+      }
+      PlayerData playerData = dungeonsGame.getPlayerInformation();
+      for (DungeonsGame.TreasureType treasure : DungeonsGame.TreasureType.values()) {
+        Integer acquired = playerData.getAcquiredTreasures().get(treasure);
+        assertEquals(expectedTreasures[treasure.ordinal()], acquired == null ? 0 : acquired);
+      }
+      assertEquals(expectedArrows, playerData.getAcquiredArrows().size());
+      List<String> movements = dungeonsGame.getAvailableMovements();
+      dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.valueOf(
+              movements.get(move % movements.size())));
+    }
+  }
+
+
+  /**
+   * This test is used to show that the grid written to an output matches the grid string,
+   * also after a change to a cell, and that the part around the player only shows the rows
+   * and columns around the player.
+   */
+  @Test
+  public void testRenderGameGrid() throws IOException {
+    RandomNumberGeneratorImpl randomizer = new RandomNumberGeneratorImpl();
+    randomizer.setRandomSeed(11);
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.NON_WRAPPING, 6, 8, 4, 60, 4,
+            randomizer);
+    StringBuilder renderedGrid = new StringBuilder();
+    dungeonsGame.renderGameGrid(renderedGrid);
+    assertEquals(dungeonsGame.getGameGrid(), renderedGrid.toString());
+    dungeonsGame.startGameForPlayer("Player-1");
+    if (dungeonsGame.getPlayerLocationInfo().getArrowCount() == 0) {
+      dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.valueOf(
+              dungeonsGame.getAvailableMovements().get(0)));
+    }
+    if (dungeonsGame.getPlayerLocationInfo().getArrowCount() > 0) {
+      dungeonsGame.pickUpArrowCurrentLocation();
+    }
+    renderedGrid.setLength(0);
+    dungeonsGame.renderGameGrid(renderedGrid);
+    assertEquals(dungeonsGame.getGameGrid(), renderedGrid.toString());
+    assertTrue(renderedGrid.toString().contains("*"
+            + dungeonsGame.getPlayerLocationInfo().getCellName() + "{"));
+    StringBuilder wholeArea = new StringBuilder();
+    dungeonsGame.renderGameGridAroundPlayer(wholeArea, 6, 8);
+    assertEquals(renderedGrid.toString(), wholeArea.toString());
+    StringBuilder playerArea = new StringBuilder();
+    dungeonsGame.renderGameGridAroundPlayer(playerArea, 0, 0);
+    String[] lines = playerArea.toString().split("\n");
+    assertEquals(3, lines.length);
+    assertTrue(lines[1].contains("*" + dungeonsGame.getPlayerLocationInfo().getCellName()));
+    assertEquals(1, lines[1].split("\\{").length - 1);
+  }
+
+  /**
+   * This test is used to show that a fork starts in the state of its game, that playing on
+   * the fork leaves the game unchanged and that the game then plays on exactly like the fork.
+   */
+  @Test
+  public void testForkPlaysIndependently() {
+    RandomNumberGeneratorImpl randomizer = new RandomNumberGeneratorImpl();
+    randomizer.setRandomSeed(23);
+    DungeonsGame dungeonsGame = createGame(DungeonsGame.WrapType.WRAPPING, 8, 8, 4, 70, 2,
+            randomizer);
+    DungeonsGame notStarted = dungeonsGame.fork();
+    assertEquals(DungeonsGame.GameState.NOT_STARTED, notStarted.getGameStatus());
+    assertEquals(dungeonsGame.getGameGrid(), notStarted.getGameGrid());
+    dungeonsGame.startGameForPlayer("Player-1");
+    playScript(dungeonsGame, 6);
+    String grid = dungeonsGame.getGameGrid();
+    List<String> path = new ArrayList<>(dungeonsGame.getPlayerInformation().getTraversedPath());
+    int historySize = dungeonsGame.getGameHistory().size();
+    long modelVersion = dungeonsGame.getModelVersion();
+
+    DungeonsGame fork = dungeonsGame.fork();
+    assertEquals(grid, fork.getGameGrid());
+    assertEquals(path, fork.getPlayerInformation().getTraversedPath());
+    assertEquals(historySize, fork.getGameHistory().size());
+    assertEquals(modelVersion, fork.getModelVersion());
+    assertEquals(dungeonsGame.getGameStatus(), fork.getGameStatus());
+    List<String> forkOutcomes = playScript(fork, 40);
+    assertTrue(fork.getGameHistory().size() > historySize);
+    // the game has not seen any of the moves of the fork
+    assertEquals(grid, dungeonsGame.getGameGrid());
+    assertEquals(path, dungeonsGame.getPlayerInformation().getTraversedPath());
+    assertEquals(historySize, dungeonsGame.getGameHistory().size());
+    assertEquals(modelVersion, dungeonsGame.getModelVersion());
+    assertEquals(DungeonsGame.GameState.NOT_STARTED, notStarted.getGameStatus());
+
+    DungeonsGame forkOfFork = fork.fork();
+    assertEquals(forkOutcomes, playScript(dungeonsGame, 40));
+    assertEquals(fork.getGameGrid(), dungeonsGame.getGameGrid());
+    assertEquals(fork.getGameStatus(), dungeonsGame.getGameStatus());
+    assertEquals(fork.getPlayerInformation().getTraversedPath(),
+            dungeonsGame.getPlayerInformation().getTraversedPath());
+    assertEquals(fork.getPlayerInformation().getAcquiredTreasures(),
+            dungeonsGame.getPlayerInformation().getAcquiredTreasures());
+    assertEquals(fork.getPlayerInformation().getAcquiredArrows(),
+            dungeonsGame.getPlayerInformation().getAcquiredArrows());
+    IGameHistory forkHistory = fork.getGameHistory();
+    IGameHistory gameHistory = dungeonsGame.getGameHistory();
+    assertEquals(forkHistory.size(), gameHistory.size());
+    for (int index = 0; index < gameHistory.size(); index++) {
+      assertEquals(forkHistory.getEventFromHistory(index),
+              gameHistory.getEventFromHistory(index));
+      assertEquals(forkHistory.getLocationFromHistory(index),
+              gameHistory.getLocationFromHistory(index));
+    }
+    assertEquals(fork.getGameGrid(), forkOfFork.getGameGrid());
+    assertEquals(fork.getModelVersion(), forkOfFork.getModelVersion());
+  }
+
+  private List<String> playScript(DungeonsGame dungeonsGame, int stepCount) {
+    List<String> outcomes = new ArrayList<>();
+    for (int step = 0; step < stepCount
+            && dungeonsGame.getGameStatus() == DungeonsGame.GameState.PROGRESS; step++) {
+      DungeonCell currentCell = dungeonsGame.getPlayerCurrentLocation();
+      if (!currentCell.getAvailableTreasures().isEmpty()) {
+        dungeonsGame.pickUpTreasureCurrentLocation();
+      }
+      if (currentCell.getArrowCount() > 0) {
+        dungeonsGame.pickUpArrowCurrentLocation();
+      }
+      List<String> movements = dungeonsGame.getAvailableMovements();
+      DungeonsGame.Direction direction = DungeonsGame.Direction.valueOf(
+              movements.get(step % movements.size()));
+      if (step % 3 == 0 && dungeonsGame.getPlayerInformation().getAcquiredArrows().size() > 0) {
+        outcomes.add(dungeonsGame.shootArrowForPlayer(direction, 1 + step % 2).toString());
+      }
+      outcomes.add(dungeonsGame.movePlayerToLocation(direction).toString());
+      outcomes.add(dungeonsGame.getCurrentLocationSmell().toString());
+    }
+    return outcomes;
+  }
+
+  private int countPaths(DungeonsGame dungeonsGame) {
+    int exitCount = 0;
+    for (int cellId = 0; cellId < dungeonsGame.getRowCount() * dungeonsGame.getColumnCount();
+         cellId++) {
+      exitCount += dungeonsGame.getCell(cellId).getActualNeighbours().size();
+    }
+    return exitCount / 2;
+  }
+}
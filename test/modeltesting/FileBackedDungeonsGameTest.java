@@ -0,0 +1,169 @@
+package modeltesting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import game.model.CompactDungeonsGame;
+import game.model.DungeonSnapshot;
+import game.model.DungeonsGame;
+import game.model.RandomNumberGenerator;
+import game.model.RandomNumberGeneratorImpl;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is used to run all the dungeon game tests against the compact game model backed
+ * by a memory mapped file and to check that a stored dungeon can be opened again.
+ */
+public class FileBackedDungeonsGameTest extends DungeonsGameTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Override
+  protected DungeonsGame createGame(DungeonsGame.WrapType wrapType, int rowCount,
+                                    int columnCount, int interConnectivity,
+                                    int distributionPercent, int monsterCount,
+                                    RandomNumberGenerator randomizer) {
+    try {
+      return CompactDungeonsGame.createFileBacked(folder.newFile().toPath(), wrapType,
+              rowCount, columnCount, interConnectivity, distributionPercent, monsterCount,
+              randomizer);
+    } catch (IOException exception) {
+      throw new IllegalStateException("Storage file could not be created", exception);
+    }
+  }
+
+  /**
+   * This test is used to show that a stored dungeon opens with all changes made while playing.
+   */
+  @Test
+  public void testReopenKeepsCellState() throws IOException {
+    Path storageFile = folder.newFile().toPath();
+    CompactDungeonsGame dungeonsGame = CompactDungeonsGame.createFileBacked(storageFile,
+            DungeonsGame.WrapType.WRAPPING, 4, 4, 2, 100, 2, new RandomNumberGeneratorImpl());
+    dungeonsGame.startGameForPlayer("Player");
+    dungeonsGame.pickUpArrowCurrentLocation();
+    int startCellId = dungeonsGame.getPlayerCurrentCellId();
+    dungeonsGame.flush();
+    CompactDungeonsGame reopenedGame = CompactDungeonsGame.openFileBacked(storageFile);
+    assertEquals(DungeonsGame.GameState.NOT_STARTED, reopenedGame.getGameStatus());
+    assertTrue(reopenedGame.getCell(startCellId).getAvailableArrows().isEmpty());
+    reopenedGame.startGameForPlayer("Player");
+    assertEquals(dungeonsGame.getGameGrid(), reopenedGame.getGameGrid());
+  }
+
+  /**
+   * This test is used to show that snapshots and forks of a file backed game keep the cells
+   * they were taken with while the game changes the file in place.
+   */
+  @Test
+  public void testSnapshotsKeepStateWhileFileChanges() throws IOException {
+    RandomNumberGeneratorImpl randomizer = new RandomNumberGeneratorImpl();
+    randomizer.setRandomSeed(7);
+    CompactDungeonsGame dungeonsGame = CompactDungeonsGame.createFileBacked(
+            folder.newFile().toPath(), DungeonsGame.WrapType.WRAPPING, 16, 16, 6, 100, 1,
+            randomizer);
+    dungeonsGame.startGameForPlayer("Player");
+    List<DungeonSnapshot> snapshots = new ArrayList<>();
+    List<String> cells = new ArrayList<>();
+    DungeonsGame fork = null;
+    String forkGrid = null;
+    for (int step = 0; step < 40
+            && dungeonsGame.getGameStatus() == DungeonsGame.GameState.PROGRESS; step++) {
+      snapshots.add(dungeonsGame.getSnapshot());
+      cells.add(describeCells(dungeonsGame.getSnapshot()));
+      if (step == 10) {
+        fork = dungeonsGame.fork();
+        forkGrid = fork.getGameGrid();
+      }
+      if (dungeonsGame.getPlayerCurrentLocation().getArrowCount() > 0) {
+        dungeonsGame.pickUpArrowCurrentLocation();
+      }
+      if (!dungeonsGame.getPlayerCurrentLocation().getAvailableTreasures().isEmpty()) {
+        dungeonsGame.pickUpTreasureCurrentLocation();
+      }
+      List<String> movements = dungeonsGame.getAvailableMovements();
+      dungeonsGame.movePlayerToLocation(
+              DungeonsGame.Direction.valueOf(movements.get(step % movements.size())));
+    }
+    assertTrue(snapshots.size() > 10);
+    assertNotEquals(cells.get(0), describeCells(dungeonsGame.getSnapshot()));
+    for (int index = 0; index < snapshots.size(); index++) {
+      assertEquals(cells.get(index), describeCells(snapshots.get(index)));
+    }
+    assertEquals(forkGrid, fork.getGameGrid());
+  }
+
+  /**
+   * This test is used to show that a reset of an opened game generates the same dungeon as
+   * a reset of the game which stored it, with the same maze algorithm.
+   */
+  @Test
+  public void testReopenedGameResetsToSameDungeon() throws IOException {
+    Path storageFile = folder.newFile().toPath();
+    CompactDungeonsGame dungeonsGame = CompactDungeonsGame.createFileBacked(storageFile,
+            DungeonsGame.WrapType.WRAPPING, 6, 6, 2, 50, 2, new RandomNumberGeneratorImpl());
+    dungeonsGame.setupNewGame(DungeonsGame.WrapType.NON_WRAPPING, 7, 5, 1, 40, 1,
+            DungeonsGame.MazeAlgorithm.WILSON);
+    CompactDungeonsGame reopenedGame = CompactDungeonsGame.openFileBacked(storageFile);
+    dungeonsGame.reset();
+    reopenedGame.reset();
+    dungeonsGame.startGameForPlayer("Player");
+    reopenedGame.startGameForPlayer("Player");
+    assertEquals(dungeonsGame.getGameGrid(), reopenedGame.getGameGrid());
+    assertEquals(dungeonsGame.getPlayerCurrentLocationInformation(),
+            reopenedGame.getPlayerCurrentLocationInformation());
+  }
+
+  /**
+   * This test is used to show that a fork and a snapshot keep their dungeon when the game
+   * sets up a new one in the same storage file.
+   */
+  @Test
+  public void testForkKeepsDungeonAfterNewGame() throws IOException {
+    CompactDungeonsGame dungeonsGame = CompactDungeonsGame.createFileBacked(
+            folder.newFile().toPath(), DungeonsGame.WrapType.WRAPPING, 8, 8, 3, 100, 2,
+            new RandomNumberGeneratorImpl());
+    dungeonsGame.startGameForPlayer("Player");
+    DungeonsGame fork = dungeonsGame.fork();
+    DungeonSnapshot snapshot = dungeonsGame.getSnapshot();
+    String forkGrid = fork.getGameGrid();
+    String snapshotCells = describeCells(snapshot);
+    String forkLocation = fork.getPlayerCurrentLocationInformation();
+    dungeonsGame.setupNewGame(DungeonsGame.WrapType.WRAPPING, 8, 8, 3, 0, 2);
+    dungeonsGame.startGameForPlayer("Player");
+    assertEquals(forkGrid, fork.getGameGrid());
+    assertEquals(forkLocation, fork.getPlayerCurrentLocationInformation());
+    assertEquals(snapshotCells, describeCells(snapshot));
+    assertNotEquals(snapshotCells, describeCells(dungeonsGame.getSnapshot()));
+  }
+
+  private String describeCells(DungeonSnapshot snapshot) {
+    StringBuilder description = new StringBuilder();
+    for (int cellId = 0; cellId < snapshot.getRowCount() * snapshot.getColumnCount();
+         cellId++) {
+      description.append(snapshot.getCell(cellId).getArrowCount()).append(',')
+              .append(snapshot.getCell(cellId).getAvailableTreasures()).append(';');
+    }
+    return description.toString();
+  }
+
+  /**
+   * This test is used to show that a file which is not a stored dungeon is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testOpenInvalidFile() throws IOException {
+    Path storageFile = folder.newFile().toPath();
+    Files.write(storageFile, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+    CompactDungeonsGame.openFileBacked(storageFile);
+  }
+}
@@ -0,0 +1,152 @@
+package modeltesting;
+
+import static org.junit.Assert.assertEquals;
+
+import game.model.DungeonCell;
+import game.model.DungeonsGame;
+import game.model.DungeonsGameImpl;
+import game.model.GameReplay;
+import game.model.IGameHistory;
+import game.model.PlayerData;
+import game.model.RandomNumberGeneratorImpl;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This class is used to test that a game rebuilt from its history by the replay matches the
+ * recorded game after every turn.
+ */
+public class GameReplayTest {
+
+  private static final int SEED = 1234;
+  private static final String PLAYER_NAME = "Player-1";
+
+  private DungeonsGame createRecordedGame() {
+    RandomNumberGeneratorImpl randomizer = new RandomNumberGeneratorImpl();
+    randomizer.setRandomSeed(SEED);
+    return new DungeonsGameImpl(DungeonsGame.WrapType.WRAPPING, 6, 8, 4, 60, 6,
+            DungeonsGame.MazeAlgorithm.KRUSKAL, randomizer);
+  }
+
+  /**
+   * This function is used to play random turns on the game and to describe the game after
+   * every turn, starting with the game before the first turn.
+   */
+  private List<String> playRandomTurns(DungeonsGame dungeonsGame, int turnCount) {
+    Random turnRandom = new Random(7);
+    DungeonsGame.Direction[] directions = DungeonsGame.Direction.values();
+    List<String> descriptions = new ArrayList<>();
+    descriptions.add(describe(dungeonsGame));
+    dungeonsGame.startGameForPlayer(PLAYER_NAME);
+    descriptions.add(describe(dungeonsGame));
+    while (descriptions.size() <= turnCount
+            && dungeonsGame.getGameStatus() == DungeonsGame.GameState.PROGRESS) {
+      int action = turnRandom.nextInt(4);
+      try {
+        if (action == 0) {
+          List<String> movements = dungeonsGame.getAvailableMovements();
+          dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.valueOf(
+                  movements.get(turnRandom.nextInt(movements.size()))));
+        } else if (action == 1) {
+          dungeonsGame.shootArrowForPlayer(directions[turnRandom.nextInt(directions.length)],
+                  turnRandom.nextInt(4));
+        } else if (action == 2) {
+          dungeonsGame.pickUpTreasureCurrentLocation();
+        } else {
+          dungeonsGame.pickUpArrowCurrentLocation();
+        }
+      } catch (IllegalStateException exception) {
+        // nothing to pick up or no arrow left, which is not a turn
+        continue;
+      }
+      descriptions.add(describe(dungeonsGame));
+    }
+    return descriptions;
+  }
+
+  private String describe(DungeonsGame dungeonsGame) {
+    StringBuilder description = new StringBuilder();
+    description.append(dungeonsGame.getGameStatus()).append(' ')
+            .append(dungeonsGame.getGameHistory().size());
+    if (dungeonsGame.getGameStatus() != DungeonsGame.GameState.NOT_STARTED) {
+      PlayerData player = dungeonsGame.getPlayerInformation();
+      description.append(' ').append(player.getTraversedPath())
+              .append(player.getAcquiredTreasures()).append(player.getAcquiredArrows().size());
+    }
+    for (List<DungeonCell> rowCells : dungeonsGame.getDungeonCells()) {
+      for (DungeonCell cell : rowCells) {
+        description.append(cell.getAvailableTreasures()).append(cell.getAvailableArrows().size())
+                .append(cell.getMonster() == null ? "" : cell.getMonster().getHealth());
+      }
+    }
+    return description.toString();
+  }
+
+  /**
+   * This test is used to show that seeking to any turn gives the game as it was after that
+   * turn, for checkpoints taken every few turns.
+   */
+  @Test
+  public void testSeekMatchesRecordedGame() {
+    DungeonsGame recordedGame = createRecordedGame();
+    List<String> descriptions = playRandomTurns(recordedGame, 200);
+    GameReplay replay = new GameReplay(DungeonsGame.WrapType.WRAPPING, 6, 8, 4, 60, 6,
+            DungeonsGame.MazeAlgorithm.KRUSKAL, SEED, PLAYER_NAME,
+            recordedGame.getGameHistory(), 16);
+    assertEquals(descriptions.size() - 1, replay.getTurnCount());
+    for (int turn = replay.getTurnCount(); turn >= 0; turn--) {
+      assertEquals(descriptions.get(turn), describe(replay.seek(turn)));
+    }
+  }
+
+  /**
+   * This test is used to show that a game reached by seeking can be played on without
+   * changing the replay.
+   */
+  @Test
+  public void testSeekReturnsIndependentGames() {
+    DungeonsGame recordedGame = createRecordedGame();
+    List<String> descriptions = playRandomTurns(recordedGame, 60);
+    GameReplay replay = new GameReplay(DungeonsGame.WrapType.WRAPPING, 6, 8, 4, 60, 6,
+            DungeonsGame.MazeAlgorithm.KRUSKAL, SEED, PLAYER_NAME,
+            recordedGame.getGameHistory(), 8);
+    DungeonsGame seekedGame = replay.seek(20);
+    for (int move = 0; move < 10
+            && seekedGame.getGameStatus() == DungeonsGame.GameState.PROGRESS; move++) {
+      seekedGame.movePlayerToLocation(DungeonsGame.Direction.valueOf(
+              seekedGame.getAvailableMovements().get(0)));
+    }
+    assertEquals(descriptions.get(20), describe(replay.seek(20)));
+    assertEquals(descriptions.get(descriptions.size() - 1),
+            describe(replay.seek(replay.getTurnCount())));
+  }
+
+  /**
+   * This test is used to show that fast forwarding ends in the state of the recorded game.
+   */
+  @Test
+  public void testFastForwardMatchesRecordedGame() {
+    DungeonsGame recordedGame = createRecordedGame();
+    List<String> descriptions = playRandomTurns(recordedGame, 500);
+    DungeonsGame replayedGame = GameReplay.fastForward(DungeonsGame.WrapType.WRAPPING, 6, 8,
+            4, 60, 6, DungeonsGame.MazeAlgorithm.KRUSKAL, SEED, PLAYER_NAME,
+            recordedGame.getGameHistory());
+    assertEquals(descriptions.get(descriptions.size() - 1), describe(replayedGame));
+  }
+
+  /**
+   * This test is used to show that a history which does not belong to the dungeon of the
+   * seed is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testReplayRejectsHistoryOfOtherDungeon() {
+    DungeonsGame recordedGame = createRecordedGame();
+    playRandomTurns(recordedGame, 100);
+    IGameHistory recordedHistory = recordedGame.getGameHistory();
+    new GameReplay(DungeonsGame.WrapType.WRAPPING, 6, 8, 4, 60, 6,
+            DungeonsGame.MazeAlgorithm.KRUSKAL, SEED + 1, PLAYER_NAME, recordedHistory, 16);
+  }
+}
@@ -0,0 +1,77 @@
+package modeltesting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import game.model.IndexSampler;
+import game.model.RandomNumberGenerator;
+import game.model.RandomNumberGeneratorImpl;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * This class is used to test the sampling of indexes without replacement, which places the
+ * treasure, the monsters and the arrows of a dungeon.
+ */
+public class IndexSamplerTest {
+
+  /**
+   * This test is used to show that selecting indexes gives distinct indexes in range.
+   */
+  @Test
+  public void testSelectIndexesWithoutReplacement() {
+    RandomNumberGenerator randomizer = new RandomNumberGeneratorImpl();
+    int[] selectedIndexes = randomizer.selectIndexes(1000, 1000);
+    Set<Integer> uniqueIndexes = new HashSet<>();
+    for (int index : selectedIndexes) {
+      assertTrue(index >= 0 && index < 1000);
+      uniqueIndexes.add(index);
+    }
+    assertEquals(1000, uniqueIndexes.size());
+  }
+
+  /**
+   * This test is used to show that an index sampler follows the partial Fisher-Yates order.
+   */
+  @Test
+  public void testIndexSamplerPartialShuffle() {
+    RandomNumberGenerator randomizer = new RandomNumberGeneratorImpl(0, 0, 1, 0);
+    IndexSampler sampler = randomizer.createIndexSampler(5);
+    assertTrue(sampler.exclude(1));
+    // position 1 now holds the last index
+    assertEquals(0, sampler.next());
+    assertEquals(3, sampler.next());
+    assertEquals(4, sampler.next());
+    assertEquals(1, sampler.remaining());
+    assertEquals(2, sampler.next());
+  }
+
+  /**
+   * This test is used to show that a population too large to be kept in arrays is drawn
+   * completely without repeating an index.
+   */
+  @Test
+  public void testIndexSamplerLargePopulation() {
+    RandomNumberGeneratorImpl randomizer = new RandomNumberGeneratorImpl();
+    randomizer.setRandomSeed(11);
+    IndexSampler sampler = randomizer.createIndexSampler(40000);
+    assertTrue(sampler.exclude(7));
+    assertFalse(sampler.exclude(7));
+    assertFalse(sampler.exclude(40000));
+    assertFalse(sampler.exclude(-1));
+    Set<Integer> uniqueIndexes = new HashSet<>();
+    while (sampler.remaining() > 0) {
+      int index = sampler.next();
+      assertTrue(index >= 0 && index < 40000 && index != 7);
+      assertTrue(uniqueIndexes.add(index));
+      if (uniqueIndexes.size() == 100) {
+        // an index which has been drawn cannot be excluded anymore
+        assertFalse(sampler.exclude(index));
+      }
+    }
+    assertEquals(39999, uniqueIndexes.size());
+  }
+}
@@ -0,0 +1,123 @@
+package modeltesting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import game.model.CompactDungeonsGame;
+import game.model.DungeonsGame;
+import game.model.DungeonsGameImpl;
+import game.model.IGameHistory;
+import game.model.IHistoryCursor;
+import game.model.PackedGameHistory;
+import game.model.RandomNumberGenerator;
+import game.model.RandomNumberGeneratorImpl;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is used to test the packed game history: its export format, the names it takes
+ * and the views and cursors the games give out on it.
+ */
+public class PackedGameHistoryTest {
+
+  /**
+   * This test is used to show that a history view keeps its events while the game goes on
+   * and that a cursor only reads the events added after its offset.
+   */
+  @Test
+  public void testHistoryViewAndCursor() {
+    checkHistoryViewAndCursor(new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+            0, 20, 2, createRandomizer()));
+    checkHistoryViewAndCursor(new CompactDungeonsGame(DungeonsGame.WrapType.NON_WRAPPING, 4, 4,
+            0, 20, 2, DungeonsGame.MazeAlgorithm.KRUSKAL, createRandomizer()));
+  }
+
+  private static RandomNumberGenerator createRandomizer() {
+    return new RandomNumberGeneratorImpl(
+            0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+            3, 0,
+            0, 1, 1, 1, 1, 2,
+            0,
+            0, 2, 1, 2, 2, 2, 3, 2
+    );
+  }
+
+  private static void checkHistoryViewAndCursor(DungeonsGame dungeonsGame) {
+    dungeonsGame.startGameForPlayer("Player-1");
+    IGameHistory startHistory = dungeonsGame.getGameHistory();
+    assertEquals(1, startHistory.size());
+    assertEquals(DungeonsGame.GameEvents.MOVE, startHistory.getLastEvent());
+    assertEquals("Cell-04", startHistory.getLastLocation());
+    dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
+    dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
+    dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.WEST);
+    dungeonsGame.pickUpArrowCurrentLocation();
+    assertEquals(1, startHistory.size());
+    IGameHistory history = dungeonsGame.getGameHistory();
+    assertEquals(5, history.size());
+    assertEquals(DungeonsGame.GameEvents.ARROW_PICKUP, history.getLastEvent());
+    assertEquals("Cell-01", history.getLastLocation());
+    IHistoryCursor historyCursor = history.cursor(startHistory.size());
+    List<String> movedCells = new ArrayList<>();
+    while (historyCursor.hasNext()) {
+      if (historyCursor.next() == DungeonsGame.GameEvents.MOVE) {
+        movedCells.add(historyCursor.getLocation());
+      }
+    }
+    assertEquals(List.of("Cell-03", "Cell-02", "Cell-01"), movedCells);
+    assertEquals(history.size(), historyCursor.getOffset());
+    dungeonsGame.movePlayerToLocation(DungeonsGame.Direction.SOUTH);
+    historyCursor = dungeonsGame.getGameHistory().cursor(historyCursor.getOffset());
+    assertEquals(DungeonsGame.GameEvents.MOVE, historyCursor.next());
+    assertEquals("Cell-05", historyCursor.getLocation());
+    assertFalse(historyCursor.hasNext());
+  }
+
+  /**
+   * This test is used to show that an exported history reads back with the same entries and
+   * takes about one byte per entry.
+   */
+  @Test
+  public void testPackedHistoryExportRoundTrip() throws IOException {
+    PackedGameHistory history = new PackedGameHistory(DungeonsGame.WrapType.WRAPPING, 10, 10,
+            true);
+    DungeonsGame.GameEvents[] events = DungeonsGame.GameEvents.values();
+    for (int index = 0; index < 10000; index++) {
+      history.addToHistory(events[index % events.length],
+              String.format("Cell-%02d", (index * 7) % 100 + 1));
+    }
+    IGameHistory view = history.getReadOnlyView();
+    history.clear();
+    assertEquals(0, history.size());
+    assertEquals(10000, view.size());
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ((PackedGameHistory) view).export(output);
+    assertTrue(output.size() < 10000 * 3);
+    PackedGameHistory readHistory = PackedGameHistory.read(
+            new ByteArrayInputStream(output.toByteArray()));
+    assertTrue(readHistory.hasTimestamps());
+    assertEquals(view.size(), readHistory.size());
+    for (int index = 0; index < view.size(); index++) {
+      assertEquals(view.getEventFromHistory(index), readHistory.getEventFromHistory(index));
+      assertEquals(view.getLocationFromHistory(index), readHistory.getLocationFromHistory(index));
+      assertEquals(((PackedGameHistory) view).getTimestampFromHistory(index),
+              readHistory.getTimestampFromHistory(index));
+    }
+  }
+
+  /**
+   * This test is used to show that a packed history only takes the names of its own grid.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testPackedHistoryRejectsUnknownCell() {
+    new PackedGameHistory(DungeonsGame.WrapType.NON_WRAPPING, 2, 2, false)
+            .addToHistory(DungeonsGame.GameEvents.MOVE, "Cell-05");
+  }
+}
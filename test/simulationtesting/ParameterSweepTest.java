@@ -0,0 +1,136 @@
+package simulationtesting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import game.model.DungeonCell;
+import game.model.DungeonMetrics;
+import game.model.DungeonsGame;
+import game.model.DungeonsGameImpl;
+import game.model.RandomNumberGeneratorImpl;
+import game.simulation.GameConfiguration;
+import game.simulation.ParameterSweep;
+import game.simulation.RunningStatistics;
+import game.simulation.SweepResult;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * This class is used to test the difficulty metrics, the running statistics and the
+ * parameter sweep.
+ */
+public class ParameterSweepTest {
+
+  /**
+   * This test is used to show that the running statistics match the statistics of the
+   * values, also when they are collected in parts and merged.
+   */
+  @Test
+  public void testRunningStatistics() {
+    RunningStatistics statistics = new RunningStatistics(0, 10, 10);
+    RunningStatistics firstPart = new RunningStatistics(0, 10, 10);
+    RunningStatistics secondPart = new RunningStatistics(0, 10, 10);
+    int[] values = {4, 1, 7, 7, 2, 9, 0, 3, 7, 5};
+    for (int index = 0; index < values.length; index++) {
+      statistics.add(values[index]);
+      (index < 3 ? firstPart : secondPart).add(values[index]);
+    }
+    firstPart.merge(secondPart);
+    for (RunningStatistics result : new RunningStatistics[] {statistics, firstPart}) {
+      assertEquals(10, result.getCount());
+      assertEquals(4.5, result.getMean(), 1e-9);
+      assertEquals(8.05, result.getVariance(), 1e-9);
+      assertEquals(0, result.getMinimum(), 0);
+      assertEquals(9, result.getMaximum(), 0);
+      assertEquals(4, result.getPercentile(0.5), 0);
+      assertEquals(7, result.getPercentile(0.9), 0);
+      assertEquals(0, result.getPercentile(0), 0);
+      assertEquals(9, result.getPercentile(1), 0);
+    }
+  }
+
+  /**
+   * This test is used to show that statistics with other bins cannot be merged.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testMergeStatisticsWithOtherBins() {
+    new RunningStatistics(0, 10, 10).merge(new RunningStatistics(0, 10, 5));
+  }
+
+  /**
+   * This test is used to show that the metrics of a generated dungeon are consistent with
+   * its cells.
+   */
+  @Test
+  public void testDungeonMetrics() {
+    for (int seed = 0; seed < 20; seed++) {
+      RandomNumberGeneratorImpl randomizer = new RandomNumberGeneratorImpl();
+      randomizer.setRandomSeed(seed);
+      DungeonsGameImpl game = new DungeonsGameImpl(DungeonsGame.WrapType.NON_WRAPPING, 6, 7,
+              3, 50, 4, randomizer);
+      DungeonMetrics metrics = DungeonMetrics.measure(game);
+      int tunnelCount = 0;
+      for (int cellId = 0; cellId < 42; cellId++) {
+        if (game.getCell(cellId).getCellType() == DungeonCell.CellType.TUNNEL) {
+          tunnelCount++;
+        }
+      }
+      assertEquals(tunnelCount / 42.0, metrics.getTunnelRatio(), 1e-9);
+      // start and end are at least five moves apart and the end cave has a monster
+      assertTrue(metrics.getPathLength() >= 5);
+      assertTrue(metrics.getMonstersOnPath() >= 1);
+      assertTrue(metrics.getMonstersOnPath() <= 4);
+      game.startGameForPlayer("Player-1");
+      assertTrue(metrics.getArrowsBeforeMonster()
+              >= game.getPlayerCurrentLocation().getArrowCount());
+    }
+  }
+
+  /**
+   * This test is used to show that a sweep measures every combination of the parameters on
+   * the same seeds, whatever the number of threads.
+   */
+  @Test
+  public void testSweepOverGrid() {
+    List<GameConfiguration> configurations = ParameterSweep.cartesianGrid(
+            DungeonsGame.WrapType.WRAPPING, new int[][] {{5, 5}, {6, 8}}, new int[] {0, 4},
+            new int[] {20}, new int[] {1, 3}, DungeonsGame.MazeAlgorithm.KRUSKAL);
+    assertEquals(8, configurations.size());
+    assertEquals(8, configurations.get(7).getColumnCount());
+    assertEquals(4, configurations.get(7).getInterConnectivity());
+    assertEquals(3, configurations.get(7).getMonsterCount());
+    List<SweepResult> single = new ParameterSweep(1).run(configurations, 11, 60);
+    List<SweepResult> parallel = new ParameterSweep(3).run(configurations, 11, 60);
+    assertEquals(8, single.size());
+    for (int index = 0; index < configurations.size(); index++) {
+      SweepResult expected = single.get(index);
+      SweepResult actual = parallel.get(index);
+      assertEquals(configurations.get(index), actual.getConfiguration());
+      assertEquals(60, actual.getDungeonCount());
+      assertEquals(0, actual.getRejectedDungeons());
+      assertEquals(expected.getPathLength().getMean(), actual.getPathLength().getMean(), 1e-9);
+      assertEquals(expected.getPathLength().getVariance(),
+              actual.getPathLength().getVariance(), 1e-9);
+      assertEquals(expected.getTunnelRatio().getPercentile(0.5),
+              actual.getTunnelRatio().getPercentile(0.5), 0);
+      assertEquals(expected.getMonstersOnPath().getPercentile(0.9),
+              actual.getMonstersOnPath().getPercentile(0.9), 0);
+      assertEquals(expected.getArrowsBeforeMonster().getMaximum(),
+              actual.getArrowsBeforeMonster().getMaximum(), 0);
+    }
+  }
+
+  /**
+   * This test is used to show that dungeons the game model cannot generate are counted.
+   */
+  @Test
+  public void testRejectedDungeonsCounted() {
+    List<GameConfiguration> configurations = ParameterSweep.cartesianGrid(
+            DungeonsGame.WrapType.NON_WRAPPING, new int[][] {{4, 4}}, new int[] {0},
+            new int[] {20}, new int[] {40}, DungeonsGame.MazeAlgorithm.KRUSKAL);
+    SweepResult result = new ParameterSweep(2).run(configurations, 0, 10).get(0);
+    assertEquals(0, result.getDungeonCount());
+    assertEquals(10, result.getRejectedDungeons());
+  }
+}
@@ -0,0 +1,107 @@
+package simulationtesting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import game.model.DungeonsGame;
+import game.simulation.BotAction;
+import game.simulation.GameConfiguration;
+import game.simulation.ISimulationResult;
+import game.simulation.RandomWalkBot;
+import game.simulation.SimulationRunner;
+import org.junit.Test;
+
+/**
+ * This class is used to test the headless simulation runner.
+ */
+public class SimulationRunnerTest {
+
+  private static final GameConfiguration CONFIGURATION = new GameConfiguration(
+          DungeonsGame.WrapType.NON_WRAPPING, 6, 6, 2, 40, 3, DungeonsGame.MazeAlgorithm.KRUSKAL);
+
+  /**
+   * This test is used to show that every game ends up won, eaten or unfinished and that the
+   * totals stay within what the games could have played.
+   */
+  @Test
+  public void testTotalsAddUp() {
+    ISimulationResult result = new SimulationRunner(2).run(CONFIGURATION, 100, 300,
+            new RandomWalkBot(), 200);
+    assertEquals(300, result.getGameCount());
+    assertEquals(300, result.getGamesWon() + result.getGamesEaten()
+            + result.getGamesRejected() + result.getGamesUnfinished());
+    assertEquals(0, result.getGamesRejected());
+    assertTrue(result.getGamesWon() > 0);
+    assertTrue(result.getGamesEaten() > 0);
+    assertTrue(result.getTotalTurns() >= 300);
+    assertTrue(result.getTotalTurns() <= 300 * 200);
+    assertTrue(result.getTotalTreasure() > 0);
+    assertTrue(result.getTotalArrowsUsed() > 0);
+    assertEquals(0, result.getInvalidActions());
+    assertTrue(result.getGamesPerSecond() > 0);
+  }
+
+  /**
+   * This test is used to show that the totals of a seed range do not depend on the number of
+   * threads playing the games.
+   */
+  @Test
+  public void testSameTotalsForAnyNumberOfThreads() {
+    ISimulationResult single = new SimulationRunner(1).run(CONFIGURATION, 7, 200,
+            new RandomWalkBot(), 100);
+    ISimulationResult parallel = new SimulationRunner(4).run(CONFIGURATION, 7, 200,
+            new RandomWalkBot(), 100);
+    assertEquals(single.getGamesWon(), parallel.getGamesWon());
+    assertEquals(single.getGamesEaten(), parallel.getGamesEaten());
+    assertEquals(single.getTotalTurns(), parallel.getTotalTurns());
+    assertEquals(single.getTotalTreasure(), parallel.getTotalTreasure());
+    assertEquals(single.getTotalArrowsUsed(), parallel.getTotalArrowsUsed());
+  }
+
+  /**
+   * This test is used to show that turns rejected by the model are counted and do not stop
+   * the games.
+   */
+  @Test
+  public void testRejectedTurnsCounted() {
+    // the player starts with three arrows, every shot after that is rejected
+    ISimulationResult result = new SimulationRunner(2).run(CONFIGURATION, 0, 50,
+        (game, randomizer) -> BotAction.shoot(DungeonsGame.Direction.NORTH, 1), 5);
+    assertEquals(50, result.getGamesUnfinished());
+    assertEquals(50 * 5, result.getTotalTurns());
+    assertEquals(50 * 5, result.getTotalArrowsUsed() + result.getInvalidActions());
+    assertTrue(result.getTotalArrowsUsed() <= 50 * 3);
+  }
+
+  /**
+   * This test is used to show that games the game model cannot generate are counted and do
+   * not stop the other games.
+   */
+  @Test
+  public void testRejectedGamesCounted() {
+    GameConfiguration configuration = new GameConfiguration(DungeonsGame.WrapType.NON_WRAPPING,
+            4, 4, 0, 20, 40, DungeonsGame.MazeAlgorithm.KRUSKAL);
+    ISimulationResult result = new SimulationRunner(2).run(configuration, 0, 10,
+            new RandomWalkBot(), 10);
+    assertEquals(10, result.getGameCount());
+    assertEquals(10, result.getGamesRejected());
+    assertEquals(0, result.getGamesUnfinished());
+    assertEquals(0, result.getTotalTurns());
+  }
+
+  /**
+   * This test is used to show that no games can be played without a bot.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testRunWithoutBot() {
+    new SimulationRunner().run(CONFIGURATION, 0, 10, null, 10);
+  }
+
+  /**
+   * This test is used to show that a runner needs at least one thread.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testRunnerWithoutThreads() {
+    new SimulationRunner(0);
+  }
+}